@@ -21,12 +21,18 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.grad.eNav.atonService.components.DatasetContentLogWriter;
 import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
 import org.grad.eNav.atonService.models.enums.DatasetOperation;
 import org.grad.eNav.atonService.repos.DatasetRepo;
 import org.grad.eNav.atonService.services.DatasetContentLogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Collection;
 import java.util.Optional;
@@ -56,6 +62,18 @@ public class DatasetAspect {
     @Autowired
     DatasetContentLogService datasetContentLogService;
 
+    /**
+     * The Dataset Content Log Writer.
+     */
+    @Autowired
+    DatasetContentLogWriter datasetContentLogWriter;
+
+    /**
+     * The Platform Transaction Manager.
+     */
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
     /**
      * The logging dataset operation. This operation will use the output of the
      * logged function to update the database with the resulting dataset (the
@@ -79,8 +97,23 @@ public class DatasetAspect {
         // Process and get the result object
         final Object proceed = joinPoint.proceed();
 
-        // // Handle if the object whether from an async execution or normal POJO
-        this.handleJoinPointProceed(proceed, operation);
+        // Handle the object whether from an async execution or normal POJO
+        // once any surrounding transaction has been committed, so that the log
+        // entries only reference dataset contents and blobs that are stored.
+        // The committed transaction resources are still bound at that point,
+        // so the log entries are handled in a new transaction instead.
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                    transactionTemplate.executeWithoutResult(status -> handleJoinPointProceed(proceed, operation));
+                }
+            });
+        } else {
+            this.handleJoinPointProceed(proceed, operation);
+        }
 
         // And return the result object
         return proceed;
@@ -88,7 +121,9 @@ public class DatasetAspect {
 
     /**
      * The main function for handling the AOP join-point return when this is an
-     * S125Dataset of a collection of these
+     * S125Dataset of a collection of these. The generated dataset content log
+     * entries are submitted to the write-behind dataset content log writer,
+     * so that they are persisted in batches outside the operation flow.
      *
      * @param proceed       The return of the joint-point
      * @param operation     The @LogDataset annotation operation if provided
@@ -108,14 +143,14 @@ public class DatasetAspect {
             Optional.of(proceed)
                     .map(S125Dataset.class::cast)
                     .map(d -> this.datasetContentLogService.generateDatasetContentLog(d, operation))
-                    .ifPresent(this.datasetContentLogService::save);
+                    .ifPresent(this.datasetContentLogWriter::submit);
         }
         // Handle if the object is an S-125 Dataset collection
         else if(Optional.ofNullable(proceed).filter(p -> isObjectCollectionOfClass(p, S125Dataset.class)).isPresent()) {
             ((Collection<?>) proceed).stream()
                     .map(S125Dataset.class::cast)
                     .map(d -> this.datasetContentLogService.generateDatasetContentLog(d, operation))
-                    .forEach(this.datasetContentLogService::save);
+                    .forEach(this.datasetContentLogWriter::submit);
         }
     }
 
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import lombok.extern.slf4j.Slf4j;
+import org.grad.eNav.atonService.services.DatasetContentLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * The Dataset Content Blob Collector Component.
+ * <p>
+ * The dataset content log payloads are stored in content-addressed blobs,
+ * shared by all the log entries with identical payloads. Once all the log
+ * entries referencing a blob have been removed, this component garbage
+ * collects the blob. Recently created blobs are excluded for a configurable
+ * grace period, so that blobs just being stored along with their log entries
+ * are never collected.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class DatasetContentBlobCollector {
+
+    /**
+     * The grace period in seconds before an unreferenced blob is collected.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.blob-gc.grace-period:3600}")
+    long gracePeriod;
+
+    /**
+     * The Dataset Content Log Service.
+     */
+    @Autowired
+    DatasetContentLogService datasetContentLogService;
+
+    /**
+     * Periodically deletes the dataset content blobs that are no longer
+     * referenced by any dataset content log entry.
+     */
+    @Scheduled(initialDelayString = "${gla.rad.aton-service.dataset-content.blob-gc.initial-delay:300000}",
+               fixedDelayString = "${gla.rad.aton-service.dataset-content.blob-gc.interval:3600000}")
+    public void collect() {
+        try {
+            final int deleted = this.datasetContentLogService.deleteUnreferencedBlobs(LocalDateTime.now().minusSeconds(this.gracePeriod));
+            if(deleted > 0) {
+                log.info("Garbage collected {} unreferenced dataset content blobs", deleted);
+            }
+        } catch (Exception ex) {
+            // A blob might get referenced again while being collected
+            log.warn("Error while garbage collecting the dataset content blobs: {}", ex.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import lombok.extern.slf4j.Slf4j;
+import org.grad.eNav.atonService.repos.DatasetContentLogRepo;
+import org.grad.eNav.atonService.services.DatasetContentLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The Dataset Content Log Compactor Component.
+ * <p>
+ * Every dataset content log entry is originally generated with both the full
+ * dataset content and its delta, which makes the dataset content log grow
+ * without bound. This component periodically applies a configurable
+ * retention policy to it. The entries older than the retention period are
+ * pruned, while for the remaining ones, once older than a minimum age, the
+ * full content is only kept in periodic snapshots. Every dataset content can
+ * then be reconstructed from its nearest snapshot and a bounded chain of the
+ * following deltas.
+ * <p>
+ * Where the dataset content log is partitioned, the monthly partitions that
+ * fall entirely before the retention period are first dropped as a whole by
+ * the dataset content log partition manager, so that only the remaining
+ * entries have to be pruned one by one.
+ * <p>
+ * The payloads of the pruned or compacted entries are later reclaimed by the
+ * dataset content blob collector, once they are not referenced anymore.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class DatasetContentLogCompactor {
+
+    /**
+     * Whether the compaction is enabled.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.compaction.enabled:true}")
+    boolean enabled;
+
+    /**
+     * The number of entries between the full content snapshots.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.compaction.snapshot-interval:10}")
+    int snapshotInterval;
+
+    /**
+     * The minimum age in seconds before an entry is compacted.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.compaction.min-age:86400}")
+    long minAge;
+
+    /**
+     * The retention period in seconds, or zero to retain all the entries.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.compaction.retention-period:31536000}")
+    long retentionPeriod;
+
+    /**
+     * The Dataset Content Log Repo.
+     */
+    @Autowired
+    DatasetContentLogRepo datasetContentLogRepo;
+
+    /**
+     * The Dataset Content Log Service.
+     */
+    @Autowired
+    DatasetContentLogService datasetContentLogService;
+
+    /**
+     * The Dataset Content Log Partition Manager.
+     */
+    @Autowired
+    DatasetContentLogPartitionManager datasetContentLogPartitionManager;
+
+    /**
+     * Periodically prunes and compacts the dataset content log entries of all
+     * the datasets, according to the configured retention policy. Each
+     * dataset is handled in its own transaction, so that a failure does not
+     * affect the rest.
+     */
+    @Scheduled(initialDelayString = "${gla.rad.aton-service.dataset-content.compaction.initial-delay:600000}",
+               fixedDelayString = "${gla.rad.aton-service.dataset-content.compaction.interval:86400000}")
+    public void compact() {
+        if(!this.enabled) {
+            return;
+        }
+        final LocalDateTime now = LocalDateTime.now();
+        final LocalDateTime compactBefore = now.minusSeconds(this.minAge);
+        final LocalDateTime pruneBefore = this.retentionPeriod > 0 ? now.minusSeconds(this.retentionPeriod) : null;
+
+        final LocalDateTime candidatesBefore = Objects.nonNull(pruneBefore) && pruneBefore.isAfter(compactBefore) ?
+                pruneBefore : compactBefore;
+
+        int pruned = 0;
+        int compacted = 0;
+        if(Objects.nonNull(pruneBefore)) {
+            try {
+                pruned += this.datasetContentLogPartitionManager.dropPartitionsBefore(pruneBefore);
+            } catch (Exception ex) {
+                log.warn("Error while dropping the expired dataset content log partitions: {}", ex.getMessage());
+            }
+        }
+        for(UUID uuid : this.datasetContentLogRepo.findUuidsGeneratedBefore(candidatesBefore)) {
+            try {
+                if(Objects.nonNull(pruneBefore)) {
+                    pruned += this.datasetContentLogService.pruneForUuid(uuid, pruneBefore);
+                }
+                compacted += this.datasetContentLogService.compactForUuid(uuid, compactBefore, this.snapshotInterval);
+            } catch (Exception ex) {
+                log.warn("Error while compacting the dataset content log of dataset with UUID {}: {}", uuid, ex.getMessage());
+            }
+        }
+        if(pruned + compacted > 0) {
+            log.info("Pruned {} and compacted {} dataset content log entries", pruned, compacted);
+        }
+    }
+
+}
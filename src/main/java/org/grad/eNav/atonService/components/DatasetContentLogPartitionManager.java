@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.grad.eNav.atonService.models.domain.DatasetContentLog;
+import org.hibernate.Session;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The Dataset Content Log Partition Manager Component.
+ * <p>
+ * In PostgreSQL the dataset content log table is partitioned by the month
+ * of the entry generation date. This component periodically makes sure that
+ * the partitions for the current and the upcoming months exist, so that the
+ * new entries never end up in the default partition. Any entries that still
+ * did, are moved into their monthly partition once it gets created. It also
+ * allows the retention of the dataset content log to be applied by detaching
+ * and dropping whole monthly partitions, which is much cheaper than deleting
+ * their entries one by one. The entries still needed to reconstruct the
+ * retained dataset contents are moved into the default partition.
+ * <p>
+ * For databases without a partitioned dataset content log table (e.g. the
+ * H2 database used for testing), all operations are skipped.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class DatasetContentLogPartitionManager {
+
+    /**
+     * The number of upcoming months to create partitions for.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.partitioning.months-ahead:2}")
+    int monthsAhead;
+
+    /**
+     * The Entity Manager.
+     */
+    @PersistenceContext
+    EntityManager entityManager;
+
+    // Component Variables
+    private Boolean partitioned;
+
+    /**
+     * The component post-construct operations.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Dataset Content Log Partition Manager is booting up...");
+    }
+
+    /**
+     * Periodically creates the dataset content log partitions for the
+     * current and the configured number of upcoming months.
+     */
+    @Scheduled(initialDelayString = "${gla.rad.aton-service.dataset-content.partitioning.initial-delay:60000}",
+               fixedDelayString = "${gla.rad.aton-service.dataset-content.partitioning.interval:86400000}")
+    @Transactional
+    public void createPartitions() {
+        if(!this.isPartitioned()) {
+            return;
+        }
+        final Number created = (Number) this.entityManager
+                .createNativeQuery("select public.dataset_content_log_create_partitions(:monthsAhead)")
+                .setParameter("monthsAhead", this.monthsAhead)
+                .getSingleResult();
+        if(created.intValue() > 0) {
+            log.info("Created {} dataset content log partitions", created);
+        }
+    }
+
+    /**
+     * Detaches and drops all the dataset content log partitions that end
+     * before the provided cutoff. The entries that are still needed, i.e. the
+     * latest snapshot of each dataset generated before the cutoff and all
+     * the entries following it, are retained. Since the dropped entries
+     * bypass the entity lifecycle, they are also explicitly purged from the
+     * search index.
+     *
+     * @param generatedBefore   the date-time the dropped entries should be generated before
+     * @return the number of the dropped dataset content log entries
+     */
+    @Transactional
+    public int dropPartitionsBefore(LocalDateTime generatedBefore) {
+        if(Objects.isNull(generatedBefore) || !this.isPartitioned()) {
+            return 0;
+        }
+        final List<?> droppedIds = this.entityManager
+                .createNativeQuery("select * from public.dataset_content_log_drop_partitions(:generatedBefore)")
+                .setParameter("generatedBefore", generatedBefore)
+                .getResultList();
+
+        // Purge the dropped entries from the search index
+        final SearchIndexingPlan indexingPlan = Search.session(this.entityManager).indexingPlan();
+        for(Object droppedId : droppedIds) {
+            indexingPlan.purge(DatasetContentLog.class, this.toId(droppedId), null);
+        }
+        if(!droppedIds.isEmpty()) {
+            log.info("Dropped {} dataset content log entries with their partitions", droppedIds.size());
+        }
+        return droppedIds.size();
+    }
+
+    /**
+     * Checks whether the dataset content log table is partitioned, which is
+     * only the case for PostgreSQL databases. The result is determined once
+     * and then reused.
+     *
+     * @return whether the dataset content log table is partitioned
+     */
+    protected boolean isPartitioned() {
+        if(Objects.isNull(this.partitioned)) {
+            final String product = this.entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+            this.partitioned = "PostgreSQL".equalsIgnoreCase(product) && ((Number) this.entityManager
+                    .createNativeQuery("select count(*) from pg_catalog.pg_partitioned_table p " +
+                            "join pg_catalog.pg_class c on c.oid = p.partrelid " +
+                            "where c.relname = 'dataset_content_log'")
+                    .getSingleResult()).intValue() > 0;
+            log.info("The dataset content log table is {}partitioned", this.partitioned ? "" : "not ");
+        }
+        return this.partitioned;
+    }
+
+    /**
+     * Translates a numeric database ID into a dataset content log ID.
+     *
+     * @param id the numeric database ID
+     * @return the dataset content log ID
+     */
+    private BigInteger toId(Object id) {
+        return id instanceof BigInteger bigInteger ? bigInteger : new BigDecimal(id.toString()).toBigInteger();
+    }
+
+}
@@ -0,0 +1,670 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.grad.eNav.atonService.models.domain.DatasetContentBlob;
+import org.grad.eNav.atonService.models.domain.DatasetContentLog;
+import org.grad.eNav.atonService.models.domain.DatasetContentManifestConverter;
+import org.grad.eNav.atonService.models.domain.DatasetContentMember;
+import org.grad.eNav.atonService.models.enums.DatasetOperation;
+import org.grad.eNav.atonService.models.enums.DatasetType;
+import org.grad.eNav.atonService.services.DatasetContentLogService;
+import org.hibernate.Hibernate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * The Dataset Content Log Writer Component.
+ * <p>
+ * Persisting a dataset content log entry copies its payloads into the
+ * database and flushes it, which is too expensive to be performed in the
+ * flow of every dataset operation. This component implements a write-behind
+ * log writer instead, where the submitted entries are placed in a bounded
+ * queue and persisted in batches by a dedicated writer thread.
+ * <p>
+ * To guarantee that no entries are lost if the service stops before they
+ * are persisted, every submitted entry is first written into a local
+ * journal directory, and only removed from it once persisted. Since the
+ * payload blobs of the entries are stored before they are submitted, only
+ * their hashes are journaled along with the entry metadata. Any entries
+ * remaining in the journal are replayed when the service boots up. Entries
+ * that cannot be persisted at all are kept in the journal with a
+ * {@value #FAILED_SUFFIX} suffix for manual inspection. If the queue is
+ * full, the submission waits for the queued entries to be persisted first,
+ * so that the entries are always persisted in their submission order.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class DatasetContentLogWriter {
+
+    /**
+     * The journal entry file suffix.
+     */
+    public static final String ENTRY_SUFFIX = ".entry";
+
+    /**
+     * The failed journal entry file suffix.
+     */
+    public static final String FAILED_SUFFIX = ".failed";
+
+    /**
+     * The journal entry format version.
+     */
+    public static final int JOURNAL_VERSION = 1;
+
+    /**
+     * Whether the write-behind is enabled.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.log-writer.enabled:true}")
+    boolean enabled;
+
+    /**
+     * The maximum number of entries waiting to be persisted.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.log-writer.queue-capacity:1000}")
+    int queueCapacity;
+
+    /**
+     * The maximum number of entries persisted in a single batch.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.log-writer.batch-size:50}")
+    int batchSize;
+
+    /**
+     * The journal directory, or empty to disable the journal.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.log-writer.journal-dir:dataset-content-log-journal}")
+    String journalDir;
+
+    /**
+     * The Dataset Content Log Service.
+     */
+    @Lazy
+    @Autowired
+    DatasetContentLogService datasetContentLogService;
+
+    /**
+     * The Meter Registry.
+     */
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // Component Variables
+    private BlockingQueue<Entry> queue;
+    private Path journal;
+    private Thread writer;
+    private volatile boolean running;
+    private final AtomicLong journalSequence = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * The component post-construct operations where the queue and the
+     * journal are initialised, any journal entries left from a previous run
+     * are replayed, and the writer metrics are registered.
+     *
+     * @throws IOException if the journal directory could not be created
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        log.info("Dataset Content Log Writer is booting up...");
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, this.queueCapacity));
+        this.journalSequence.set(System.currentTimeMillis() * 1000);
+
+        // Initialise the journal and replay any remaining entries
+        if(Optional.ofNullable(this.journalDir).filter(dir -> !dir.isBlank()).isPresent()) {
+            this.journal = this.createJournalDirectory(Paths.get(this.journalDir));
+            this.replayJournal();
+        }
+
+        // Register the writer metrics
+        FunctionCounter.builder("aton.dataset.content.log.written", this.written, AtomicLong::doubleValue)
+                .description("The number of persisted dataset content log entries")
+                .register(this.meterRegistry);
+        FunctionCounter.builder("aton.dataset.content.log.failed", this.failed, AtomicLong::doubleValue)
+                .description("The number of dataset content log entries that failed to be persisted")
+                .register(this.meterRegistry);
+        Gauge.builder("aton.dataset.content.log.queue.depth", this, DatasetContentLogWriter::getQueueDepth)
+                .description("The number of dataset content log entries waiting to be persisted")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Once the application is ready, the writer thread is started to persist
+     * the queued entries.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        this.running = true;
+        this.writer = new Thread(this::run, "dataset-content-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * When shutting down the application we need to make sure that the
+     * writer thread is stopped, and all the queued entries are persisted.
+     *
+     * @throws InterruptedException if interrupted while waiting for the writer thread
+     */
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        log.info("Dataset Content Log Writer is shutting down...");
+        this.running = false;
+        if(Objects.nonNull(this.writer)) {
+            this.writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        this.flush();
+    }
+
+    /**
+     * Submits a dataset content log entry to be persisted. The payload blobs
+     * of the entry are stored and committed, and the entry is journaled and
+     * queued, unless the write-behind is disabled, in which case it is
+     * persisted synchronously in its own transaction.
+     *
+     * @param datasetContentLog the dataset content log entry to be persisted
+     */
+    public void submit(DatasetContentLog datasetContentLog) {
+        if(Objects.isNull(datasetContentLog)) {
+            return;
+        } else if(!this.enabled) {
+            this.datasetContentLogService.save(datasetContentLog);
+            return;
+        }
+
+        // Store the payloads in their own transaction, so that they are
+        // committed before the entry is queued and only their references
+        // get journaled
+        if(isUnsaved(datasetContentLog.getContentBlob()) || isUnsaved(datasetContentLog.getDeltaBlob())) {
+            this.datasetContentLogService.saveBlobs(datasetContentLog);
+        }
+
+        // Journal and queue the entry
+        this.enqueue(new Entry(datasetContentLog, this.writeJournal(datasetContentLog)));
+    }
+
+    /**
+     * Persists all the currently queued entries synchronously.
+     */
+    public synchronized void flush() {
+        final List<Entry> entries = new ArrayList<>();
+        while(this.queue.drainTo(entries, Math.max(1, this.batchSize)) > 0) {
+            this.write(entries);
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of entries waiting to be persisted.
+     *
+     * @return the number of queued entries
+     */
+    public int getQueueDepth() {
+        return Optional.ofNullable(this.queue).map(Collection::size).orElse(0);
+    }
+
+    /**
+     * Places the provided entry in the queue. If the queue is full, this
+     * waits for the writer thread to persist the queued entries, or persists
+     * them synchronously if the writer thread is not running, so that the
+     * entries are never persisted ahead of the ones submitted before them.
+     *
+     * @param entry the entry to be queued
+     */
+    protected void enqueue(Entry entry) {
+        try {
+            while(!this.queue.offer(entry, 1, TimeUnit.SECONDS)) {
+                log.debug("Dataset content log queue is full, waiting for the queued entries to be written");
+                if(!this.isWriting()) {
+                    this.flush();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            this.flush();
+            this.write(Collections.singletonList(entry));
+        }
+    }
+
+    /**
+     * Returns whether the writer thread is running, and will hence persist
+     * the queued entries.
+     *
+     * @return whether the writer thread is running
+     */
+    protected boolean isWriting() {
+        return this.running && Objects.nonNull(this.writer) && this.writer.isAlive();
+    }
+
+    /**
+     * The writer thread loop, which waits for the queued entries and
+     * persists them in batches until the component is shut down.
+     */
+    protected void run() {
+        final List<Entry> entries = new ArrayList<>();
+        while(this.running) {
+            try {
+                final Entry entry = this.queue.poll(1, TimeUnit.SECONDS);
+                if(Objects.isNull(entry)) {
+                    continue;
+                }
+                entries.add(entry);
+                this.queue.drainTo(entries, Math.max(1, this.batchSize) - 1);
+                this.write(entries);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.error("Error while writing the dataset content log entries: {}", ex.getMessage());
+            } finally {
+                entries.clear();
+            }
+        }
+    }
+
+    /**
+     * Persists the provided entries in a single batch and removes them from
+     * the journal. If the batch fails, the entries are persisted one by one,
+     * so that a single invalid entry does not affect the rest.
+     *
+     * @param entries the entries to be persisted
+     */
+    protected void write(List<Entry> entries) {
+        if(entries.isEmpty()) {
+            return;
+        }
+        try {
+            this.datasetContentLogService.saveAll(entries.stream().map(Entry::datasetContentLog).toList());
+            entries.forEach(entry -> this.completeJournal(entry, true));
+            this.written.addAndGet(entries.size());
+        } catch (Exception batchEx) {
+            log.warn("Error while writing a batch of dataset content log entries, writing one by one: {}", batchEx.getMessage());
+            for(Entry entry : entries) {
+                try {
+                    // Reset any state left by the failed batch
+                    entry.datasetContentLog().setId(null);
+                    this.datasetContentLogService.save(entry.datasetContentLog());
+                    this.completeJournal(entry, true);
+                    this.written.incrementAndGet();
+                } catch (Exception ex) {
+                    log.error("Error while writing the dataset content log entry of dataset with UUID {}: {}",
+                            entry.datasetContentLog().getUuid(), ex.getMessage());
+                    this.completeJournal(entry, false);
+                    this.failed.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Replays all the entries left in the journal by a previous run, in the
+     * order they were originally submitted.
+     *
+     * @throws IOException if the journal directory could not be listed
+     */
+    protected void replayJournal() throws IOException {
+        final List<Path> files;
+        try(Stream<Path> stream = Files.list(this.journal)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(ENTRY_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for(Path file : files) {
+            final Entry entry;
+            try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                entry = new Entry(JournalEntry.readFrom(in).toDatasetContentLog(this.datasetContentLogService::findBlob), file);
+            } catch (IOException | ParseException | RuntimeException ex) {
+                log.error("Error while reading the dataset content log journal entry {}: {}", file, ex.getMessage());
+                this.completeJournal(new Entry(null, file), false);
+                continue;
+            }
+            this.enqueue(entry);
+        }
+        if(!files.isEmpty()) {
+            log.info("Replayed {} dataset content log journal entries", files.size());
+        }
+    }
+
+    /**
+     * Writes the provided dataset content log entry into the journal, so that
+     * it can be recovered if the service stops before it is persisted. Only
+     * the references of its payload blobs are journaled.
+     *
+     * @param datasetContentLog the dataset content log entry to be journaled
+     * @return the journal entry file, or null if the journal is disabled
+     */
+    protected Path writeJournal(DatasetContentLog datasetContentLog) {
+        if(Objects.isNull(this.journal)) {
+            return null;
+        }
+        final Path file = this.journal.resolve(String.format("%020d%s", this.journalSequence.incrementAndGet(), ENTRY_SUFFIX));
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try(DataOutputStream out = new DataOutputStream(bytes)) {
+                JournalEntry.of(datasetContentLog).writeTo(out);
+            }
+            Files.write(file, bytes.toByteArray(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+            return file;
+        } catch (IOException ex) {
+            log.warn("Error while journaling the dataset content log entry of dataset with UUID {}: {}",
+                    datasetContentLog.getUuid(), ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Removes a persisted entry from the journal, or marks it as failed if it
+     * could not be persisted.
+     *
+     * @param entry the journaled entry
+     * @param persisted whether the entry was persisted
+     */
+    protected void completeJournal(Entry entry, boolean persisted) {
+        if(Objects.isNull(entry.journal())) {
+            return;
+        }
+        try {
+            if(persisted) {
+                Files.deleteIfExists(entry.journal());
+            } else {
+                Files.move(entry.journal(),
+                        entry.journal().resolveSibling(entry.journal().getFileName() + FAILED_SUFFIX),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            log.warn("Error while completing the dataset content log journal entry {}: {}", entry.journal(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Creates the journal directory, if it does not exist, making it only
+     * accessible by the service user where supported, since the journal
+     * entries are replayed when the service boots up.
+     *
+     * @param directory the journal directory
+     * @return the journal directory
+     * @throws IOException if the journal directory could not be created
+     */
+    protected Path createJournalDirectory(Path directory) throws IOException {
+        if(FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            final Path journalDirectory = Files.createDirectories(directory,
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            Files.setPosixFilePermissions(journalDirectory, PosixFilePermissions.fromString("rwx------"));
+            return journalDirectory;
+        }
+        return Files.createDirectories(directory);
+    }
+
+    /**
+     * Returns whether the provided payload blob has not been stored yet.
+     *
+     * @param datasetContentBlob the payload blob
+     * @return whether the payload blob should be stored
+     */
+    private static boolean isUnsaved(DatasetContentBlob datasetContentBlob) {
+        return Objects.nonNull(datasetContentBlob)
+                && Hibernate.isInitialized(datasetContentBlob)
+                && datasetContentBlob.isNew();
+    }
+
+    /**
+     * A queued dataset content log entry along with its journal file.
+     *
+     * @param datasetContentLog the dataset content log entry
+     * @param journal the journal entry file, if any
+     */
+    protected record Entry(DatasetContentLog datasetContentLog, Path journal) {
+    }
+
+    /**
+     * The journaled form of a dataset content log entry, where the payloads
+     * are only referenced by the hashes of their stored blobs. The entries
+     * are journaled in a plain fixed field format, rather than through the
+     * Java serialisation, so that no arbitrary objects are ever instantiated
+     * when the journal is replayed.
+     *
+     * @param datasetType the dataset type
+     * @param uuid the dataset UUID
+     * @param operation the dataset operation
+     * @param sequenceNo the dataset content sequence number
+     * @param generatedAt the generation date
+     * @param geometry the dataset geometry
+     * @param snapshot whether the entry is a snapshot
+     * @param contentHash the hash of the content blob, if any
+     * @param contentLength the content length
+     * @param deltaHash the hash of the delta blob, if any
+     * @param deltaLength the delta length
+     * @param removals the members removed since the previous version
+     */
+    protected record JournalEntry(DatasetType datasetType,
+                                  UUID uuid,
+                                  DatasetOperation operation,
+                                  BigInteger sequenceNo,
+                                  LocalDateTime generatedAt,
+                                  Geometry geometry,
+                                  boolean snapshot,
+                                  String contentHash,
+                                  BigInteger contentLength,
+                                  String deltaHash,
+                                  BigInteger deltaLength,
+                                  List<DatasetContentMember> removals) {
+
+        /**
+         * Creates the journaled form of the provided dataset content log
+         * entry.
+         *
+         * @param datasetContentLog the dataset content log entry
+         * @return the journaled form of the entry
+         */
+        static JournalEntry of(DatasetContentLog datasetContentLog) {
+            return new JournalEntry(
+                    datasetContentLog.getDatasetType(),
+                    datasetContentLog.getUuid(),
+                    datasetContentLog.getOperation(),
+                    datasetContentLog.getSequenceNo(),
+                    datasetContentLog.getGeneratedAt(),
+                    datasetContentLog.getGeometry(),
+                    datasetContentLog.isSnapshot(),
+                    Optional.ofNullable(datasetContentLog.getContentBlob()).map(DatasetContentBlob::getHash).orElse(null),
+                    datasetContentLog.getContentLength(),
+                    Optional.ofNullable(datasetContentLog.getDeltaBlob()).map(DatasetContentBlob::getHash).orElse(null),
+                    datasetContentLog.getDeltaLength(),
+                    Optional.ofNullable(datasetContentLog.getRemovals()).map(ArrayList::new).orElse(null));
+        }
+
+        /**
+         * Reads a journaled entry from the provided input, as written by the
+         * {@link #writeTo(DataOutput)} operation.
+         *
+         * @param in the input to read the journaled entry from
+         * @return the journaled entry
+         * @throws IOException if the journaled entry could not be read
+         * @throws ParseException if the journaled geometry could not be parsed
+         */
+        static JournalEntry readFrom(DataInput in) throws IOException, ParseException {
+            final int version = in.readInt();
+            if(version != JOURNAL_VERSION) {
+                throw new IOException(String.format("Unsupported journal entry format version %d", version));
+            }
+            final String datasetType = readNullableString(in);
+            final String uuid = readNullableString(in);
+            final String operation = readNullableString(in);
+            final String sequenceNo = readNullableString(in);
+            final String generatedAt = readNullableString(in);
+            final byte[] geometry = readNullableBytes(in);
+            final boolean snapshot = in.readBoolean();
+            final String contentHash = readNullableString(in);
+            final String contentLength = readNullableString(in);
+            final String deltaHash = readNullableString(in);
+            final String deltaLength = readNullableString(in);
+            final byte[] removals = readNullableBytes(in);
+            return new JournalEntry(
+                    Objects.isNull(datasetType) ? null : DatasetType.valueOf(datasetType),
+                    Objects.isNull(uuid) ? null : UUID.fromString(uuid),
+                    Objects.isNull(operation) ? null : DatasetOperation.valueOf(operation),
+                    Objects.isNull(sequenceNo) ? null : new BigInteger(sequenceNo),
+                    Objects.isNull(generatedAt) ? null : LocalDateTime.parse(generatedAt),
+                    Objects.isNull(geometry) ? null : new WKBReader().read(geometry),
+                    snapshot,
+                    contentHash,
+                    Objects.isNull(contentLength) ? null : new BigInteger(contentLength),
+                    deltaHash,
+                    Objects.isNull(deltaLength) ? null : new BigInteger(deltaLength),
+                    new DatasetContentManifestConverter().convertToEntityAttribute(removals));
+        }
+
+        /**
+         * Writes the journaled entry into the provided output, field by
+         * field.
+         *
+         * @param out the output to write the journaled entry into
+         * @throws IOException if the journaled entry could not be written
+         */
+        void writeTo(DataOutput out) throws IOException {
+            out.writeInt(JOURNAL_VERSION);
+            writeNullableString(out, Objects.toString(this.datasetType, null));
+            writeNullableString(out, Objects.toString(this.uuid, null));
+            writeNullableString(out, Objects.toString(this.operation, null));
+            writeNullableString(out, Objects.toString(this.sequenceNo, null));
+            writeNullableString(out, Objects.toString(this.generatedAt, null));
+            writeNullableBytes(out, Objects.isNull(this.geometry) ? null : new WKBWriter(2, true).write(this.geometry));
+            out.writeBoolean(this.snapshot);
+            writeNullableString(out, this.contentHash);
+            writeNullableString(out, Objects.toString(this.contentLength, null));
+            writeNullableString(out, this.deltaHash);
+            writeNullableString(out, Objects.toString(this.deltaLength, null));
+            writeNullableBytes(out, new DatasetContentManifestConverter().convertToDatabaseColumn(this.removals));
+        }
+
+        /**
+         * Restores the dataset content log entry, re-attaching its stored
+         * payload blobs through the provided lookup.
+         *
+         * @param blobs the stored payload blob lookup by hash
+         * @return the restored dataset content log entry
+         */
+        DatasetContentLog toDatasetContentLog(Function<String, DatasetContentBlob> blobs) {
+            final DatasetContentLog datasetContentLog = new DatasetContentLog();
+            datasetContentLog.setDatasetType(this.datasetType);
+            datasetContentLog.setUuid(this.uuid);
+            datasetContentLog.setOperation(this.operation);
+            datasetContentLog.setSequenceNo(this.sequenceNo);
+            datasetContentLog.setGeneratedAt(this.generatedAt);
+            datasetContentLog.setGeometry(this.geometry);
+            datasetContentLog.setSnapshot(this.snapshot);
+            datasetContentLog.setContentBlob(Optional.ofNullable(this.contentHash).map(blobs).orElse(null));
+            datasetContentLog.setContentLength(this.contentLength);
+            datasetContentLog.setDeltaBlob(Optional.ofNullable(this.deltaHash).map(blobs).orElse(null));
+            datasetContentLog.setDeltaLength(this.deltaLength);
+            datasetContentLog.setRemovals(this.removals);
+            return datasetContentLog;
+        }
+
+        /**
+         * Writes a string that can also be null into the provided output.
+         *
+         * @param out the output to write into
+         * @param value the string value
+         * @throws IOException if the value could not be written
+         */
+        private static void writeNullableString(DataOutput out, String value) throws IOException {
+            out.writeBoolean(Objects.nonNull(value));
+            if(Objects.nonNull(value)) {
+                out.writeUTF(value);
+            }
+        }
+
+        /**
+         * Reads a string that can also be null from the provided input.
+         *
+         * @param in the input to read from
+         * @return the string value
+         * @throws IOException if the value could not be read
+         */
+        private static String readNullableString(DataInput in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+
+        /**
+         * Writes a byte array that can also be null into the provided output.
+         *
+         * @param out the output to write into
+         * @param value the byte array value
+         * @throws IOException if the value could not be written
+         */
+        private static void writeNullableBytes(DataOutput out, byte[] value) throws IOException {
+            out.writeInt(Objects.isNull(value) ? -1 : value.length);
+            if(Objects.nonNull(value)) {
+                out.write(value);
+            }
+        }
+
+        /**
+         * Reads a byte array that can also be null from the provided input.
+         *
+         * @param in the input to read from
+         * @return the byte array value
+         * @throws IOException if the value could not be read
+         */
+        private static byte[] readNullableBytes(DataInput in) throws IOException {
+            final int length = in.readInt();
+            if(length < 0) {
+                return null;
+            }
+            final byte[] value = new byte[length];
+            in.readFully(value);
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import lombok.extern.slf4j.Slf4j;
+import org.grad.eNav.atonService.models.domain.DatasetContentBlob;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
+import org.grad.eNav.atonService.repos.DatasetContentLogRepo;
+import org.grad.eNav.atonService.repos.DatasetContentRepo;
+import org.grad.eNav.atonService.services.DatasetContentLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The Dataset Content Storage Backfill Component.
+ * <p>
+ * The dataset contents and deltas generated before the introduction of the
+ * compressed storage formats were stored as plain UTF-8 text, and without
+ * their stored length. Even though these can still be read transparently,
+ * this component gradually converts them into the configured storage format
+ * in small batches, so that the existing dataset content history shrinks
+ * without a long-running database migration. The dataset content and
+ * dataset content log payloads are additionally moved into the
+ * content-addressed blobs, so that identical payloads are only stored once.
+ * <p>
+ * The entries are updated in place, so that their sequence numbers and
+ * generation dates are not affected.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class DatasetContentStorageBackfill {
+
+    /**
+     * Whether the backfill is enabled.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.backfill.enabled:true}")
+    boolean enabled;
+
+    /**
+     * The maximum number of entries per table to backfill in each run.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.backfill.batch-size:50}")
+    int batchSize;
+
+    /**
+     * The storage format of the dataset contents and deltas.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.compression:GZIP}")
+    DatasetContentCompression contentCompression = DatasetContentCompression.GZIP;
+
+    /**
+     * The Dataset Content Repo.
+     */
+    @Autowired
+    DatasetContentRepo datasetContentRepo;
+
+    /**
+     * The Dataset Content Log Repo.
+     */
+    @Autowired
+    DatasetContentLogRepo datasetContentLogRepo;
+
+    /**
+     * The Dataset Content Log Service.
+     */
+    @Autowired
+    DatasetContentLogService datasetContentLogService;
+
+    /**
+     * Periodically backfills the next batch of dataset content and dataset
+     * content log entries that have not yet been stored in the configured
+     * storage format.
+     */
+    @Scheduled(initialDelayString = "${gla.rad.aton-service.dataset-content.backfill.initial-delay:60000}",
+               fixedDelayString = "${gla.rad.aton-service.dataset-content.backfill.interval:60000}")
+    @Transactional
+    public void backfill() {
+        if(!this.enabled) {
+            return;
+        }
+        final int contents = this.backfillDatasetContents();
+        final int contentLogs = this.backfillDatasetContentLogs();
+        if(contents + contentLogs > 0) {
+            log.info("Backfilled the storage of {} dataset contents and {} dataset content logs",
+                    contents, contentLogs);
+        }
+    }
+
+    /**
+     * Backfills the next batch of dataset content entries, by moving their
+     * inline contents and deltas into content blobs of the configured
+     * storage format.
+     *
+     * @return the number of backfilled entries
+     */
+    protected int backfillDatasetContents() {
+        final List<BigInteger> ids = this.datasetContentRepo.findAllWithInlinePayload(PageRequest.of(0, Math.max(1, this.batchSize)));
+        for(BigInteger id : ids) {
+            this.datasetContentRepo.findById(id).ifPresent(datasetContent -> {
+                final DatasetContentBlob contentBlob = Optional.ofNullable(DatasetContentBlob.of(datasetContent.getContent(), this.contentCompression))
+                        .map(this.datasetContentLogService::saveBlob)
+                        .orElse(null);
+                final DatasetContentBlob deltaBlob = Optional.ofNullable(DatasetContentBlob.of(datasetContent.getDelta(), this.contentCompression))
+                        .map(this.datasetContentLogService::saveBlob)
+                        .orElse(null);
+                this.datasetContentRepo.updateStoredBlobs(id,
+                        contentBlob, getStoredLength(contentBlob),
+                        deltaBlob, getStoredLength(deltaBlob));
+            });
+        }
+        return ids.size();
+    }
+
+    /**
+     * Backfills the next batch of dataset content log entries, by moving
+     * their inline contents and deltas into content blobs of the configured
+     * storage format. Identical payloads end up sharing the same blob.
+     *
+     * @return the number of backfilled entries
+     */
+    protected int backfillDatasetContentLogs() {
+        final List<BigInteger> ids = this.datasetContentLogRepo.findAllWithInlinePayload(PageRequest.of(0, Math.max(1, this.batchSize)));
+        for(BigInteger id : ids) {
+            this.datasetContentLogRepo.findById(id).ifPresent(datasetContentLog -> {
+                final DatasetContentBlob contentBlob = DatasetContentBlob.of(datasetContentLog.getContent(), this.contentCompression);
+                final DatasetContentBlob deltaBlob = DatasetContentBlob.of(datasetContentLog.getDelta(), this.contentCompression);
+                datasetContentLog.setContentBlob(Optional.ofNullable(contentBlob)
+                        .map(this.datasetContentLogService::saveBlob)
+                        .orElse(null));
+                datasetContentLog.setDeltaBlob(Optional.ofNullable(deltaBlob)
+                        .map(this.datasetContentLogService::saveBlob)
+                        .orElse(null));
+                this.datasetContentLogRepo.save(datasetContentLog);
+            });
+        }
+        return ids.size();
+    }
+
+    /**
+     * Returns the stored length of the provided content blob.
+     *
+     * @param blob the content blob
+     * @return the stored length
+     */
+    private static BigInteger getStoredLength(DatasetContentBlob blob) {
+        return Optional.ofNullable(blob)
+                .map(DatasetContentBlob::getStoredLength)
+                .orElse(null);
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The Dataset Content Store Component.
+ * <p>
+ * Previous versions of the service could also keep each generated dataset
+ * content version as an immutable file, named by the dataset UUID, the
+ * content sequence number and the content checksum, with the dataset
+ * content keeping a pointer to it. Since the latest content of each dataset
+ * is always kept in the database as the snapshot of its latest log entry,
+ * these files were only duplicates of it, so no new files are stored
+ * anymore.
+ * <p>
+ * This component only provides read access to the files that were already
+ * stored, when enabled, since the contents that were offloaded before the
+ * introduction of the content blobs are only available there. The files are
+ * superseded by the next generated content of each dataset, after which the
+ * store directory can be removed.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class DatasetContentStore {
+
+    /**
+     * Whether the stored content files should be read.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.store.enabled:false}")
+    boolean enabled;
+
+    /**
+     * The directory of the stored content files.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.store.dir:content-store}")
+    String dir;
+
+    /**
+     * The storage format of the dataset contents in the database.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.compression:GZIP}")
+    DatasetContentCompression contentCompression = DatasetContentCompression.GZIP;
+
+    // Component Variables
+    private Path root;
+
+    /**
+     * The component post-construct operations where the store directory is
+     * resolved, if the store is enabled.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Dataset Content Store is booting up...");
+        if(this.enabled) {
+            this.root = Paths.get(this.dir).toAbsolutePath().normalize();
+        }
+    }
+
+    /**
+     * Returns whether the file-backed content store is enabled.
+     *
+     * @return whether the store is enabled
+     */
+    public boolean isEnabled() {
+        return this.enabled && Objects.nonNull(this.root);
+    }
+
+    /**
+     * Reads the content stored in the provided location as bytes, as they
+     * were written in the stored file. If the file does not exist, the
+     * content should be read from the database instead.
+     *
+     * @param location the location of the stored file
+     * @return the stored content bytes, if the file exists
+     */
+    public Optional<byte[]> readContent(String location) {
+        return this.resolve(location)
+                .map(file -> {
+                    try {
+                        return Files.readAllBytes(file);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+    }
+
+    /**
+     * Reads the content stored in the provided location, in the storage
+     * format of the database. This is used to recover the contents that
+     * were offloaded to the store before the introduction of the content
+     * blobs, e.g. for logging them.
+     *
+     * @param location the location of the stored file
+     * @return the stored content bytes, if the file exists
+     */
+    public Optional<byte[]> readStored(String location) {
+        return this.resolve(location)
+                .map(file -> {
+                    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    try(InputStream inputStream = Files.newInputStream(file);
+                        Writer writer = this.contentCompression.newWriter(bytes)) {
+                        new InputStreamReader(inputStream, StandardCharsets.UTF_8).transferTo(writer);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    return bytes.toByteArray();
+                });
+    }
+
+    /**
+     * Resolves the provided location into an existing stored file. Only
+     * plain file names are accepted, so that no files outside the store
+     * directory can be accessed.
+     *
+     * @param location the location of the stored file
+     * @return the stored file, if it exists
+     */
+    protected Optional<Path> resolve(String location) {
+        if(!this.isEnabled() || Objects.isNull(location) || location.isBlank()) {
+            return Optional.empty();
+        }
+        final Path file = this.root.resolve(location).normalize();
+        if(!this.root.equals(file.getParent()) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+}
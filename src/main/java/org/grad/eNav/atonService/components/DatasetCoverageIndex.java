@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
+import org.grad.eNav.atonService.models.enums.DatasetOperation;
+import org.grad.eNav.atonService.repos.DatasetRepo;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.integration.channel.PublishSubscribeChannel;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * The Dataset Coverage Index Component.
+ * <p>
+ * Every AtoN change needs to be resolved to the datasets whose content
+ * should be regenerated, i.e. the datasets whose geometry covers the changed
+ * AtoN. Since there are only a few tens to hundreds of datasets, this
+ * component keeps their coverages in memory, as prepared geometries in an
+ * STR-tree spatial index, so that the affected datasets can be resolved
+ * without querying the search index.
+ * <p>
+ * The index is loaded from the database on first use and then kept up to
+ * date through the dataset publication and removal channels. Since an
+ * STR-tree cannot be modified once built, it is rebuilt lazily on the next
+ * lookup after any change.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class DatasetCoverageIndex implements MessageHandler {
+
+    /**
+     * The Dataset Repo.
+     */
+    @Autowired
+    DatasetRepo datasetRepo;
+
+    /**
+     * The Meter Registry.
+     */
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    /**
+     * The S-125 Dataset Channel to listen for the publications to.
+     */
+    @Autowired
+    @Qualifier("s125PublicationChannel")
+    PublishSubscribeChannel s125PublicationChannel;
+
+    /**
+     * The S-125 Dataset Channel to listen for the removals to.
+     */
+    @Autowired
+    @Qualifier("s125RemovalChannel")
+    PublishSubscribeChannel s125RemovalChannel;
+
+    // Component Variables
+    private final Map<UUID, PreparedGeometry> coverages = new HashMap<>();
+    private STRtree index;
+    private boolean loaded = false;
+
+    /**
+     * The component post-construct operations where the handler auto-registers
+     * it-self to the dataset channels, and the index metrics are registered.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Dataset Coverage Index is booting up...");
+        this.s125PublicationChannel.subscribe(this);
+        this.s125RemovalChannel.subscribe(this);
+
+        // Register the index metrics
+        Gauge.builder("aton.dataset.coverage.index.size", this, DatasetCoverageIndex::size)
+                .description("The number of dataset coverages in the index")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * When shutting down the application we need to make sure that the
+     * handler is no longer subscribed to any of the channels.
+     */
+    @PreDestroy
+    public void destroy() {
+        log.info("Dataset Coverage Index is shutting down...");
+        Optional.ofNullable(this.s125PublicationChannel).ifPresent(channel -> channel.unsubscribe(this));
+        Optional.ofNullable(this.s125RemovalChannel).ifPresent(channel -> channel.unsubscribe(this));
+    }
+
+    /**
+     * Resolves the UUIDs of the datasets whose coverage intersects any of
+     * the provided geometries, e.g. the geometries of the changed AtoNs.
+     *
+     * @param geometries the geometries to resolve the affected datasets for
+     * @return the UUIDs of the affected datasets
+     */
+    public synchronized Set<UUID> findAffectedDatasets(Collection<Geometry> geometries) {
+        final STRtree index = this.getIndex();
+        final Set<UUID> result = new LinkedHashSet<>();
+        for(Geometry geometry : geometries) {
+            if(Objects.isNull(geometry)) {
+                continue;
+            }
+            for(Object item : index.query(geometry.getEnvelopeInternal())) {
+                final Coverage coverage = (Coverage) item;
+                if(!result.contains(coverage.uuid()) && coverage.geometry().intersects(geometry)) {
+                    result.add(coverage.uuid());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds or updates the coverage of the provided dataset. Cancelled
+     * datasets, and datasets without a geometry are removed from the index.
+     *
+     * @param s125Dataset the dataset to be indexed
+     */
+    public synchronized void put(S125Dataset s125Dataset) {
+        if(Objects.isNull(s125Dataset.getUuid())) {
+            return;
+        }
+        if(Boolean.TRUE.equals(s125Dataset.getCancelled()) || Objects.isNull(s125Dataset.getGeometry())) {
+            this.remove(s125Dataset.getUuid());
+            return;
+        }
+        this.coverages.put(s125Dataset.getUuid(), PreparedGeometryFactory.prepare(s125Dataset.getGeometry()));
+        this.index = null;
+    }
+
+    /**
+     * Removes the coverage of the dataset with the provided UUID.
+     *
+     * @param uuid the UUID of the dataset to be removed
+     */
+    public synchronized void remove(UUID uuid) {
+        if(Objects.nonNull(this.coverages.remove(uuid))) {
+            this.index = null;
+        }
+    }
+
+    /**
+     * Returns the number of dataset coverages in the index.
+     *
+     * @return the number of dataset coverages in the index
+     */
+    public synchronized int size() {
+        return this.coverages.size();
+    }
+
+    /**
+     * Returns the STR-tree index of the dataset coverages, loading the
+     * coverages from the database on first use, and rebuilding the index
+     * if any of the coverages have changed.
+     *
+     * @return the STR-tree index of the dataset coverages
+     */
+    protected STRtree getIndex() {
+        if(!this.loaded) {
+            this.datasetRepo.findAll().forEach(this::put);
+            this.loaded = true;
+            log.debug("Loaded {} dataset coverages into the index", this.coverages.size());
+        }
+        if(Objects.isNull(this.index)) {
+            this.index = new STRtree();
+            this.coverages.forEach((uuid, geometry) ->
+                    this.index.insert(geometry.getGeometry().getEnvelopeInternal(), new Coverage(uuid, geometry)));
+            this.index.build();
+        }
+        return this.index;
+    }
+
+    /**
+     * This is a simple handler for the incoming dataset messages. Published
+     * datasets will be added to or updated in the index, while removed ones
+     * will be dropped from it.
+     *
+     * @param message               The message to be handled
+     * @throws MessagingException   The Messaging exceptions that might occur
+     */
+    @Override
+    public void handleMessage(Message<?> message) throws MessagingException {
+        if(message.getPayload() instanceof S125Dataset s125Dataset) {
+            final Object operation = message.getHeaders().get("operation");
+            if(operation == DatasetOperation.CANCELLED || operation == DatasetOperation.DELETED) {
+                this.remove(s125Dataset.getUuid());
+            } else {
+                this.put(s125Dataset);
+            }
+        } else {
+            log.warn("Dataset coverage index received a publish-subscribe message with erroneous format.");
+        }
+    }
+
+    /**
+     * The dataset coverage index entry.
+     *
+     * @param uuid the UUID of the dataset
+     * @param geometry the prepared coverage geometry of the dataset
+     */
+    private record Coverage(UUID uuid, PreparedGeometry geometry) {
+    }
+
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.grad.eNav.atonService.models.enums.DatasetGenerationPriority;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The Dataset Generation Executor Component.
+ * <p>
+ * The dataset content generations are run on this dedicated executor
+ * instead of the shared asynchronous task executor, so that they do not
+ * compete in FIFO order with all the other asynchronous operations. Each
+ * generation is submitted with a priority class and the queued generations
+ * are always started in priority order, and in submission order within the
+ * same priority class.
+ * <p>
+ * Generations with an estimated size (i.e. number of dataset members) above
+ * a configurable threshold are considered as heavy, and only a limited
+ * number of them are allowed to run concurrently. While the heavy slots are
+ * taken, lighter generations can still overtake the queued heavy ones, so
+ * that a large dataset rebuild does not hold back the small ones.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class DatasetGenerationExecutor {
+
+    /**
+     * The maximum number of concurrently running generations.
+     */
+    @Value("${gla.rad.aton-service.dataset-generation.pool-size:4}")
+    int poolSize;
+
+    /**
+     * The maximum number of concurrently running heavy generations.
+     */
+    @Value("${gla.rad.aton-service.dataset-generation.max-heavy:1}")
+    int maxHeavy;
+
+    /**
+     * The estimated size above which a generation is considered heavy.
+     */
+    @Value("${gla.rad.aton-service.dataset-generation.heavy-threshold:1000}")
+    long heavyThreshold;
+
+    /**
+     * The Meter Registry.
+     */
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // Component Variables
+    private final NavigableSet<Task<?>> queue = new TreeSet<>();
+    private final Map<DatasetGenerationPriority, Timer> waitTimers = new EnumMap<>(DatasetGenerationPriority.class);
+    private final AtomicInteger threads = new AtomicInteger();
+    private long sequence;
+    private int running;
+    private int runningHeavy;
+    private ExecutorService executor;
+
+    /**
+     * The component post-construct operations where the generation executor
+     * is initialised, and the executor metrics are registered.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Dataset Generation Executor is booting up...");
+        this.executor = Executors.newFixedThreadPool(Math.max(1, this.poolSize), runnable -> {
+            final Thread thread = new Thread(runnable, "dataset-generation-" + this.threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Register the executor metrics per priority class
+        for(DatasetGenerationPriority priority : DatasetGenerationPriority.values()) {
+            this.waitTimers.put(priority, Timer.builder("aton.dataset.generation.wait")
+                    .description("The time dataset content generations wait in the queue before starting")
+                    .tag("priority", priority.getTag())
+                    .register(this.meterRegistry));
+            Gauge.builder("aton.dataset.generation.queue.depth", this, executor -> executor.getQueueDepth(priority))
+                    .description("The number of queued dataset content generations")
+                    .tag("priority", priority.getTag())
+                    .register(this.meterRegistry);
+        }
+        Gauge.builder("aton.dataset.generation.running", this, DatasetGenerationExecutor::getRunning)
+                .description("The number of running dataset content generations")
+                .register(this.meterRegistry);
+        Gauge.builder("aton.dataset.generation.running.heavy", this, DatasetGenerationExecutor::getRunningHeavy)
+                .description("The number of running heavy dataset content generations")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * When shutting down the application we need to make sure that the
+     * generation executor is stopped, and any queued generations are
+     * cancelled.
+     */
+    @PreDestroy
+    public synchronized void destroy() {
+        log.info("Dataset Generation Executor is shutting down...");
+        Optional.ofNullable(this.executor).ifPresent(ExecutorService::shutdownNow);
+        this.queue.forEach(task -> task.result.cancel(false));
+        this.queue.clear();
+    }
+
+    /**
+     * Submits a dataset content generation to the executor. The generation
+     * will be queued according to its priority class, and will occupy one
+     * of the executor slots until its returned future completes.
+     *
+     * @param uuid the UUID of the dataset to be generated
+     * @param priority the priority class of the generation
+     * @param estimatedSize the estimated size of the generation
+     * @param generation the generation operation
+     * @return the completable future of the generation result
+     * @param <T> the type of the generation result
+     */
+    public <T> CompletableFuture<T> submit(UUID uuid,
+                                           DatasetGenerationPriority priority,
+                                           long estimatedSize,
+                                           Supplier<CompletableFuture<T>> generation) {
+        final Task<T> task;
+        synchronized (this) {
+            task = new Task<>(uuid,
+                    Optional.ofNullable(priority).orElse(DatasetGenerationPriority.BACKGROUND),
+                    estimatedSize >= this.heavyThreshold,
+                    this.sequence++,
+                    generation);
+            this.queue.add(task);
+            this.dispatch();
+        }
+        return task.result;
+    }
+
+    /**
+     * Returns the number of queued generations of the provided priority
+     * class.
+     *
+     * @param priority the priority class
+     * @return the number of queued generations
+     */
+    public synchronized long getQueueDepth(DatasetGenerationPriority priority) {
+        return this.queue.stream()
+                .filter(task -> task.priority == priority)
+                .count();
+    }
+
+    /**
+     * Returns the number of running generations.
+     *
+     * @return the number of running generations
+     */
+    public synchronized int getRunning() {
+        return this.running;
+    }
+
+    /**
+     * Returns the number of running heavy generations.
+     *
+     * @return the number of running heavy generations
+     */
+    public synchronized int getRunningHeavy() {
+        return this.runningHeavy;
+    }
+
+    /**
+     * Starts as many of the queued generations as the free executor slots
+     * allow, in priority order. Heavy generations are skipped while all the
+     * heavy slots are taken, so that the lighter ones behind them can still
+     * be started.
+     */
+    protected synchronized void dispatch() {
+        if(Objects.isNull(this.executor) || this.executor.isShutdown()) {
+            return;
+        }
+        final Iterator<Task<?>> iterator = this.queue.iterator();
+        while(this.running < Math.max(1, this.poolSize) && iterator.hasNext()) {
+            final Task<?> task = iterator.next();
+            if(task.heavy && this.runningHeavy >= Math.max(1, this.maxHeavy)) {
+                continue;
+            }
+            iterator.remove();
+            this.start(task);
+        }
+    }
+
+    /**
+     * Starts the provided generation on the executor and makes sure that its
+     * slot is released once the generation completes.
+     *
+     * @param task the generation task to be started
+     * @param <T> the type of the generation result
+     */
+    private <T> void start(Task<T> task) {
+        this.running++;
+        if(task.heavy) {
+            this.runningHeavy++;
+        }
+        this.waitTimers.get(task.priority).record(System.nanoTime() - task.submittedAt, TimeUnit.NANOSECONDS);
+        log.debug("Starting the {} content generation of dataset with UUID {}", task.priority.getTag(), task.uuid);
+
+        this.executor.execute(() -> {
+            CompletableFuture<T> generation;
+            try {
+                generation = Optional.ofNullable(task.generation.get())
+                        .orElseGet(() -> CompletableFuture.completedFuture(null));
+            } catch (Exception ex) {
+                generation = CompletableFuture.failedFuture(ex);
+            }
+            generation.whenComplete((result, ex) -> {
+                this.release(task);
+                if(Objects.nonNull(ex)) {
+                    task.result.completeExceptionally(ex);
+                } else {
+                    task.result.complete(result);
+                }
+            });
+        });
+    }
+
+    /**
+     * Releases the executor slot of the provided completed generation and
+     * starts the next queued ones.
+     *
+     * @param task the completed generation task
+     */
+    private synchronized void release(Task<?> task) {
+        this.running--;
+        if(task.heavy) {
+            this.runningHeavy--;
+        }
+        this.dispatch();
+    }
+
+    /**
+     * A queued dataset content generation, ordered by priority class and
+     * submission sequence.
+     *
+     * @param <T> the type of the generation result
+     */
+    private static class Task<T> implements Comparable<Task<?>> {
+        private final UUID uuid;
+        private final DatasetGenerationPriority priority;
+        private final boolean heavy;
+        private final long sequence;
+        private final long submittedAt;
+        private final Supplier<CompletableFuture<T>> generation;
+        private final CompletableFuture<T> result;
+
+        private Task(UUID uuid, DatasetGenerationPriority priority, boolean heavy, long sequence, Supplier<CompletableFuture<T>> generation) {
+            this.uuid = uuid;
+            this.priority = priority;
+            this.heavy = heavy;
+            this.sequence = sequence;
+            this.submittedAt = System.nanoTime();
+            this.generation = generation;
+            this.result = new CompletableFuture<>();
+        }
+
+        @Override
+        public int compareTo(Task<?> other) {
+            final int byPriority = this.priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(this.sequence, other.sequence);
+        }
+    }
+
+}
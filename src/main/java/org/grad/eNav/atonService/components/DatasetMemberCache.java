@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.components;
+
+import _int.iho.s125.gml.cs0._1.impl.AidsToNavigationTypeImpl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.grad.eNav.atonService.models.domain.s125.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The Dataset Member Cache Component.
+ * <p>
+ * Regenerating the content of a dataset requires all the matching Aids to
+ * Navigation to be mapped into their S-125 member representation, even if
+ * only a single one of them has changed. This component keeps the mapped
+ * S-125 members of the last generated content of each dataset, so that the
+ * next regeneration only needs to map the members that were added or
+ * changed, while the removed ones are simply dropped.
+ * <p>
+ * Each member is stored against a fingerprint of the AtoN it was mapped from,
+ * which includes its last modification time, its structure/equipment links
+ * and its feature names and information entries. A cached member is only
+ * reused if the fingerprint of the current AtoN matches. The IDs codes of the
+ * members are also kept, so that the previous content of the dataset does not
+ * need to be unmarshalled for the deleted AtoN validation.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class DatasetMemberCache {
+
+    /**
+     * The maximum number of datasets to keep the members for.
+     */
+    @Value("${gla.rad.aton-service.dataset-member-cache.size:64}")
+    int maxSize;
+
+    /**
+     * The Meter Registry.
+     */
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // Component Variables
+    private final Map<UUID, DatasetMembers> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong mapped = new AtomicLong();
+
+    /**
+     * The component post-construct operations where the cache metrics are
+     * registered.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Dataset Member Cache is booting up...");
+
+        // Register the cache metrics
+        FunctionCounter.builder("aton.dataset.member.cache.reused", this.reused, AtomicLong::doubleValue)
+                .description("The number of dataset members reused from the cache")
+                .register(this.meterRegistry);
+        FunctionCounter.builder("aton.dataset.member.cache.mapped", this.mapped, AtomicLong::doubleValue)
+                .description("The number of dataset members mapped from scratch")
+                .register(this.meterRegistry);
+        Gauge.builder("aton.dataset.member.cache.size", this, DatasetMemberCache::size)
+                .description("The number of datasets with cached members")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Returns the ID codes of the members included in the dataset content
+     * with the provided sequence number, if these are available.
+     *
+     * @param uuid the UUID of the dataset
+     * @param sequenceNo the sequence number of the dataset content
+     * @return the ID codes of the dataset content members, if available
+     */
+    public synchronized Optional<Set<String>> getIdCodes(UUID uuid, BigInteger sequenceNo) {
+        return Optional.ofNullable(uuid)
+                .map(this.cache::get)
+                .filter(members -> Objects.nonNull(sequenceNo) && sequenceNo.equals(members.sequenceNo()))
+                .map(DatasetMembers::idCodes);
+    }
+
+    /**
+     * Maps the provided Aids to Navigation into their S-125 member
+     * representation, reusing the members cached for the provided dataset
+     * wherever the AtoN fingerprint has not changed. The rest are mapped
+     * using the provided mapping function. The order of the provided AtoN
+     * list is always retained.
+     *
+     * @param uuid the UUID of the dataset
+     * @param atons the Aids to Navigation to be mapped
+     * @param mapper the mapping function for the new or changed entries
+     * @return the S-125 member representation of the Aids to Navigation
+     */
+    public List<AidsToNavigationTypeImpl> mapMembers(UUID uuid, List<AidsToNavigation> atons, Function<AidsToNavigation, AidsToNavigationTypeImpl> mapper) {
+        return this.mapMembers(Collections.singletonList(uuid), atons, mapper);
+    }
+
+    /**
+     * Maps the provided Aids to Navigation into their S-125 member
+     * representation, reusing the members cached for any of the provided
+     * datasets wherever the AtoN fingerprint has not changed. This allows
+     * the AtoNs shared by multiple datasets to be mapped only once. The rest
+     * are mapped using the provided mapping function. The order of the
+     * provided AtoN list is always retained.
+     *
+     * @param uuids the UUIDs of the datasets
+     * @param atons the Aids to Navigation to be mapped
+     * @param mapper the mapping function for the new or changed entries
+     * @return the S-125 member representation of the Aids to Navigation
+     */
+    public List<AidsToNavigationTypeImpl> mapMembers(Collection<UUID> uuids, List<AidsToNavigation> atons, Function<AidsToNavigation, AidsToNavigationTypeImpl> mapper) {
+        final List<Map<BigInteger, Member>> members = uuids.stream()
+                .map(this::getMembers)
+                .toList();
+        final List<AidsToNavigationTypeImpl> result = new ArrayList<>(atons.size());
+        for(AidsToNavigation aton : atons) {
+            final Member member = Optional.ofNullable(aton.getId())
+                    .filter(id -> Objects.nonNull(aton.getLastModifiedAt()))
+                    .flatMap(id -> members.stream()
+                            .map(m -> m.get(id))
+                            .filter(Objects::nonNull)
+                            .filter(m -> m.fingerprint().equals(DatasetMemberCache.fingerprint(aton)))
+                            .findFirst())
+                    .orElse(null);
+            if(Objects.nonNull(member)) {
+                result.add(member.member());
+                this.reused.incrementAndGet();
+            } else {
+                result.add(mapper.apply(aton));
+                this.mapped.incrementAndGet();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores the S-125 members of a successfully generated dataset content,
+     * replacing the ones previously stored for this dataset. Any members of
+     * AtoNs no longer included in the dataset are therefore dropped.
+     *
+     * @param uuid the UUID of the dataset
+     * @param sequenceNo the sequence number of the generated dataset content
+     * @param atons the Aids to Navigation included in the dataset content
+     * @param atonMembers the S-125 member representation of the Aids to Navigation
+     */
+    public synchronized void put(UUID uuid, BigInteger sequenceNo, List<AidsToNavigation> atons, List<AidsToNavigationTypeImpl> atonMembers) {
+        if(Objects.isNull(uuid) || atons.size() != atonMembers.size()) {
+            return;
+        }
+        final Map<BigInteger, Member> members = new HashMap<>();
+        for(int i = 0; i < atons.size(); i++) {
+            final AidsToNavigation aton = atons.get(i);
+            if(Objects.nonNull(aton.getId())) {
+                members.put(aton.getId(), new Member(DatasetMemberCache.fingerprint(aton), atonMembers.get(i)));
+            }
+        }
+        this.cache.put(uuid, new DatasetMembers(sequenceNo, members, atons.stream()
+                .map(AidsToNavigation::getIdCode)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet())));
+        // Keep the cache bounded by removing the least recently used entries
+        final Iterator<UUID> iterator = this.cache.keySet().iterator();
+        while(this.cache.size() > this.maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Evicts the cached members of the provided dataset.
+     *
+     * @param uuid the UUID of the dataset
+     */
+    public synchronized void evict(UUID uuid) {
+        this.cache.remove(uuid);
+    }
+
+    /**
+     * Returns the number of datasets with cached members.
+     *
+     * @return the number of datasets with cached members
+     */
+    public synchronized int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Returns the cached members of the provided dataset, or an empty map
+     * if none are available.
+     *
+     * @param uuid the UUID of the dataset
+     * @return the cached members of the dataset mapped by the AtoN IDs
+     */
+    protected synchronized Map<BigInteger, Member> getMembers(UUID uuid) {
+        return Optional.ofNullable(uuid)
+                .map(this.cache::get)
+                .map(DatasetMembers::members)
+                .orElseGet(Collections::emptyMap);
+    }
+
+    /**
+     * Generates the fingerprint of the provided AtoN, which should change
+     * whenever its S-125 member representation changes.
+     *
+     * @param aton the AtoN to generate the fingerprint for
+     * @return the AtoN fingerprint
+     */
+    public static Fingerprint fingerprint(AidsToNavigation aton) {
+        return new Fingerprint(
+                aton.getClass(),
+                aton.getLastModifiedAt(),
+                Optional.of(aton)
+                        .filter(Equipment.class::isInstance)
+                        .map(Equipment.class::cast)
+                        .map(Equipment::getParent)
+                        .map(AidsToNavigation::getId)
+                        .orElse(null),
+                Optional.of(aton)
+                        .filter(StructureObject.class::isInstance)
+                        .map(StructureObject.class::cast)
+                        .map(StructureObject::getChildren)
+                        .orElseGet(Collections::emptySet)
+                        .stream()
+                        .map(AidsToNavigation::getId)
+                        .filter(Objects::nonNull)
+                        .sorted()
+                        .toList(),
+                aton.getFeatureNames()
+                        .stream()
+                        .map(featureName -> Arrays.<Object>asList(featureName.getName(), featureName.getLanguage(), featureName.getDisplayName()))
+                        .collect(Collectors.toList()),
+                aton.getInformations()
+                        .stream()
+                        .map(information -> Arrays.<Object>asList(information.getFileLocator(), information.getFileReference(), information.getHeadline(), information.getLanguage(), information.getText()))
+                        .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * The fingerprint of an AtoN mapped into an S-125 member.
+     *
+     * @param type the local AtoN type
+     * @param lastModifiedAt the last modification time of the AtoN
+     * @param parentId the ID of the parent structure, for equipment
+     * @param childrenIds the IDs of the children equipment, for structures
+     * @param featureNames the feature name entry values
+     * @param informations the information entry values
+     */
+    public record Fingerprint(Class<?> type,
+                                 LocalDateTime lastModifiedAt,
+                                 BigInteger parentId,
+                                 List<BigInteger> childrenIds,
+                                 List<List<Object>> featureNames,
+                                 List<List<Object>> informations) {
+    }
+
+    /**
+     * The cached S-125 member of an AtoN.
+     *
+     * @param fingerprint the fingerprint of the AtoN when it was mapped
+     * @param member the S-125 member representation of the AtoN
+     */
+    protected record Member(Fingerprint fingerprint, AidsToNavigationTypeImpl member) {
+    }
+
+    /**
+     * The cached S-125 members of a dataset content.
+     *
+     * @param sequenceNo the sequence number of the dataset content
+     * @param members the S-125 members mapped by the AtoN IDs
+     * @param idCodes the ID codes of the members
+     */
+    private record DatasetMembers(BigInteger sequenceNo, Map<BigInteger, Member> members, Set<String> idCodes) {
+    }
+
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.grad.eNav.atonService.services.DatasetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Dataset Regeneration Scheduler Component.
+ * <p>
+ * Bursts of AtoN changes can trigger a large number of content regeneration
+ * requests for the same datasets within a short period of time. This
+ * component schedules these regenerations so that at most one generation is
+ * pending and one is running for each dataset at any time.
+ * <p>
+ * A requested regeneration will only start once no further requests for the
+ * same dataset have arrived for a configurable quiet period, so that all the
+ * requests of a burst are merged into a single generation. To avoid starving
+ * datasets under constant changes, a regeneration will always start once
+ * the first merged request has waited for the maximum staleness period. If a
+ * generation is already running for the dataset, the pending one will be
+ * started as soon as the running one completes.
+ * <p>
+ * The scheduling state is only updated while holding the scheduler lock,
+ * while the regenerations themselves are always started after releasing
+ * it, so that slow generation submissions do not block the scheduling of
+ * further requests.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class DatasetRegenerationScheduler {
+
+    /**
+     * The quiet period in milliseconds to wait for further requests.
+     */
+    @Value("${gla.rad.aton-service.dataset-regeneration.quiet-period:500}")
+    long quietPeriod;
+
+    /**
+     * The maximum period in milliseconds a request can be pending for.
+     */
+    @Value("${gla.rad.aton-service.dataset-regeneration.max-staleness:5000}")
+    long maxStaleness;
+
+    /**
+     * The Dataset Service.
+     */
+    @Lazy
+    @Autowired
+    DatasetService datasetService;
+
+    /**
+     * The Meter Registry.
+     */
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // Component Variables
+    private final Map<UUID, State> states = new HashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong generations = new AtomicLong();
+    private ScheduledExecutorService executor;
+
+    /**
+     * The component post-construct operations where the scheduling executor
+     * is initialised, and the scheduler metrics are registered.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Dataset Regeneration Scheduler is booting up...");
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "dataset-regeneration");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Register the scheduler metrics
+        FunctionCounter.builder("aton.dataset.regeneration.requests", this.requests, AtomicLong::doubleValue)
+                .description("The number of requested dataset content regenerations")
+                .register(this.meterRegistry);
+        FunctionCounter.builder("aton.dataset.regeneration.generations", this.generations, AtomicLong::doubleValue)
+                .description("The number of started dataset content regenerations")
+                .register(this.meterRegistry);
+        Gauge.builder("aton.dataset.regeneration.queue.depth", this, DatasetRegenerationScheduler::getQueueDepth)
+                .description("The number of datasets with a pending content regeneration")
+                .register(this.meterRegistry);
+        Gauge.builder("aton.dataset.regeneration.running", this, DatasetRegenerationScheduler::getRunning)
+                .description("The number of datasets with a running content regeneration")
+                .register(this.meterRegistry);
+        Gauge.builder("aton.dataset.regeneration.coalescing.ratio", this, DatasetRegenerationScheduler::getCoalescingRatio)
+                .description("The ratio of regeneration requests merged into other ones")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * When shutting down the application we need to make sure that the
+     * scheduling executor is stopped.
+     */
+    @PreDestroy
+    public void destroy() {
+        log.info("Dataset Regeneration Scheduler is shutting down...");
+        Optional.ofNullable(this.executor).ifPresent(ExecutorService::shutdownNow);
+    }
+
+    /**
+     * Requests a content regeneration for the dataset with the provided UUID.
+     * If a regeneration is already pending for this dataset, the request is
+     * merged into it and its start is postponed by the quiet period, but
+     * never beyond the maximum staleness period.
+     *
+     * @param uuid the UUID of the dataset to regenerate the content for
+     */
+    public synchronized void schedule(UUID uuid) {
+        this.requests.incrementAndGet();
+        final State state = this.states.computeIfAbsent(uuid, k -> new State());
+        final long now = System.currentTimeMillis();
+
+        // Merge with any pending request
+        if(Objects.isNull(state.pendingSince)) {
+            state.pendingSince = now;
+        }
+        Optional.ofNullable(state.timer).ifPresent(timer -> timer.cancel(false));
+
+        // And schedule the start, respecting the maximum staleness
+        final long startAt = Math.min(now + this.quietPeriod, state.pendingSince + this.maxStaleness);
+        state.timer = this.executor.schedule(() -> this.fire(uuid), Math.max(0, startAt - now), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the number of datasets with a pending content regeneration.
+     *
+     * @return the number of pending regenerations
+     */
+    public synchronized long getQueueDepth() {
+        return this.states.values().stream()
+                .filter(state -> Objects.nonNull(state.pendingSince))
+                .count();
+    }
+
+    /**
+     * Returns the number of datasets with a running content regeneration.
+     *
+     * @return the number of running regenerations
+     */
+    public synchronized long getRunning() {
+        return this.states.values().stream()
+                .filter(state -> state.running)
+                .count();
+    }
+
+    /**
+     * Returns the ratio of the regeneration requests that were merged into
+     * other ones, instead of starting a regeneration on their own.
+     *
+     * @return the coalescing ratio
+     */
+    public double getCoalescingRatio() {
+        final double total = this.requests.get();
+        return total > 0 ? 1.0 - Math.min(this.generations.get(), this.requests.get()) / total : 0.0;
+    }
+
+    /**
+     * Starts the pending regeneration of the dataset with the provided UUID
+     * once its timer expires, unless a generation is still running, in which
+     * case it will be started when that completes.
+     * <p>
+     * Any other pending regenerations that are due within the quiet period
+     * and are not blocked by a running generation are started along with it
+     * in a single batch, so that overlapping datasets can share the loading
+     * and mapping of their Aids to Navigation.
+     *
+     * @param uuid the UUID of the dataset to regenerate the content for
+     */
+    protected void fire(UUID uuid) {
+        final Set<UUID> batch = new LinkedHashSet<>();
+        synchronized(this) {
+            final State state = this.states.get(uuid);
+            if(Objects.isNull(state) || Objects.isNull(state.pendingSince)) {
+                return;
+            }
+            state.timer = null;
+            if(state.running) {
+                return;
+            }
+
+            // Collect all the other pending regenerations due soon
+            batch.add(uuid);
+            this.states.forEach((otherUuid, otherState) -> {
+                if(Objects.nonNull(otherState.pendingSince)
+                        && !otherState.running
+                        && Objects.nonNull(otherState.timer)
+                        && otherState.timer.getDelay(TimeUnit.MILLISECONDS) <= this.quietPeriod) {
+                    otherState.timer.cancel(false);
+                    otherState.timer = null;
+                    batch.add(otherUuid);
+                }
+            });
+            this.claim(batch);
+        }
+        this.start(batch);
+    }
+
+    /**
+     * Marks the running regeneration of the dataset with the provided UUID
+     * as completed, and starts the pending one if its timer has already
+     * expired.
+     *
+     * @param uuid the UUID of the dataset to regenerate the content for
+     */
+    protected void complete(UUID uuid) {
+        synchronized(this) {
+            final State state = this.states.get(uuid);
+            if(Objects.isNull(state)) {
+                return;
+            }
+            state.running = false;
+            if(Objects.isNull(state.pendingSince)) {
+                this.states.remove(uuid);
+                return;
+            } else if(Objects.nonNull(state.timer)) {
+                return;
+            }
+            this.claim(Collections.singleton(uuid));
+        }
+        this.start(Collections.singleton(uuid));
+    }
+
+    /**
+     * Marks the pending regenerations of the datasets with the provided UUIDs
+     * as running. This must be called while holding the scheduler lock.
+     *
+     * @param uuids the UUIDs of the datasets to regenerate the content for
+     */
+    private void claim(Set<UUID> uuids) {
+        for(UUID uuid : uuids) {
+            final State state = this.states.get(uuid);
+            state.pendingSince = null;
+            state.running = true;
+            this.generations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Starts the regeneration of the datasets with the provided UUIDs as a
+     * single batch, once they have been claimed. A single dataset is
+     * regenerated on its own. This must be called without holding the
+     * scheduler lock.
+     *
+     * @param uuids the UUIDs of the datasets to regenerate the content for
+     */
+    private void start(Set<UUID> uuids) {
+        log.debug("Starting the content regeneration of datasets with UUIDs {}", uuids);
+
+        Map<UUID, CompletableFuture<?>> generations;
+        try {
+            if(uuids.size() == 1) {
+                final UUID uuid = uuids.iterator().next();
+                generations = new HashMap<>();
+                generations.put(uuid, this.datasetService.updateDatasetContent(uuid));
+            } else {
+                generations = new HashMap<>(this.datasetService.updateDatasetContents(uuids));
+            }
+        } catch (Exception ex) {
+            generations = new HashMap<>();
+            for(UUID uuid : uuids) {
+                generations.put(uuid, CompletableFuture.failedFuture(ex));
+            }
+        }
+        for(UUID uuid : uuids) {
+            Optional.ofNullable(generations.get(uuid))
+                    .orElseGet(() -> CompletableFuture.completedFuture(null))
+                    .whenComplete((result, ex) -> this.complete(uuid));
+        }
+    }
+
+    /**
+     * The regeneration scheduling state of a dataset.
+     */
+    private static class State {
+        private Long pendingSince;
+        private boolean running;
+        private ScheduledFuture<?> timer;
+    }
+
+}
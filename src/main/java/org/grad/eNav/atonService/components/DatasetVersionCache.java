@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Dataset Version Cache Component.
+ * <p>
+ * Once the dataset content log has been compacted, the historic versions of
+ * a dataset content need to be reconstructed from the nearest snapshot and
+ * the following deltas. This component keeps the recently reconstructed
+ * versions, keyed by the ID of the dataset content log entry they belong to,
+ * so that repeated historic queries do not need to repeat the
+ * reconstruction. Since the log entries are never modified after their
+ * generation, the cached versions never go stale.
+ * <p>
+ * The versions are held on heap in a least-recently-used cache, bounded by
+ * the total number of cached characters.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class DatasetVersionCache {
+
+    /**
+     * The maximum number of version characters to be held on heap.
+     */
+    @Value("${gla.rad.aton-service.dataset-version-cache.max-size:16777216}")
+    long maxSize;
+
+    /**
+     * The Meter Registry.
+     */
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // Component Variables
+    private final Map<BigInteger, String> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long weight = 0;
+
+    /**
+     * The component post-construct operations where the cache metrics are
+     * registered.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Dataset Version Cache is booting up...");
+        FunctionCounter.builder("aton.dataset.version.cache.hits", this.hits, AtomicLong::doubleValue)
+                .description("The number of dataset version cache hits")
+                .register(this.meterRegistry);
+        FunctionCounter.builder("aton.dataset.version.cache.misses", this.misses, AtomicLong::doubleValue)
+                .description("The number of dataset version cache misses")
+                .register(this.meterRegistry);
+        Gauge.builder("aton.dataset.version.cache.weight", this, DatasetVersionCache::getWeight)
+                .description("The number of dataset version characters held on heap")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Retrieves the cached dataset content version of the dataset content
+     * log entry with the provided ID, if available.
+     *
+     * @param id the ID of the dataset content log entry
+     * @return the cached dataset content version, if available
+     */
+    public synchronized Optional<String> get(BigInteger id) {
+        final Optional<String> result = Optional.ofNullable(id)
+                .map(this.cache::get);
+        (result.isPresent() ? this.hits : this.misses).incrementAndGet();
+        return result;
+    }
+
+    /**
+     * Stores the reconstructed dataset content version of the dataset
+     * content log entry with the provided ID. Versions larger than the
+     * maximum cache size are not cached at all.
+     *
+     * @param id the ID of the dataset content log entry
+     * @param content the reconstructed dataset content version
+     */
+    public synchronized void put(BigInteger id, String content) {
+        if(Objects.isNull(id) || Objects.isNull(content) || content.length() > this.maxSize) {
+            return;
+        }
+        Optional.ofNullable(this.cache.put(id, content))
+                .ifPresent(previous -> this.weight -= previous.length());
+        this.weight += content.length();
+        // Keep the cache bounded by evicting the least recently used entries
+        final Iterator<Map.Entry<BigInteger, String>> iterator = this.cache.entrySet().iterator();
+        while(this.weight > this.maxSize && iterator.hasNext()) {
+            final Map.Entry<BigInteger, String> evicted = iterator.next();
+            iterator.remove();
+            this.weight -= evicted.getValue().length();
+        }
+    }
+
+    /**
+     * Returns the number of version characters currently held on heap.
+     *
+     * @return the number of version characters held on heap
+     */
+    public synchronized long getWeight() {
+        return this.weight;
+    }
+
+    /**
+     * Returns the number of versions currently cached.
+     *
+     * @return the number of cached versions
+     */
+    public synchronized int size() {
+        return this.cache.size();
+    }
+
+}
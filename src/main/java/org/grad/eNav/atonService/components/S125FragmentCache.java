@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The S-125 Fragment Cache Component.
+ * <p>
+ * Marshalling the S-125 members of the Aids to Navigation is the most
+ * expensive part of the dataset content generation, and the same AtoN is
+ * marshalled again for each overlapping dataset it belongs to. This
+ * component keeps the marshalled XML fragments of the AtoN members, keyed by
+ * the AtoN ID and its fingerprint (which includes the last modification
+ * time), so that only new or changed entries need to be marshalled.
+ * <p>
+ * The fragments are held on heap in a least-recently-used cache, bounded by
+ * the total number of cached characters. If a spill directory is configured,
+ * the evicted fragments are written to disk and read back when requested.
+ * Only the latest fragment of each AtoN is retained.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class S125FragmentCache {
+
+    /**
+     * The maximum number of fragment characters to be held on heap.
+     */
+    @Value("${gla.rad.aton-service.fragment-cache.max-size:16777216}")
+    long maxSize;
+
+    /**
+     * The directory to spill the evicted fragments to, if any.
+     */
+    @Value("${gla.rad.aton-service.fragment-cache.spill-directory:}")
+    String spillDirectory;
+
+    /**
+     * The Meter Registry.
+     */
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // Component Variables
+    private final Map<BigInteger, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<BigInteger, Spill> spilled = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong spills = new AtomicLong();
+    private long weight = 0;
+    private long spillCounter = 0;
+    private Path spillPath;
+
+    /**
+     * The component post-construct operations where the spill directory is
+     * prepared, and the cache metrics are registered.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("S-125 Fragment Cache is booting up...");
+        if(StringUtils.isNotBlank(this.spillDirectory)) {
+            try {
+                this.spillPath = Files.createDirectories(Path.of(this.spillDirectory));
+            } catch (IOException ex) {
+                log.error("Failed to create the S-125 fragment cache spill directory {}: {}", this.spillDirectory, ex.getMessage());
+            }
+        }
+
+        // Register the cache metrics
+        FunctionCounter.builder("aton.fragment.cache.hits", this.hits, AtomicLong::doubleValue)
+                .description("The number of S-125 fragment cache hits")
+                .register(this.meterRegistry);
+        FunctionCounter.builder("aton.fragment.cache.misses", this.misses, AtomicLong::doubleValue)
+                .description("The number of S-125 fragment cache misses")
+                .register(this.meterRegistry);
+        FunctionCounter.builder("aton.fragment.cache.spills", this.spills, AtomicLong::doubleValue)
+                .description("The number of S-125 fragments spilled to disk")
+                .register(this.meterRegistry);
+        Gauge.builder("aton.fragment.cache.weight", this, S125FragmentCache::getWeight)
+                .description("The number of S-125 fragment characters held on heap")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * When shutting down the application we need to make sure that the
+     * spilled fragments are cleared from the disk.
+     */
+    @PreDestroy
+    public synchronized void destroy() {
+        log.info("S-125 Fragment Cache is shutting down...");
+        this.spilled.values().forEach(spill -> this.deleteSpill(spill.path()));
+        this.spilled.clear();
+    }
+
+    /**
+     * Retrieves the cached XML fragment of the provided AtoN member, if
+     * available for its current fingerprint.
+     *
+     * @param aton the AtoN to retrieve the fragment for
+     * @return the cached XML fragment, if available
+     */
+    public synchronized Optional<String> get(AidsToNavigation aton) {
+        final Optional<String> result = Optional.ofNullable(aton)
+                .filter(a -> Objects.nonNull(a.getId()) && Objects.nonNull(a.getLastModifiedAt()))
+                .flatMap(a -> this.lookup(a.getId(), DatasetMemberCache.fingerprint(a)));
+        (result.isPresent() ? this.hits : this.misses).incrementAndGet();
+        return result;
+    }
+
+    /**
+     * Stores the XML fragment of the provided AtoN member against its
+     * current fingerprint, replacing any previous fragment of that AtoN.
+     *
+     * @param aton the AtoN to store the fragment for
+     * @param fragment the marshalled XML fragment of the AtoN member
+     */
+    public synchronized void put(AidsToNavigation aton, String fragment) {
+        if(Objects.isNull(aton) || Objects.isNull(aton.getId()) || Objects.isNull(aton.getLastModifiedAt()) || Objects.isNull(fragment)) {
+            return;
+        }
+        this.remove(aton.getId());
+        this.cache.put(aton.getId(), new Entry(DatasetMemberCache.fingerprint(aton), fragment));
+        this.weight += fragment.length();
+        // Keep the cache bounded by evicting the least recently used entries
+        final Iterator<Map.Entry<BigInteger, Entry>> iterator = this.cache.entrySet().iterator();
+        while(this.weight > this.maxSize && iterator.hasNext()) {
+            final Map.Entry<BigInteger, Entry> evicted = iterator.next();
+            iterator.remove();
+            this.weight -= evicted.getValue().fragment().length();
+            this.spill(evicted.getKey(), evicted.getValue());
+        }
+    }
+
+    /**
+     * Evicts the cached fragment of the AtoN with the provided ID, both from
+     * the heap and the disk.
+     *
+     * @param id the ID of the AtoN
+     */
+    public synchronized void evict(BigInteger id) {
+        this.remove(id);
+    }
+
+    /**
+     * Returns the number of fragment characters currently held on heap.
+     *
+     * @return the number of fragment characters held on heap
+     */
+    public synchronized long getWeight() {
+        return this.weight;
+    }
+
+    /**
+     * Returns the number of fragments currently cached, both on heap and on
+     * disk.
+     *
+     * @return the number of cached fragments
+     */
+    public synchronized int size() {
+        return this.cache.size() + this.spilled.size();
+    }
+
+    /**
+     * Looks up the fragment of the AtoN with the provided ID and fingerprint,
+     * first on heap and then on disk. Fragments read from the disk are moved
+     * back into the heap.
+     *
+     * @param id the ID of the AtoN
+     * @param fingerprint the current fingerprint of the AtoN
+     * @return the cached XML fragment, if available
+     */
+    private Optional<String> lookup(BigInteger id, DatasetMemberCache.Fingerprint fingerprint) {
+        final Entry entry = this.cache.get(id);
+        if(Objects.nonNull(entry)) {
+            return Optional.of(entry)
+                    .filter(e -> e.fingerprint().equals(fingerprint))
+                    .map(Entry::fragment);
+        }
+        final Spill spill = this.spilled.get(id);
+        if(Objects.isNull(spill) || !spill.fingerprint().equals(fingerprint)) {
+            return Optional.empty();
+        }
+        try {
+            final String fragment = Files.readString(spill.path(), StandardCharsets.UTF_8);
+            this.spilled.remove(id);
+            this.deleteSpill(spill.path());
+            this.cache.put(id, new Entry(fingerprint, fragment));
+            this.weight += fragment.length();
+            return Optional.of(fragment);
+        } catch (IOException ex) {
+            log.warn("Failed to read the spilled S-125 fragment of AtoN {}: {}", id, ex.getMessage());
+            this.spilled.remove(id);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Removes any cached fragments of the AtoN with the provided ID.
+     *
+     * @param id the ID of the AtoN
+     */
+    private void remove(BigInteger id) {
+        Optional.ofNullable(this.cache.remove(id))
+                .ifPresent(entry -> this.weight -= entry.fragment().length());
+        Optional.ofNullable(this.spilled.remove(id))
+                .ifPresent(spill -> this.deleteSpill(spill.path()));
+    }
+
+    /**
+     * Spills the provided evicted entry to the disk, if a spill directory
+     * has been configured.
+     *
+     * @param id the ID of the AtoN
+     * @param entry the evicted cache entry
+     */
+    private void spill(BigInteger id, Entry entry) {
+        if(Objects.isNull(this.spillPath)) {
+            return;
+        }
+        try {
+            final Path path = this.spillPath.resolve("fragment-" + (this.spillCounter++) + ".xml");
+            Files.writeString(path, entry.fragment(), StandardCharsets.UTF_8);
+            this.spilled.put(id, new Spill(entry.fingerprint(), path));
+            this.spills.incrementAndGet();
+        } catch (IOException ex) {
+            log.warn("Failed to spill the S-125 fragment of AtoN {}: {}", id, ex.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the provided spilled fragment file from the disk.
+     *
+     * @param path the path of the spilled fragment file
+     */
+    private void deleteSpill(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Failed to delete the spilled S-125 fragment {}: {}", path, ex.getMessage());
+        }
+    }
+
+    /**
+     * The S-125 fragment cache entry.
+     *
+     * @param fingerprint the fingerprint of the AtoN when it was marshalled
+     * @param fragment the marshalled XML fragment of the AtoN member
+     */
+    private record Entry(DatasetMemberCache.Fingerprint fingerprint, String fragment) {
+    }
+
+    /**
+     * The S-125 fragment spilled to disk.
+     *
+     * @param fingerprint the fingerprint of the AtoN when it was marshalled
+     * @param path the path of the spilled fragment file
+     */
+    private record Spill(DatasetMemberCache.Fingerprint fingerprint, Path path) {
+    }
+
+}
@@ -38,7 +38,6 @@ import org.grad.eNav.atonService.models.dtos.S125Node;
 import org.grad.eNav.atonService.services.AidsToNavigationService;
 import org.grad.eNav.atonService.services.DatasetService;
 import org.grad.eNav.atonService.utils.GeometryJSONConverter;
-import org.grad.eNav.atonService.utils.GeometryUtils;
 import org.grad.eNav.s125.utils.S125Utils;
 import org.grad.secom.core.models.enums.SECOM_DataProductType;
 import org.locationtech.geomesa.kafka.utils.KafkaFeatureEvent;
@@ -48,8 +47,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.integration.channel.PublishSubscribeChannel;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.MessageHeaders;
@@ -93,6 +90,12 @@ public class S125GDSListener implements FeatureListener {
     @Autowired
     DatasetService datasetService;
 
+    /**
+     * The Dataset Coverage Index.
+     */
+    @Autowired
+    DatasetCoverageIndex datasetCoverageIndex;
+
     /**
      * The AtoN Information Channel to publish the published data to.
      */
@@ -158,8 +161,8 @@ public class S125GDSListener implements FeatureListener {
             return;
         }
 
-        // Combine all geometries to figure out the affected area
-        Geometry affectedGeometry = null;
+        // Collect all geometries to figure out the affected datasets
+        List<Geometry> affectedGeometries = Collections.emptyList();
 
         // For feature additions/changes
         if (featureEvent.getType() == FeatureEvent.Type.CHANGED) {
@@ -188,12 +191,11 @@ public class S125GDSListener implements FeatureListener {
                     .map(MessageBuilder::build)
                     .forEach(msg -> this.atonPublicationChannel.send(msg));
 
-            // And now calculate the affected geometry of the changes
-            affectedGeometry = listOfAtons.stream()
+            // And now collect the affected geometries of the changes
+            affectedGeometries = listOfAtons.stream()
                     .map(AidsToNavigation::getGeometry)
                     .filter(Objects::nonNull)
-                    .reduce(GeometryUtils::joinGeometries)
-                    .orElse(null);
+                    .collect(Collectors.toList());
         }
         // For feature deletions,
         else if (featureEvent.getType() == FeatureEvent.Type.REMOVED) {
@@ -224,25 +226,15 @@ public class S125GDSListener implements FeatureListener {
                     .map(MessageBuilder::build)
                     .forEach(msg -> this.atonDeletionChannel.send(msg));
 
-            // And now calculate the affected geometry of the changes
-            affectedGeometry = listOfAtons.stream()
+            // And now collect the affected geometries of the changes
+            affectedGeometries = listOfAtons.stream()
                     .map(AidsToNavigation::getGeometry)
                     .filter(Objects::nonNull)
-                    .reduce(GeometryUtils::joinGeometries)
-                    .orElse(null);
+                    .collect(Collectors.toList());
         }
 
-        // Now we should update all datasets that are affected in this area.
-        Optional.ofNullable(affectedGeometry)
-                .map(geometry -> this.datasetService.findAll(null,
-                        geometry,
-                        null,
-                        null,
-                        Boolean.FALSE,
-                        Pageable.unpaged()))
-                .orElse(Page.empty())
-                .stream()
-                .map(S125Dataset::getUuid)
+        // Now we should update all datasets that are affected by the changes
+        this.datasetCoverageIndex.findAffectedDatasets(affectedGeometries)
                 .forEach(this.datasetService::requestDatasetContentUpdate);
     }
 
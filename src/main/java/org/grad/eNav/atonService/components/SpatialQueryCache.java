@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
+import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.integration.channel.PublishSubscribeChannel;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Spatial Query Cache Component.
+ * <p>
+ * The same few geometries (e.g. port polygons and UN/LOCODE circles) are
+ * repeatedly used to query for the datasets and the Aids to Navigation. This
+ * component keeps a bounded, least-recently-used cache of the matching entity
+ * IDs, keyed by the normalised query geometry and the rest of the query filter
+ * parameters, so that the search index does not need to be queried each time.
+ * <p>
+ * The cached entries are invalidated by the AtoN and dataset change events
+ * published through the respective publish-subscribe channels. Only the
+ * entries that either include the changed entity, or whose geometry intersects
+ * the geometry of the changed entity are evicted. To avoid caching results
+ * computed concurrently with an invalidation, each result is stored against
+ * the cache generation it was computed in, and discarded if that generation
+ * is no longer current.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Component
+@Slf4j
+public class SpatialQueryCache implements MessageHandler {
+
+    /**
+     * The maximum number of cached query results.
+     */
+    @Value("${gla.rad.aton-service.spatial-query-cache.size:256}")
+    int maxSize;
+
+    /**
+     * The Meter Registry.
+     */
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    /**
+     * The S-125 Dataset Channel to listen for the publications to.
+     */
+    @Autowired
+    @Qualifier("s125PublicationChannel")
+    PublishSubscribeChannel s125PublicationChannel;
+
+    /**
+     * The S-125 Dataset Channel to listen for the removals to.
+     */
+    @Autowired
+    @Qualifier("s125RemovalChannel")
+    PublishSubscribeChannel s125RemovalChannel;
+
+    /**
+     * The AtoN Channel to listen for the publications to.
+     */
+    @Autowired
+    @Qualifier("atonPublicationChannel")
+    PublishSubscribeChannel atonPublicationChannel;
+
+    /**
+     * The AtoN Channel to listen for the deletions to.
+     */
+    @Autowired
+    @Qualifier("atonDeletionChannel")
+    PublishSubscribeChannel atonDeletionChannel;
+
+    // Component Variables
+    private final Map<Key, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long generation = 0;
+
+    /**
+     * The component post-construct operations where the handler auto-registers
+     * it-self to the AtoN and dataset channels, and the cache metrics are
+     * registered.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Spatial Query Cache is booting up...");
+        this.s125PublicationChannel.subscribe(this);
+        this.s125RemovalChannel.subscribe(this);
+        this.atonPublicationChannel.subscribe(this);
+        this.atonDeletionChannel.subscribe(this);
+
+        // Register the cache metrics
+        FunctionCounter.builder("aton.spatial.query.cache.hits", this.hits, AtomicLong::doubleValue)
+                .description("The number of spatial query cache hits")
+                .register(this.meterRegistry);
+        FunctionCounter.builder("aton.spatial.query.cache.misses", this.misses, AtomicLong::doubleValue)
+                .description("The number of spatial query cache misses")
+                .register(this.meterRegistry);
+        FunctionCounter.builder("aton.spatial.query.cache.evictions", this.evictions, AtomicLong::doubleValue)
+                .description("The number of spatial query cache invalidations")
+                .register(this.meterRegistry);
+        Gauge.builder("aton.spatial.query.cache.hit.ratio", this, SpatialQueryCache::getHitRatio)
+                .description("The ratio of spatial queries answered by the cache")
+                .register(this.meterRegistry);
+        Gauge.builder("aton.spatial.query.cache.size", this, SpatialQueryCache::size)
+                .description("The number of cached spatial query results")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * When shutting down the application we need to make sure that the
+     * handler is no longer subscribed to any of the channels.
+     */
+    @PreDestroy
+    public void destroy() {
+        log.info("Spatial Query Cache is shutting down...");
+        Optional.ofNullable(this.s125PublicationChannel).ifPresent(channel -> channel.unsubscribe(this));
+        Optional.ofNullable(this.s125RemovalChannel).ifPresent(channel -> channel.unsubscribe(this));
+        Optional.ofNullable(this.atonPublicationChannel).ifPresent(channel -> channel.unsubscribe(this));
+        Optional.ofNullable(this.atonDeletionChannel).ifPresent(channel -> channel.unsubscribe(this));
+    }
+
+    /**
+     * Generates the cache key for a query of the provided entity type, on the
+     * provided geometry and with the provided filter parameters. The geometry
+     * is normalised so that equivalent geometries result in the same key.
+     *
+     * @param type the type of the queried entities
+     * @param geometry the query geometry
+     * @param filters the rest of the query filter parameters
+     * @return the cache key
+     */
+    public Key createKey(Class<?> type, Geometry geometry, Object... filters) {
+        return new Key(type, geometry.norm(), Arrays.asList(filters));
+    }
+
+    /**
+     * Returns the current generation of the cache. This should be retrieved
+     * before a query is executed and provided back when its result is stored.
+     *
+     * @return the current generation of the cache
+     */
+    public synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Retrieves the cached IDs of the entities matching the query of the
+     * provided key, if available. Since queries without a key cannot be
+     * cached, these are not counted as cache misses.
+     *
+     * @param key the cache key
+     * @return the cached matching entity IDs, if available
+     */
+    public synchronized Optional<List<Object>> get(Key key) {
+        if(Objects.isNull(key)) {
+            return Optional.empty();
+        }
+        final Optional<List<Object>> result = Optional.ofNullable(this.cache.get(key))
+                .map(Entry::ids);
+        (result.isPresent() ? this.hits : this.misses).incrementAndGet();
+        return result;
+    }
+
+    /**
+     * Stores the IDs of the entities matching the query of the provided key.
+     * If the cache has been invalidated since the provided generation, the
+     * result could already be outdated, and it will not be stored.
+     *
+     * @param key the cache key
+     * @param generation the cache generation at the time the query was executed
+     * @param ids the matching entity IDs
+     */
+    public synchronized void put(Key key, long generation, List<?> ids) {
+        if(Objects.isNull(key) || generation != this.generation) {
+            return;
+        }
+        this.cache.put(key, new Entry(List.copyOf(ids), new HashSet<>(ids)));
+        // Keep the cache bounded by removing the least recently used entries
+        final Iterator<Key> iterator = this.cache.keySet().iterator();
+        while(this.cache.size() > this.maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Evicts all the cached results for the provided entity type that either
+     * include the provided entity ID, or whose query geometry intersects
+     * the provided geometry.
+     *
+     * @param type the type of the changed entity
+     * @param id the ID of the changed entity
+     * @param geometry the geometry of the changed entity
+     */
+    public synchronized void evict(Class<?> type, Object id, Geometry geometry) {
+        this.generation++;
+        final Iterator<Map.Entry<Key, Entry>> iterator = this.cache.entrySet().iterator();
+        while(iterator.hasNext()) {
+            final Map.Entry<Key, Entry> entry = iterator.next();
+            if(!entry.getKey().type().isAssignableFrom(type)) {
+                continue;
+            }
+            if((Objects.nonNull(id) && entry.getValue().idSet().contains(id))
+                    || (Objects.nonNull(geometry) && entry.getKey().geometry().intersects(geometry))) {
+                iterator.remove();
+                this.evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of the currently cached query results.
+     *
+     * @return the number of the currently cached query results
+     */
+    public synchronized int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Returns the ratio of the cache lookups that resulted in a hit.
+     *
+     * @return the cache hit ratio
+     */
+    public double getHitRatio() {
+        final double total = this.hits.get() + this.misses.get();
+        return total > 0 ? this.hits.get() / total : 0.0;
+    }
+
+    /**
+     * This is a simple handler for the incoming AtoN and dataset messages.
+     * Each message will evict the cached results that might be affected by
+     * the change of the entity in its payload.
+     *
+     * @param message               The message to be handled
+     * @throws MessagingException   The Messaging exceptions that might occur
+     */
+    @Override
+    public void handleMessage(Message<?> message) throws MessagingException {
+        if(message.getPayload() instanceof AidsToNavigation aidsToNavigation) {
+            this.evict(AidsToNavigation.class, aidsToNavigation.getId(), aidsToNavigation.getGeometry());
+        } else if(message.getPayload() instanceof S125Dataset s125Dataset) {
+            this.evict(S125Dataset.class, s125Dataset.getUuid(), s125Dataset.getGeometry());
+        } else {
+            log.warn("Spatial query cache received a publish-subscribe message with erroneous format.");
+        }
+    }
+
+    /**
+     * The spatial query cache key.
+     *
+     * @param type the type of the queried entities
+     * @param geometry the normalised query geometry
+     * @param filters the rest of the query filter parameters
+     */
+    public record Key(Class<?> type, Geometry geometry, List<Object> filters) {
+    }
+
+    /**
+     * The spatial query cache entry.
+     *
+     * @param ids the ordered IDs of the matching entities
+     * @param idSet the IDs of the matching entities for quick lookups
+     */
+    private record Entry(List<Object> ids, Set<Object> idSet) {
+    }
+
+}
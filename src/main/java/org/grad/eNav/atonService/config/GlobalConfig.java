@@ -51,11 +51,16 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.time.LocalDate;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -119,6 +124,13 @@ public class GlobalConfig {
                 .setFieldMatchingEnabled(true)
                 .setAmbiguityIgnored(true);
 
+        // The converters and list types used by the mappings are stateless,
+        // so create them once instead of on every mapping call
+        final GeometryS125Converter geometryS125Converter = new GeometryS125Converter();
+        final ReferenceTypeS125Converter referenceTypeS125Converter = new ReferenceTypeS125Converter();
+        final Type informationListType = new TypeToken<List<InformationTypeImpl>>() {}.getType();
+        final Type featureNameListType = new TypeToken<List<FeatureNameTypeImpl>>() {}.getType();
+
         // Configure the dataset top-level mapping first
         modelMapper.emptyTypeMap(S125Dataset.class, DatasetImpl.class)
                 .addMappings(mapper -> {
@@ -150,7 +162,7 @@ public class GlobalConfig {
                                 .map(src -> src, AidsToNavigation::setPeriodStart);
                         mapper.using(ctx -> S125Utils.s100TruncatedDateToLocalDate(((AidsToNavigationType)ctx.getSource()).getPeriodEnd()))
                                 .map(src -> src, AidsToNavigation::setPeriodEnd);
-                        mapper.using(ctx -> new GeometryS125Converter().convertToGeometry(((AidsToNavigationType) ctx.getSource())))
+                        mapper.using(ctx -> geometryS125Converter.convertToGeometry(((AidsToNavigationType) ctx.getSource())))
                                 .map(src -> src, AidsToNavigation::setGeometry);
                     });
 
@@ -170,6 +182,10 @@ public class GlobalConfig {
                         });
             }
 
+            // The S-125 geometries list does not have a common setter, so
+            // resolve the type specific one once, instead of on every call
+            final MethodHandle geometriesSetter = GlobalConfig.getGeometriesSetter(atonType.getS125Class());
+
             modelMapper.createTypeMap(atonType.getLocalClass(), atonType.getS125Class())
                     .implicitMappings()
                     .addMappings(mapper -> {
@@ -183,15 +199,17 @@ public class GlobalConfig {
                                 .map(src -> src, AidsToNavigationType::setPeriodStart);
                         mapper.using(ctx -> S125Utils.localDateToS100TruncatedDate(((AidsToNavigation)ctx.getSource()).getPeriodEnd()))
                                 .map(src -> src, AidsToNavigationType::setPeriodEnd);
-                        mapper.using(ctx -> modelMapper.map(((AidsToNavigation)ctx.getSource()).getInformations(), new TypeToken<List<InformationTypeImpl>>() {}.getType()) )
+                        mapper.using(ctx -> modelMapper.map(((AidsToNavigation)ctx.getSource()).getInformations(), informationListType) )
                                 .map(src -> src, AidsToNavigationTypeImpl::setInformations);
-                        mapper.using(ctx -> modelMapper.map(((AidsToNavigation)ctx.getSource()).getFeatureNames(), new TypeToken<List<FeatureNameTypeImpl>>() {}.getType()) )
+                        mapper.using(ctx -> modelMapper.map(((AidsToNavigation)ctx.getSource()).getFeatureNames(), featureNameListType) )
                                 .map(src -> src, AidsToNavigationTypeImpl::setFeatureNames);
-                        mapper.using(ctx -> new GeometryS125Converter().convertFromGeometry((AidsToNavigation) ctx.getSource()))
+                        mapper.using(ctx -> geometryS125Converter.convertFromGeometry((AidsToNavigation) ctx.getSource()))
                                 .map(src -> src, (dest, val) -> {
                                     try {
-                                        new PropertyDescriptor("geometries", atonType.getS125Class()).getWriteMethod().invoke(dest, val);
-                                    } catch (Exception ex) {
+                                        if(geometriesSetter != null) {
+                                            geometriesSetter.invoke(dest, val);
+                                        }
+                                    } catch (Throwable ex) {
                                         log.error(ex.getMessage());
                                     }
                                 });
@@ -201,7 +219,7 @@ public class GlobalConfig {
             if(atonType.isStructure()) {
                 modelMapper.typeMap(atonType.getLocalStructureClass(), atonType.getS125StructureClass())
                         .addMappings(mapper -> {
-                            mapper.using(ctx -> new ReferenceTypeS125Converter().convertToReferenceTypes(((StructureObject)ctx.getSource()).getChildren(), ReferenceTypeRole.CHILD))
+                            mapper.using(ctx -> referenceTypeS125Converter.convertToReferenceTypes(((StructureObject)ctx.getSource()).getChildren(), ReferenceTypeRole.CHILD))
                                     .map(src-> src, StructureObjectTypeImpl::setchildren);
                         });
             }
@@ -210,7 +228,7 @@ public class GlobalConfig {
             if(atonType.isEquipment()) {
                 modelMapper.typeMap(atonType.getLocalEquipmentClass(), atonType.getS125EquipmentClass())
                         .addMappings(mapper -> {
-                            mapper.using(ctx -> new ReferenceTypeS125Converter().convertToReferenceType(((Equipment) ctx.getSource()).getParent(), ReferenceTypeRole.PARENT))
+                            mapper.using(ctx -> referenceTypeS125Converter.convertToReferenceType(((Equipment) ctx.getSource()).getParent(), ReferenceTypeRole.PARENT))
                                     .map(src-> src, EquipmentTypeImpl::setParent);
                         });
             }
@@ -234,7 +252,7 @@ public class GlobalConfig {
                 .addMappings(mapper -> {
                     mapper.using(ctx -> "ID-AGGR-" + ((Aggregation) ctx.getSource()).getId())
                             .map(src -> src, AggregationImpl::setId);
-                    mapper.using(ctx -> new ReferenceTypeS125Converter().convertToReferenceTypes(((Aggregation) ctx.getSource()).getPeers(), ReferenceTypeRole.AGGREGATION))
+                    mapper.using(ctx -> referenceTypeS125Converter.convertToReferenceTypes(((Aggregation) ctx.getSource()).getPeers(), ReferenceTypeRole.AGGREGATION))
                             .map(src-> src, AggregationImpl::setPeers);
                 });
         modelMapper.createTypeMap(Association.class, AssociationImpl.class)
@@ -242,7 +260,7 @@ public class GlobalConfig {
                 .addMappings(mapper -> {
                     mapper.using(ctx -> "ID-ASSO-" + ((Association) ctx.getSource()).getId())
                             .map(src -> src, AssociationImpl::setId);
-                    mapper.using(ctx -> new ReferenceTypeS125Converter().convertToReferenceTypes(((Association) ctx.getSource()).getPeers(), ReferenceTypeRole.ASSOCIATION))
+                    mapper.using(ctx -> referenceTypeS125Converter.convertToReferenceTypes(((Association) ctx.getSource()).getPeers(), ReferenceTypeRole.ASSOCIATION))
                             .map(src-> src, AssociationImpl::setPeers);
                 });
 
@@ -289,6 +307,39 @@ public class GlobalConfig {
         return modelMapper;
     }
 
+    /**
+     * Resolves the setter of the geometries list of the provided S-125 Aids
+     * to Navigation class into a method handle, so that it can be invoked
+     * directly on every mapping operation.
+     *
+     * <p>
+     * Classes without a geometries property, or with a read-only one, cannot
+     * have their geometries mapped, so no handle is returned for them.
+     *
+     * @param s125Class the S-125 Aids to Navigation class
+     * @return the method handle of the geometries list setter, or null if not found
+     */
+    protected static MethodHandle getGeometriesSetter(Class<?> s125Class) {
+        try {
+            final Method writeMethod = Arrays.stream(Introspector.getBeanInfo(s125Class).getPropertyDescriptors())
+                    .filter(descriptor -> "geometries".equals(descriptor.getName()))
+                    .map(PropertyDescriptor::getWriteMethod)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+            if(writeMethod == null) {
+                log.warn("No geometries setter found for {}, geometries will not be mapped", s125Class.getSimpleName());
+                return null;
+            }
+            return MethodHandles.publicLookup()
+                    .unreflect(writeMethod)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IntrospectionException | IllegalAccessException ex) {
+            log.error("Cannot resolve the geometries setter of {}: {}", s125Class.getSimpleName(), ex.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Converts a whole list of Aids to Navigation objects into an XML string
      * representation conforming to the S-125 data product specification.
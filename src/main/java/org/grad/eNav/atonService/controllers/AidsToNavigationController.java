@@ -19,6 +19,7 @@ package org.grad.eNav.atonService.controllers;
 import lombok.extern.slf4j.Slf4j;
 import org.grad.eNav.atonService.components.DomainDtoMapper;
 import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
+import org.grad.eNav.atonService.models.dtos.AidsToNavigationCountsDto;
 import org.grad.eNav.atonService.models.dtos.datatables.DtPage;
 import org.grad.eNav.atonService.models.dtos.datatables.DtPagingRequest;
 import org.grad.eNav.atonService.models.dtos.s125.AidsToNavigationDto;
@@ -99,6 +100,34 @@ public class AidsToNavigationController {
                 .body(this.aidsToNavigationToDtoMapper.convertToPage(atonPage, AidsToNavigationDto.class));
     }
 
+    /**
+     * GET /api/atons/counts : Returns the number of the current Aids to
+     * Navigation per S-125 type, per status and per geohash cell.
+     *
+     * @param geometry the geometry for AtoN message filtering
+     * @param startDate the start date for AtoN message filtering
+     * @param endDate the end date for AtoN message filtering
+     * @param geohashPrecision the precision of the geohash cells to count the AtoN in
+     * @return the ResponseEntity with status 200 (OK) and the AtoN counts in body
+     */
+    @GetMapping(value = "/counts", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AidsToNavigationCountsDto> getAidsToNavigationCounts(@RequestParam("geometry") Optional<Geometry> geometry,
+                                                                               @RequestParam("startDate") Optional<LocalDateTime> startDate,
+                                                                               @RequestParam("endDate") Optional<LocalDateTime> endDate,
+                                                                               @RequestParam("geohashPrecision") Optional<Integer> geohashPrecision) {
+        log.debug("REST request to get the counts of Aids to Navigation");
+        geometry.ifPresent(v -> log.debug("Aids to Navigation geometry specified as: {}", GeometryJSONConverter.convertFromGeometry(v).toString()));
+        startDate.ifPresent(v -> log.debug("Aids to Navigation start date specified as: {}", startDate));
+        endDate.ifPresent(v -> log.debug("Aids to Navigation end date specified as: {}", endDate));
+        return ResponseEntity.ok()
+                .body(this.aidsToNavigationService.findAllCounts(
+                        geometry.orElse(null),
+                        startDate.orElse(null),
+                        endDate.orElse(null),
+                        geohashPrecision.orElse(4)
+                ));
+    }
+
     /**
      * POST /api/atons/dt : Returns a paged list of all current Aids to
      * Navigation for the datatables front-end.
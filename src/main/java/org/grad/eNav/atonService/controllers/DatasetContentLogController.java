@@ -29,6 +29,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigInteger;
 
@@ -57,35 +58,39 @@ public class DatasetContentLogController {
     /**
      * GET /api/datasetcontentlog/{datasetContentLogId}/data : Returns the
      * content of a dataset content log entry if an existing ID is provided.
+     * The content is streamed into the response while being decompressed,
+     * instead of being built as a whole in memory, within a read-only
+     * transaction of the service so that its database blob can be read.
      *
      * @param datasetContentLogId the ID of the dataset content log entry
      * @return the ResponseEntity with status 200 (OK) and the list of dataset content log content in body
      */
     @GetMapping(value = "/{datasetContentLogId}/data", produces = MediaType.TEXT_PLAIN_VALUE)
-    public ResponseEntity<String> getDatasetContentLogData(@PathVariable BigInteger datasetContentLogId) {
+    public ResponseEntity<StreamingResponseBody> getDatasetContentLogData(@PathVariable BigInteger datasetContentLogId) {
         log.debug("REST request to get the data of the Dataset Content Log with ID {}", datasetContentLogId);
+        // Make sure the entry exists before starting the response
+        this.datasetContentLogService.findOne(datasetContentLogId);
         return ResponseEntity.ok()
-                .body(this.datasetContentLogService
-                        .findOne(datasetContentLogId)
-                        .getContent()
-                );
+                .body(outputStream -> this.datasetContentLogService.transferContent(datasetContentLogId, outputStream));
     }
 
     /**
      * GET /api/datasetcontentlog/{datasetContentLogId}/delta : Returns the diff
-     * of a dataset content log entry if an existing ID is provided.
+     * of a dataset content log entry if an existing ID is provided. The diff
+     * is streamed into the response while being decompressed, instead of
+     * being built as a whole in memory, within a read-only transaction of
+     * the service so that its database blob can be read.
      *
      * @param datasetContentLogId the ID of the dataset content log entry
      * @return the ResponseEntity with status 200 (OK) and the list of dataset content log diff in body
      */
     @GetMapping(value = "/{datasetContentLogId}/delta", produces = MediaType.TEXT_PLAIN_VALUE)
-    public ResponseEntity<String> getDatasetContentLogDelta(@PathVariable BigInteger datasetContentLogId) {
+    public ResponseEntity<StreamingResponseBody> getDatasetContentLogDelta(@PathVariable BigInteger datasetContentLogId) {
         log.debug("REST request to get the data of the Dataset Content Log with ID {}", datasetContentLogId);
+        // Make sure the entry exists before starting the response
+        this.datasetContentLogService.findOne(datasetContentLogId);
         return ResponseEntity.ok()
-                .body(this.datasetContentLogService
-                        .findOne(datasetContentLogId)
-                        .getDelta()
-                );
+                .body(outputStream -> this.datasetContentLogService.transferDelta(datasetContentLogId, outputStream));
     }
 
     /**
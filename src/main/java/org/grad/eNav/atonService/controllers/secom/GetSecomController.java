@@ -27,8 +27,9 @@ import jakarta.ws.rs.QueryParam;
 import jakarta.xml.bind.JAXBException;
 import lombok.extern.slf4j.Slf4j;
 import org.grad.eNav.atonService.models.UnLoCodeMapEntry;
-import org.grad.eNav.atonService.models.domain.DatasetContent;
 import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
+import org.grad.eNav.atonService.services.DatasetContentLogService;
+import org.grad.eNav.atonService.services.DatasetContentService;
 import org.grad.eNav.atonService.services.DatasetService;
 import org.grad.eNav.atonService.services.S100ExchangeSetService;
 import org.grad.eNav.atonService.services.UnLoCodeService;
@@ -54,6 +55,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -74,6 +76,18 @@ public class GetSecomController implements GetSecomInterface {
     @Autowired
     DatasetService datasetService;
 
+    /**
+     * The Dataset Content Log Service.
+     */
+    @Autowired
+    DatasetContentLogService datasetContentLogService;
+
+    /**
+     * The Dataset Content Service.
+     */
+    @Autowired
+    DatasetContentService datasetContentService;
+
     /**
      * The SECOM Exchange Set Service.
      */
@@ -92,6 +106,9 @@ public class GetSecomController implements GetSecomInterface {
     /**
      * GET /api/secom/v1/dataset : Returns the S-125 dataset entries as,
      * specified by the SECOM standard.
+     * <p/>
+     * If the valid to time is in the past, the S-125 datasets are returned
+     * as they were at that time, reconstructed from the dataset content log.
      *
      * @param dataReference the object data reference
      * @param containerType the object data container type
@@ -166,13 +183,19 @@ public class GetSecomController implements GetSecomInterface {
                 throw new ValidationException(ex.getMessage());
             }
 
-            // Package as S100 Datasets
+            // Package as S100 Datasets - reconstructing them for past times
             if(reqContainerType == ContainerTypeEnum.S100_DataSet) {
+                final boolean historic = Objects.nonNull(validTo) && validTo.isBefore(LocalDateTime.now());
                 result.stream()
-                        .map(S125Dataset::getDatasetContent)
+                        .map(dataset -> historic ?
+                                Optional.ofNullable(this.datasetContentLogService.reconstructForUuid(dataset.getUuid(), validTo))
+                                        .map(content -> content.getBytes(StandardCharsets.UTF_8))
+                                        .orElse(null) :
+                                Optional.of(dataset)
+                                        .map(S125Dataset::getDatasetContent)
+                                        .map(this.datasetContentService::readContent)
+                                        .orElse(null))
                         .filter(Objects::nonNull)
-                        .map(DatasetContent::getContent)
-                        .map(String::getBytes)
                         .map(bytes -> {
                             // Create and populate the data response object
                             final DataResponseObject dataResponseObject = new DataResponseObject();
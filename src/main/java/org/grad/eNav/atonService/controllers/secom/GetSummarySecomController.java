@@ -26,8 +26,7 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.QueryParam;
 import lombok.extern.slf4j.Slf4j;
 import org.grad.eNav.atonService.models.UnLoCodeMapEntry;
-import org.grad.eNav.atonService.models.domain.DatasetContent;
-import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
+import org.grad.eNav.atonService.models.dtos.s125.S125DataSetSummaryDto;
 import org.grad.eNav.atonService.services.DatasetService;
 import org.grad.eNav.atonService.services.UnLoCodeService;
 import org.grad.eNav.atonService.utils.GeometryUtils;
@@ -148,25 +147,24 @@ public class GetSummarySecomController implements GetSummarySecomInterface {
         if(reqContainerType == ContainerTypeEnum.S100_DataSet) {
             // We only support specifically S-125 Datasets
             if (reqDataProductType == SECOM_DataProductType.S125) {
-                this.datasetService.findAll(null, jtsGeometry, validFrom, validTo, Boolean.FALSE, pageable)
+                this.datasetService.findAllSummaries(null, jtsGeometry, validFrom, validTo, Boolean.FALSE, pageable)
                         .stream()
-                        .map(dataset -> {
+                        .map(summary -> {
                             // Create and populate the summary object
                             SummaryObject summaryObject = new SummaryObject();
-                            summaryObject.setDataReference(dataset.getUuid());
+                            summaryObject.setDataReference(summary.getUuid());
                             summaryObject.setDataProtection(Boolean.FALSE);
                             summaryObject.setDataCompression(Boolean.FALSE);
                             summaryObject.setContainerType(reqContainerType);
                             summaryObject.setDataProductType(reqDataProductType);
-                            summaryObject.setInfo_productVersion(dataset.getDatasetIdentificationInformation().getProductEdition());
-                            summaryObject.setInfo_identifier(dataset.getDatasetIdentificationInformation().getDatasetFileIdentifier());
-                            summaryObject.setInfo_name(dataset.getDatasetIdentificationInformation().getDatasetTitle());
+                            summaryObject.setInfo_productVersion(summary.getProductEdition());
+                            summaryObject.setInfo_identifier(summary.getDatasetFileIdentifier());
+                            summaryObject.setInfo_name(summary.getDatasetTitle());
                             summaryObject.setInfo_status(InfoStatusEnum.PRESENT.getValue());
-                            summaryObject.setInfo_description(dataset.getDatasetIdentificationInformation().getDatasetAbstract());
-                            summaryObject.setInfo_lastModifiedDate(dataset.getLastUpdatedAt());
-                            summaryObject.setInfo_size(Optional.of(dataset)
-                                    .map(S125Dataset::getDatasetContent)
-                                    .map(DatasetContent::getContentLength)
+                            summaryObject.setInfo_description(summary.getDatasetAbstract());
+                            summaryObject.setInfo_lastModifiedDate(summary.getLastUpdatedAt());
+                            summaryObject.setInfo_size(Optional.of(summary)
+                                    .map(S125DataSetSummaryDto::getContentLength)
                                     .map(BigInteger::longValue)
                                     .orElse(BigInteger.ZERO.longValue()));
 
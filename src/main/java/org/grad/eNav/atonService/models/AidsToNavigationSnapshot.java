@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.models;
+
+import _int.iho.s125.gml.cs0._1.impl.AidsToNavigationTypeImpl;
+import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+
+import java.util.*;
+
+/**
+ * A shared snapshot of the Aids to Navigation for the batched content
+ * regeneration of multiple datasets.
+ *
+ * The snapshot contains all the Aids to Navigation matching the union of
+ * the geometries of the regenerated datasets, loaded with a single query,
+ * along with their already mapped S-125 member representation. This allows
+ * each dataset to select its own Aids to Navigation in memory, without
+ * querying or mapping the same entries again.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class AidsToNavigationSnapshot {
+
+    //Class Variables
+    private final List<AidsToNavigation> atons;
+    private final Map<AidsToNavigation, AidsToNavigationTypeImpl> atonMembers;
+
+    /**
+     * The snapshot constructor. The members should follow the order of the
+     * provided Aids to Navigation list.
+     *
+     * @param atons the Aids to Navigation of the snapshot
+     * @param atonMembers the S-125 member representation of the Aids to Navigation
+     */
+    public AidsToNavigationSnapshot(List<AidsToNavigation> atons, List<AidsToNavigationTypeImpl> atonMembers) {
+        if(atons.size() != atonMembers.size()) {
+            throw new IllegalArgumentException("The snapshot Aids to Navigation and members do not match");
+        }
+        this.atons = List.copyOf(atons);
+        this.atonMembers = new IdentityHashMap<>();
+        for(int i = 0; i < atons.size(); i++) {
+            this.atonMembers.put(atons.get(i), atonMembers.get(i));
+        }
+    }
+
+    /**
+     * Returns the number of Aids to Navigation in the snapshot.
+     *
+     * @return the number of Aids to Navigation in the snapshot
+     */
+    public int size() {
+        return this.atons.size();
+    }
+
+    /**
+     * Returns the Aids to Navigation of the snapshot that intersect the
+     * provided geometry, retaining the order of the snapshot.
+     *
+     * @param geometry the geometry to select the Aids to Navigation for
+     * @return the Aids to Navigation intersecting the geometry
+     */
+    public List<AidsToNavigation> getAidsToNavigation(Geometry geometry) {
+        return AidsToNavigationSnapshot.intersecting(this.atons, geometry);
+    }
+
+    /**
+     * Returns the S-125 member representation of the provided Aids to
+     * Navigation, as mapped when the snapshot was created.
+     *
+     * @param atons the Aids to Navigation of the snapshot
+     * @return the S-125 member representation of the Aids to Navigation
+     */
+    public List<AidsToNavigationTypeImpl> getMembers(List<AidsToNavigation> atons) {
+        return atons.stream()
+                .map(aton -> Optional.ofNullable(this.atonMembers.get(aton))
+                        .orElseThrow(() -> new IllegalArgumentException(String.format(
+                                "The Aids to Navigation with ID code %s is not part of the snapshot", aton.getIdCode()))))
+                .toList();
+    }
+
+    /**
+     * Filters the provided Aids to Navigation list, keeping only the entries
+     * that intersect the provided geometry, while retaining their order. If
+     * no geometry is provided, no Aids to Navigation are returned.
+     *
+     * @param atons the Aids to Navigation to be filtered
+     * @param geometry the geometry to select the Aids to Navigation for
+     * @return the Aids to Navigation intersecting the geometry
+     */
+    public static List<AidsToNavigation> intersecting(List<AidsToNavigation> atons, Geometry geometry) {
+        if(Objects.isNull(geometry)) {
+            return Collections.emptyList();
+        }
+        final PreparedGeometry preparedGeometry = PreparedGeometryFactory.prepare(geometry);
+        return atons.stream()
+                .filter(aton -> Objects.nonNull(aton.getGeometry()))
+                .filter(aton -> preparedGeometry.intersects(aton.getGeometry()))
+                .toList();
+    }
+
+}
@@ -17,16 +17,22 @@
 package org.grad.eNav.atonService.models.domain;
 
 import jakarta.persistence.*;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
 import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.search.engine.backend.types.Projectable;
 import org.hibernate.search.engine.backend.types.Sortable;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.*;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -37,6 +43,12 @@ import java.util.Optional;
  * purposes. For existing datasets, this table will contain the history
  * of the dataset changes, but for non-existing ones, it will contain
  * a record of the deletion with its timestamp and last content version.
+ * <p>
+ * The content and delta payloads are kept in separate, lazily fetched content
+ * blobs, which are shared with the respective dataset content log entries,
+ * so that querying the dataset contents does not pull them into memory
+ * unless they are actually accessed. The blob payloads themselves are only
+ * streamed from the database when read.
  *
  * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
  */
@@ -66,30 +78,78 @@ public class DatasetContent implements Serializable {
     @GenericField(sortable = Sortable.YES)
     private BigInteger sequenceNo;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "content_hash")
+    private DatasetContentBlob contentBlob;
+
     /*
-     * This is actually created in Postgres as an OID field. To actually read
-     * the contents of it we can run the following native query:
-     * <p>
-     *     select convert_from(lo_get(content), 'UTF-8') from dataset_content;
-     * </p>
+     * The legacy inline content, stored before the introduction of the content
+     * blobs. This is actually created in Postgres as an OID field, and it is
+     * moved into a blob by the dataset content storage backfill.
      */
     @Lob
-    private String content;
+    private byte[] content;
 
+    @GenericField(projectable = Projectable.YES)
     private BigInteger contentLength;
 
+    private BigInteger contentStoredLength;
+
+    @Column(length = 64)
+    private String contentChecksum;
+
+    /*
+     * The location of the content in the file-backed dataset content store,
+     * if enabled. The contents that were offloaded to the store before the
+     * introduction of the content blobs are only available there.
+     */
+    @Column(length = 255)
+    private String contentLocation;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "delta_hash")
+    private DatasetContentBlob deltaBlob;
+
     /*
-     * This is actually created in Postgres as an OID field. To actually read
-     * the contents of it we can run the following native query:
-     * <p>
-     *     select convert_from(lo_get(delta), 'UTF-8') from dataset_content;
-     * </p>
+     * The legacy inline delta, stored before the introduction of the content
+     * blobs. This is actually created in Postgres as an OID field, and it is
+     * moved into a blob by the dataset content storage backfill.
      */
     @Lob
-    private String delta;
+    private byte[] delta;
 
     private BigInteger deltaLength;
 
+    private BigInteger deltaStoredLength;
+
+    @Column(length = 64)
+    private String deltaChecksum;
+
+    /*
+     * The manifest of the content members, stored as a compressed column so
+     * that the next content generation does not need to parse the content.
+     */
+    @Lob
+    @Convert(converter = DatasetContentManifestConverter.class)
+    private List<DatasetContentMember> manifest;
+
+    /*
+     * The manifest entries of the members removed since the previous
+     * content. Since the removals cannot be expressed in the S-125 delta
+     * itself, they are recorded alongside it.
+     */
+    @Convert(converter = DatasetContentManifestConverter.class)
+    @Column(columnDefinition = "bytea")
+    private List<DatasetContentMember> removals;
+
+    /*
+     * The canonical hash of the dataset metadata the content was generated
+     * with, so that an unchanged dataset can be detected without comparing
+     * its audit timestamps.
+     */
+    @Column(length = 64)
+    private String metadataHash;
+
     /**
      * Gets id.
      *
@@ -164,21 +224,84 @@ public class DatasetContent implements Serializable {
     }
 
     /**
-     * Gets content.
+     * Gets content. The content is read from its blob, or from the legacy
+     * inline storage, and it is transparently decompressed.
      *
      * @return the content
      */
     public String getContent() {
-        return content;
+        return Objects.nonNull(this.contentBlob) ?
+                this.contentBlob.getContent() :
+                DatasetContentCompression.decompress(this.content);
+    }
+
+    /**
+     * Opens an input stream over the content, which is decompressed while
+     * being read.
+     *
+     * @return the input stream of the content bytes
+     */
+    public InputStream getContentInputStream() {
+        return Objects.nonNull(this.contentBlob) ?
+                this.contentBlob.getContentInputStream() :
+                DatasetContentCompression.newInputStream(this.content);
     }
 
     /**
-     * Sets content.
+     * Opens a reader over the content, which is decompressed while being
+     * read.
+     *
+     * @return the reader of the content
+     */
+    public Reader getContentReader() {
+        return Objects.nonNull(this.contentBlob) ?
+                this.contentBlob.getContentReader() :
+                DatasetContentCompression.newReader(this.content);
+    }
+
+    /**
+     * Sets content, stored in a new blob in the provided storage format. There
+     * is no default format, so that the configured one is always used.
      *
      * @param content the content
+     * @param compression the storage format of the content
+     */
+    public void setContent(String content, DatasetContentCompression compression) {
+        this.setContentBlob(DatasetContentBlob.of(content, compression));
+    }
+
+    /**
+     * Gets the stored content bytes, in their storage format.
+     *
+     * @return the stored content bytes
+     */
+    public byte[] getStoredContent() {
+        return Objects.nonNull(this.contentBlob) ?
+                this.contentBlob.getStoredData() :
+                this.content;
+    }
+
+    /**
+     * Gets content blob.
+     *
+     * @return the content blob
+     */
+    public DatasetContentBlob getContentBlob() {
+        return contentBlob;
+    }
+
+    /**
+     * Sets content blob, along with its stored length. Any legacy inline
+     * content is dropped.
+     *
+     * @param contentBlob the content blob
      */
-    public void setContent(String content) {
-        this.content = content;
+    public void setContentBlob(DatasetContentBlob contentBlob) {
+        this.contentBlob = contentBlob;
+        this.content = null;
+        this.contentStoredLength = Optional.ofNullable(contentBlob)
+                .map(DatasetContentBlob::getStoredLength)
+                .orElse(null);
     }
 
     /**
@@ -200,21 +323,137 @@ public class DatasetContent implements Serializable {
     }
 
     /**
-     * Gets delta.
+     * Gets content stored length.
+     *
+     * @return the content stored length
+     */
+    public BigInteger getContentStoredLength() {
+        return contentStoredLength;
+    }
+
+    /**
+     * Sets content stored length.
+     *
+     * @param contentStoredLength the content stored length
+     */
+    public void setContentStoredLength(BigInteger contentStoredLength) {
+        this.contentStoredLength = contentStoredLength;
+    }
+
+    /**
+     * Gets content checksum.
+     *
+     * @return the content checksum
+     */
+    public String getContentChecksum() {
+        return contentChecksum;
+    }
+
+    /**
+     * Sets content checksum.
+     *
+     * @param contentChecksum the content checksum
+     */
+    public void setContentChecksum(String contentChecksum) {
+        this.contentChecksum = contentChecksum;
+    }
+
+    /**
+     * Gets content location.
+     *
+     * @return the content location
+     */
+    public String getContentLocation() {
+        return contentLocation;
+    }
+
+    /**
+     * Sets content location.
+     *
+     * @param contentLocation the content location
+     */
+    public void setContentLocation(String contentLocation) {
+        this.contentLocation = contentLocation;
+    }
+
+    /**
+     * Gets delta. The delta is read from its blob, or from the legacy
+     * inline storage, and it is transparently decompressed.
      *
      * @return the delta
      */
     public String getDelta() {
-        return delta;
+        return Objects.nonNull(this.deltaBlob) ?
+                this.deltaBlob.getContent() :
+                DatasetContentCompression.decompress(this.delta);
     }
 
     /**
-     * Sets delta.
+     * Opens an input stream over the delta, which is decompressed while
+     * being read.
+     *
+     * @return the input stream of the delta bytes
+     */
+    public InputStream getDeltaInputStream() {
+        return Objects.nonNull(this.deltaBlob) ?
+                this.deltaBlob.getContentInputStream() :
+                DatasetContentCompression.newInputStream(this.delta);
+    }
+
+    /**
+     * Opens a reader over the delta, which is decompressed while being read.
+     *
+     * @return the reader of the delta
+     */
+    public Reader getDeltaReader() {
+        return Objects.nonNull(this.deltaBlob) ?
+                this.deltaBlob.getContentReader() :
+                DatasetContentCompression.newReader(this.delta);
+    }
+
+    /**
+     * Sets delta, stored in a new blob in the provided storage format. There
+     * is no default format, so that the configured one is always used.
      *
      * @param delta the delta
+     * @param compression the storage format of the delta
+     */
+    public void setDelta(String delta, DatasetContentCompression compression) {
+        this.setDeltaBlob(DatasetContentBlob.of(delta, compression));
+    }
+
+    /**
+     * Gets the stored delta bytes, in their storage format.
+     *
+     * @return the stored delta bytes
+     */
+    public byte[] getStoredDelta() {
+        return Objects.nonNull(this.deltaBlob) ?
+                this.deltaBlob.getStoredData() :
+                this.delta;
+    }
+
+    /**
+     * Gets delta blob.
+     *
+     * @return the delta blob
+     */
+    public DatasetContentBlob getDeltaBlob() {
+        return deltaBlob;
+    }
+
+    /**
+     * Sets delta blob, along with its stored length. Any legacy inline
+     * delta is dropped.
+     *
+     * @param deltaBlob the delta blob
      */
-    public void setDelta(String delta) {
-        this.delta = delta;
+    public void setDeltaBlob(DatasetContentBlob deltaBlob) {
+        this.deltaBlob = deltaBlob;
+        this.delta = null;
+        this.deltaStoredLength = Optional.ofNullable(deltaBlob)
+                .map(DatasetContentBlob::getStoredLength)
+                .orElse(null);
     }
 
     /**
@@ -235,14 +474,110 @@ public class DatasetContent implements Serializable {
         this.deltaLength = deltaLength;
     }
 
+    /**
+     * Gets delta stored length.
+     *
+     * @return the delta stored length
+     */
+    public BigInteger getDeltaStoredLength() {
+        return deltaStoredLength;
+    }
+
+    /**
+     * Sets delta stored length.
+     *
+     * @param deltaStoredLength the delta stored length
+     */
+    public void setDeltaStoredLength(BigInteger deltaStoredLength) {
+        this.deltaStoredLength = deltaStoredLength;
+    }
+
+    /**
+     * Gets delta checksum.
+     *
+     * @return the delta checksum
+     */
+    public String getDeltaChecksum() {
+        return deltaChecksum;
+    }
+
+    /**
+     * Sets delta checksum.
+     *
+     * @param deltaChecksum the delta checksum
+     */
+    public void setDeltaChecksum(String deltaChecksum) {
+        this.deltaChecksum = deltaChecksum;
+    }
+
+    /**
+     * Gets manifest.
+     *
+     * @return the manifest
+     */
+    public List<DatasetContentMember> getManifest() {
+        return manifest;
+    }
+
+    /**
+     * Sets manifest.
+     *
+     * @param manifest the manifest
+     */
+    public void setManifest(List<DatasetContentMember> manifest) {
+        this.manifest = manifest;
+    }
+
+    /**
+     * Gets removals.
+     *
+     * @return the removals
+     */
+    public List<DatasetContentMember> getRemovals() {
+        return removals;
+    }
+
+    /**
+     * Sets removals.
+     *
+     * @param removals the removals
+     */
+    public void setRemovals(List<DatasetContentMember> removals) {
+        this.removals = removals;
+    }
+
+    /**
+     * Gets metadata hash.
+     *
+     * @return the metadata hash
+     */
+    public String getMetadataHash() {
+        return metadataHash;
+    }
+
+    /**
+     * Sets metadata hash.
+     *
+     * @param metadataHash the metadata hash
+     */
+    public void setMetadataHash(String metadataHash) {
+        this.metadataHash = metadataHash;
+    }
+
     /**
      * This helper function will completely strip out the content information
      * from this dataset content object.
      */
     public DatasetContent clearContent() {
         // Clear the content
+        this.contentBlob = null;
         this.content = null;
         this.contentLength = BigInteger.ZERO;
+        this.contentStoredLength = BigInteger.ZERO;
+        this.contentChecksum = null;
+        this.contentLocation = null;
+        this.manifest = null;
+        this.metadataHash = null;
 
         // And return the object for easy use
         return this;
@@ -256,8 +591,12 @@ public class DatasetContent implements Serializable {
         // Clear the delta
         //this.content = null;
         //this.contentLength = BigInteger.ZERO;
+        this.deltaBlob = null;
         this.delta = null;
         this.deltaLength = BigInteger.ZERO;
+        this.deltaStoredLength = BigInteger.ZERO;
+        this.deltaChecksum = null;
+        this.removals = null;
 
         // And return the object for easy use
         return this;
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.models.domain;
+
+import jakarta.persistence.*;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
+import org.grad.eNav.atonService.utils.ChecksumWriter;
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The Dataset Content Blob Entity Class
+ * <p>
+ * This class is used to store the payloads (i.e. contents and deltas) of the
+ * dataset contents and their log entries in a content-addressed manner. Each
+ * blob is identified by the SHA-256 checksum of its original content, so
+ * identical payloads, like the ones repeated by the cancellation and deletion
+ * logs, are only stored once and are referenced by all the relevant entries.
+ * <p>
+ * Blobs are immutable; once no dataset content or log entry references a
+ * blob anymore, it can be garbage collected. The payload itself is mapped as
+ * a database LOB, so it is only streamed when it is actually accessed. Newly
+ * generated blobs are staged in a file, from which the payload is streamed
+ * into the database when persisted, so it is never held in memory as a
+ * whole. Since the blobs are identified by their assigned hash, they are
+ * considered new until their creation date has been set, so that they are
+ * persisted rather than merged, keeping their staging file.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+public class DatasetContentBlob implements Persistable<String>, Serializable {
+
+    // Class Variables
+    @Id
+    @Column(length = 64, nullable = false, updatable = false)
+    private String hash;
+
+    /*
+     * This is actually created in Postgres as an OID field, holding the
+     * payload in its storage format.
+     */
+    @Lob
+    @Column(updatable = false)
+    private Blob data;
+
+    private BigInteger storedLength;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    /*
+     * The staging file of a newly generated blob, holding the payload in its
+     * storage format until the generation is completed.
+     */
+    @Transient
+    private transient Path stagedData;
+
+    /**
+     * Instantiates a new Dataset Content Blob.
+     */
+    public DatasetContentBlob() {
+
+    }
+
+    /**
+     * Instantiates a new Dataset Content Blob.
+     *
+     * @param hash the SHA-256 checksum of the original content
+     * @param data the content in its storage format
+     */
+    public DatasetContentBlob(String hash, byte[] data) {
+        this.hash = hash;
+        this.data = Optional.ofNullable(data)
+                .map(BlobProxy::generateProxy)
+                .orElse(null);
+        this.storedLength = Optional.ofNullable(data)
+                .map(bytes -> BigInteger.valueOf(bytes.length))
+                .orElse(null);
+    }
+
+    /**
+     * Gets hash.
+     *
+     * @return the hash
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Sets hash.
+     *
+     * @param hash the hash
+     */
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * Gets the ID of the blob, i.e. its hash.
+     *
+     * @return the ID of the blob
+     */
+    @Override
+    public String getId() {
+        return hash;
+    }
+
+    /**
+     * Returns whether the blob has not been persisted yet.
+     *
+     * @return whether the blob is new
+     */
+    @Override
+    public boolean isNew() {
+        return Objects.isNull(createdAt);
+    }
+
+    /**
+     * Gets data.
+     *
+     * @return the data
+     */
+    public Blob getData() {
+        return data;
+    }
+
+    /**
+     * Sets data.
+     *
+     * @param data the data
+     */
+    public void setData(Blob data) {
+        this.data = data;
+    }
+
+    /**
+     * Gets staged data.
+     *
+     * @return the staged data
+     */
+    public Path getStagedData() {
+        return stagedData;
+    }
+
+    /**
+     * Gets stored length.
+     *
+     * @return the stored length
+     */
+    public BigInteger getStoredLength() {
+        return storedLength;
+    }
+
+    /**
+     * Sets stored length.
+     *
+     * @param storedLength the stored length
+     */
+    public void setStoredLength(BigInteger storedLength) {
+        this.storedLength = storedLength;
+    }
+
+    /**
+     * Gets created at.
+     *
+     * @return the created at
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets created at.
+     *
+     * @param createdAt the created at
+     */
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Opens an input stream over the payload of the blob, in its storage
+     * format. While the blob is staged, the payload is read from its staging
+     * file, otherwise it is streamed from the database.
+     *
+     * @return the input stream of the stored payload bytes
+     */
+    public InputStream getDataInputStream() {
+        try {
+            if(Objects.nonNull(this.stagedData) && Files.isRegularFile(this.stagedData)) {
+                return Files.newInputStream(this.stagedData);
+            }
+            return Objects.nonNull(this.data) ? this.data.getBinaryStream() : null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (SQLException ex) {
+            throw new UncheckedIOException(new IOException(ex.getMessage(), ex));
+        }
+    }
+
+    /**
+     * Gets the payload bytes of the blob, in its storage format.
+     *
+     * @return the stored payload bytes
+     */
+    public byte[] getStoredData() {
+        try(InputStream inputStream = this.getDataInputStream()) {
+            return Objects.nonNull(inputStream) ? inputStream.readAllBytes() : null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Gets the original content of the blob, transparently decompressed.
+     *
+     * @return the original content
+     */
+    public String getContent() {
+        try(InputStream inputStream = this.getContentInputStream()) {
+            return Objects.nonNull(inputStream) ? new String(inputStream.readAllBytes(), StandardCharsets.UTF_8) : null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Opens an input stream over the original content of the blob, which is
+     * decompressed while being read.
+     *
+     * @return the input stream of the original content bytes
+     */
+    public InputStream getContentInputStream() {
+        return DatasetContentCompression.newInputStream(this.getDataInputStream());
+    }
+
+    /**
+     * Opens a reader over the original content of the blob, which is
+     * decompressed while being read.
+     *
+     * @return the reader of the original content
+     */
+    public Reader getContentReader() {
+        return DatasetContentCompression.newReader(this.getDataInputStream());
+    }
+
+    /**
+     * Releases the payload of the blob, e.g. when an identical blob has
+     * already been stored and this one is not going to be persisted.
+     */
+    public void release() {
+        try {
+            if(Objects.nonNull(this.data)) {
+                this.data.free();
+            }
+        } catch (SQLException ex) {
+            // Nothing else to release
+        }
+    }
+
+    /**
+     * Creates a new blob for a payload staged in the provided file, in its
+     * storage format. The payload is streamed from the file into the
+     * database when the blob is persisted, so the file must be kept until
+     * the persisting transaction is completed.
+     *
+     * @param hash the SHA-256 checksum of the original content
+     * @param stagedData the staging file of the payload
+     * @return the new staged blob
+     * @throws IOException if the staging file could not be opened
+     */
+    public static DatasetContentBlob staged(String hash, Path stagedData) throws IOException {
+        final long size = Files.size(stagedData);
+        final DatasetContentBlob datasetContentBlob = new DatasetContentBlob();
+        datasetContentBlob.hash = hash;
+        datasetContentBlob.data = BlobProxy.generateProxy(Files.newInputStream(stagedData), size);
+        datasetContentBlob.storedLength = BigInteger.valueOf(size);
+        datasetContentBlob.stagedData = stagedData;
+        return datasetContentBlob;
+    }
+
+    /**
+     * Creates a new blob for the provided original content, stored in the
+     * provided storage format.
+     *
+     * @param content the original content
+     * @param compression the storage format, as configured
+     * @return the new blob, or null if no content was provided
+     */
+    public static DatasetContentBlob of(String content, DatasetContentCompression compression) {
+        if(Objects.isNull(content)) {
+            return null;
+        }
+        return new DatasetContentBlob(ChecksumWriter.checksum(content), compression.compress(content));
+    }
+
+    /**
+     * Overrides the equality operator of the class.
+     *
+     * @param o the object to check the equality
+     * @return whether the two objects are equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DatasetContentBlob that)) return false;
+        return Objects.equals(hash, that.hash);
+    }
+
+    /**
+     * Overrides the hashcode generation of the object.
+     *
+     * @return the generated hashcode
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(hash);
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.models.domain;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * The Dataset Content Diff Record.
+ * <p>
+ * The structural difference between the member manifests of two consecutive
+ * dataset contents, split into the added, updated and removed members. A
+ * member is considered updated when its content hash has changed, or, if the
+ * previous manifest entry does not include a content hash, when it has been
+ * modified after the previous content was generated.
+ *
+ * @param added the members that were not included in the previous content
+ * @param updated the members that have changed since the previous content
+ * @param removed the members of the previous content that are no longer included
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public record DatasetContentDiff(List<DatasetContentMember> added,
+                                 List<DatasetContentMember> updated,
+                                 List<DatasetContentMember> removed) {
+
+    /**
+     * Computes the difference between the previous and the current member
+     * manifests. The members are matched by their ID codes, while the ones
+     * without an ID code cannot be matched and are always considered added.
+     * The added and updated members follow the order of the current
+     * manifest, and the removed ones the order of the previous manifest.
+     *
+     * @param previous the member manifest of the previous content
+     * @param current the member manifest of the current content
+     * @param previousGeneratedAt the generation time of the previous content, if known
+     * @return the difference between the two manifests
+     */
+    public static DatasetContentDiff between(Collection<DatasetContentMember> previous,
+                                             Collection<DatasetContentMember> current,
+                                             LocalDateTime previousGeneratedAt) {
+        // Index the previous members by their ID codes
+        final Map<String, DatasetContentMember> previousMembers = new LinkedHashMap<>();
+        previous.stream()
+                .filter(member -> Objects.nonNull(member.idCode()))
+                .forEach(member -> previousMembers.putIfAbsent(member.idCode(), member));
+
+        // Classify the current members
+        final List<DatasetContentMember> added = new ArrayList<>();
+        final List<DatasetContentMember> updated = new ArrayList<>();
+        final Set<String> currentIdCodes = new HashSet<>();
+        for(DatasetContentMember member : current) {
+            final DatasetContentMember previousMember = Optional.ofNullable(member.idCode())
+                    .map(previousMembers::get)
+                    .orElse(null);
+            Optional.ofNullable(member.idCode()).ifPresent(currentIdCodes::add);
+            if(Objects.isNull(previousMember)) {
+                added.add(member);
+            } else if(isUpdated(previousMember, member, previousGeneratedAt)) {
+                updated.add(member);
+            }
+        }
+
+        // Everything not found in the current manifest has been removed
+        final List<DatasetContentMember> removed = previousMembers.values()
+                .stream()
+                .filter(member -> !currentIdCodes.contains(member.idCode()))
+                .toList();
+
+        // And return the difference
+        return new DatasetContentDiff(added, updated, removed);
+    }
+
+    /**
+     * Returns whether the two manifests are structurally identical, i.e. no
+     * members have been added, updated or removed.
+     *
+     * @return whether the two manifests are structurally identical
+     */
+    public boolean isEmpty() {
+        return this.added.isEmpty() && this.updated.isEmpty() && this.removed.isEmpty();
+    }
+
+    /**
+     * Returns the members that have been added or updated, i.e. the ones
+     * that should be included in the content delta.
+     *
+     * @return the added and updated members
+     */
+    public Set<DatasetContentMember> getChangedMembers() {
+        final Set<DatasetContentMember> members = new HashSet<>(this.added);
+        members.addAll(this.updated);
+        return members;
+    }
+
+    /**
+     * Determines whether the provided member has been updated since the
+     * previous content generation.
+     *
+     * @param previous the previous manifest entry of the member
+     * @param current the current manifest entry of the member
+     * @param previousGeneratedAt the generation time of the previous content, if known
+     * @return whether the member has been updated
+     */
+    private static boolean isUpdated(DatasetContentMember previous,
+                                     DatasetContentMember current,
+                                     LocalDateTime previousGeneratedAt) {
+        if(Objects.nonNull(previous.contentHash())) {
+            return !previous.contentHash().equals(current.contentHash());
+        }
+        return Objects.nonNull(current.lastModifiedAt())
+                && current.lastModifiedAt().isAfter(Optional.ofNullable(previousGeneratedAt).orElse(LocalDateTime.MIN));
+    }
+
+}
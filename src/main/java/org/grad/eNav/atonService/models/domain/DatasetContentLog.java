@@ -17,6 +17,7 @@
 package org.grad.eNav.atonService.models.domain;
 
 import jakarta.persistence.*;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
 import org.grad.eNav.atonService.models.enums.DatasetOperation;
 import org.grad.eNav.atonService.models.enums.DatasetType;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
@@ -25,12 +26,15 @@ import org.hibernate.search.mapper.pojo.mapping.definition.annotation.GenericFie
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
 import org.locationtech.jts.geom.Geometry;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -41,12 +45,24 @@ import java.util.UUID;
  * purposes. For existing datasets, this table will contain the history
  * of the dataset changes, but for non-existing ones, it will contain
  * a record of the deletion with its timestamp and last content version.
+ * <p>
+ * In PostgreSQL the table is partitioned by the month of the generation
+ * date, so the generation date is mandatory and the queries should bound
+ * it wherever possible, for the irrelevant partitions to be pruned.
+ * <p>
+ * The content and delta payloads are kept in separate, lazily fetched content
+ * blobs, so listing the entries does not pull them into memory, and can
+ * also be streamed through the respective input stream and reader
+ * accessors.
  *
  * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
  */
 @Entity
-@Table(indexes = @Index(columnList = "datasetType, uuid, operation, sequenceNo, generatedAt"))
-@EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+        @Index(columnList = "datasetType, uuid, operation, sequenceNo, generatedAt"),
+        @Index(columnList = "uuid, snapshot, generatedAt"),
+        @Index(columnList = "uuid, generatedAt")
+})
 @Cacheable
 @Indexed
 @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
@@ -75,35 +91,55 @@ public class DatasetContentLog implements Serializable {
     private BigInteger sequenceNo;
 
     @GenericField(sortable = Sortable.YES)
-    @CreatedDate
+    @Column(nullable = false)
     private LocalDateTime generatedAt;
 
     private Geometry geometry;
 
+    @GenericField(sortable = Sortable.YES)
+    private boolean snapshot;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "content_hash")
+    private DatasetContentBlob contentBlob;
+
     /*
-     * This is actually created in Postgres as an OID field. To actually read
-     * the contents of it we can run the following native query:
-     * <p>
-     *     select convert_from(lo_get(content), 'UTF-8') from dataset_content;
-     * </p>
+     * The legacy inline content, stored before the introduction of the content
+     * blobs. This is actually created in Postgres as an OID field, and it is
+     * moved into a blob by the dataset content storage backfill.
      */
     @Lob
-    private String content;
+    private byte[] content;
 
     private BigInteger contentLength;
 
+    private BigInteger contentStoredLength;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "delta_hash")
+    private DatasetContentBlob deltaBlob;
+
     /*
-     * This is actually created in Postgres as an OID field. To actually read
-     * the contents of it we can run the following native query:
-     * <p>
-     *     select convert_from(lo_get(delta), 'UTF-8') from dataset_content;
-     * </p>
+     * The legacy inline delta, stored before the introduction of the content
+     * blobs. This is actually created in Postgres as an OID field, and it is
+     * moved into a blob by the dataset content storage backfill.
      */
     @Lob
-    private String delta;
+    private byte[] delta;
 
     private BigInteger deltaLength;
 
+    private BigInteger deltaStoredLength;
+
+    /*
+     * The manifest entries of the members removed since the previous
+     * version. Since the removals cannot be expressed in the S-125 delta
+     * itself, they are recorded alongside it.
+     */
+    @Convert(converter = DatasetContentManifestConverter.class)
+    @Column(columnDefinition = "bytea")
+    private List<DatasetContentMember> removals;
+
     /**
      * Gets id.
      *
@@ -231,21 +267,105 @@ public class DatasetContentLog implements Serializable {
     }
 
     /**
-     * Gets content.
+     * Is snapshot, i.e. does this entry still hold the full dataset content.
+     * Compacted entries only hold their delta.
+     *
+     * @return whether this entry is a full snapshot
+     */
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Sets snapshot.
+     *
+     * @param snapshot whether this entry is a full snapshot
+     */
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Gets content. The content is read from its blob, or from the legacy
+     * inline storage, and it is transparently decompressed.
      *
      * @return the content
      */
     public String getContent() {
-        return content;
+        return Objects.nonNull(this.contentBlob) ?
+                this.contentBlob.getContent() :
+                DatasetContentCompression.decompress(this.content);
+    }
+
+    /**
+     * Opens an input stream over the content, which is decompressed while
+     * being read.
+     *
+     * @return the input stream of the content bytes
+     */
+    public InputStream getContentInputStream() {
+        return Objects.nonNull(this.contentBlob) ?
+                this.contentBlob.getContentInputStream() :
+                DatasetContentCompression.newInputStream(this.content);
+    }
+
+    /**
+     * Opens a reader over the content, which is decompressed while being
+     * read.
+     *
+     * @return the reader of the content
+     */
+    public Reader getContentReader() {
+        return Objects.nonNull(this.contentBlob) ?
+                this.contentBlob.getContentReader() :
+                DatasetContentCompression.newReader(this.content);
     }
 
     /**
-     * Sets content.
+     * Sets content, stored in a new blob in the provided storage format. There
+     * is no default format, so that the configured one is always used.
      *
      * @param content the content
+     * @param compression the storage format of the content
+     */
+    public void setContent(String content, DatasetContentCompression compression) {
+        this.setContentBlob(DatasetContentBlob.of(content, compression));
+    }
+
+    /**
+     * Gets the stored content bytes, in their storage format.
+     *
+     * @return the stored content bytes
+     */
+    public byte[] getStoredContent() {
+        return Objects.nonNull(this.contentBlob) ?
+                this.contentBlob.getStoredData() :
+                this.content;
+    }
+
+    /**
+     * Gets content blob.
+     *
+     * @return the content blob
      */
-    public void setContent(String content) {
-        this.content = content;
+    public DatasetContentBlob getContentBlob() {
+        return contentBlob;
+    }
+
+    /**
+     * Sets content blob, along with its stored length and the snapshot flag.
+     * Any legacy inline content is dropped, so clearing the content blob
+     * turns this entry into a delta-only one.
+     *
+     * @param contentBlob the content blob
+     */
+    public void setContentBlob(DatasetContentBlob contentBlob) {
+        this.contentBlob = contentBlob;
+        this.content = null;
+        this.contentStoredLength = Optional.ofNullable(contentBlob)
+                .map(DatasetContentBlob::getStoredLength)
+                .orElse(null);
+        this.snapshot = Objects.nonNull(contentBlob);
     }
 
     /**
@@ -267,21 +387,101 @@ public class DatasetContentLog implements Serializable {
     }
 
     /**
-     * Gets delta.
+     * Gets content stored length.
+     *
+     * @return the content stored length
+     */
+    public BigInteger getContentStoredLength() {
+        return contentStoredLength;
+    }
+
+    /**
+     * Sets content stored length.
+     *
+     * @param contentStoredLength the content stored length
+     */
+    public void setContentStoredLength(BigInteger contentStoredLength) {
+        this.contentStoredLength = contentStoredLength;
+    }
+
+    /**
+     * Gets delta. The delta is read from its blob, or from the legacy
+     * inline storage, and it is transparently decompressed.
      *
      * @return the delta
      */
     public String getDelta() {
-        return delta;
+        return Objects.nonNull(this.deltaBlob) ?
+                this.deltaBlob.getContent() :
+                DatasetContentCompression.decompress(this.delta);
+    }
+
+    /**
+     * Opens an input stream over the delta, which is decompressed while
+     * being read.
+     *
+     * @return the input stream of the delta bytes
+     */
+    public InputStream getDeltaInputStream() {
+        return Objects.nonNull(this.deltaBlob) ?
+                this.deltaBlob.getContentInputStream() :
+                DatasetContentCompression.newInputStream(this.delta);
+    }
+
+    /**
+     * Opens a reader over the delta, which is decompressed while being read.
+     *
+     * @return the reader of the delta
+     */
+    public Reader getDeltaReader() {
+        return Objects.nonNull(this.deltaBlob) ?
+                this.deltaBlob.getContentReader() :
+                DatasetContentCompression.newReader(this.delta);
     }
 
     /**
-     * Sets delta.
+     * Sets delta, stored in a new blob in the provided storage format. There
+     * is no default format, so that the configured one is always used.
      *
      * @param delta the delta
+     * @param compression the storage format of the delta
+     */
+    public void setDelta(String delta, DatasetContentCompression compression) {
+        this.setDeltaBlob(DatasetContentBlob.of(delta, compression));
+    }
+
+    /**
+     * Gets the stored delta bytes, in their storage format.
+     *
+     * @return the stored delta bytes
+     */
+    public byte[] getStoredDelta() {
+        return Objects.nonNull(this.deltaBlob) ?
+                this.deltaBlob.getStoredData() :
+                this.delta;
+    }
+
+    /**
+     * Gets delta blob.
+     *
+     * @return the delta blob
      */
-    public void setDelta(String delta) {
-        this.delta = delta;
+    public DatasetContentBlob getDeltaBlob() {
+        return deltaBlob;
+    }
+
+    /**
+     * Sets delta blob, along with its stored length. Any legacy inline
+     * delta is dropped.
+     *
+     * @param deltaBlob the delta blob
+     */
+    public void setDeltaBlob(DatasetContentBlob deltaBlob) {
+        this.deltaBlob = deltaBlob;
+        this.delta = null;
+        this.deltaStoredLength = Optional.ofNullable(deltaBlob)
+                .map(DatasetContentBlob::getStoredLength)
+                .orElse(null);
     }
 
     /**
@@ -301,4 +501,63 @@ public class DatasetContentLog implements Serializable {
     public void setDeltaLength(BigInteger deltaLength) {
         this.deltaLength = deltaLength;
     }
+
+    /**
+     * Gets delta stored length.
+     *
+     * @return the delta stored length
+     */
+    public BigInteger getDeltaStoredLength() {
+        return deltaStoredLength;
+    }
+
+    /**
+     * Sets delta stored length.
+     *
+     * @param deltaStoredLength the delta stored length
+     */
+    public void setDeltaStoredLength(BigInteger deltaStoredLength) {
+        this.deltaStoredLength = deltaStoredLength;
+    }
+
+    /**
+     * Gets removals.
+     *
+     * @return the removals
+     */
+    public List<DatasetContentMember> getRemovals() {
+        return removals;
+    }
+
+    /**
+     * Sets removals.
+     *
+     * @param removals the removals
+     */
+    public void setRemovals(List<DatasetContentMember> removals) {
+        this.removals = removals;
+    }
+
+    /**
+     * Has removals, i.e. have any members been removed since the previous
+     * version. In that case the delta holds the full dataset content, so
+     * that it can be published as a new base.
+     *
+     * @return whether any members have been removed since the previous version
+     */
+    public boolean hasRemovals() {
+        return Objects.nonNull(this.removals) && !this.removals.isEmpty();
+    }
+
+    /**
+     * Whenever a persistence operation takes place, the generation date
+     * should be set, unless it has already been provided, e.g. from the
+     * generated dataset content itself, since it also determines the
+     * partition of the entry.
+     */
+    @PrePersist
+    public void initGeneratedAt() {
+        this.generatedAt = Optional.ofNullable(this.generatedAt)
+                .orElseGet(LocalDateTime::now);
+    }
 }
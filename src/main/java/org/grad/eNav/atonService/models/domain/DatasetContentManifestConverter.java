@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.models.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The Dataset Content Manifest Converter.
+ * <p>
+ * Converts the member manifest of a dataset content into a compressed
+ * binary column. Since the manifest is always read and written as a whole,
+ * storing it in a single column is much cheaper than maintaining a separate
+ * row for each member on every content generation.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Converter
+public class DatasetContentManifestConverter implements AttributeConverter<List<DatasetContentMember>, byte[]> {
+
+    /**
+     * Converts the dataset content manifest into its compressed binary
+     * representation.
+     *
+     * @param manifest the dataset content manifest
+     * @return the compressed binary representation of the manifest
+     */
+    @Override
+    public byte[] convertToDatabaseColumn(List<DatasetContentMember> manifest) {
+        if(Objects.isNull(manifest)) {
+            return null;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(manifest.size());
+            for(DatasetContentMember member : manifest) {
+                this.writeNullableString(out, member.idCode());
+                this.writeNullableString(out, Objects.toString(member.atonId(), null));
+                this.writeNullableString(out, Objects.toString(member.lastModifiedAt(), null));
+                this.writeNullableString(out, member.contentHash());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Converts the compressed binary representation of the dataset content
+     * manifest back into the manifest entries.
+     *
+     * @param data the compressed binary representation of the manifest
+     * @return the dataset content manifest
+     */
+    @Override
+    public List<DatasetContentMember> convertToEntityAttribute(byte[] data) {
+        if(Objects.isNull(data)) {
+            return null;
+        }
+        try(DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data)))) {
+            final int size = in.readInt();
+            final List<DatasetContentMember> manifest = new ArrayList<>(size);
+            for(int i = 0; i < size; i++) {
+                final String idCode = this.readNullableString(in);
+                final String atonId = this.readNullableString(in);
+                final String lastModifiedAt = this.readNullableString(in);
+                final String contentHash = this.readNullableString(in);
+                manifest.add(new DatasetContentMember(
+                        idCode,
+                        Objects.isNull(atonId) ? null : new BigInteger(atonId),
+                        Objects.isNull(lastModifiedAt) ? null : LocalDateTime.parse(lastModifiedAt),
+                        contentHash));
+            }
+            return manifest;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Writes a nullable string into the provided data output stream.
+     *
+     * @param out the data output stream
+     * @param value the nullable string value
+     * @throws IOException if the value could not be written
+     */
+    private void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(Objects.nonNull(value));
+        if(Objects.nonNull(value)) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a nullable string from the provided data input stream.
+     *
+     * @param in the data input stream
+     * @return the nullable string value
+     * @throws IOException if the value could not be read
+     */
+    private String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+}
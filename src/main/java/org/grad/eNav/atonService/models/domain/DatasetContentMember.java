@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.models.domain;
+
+import org.grad.eNav.atonService.utils.ChecksumWriter;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The Dataset Content Member Record.
+ * <p>
+ * A compact entry of the dataset content manifest, describing one of the
+ * Aids to Navigation members included in a generated dataset content. The
+ * manifest allows the next content generation to detect the removed and
+ * changed members without having to parse the previous content.
+ *
+ * @param idCode the ID code of the AtoN
+ * @param atonId the ID of the AtoN
+ * @param lastModifiedAt the last modification time of the AtoN
+ * @param contentHash the checksum of the marshalled AtoN member
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public record DatasetContentMember(String idCode,
+                                   BigInteger atonId,
+                                   LocalDateTime lastModifiedAt,
+                                   String contentHash) implements Serializable {
+
+    /**
+     * Computes the canonical hash of the provided dataset content manifest.
+     * The hash only depends on the ID codes and the content hashes of the
+     * members, which are sorted so that the result does not depend on the
+     * order the members were retrieved in. Two manifests with the same
+     * canonical hash therefore describe identical dataset members.
+     *
+     * @param manifest the dataset content manifest
+     * @return the hex-encoded canonical hash of the manifest
+     */
+    public static String canonicalHash(Collection<DatasetContentMember> manifest) {
+        try(ChecksumWriter writer = new ChecksumWriter(Writer.nullWriter())) {
+            final List<DatasetContentMember> members = manifest.stream()
+                    .sorted(Comparator.comparing(DatasetContentMember::idCode, Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(DatasetContentMember::contentHash, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .toList();
+            for(DatasetContentMember member : members) {
+                writer.write(member.idCode() + ":" + member.contentHash() + "\n");
+            }
+            return writer.getChecksum();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+}
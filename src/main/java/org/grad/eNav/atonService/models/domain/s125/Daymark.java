@@ -21,6 +21,9 @@ import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
+
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -56,6 +59,7 @@ public class Daymark extends Equipment {
 
     @Enumerated(EnumType.STRING)
     @ElementCollection(targetClass = StatusType.class)
+    @KeywordField(name = "status", aggregable = Aggregable.YES)
     private List<StatusType> statuses;
 
     private String topmarkDaymarkShape;
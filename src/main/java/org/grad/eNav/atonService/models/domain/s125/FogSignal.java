@@ -22,6 +22,9 @@ import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
+
 import java.util.List;
 
 /**
@@ -45,6 +48,7 @@ public class FogSignal extends Equipment {
 
     @Enumerated(EnumType.STRING)
     @ElementCollection(targetClass = StatusType.class)
+    @KeywordField(name = "status", aggregable = Aggregable.YES)
     private List<StatusType> statuses;
 
     /**
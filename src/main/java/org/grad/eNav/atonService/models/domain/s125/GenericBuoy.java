@@ -19,6 +19,9 @@ package org.grad.eNav.atonService.models.domain.s125;
 
 import _int.iho.s125.gml.cs0._1.*;
 import jakarta.persistence.*;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
+
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -59,6 +62,7 @@ public abstract class GenericBuoy extends StructureObject {
 
     @Enumerated(EnumType.STRING)
     @ElementCollection(targetClass = StatusType.class)
+    @KeywordField(name = "status", aggregable = Aggregable.YES)
     private List<StatusType> statuses;
 
     private BigDecimal verticalLength;
@@ -19,6 +19,9 @@ package org.grad.eNav.atonService.models.domain.s125;
 import _int.iho.s125.gml.cs0._1.CategoryOfNavigationLineType;
 import _int.iho.s125.gml.cs0._1.StatusType;
 import jakarta.persistence.*;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
+
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -43,6 +46,7 @@ public class NavigationLine extends AidsToNavigation {
 
     @Enumerated(EnumType.STRING)
     @ElementCollection(targetClass = StatusType.class)
+    @KeywordField(name = "status", aggregable = Aggregable.YES)
     private List<StatusType> statuses;
 
     @ManyToMany(mappedBy = "navigationLines")
@@ -19,11 +19,18 @@ package org.grad.eNav.atonService.models.domain.s125;
 import _int.iho.s125.gml.cs0._1.CategoryOfPileType;
 import _int.iho.s125.gml.cs0._1.ColourPatternType;
 import _int.iho.s125.gml.cs0._1.ColourType;
+import _int.iho.s125.gml.cs0._1.StatusType;
 import _int.iho.s125.gml.cs0._1.VisualProminenceType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.mapper.pojo.automaticindexing.ReindexOnUpdate;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.IndexingDependency;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
+
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -146,4 +153,19 @@ public class Pile extends StructureObject {
     public void setHeight(BigDecimal height) {
         this.height = height;
     }
+
+    /**
+     * Gets status. The S-125 Pile type does not carry a status, so this is
+     * always null. It is only indexed so that the aggregable status field is
+     * present for every Aids to Navigation type, like the statuses of all
+     * the other types.
+     *
+     * @return the status, which is always null
+     */
+    @JsonIgnore
+    @KeywordField(name = "status", aggregable = Aggregable.YES)
+    @IndexingDependency(reindexOnUpdate = ReindexOnUpdate.NO)
+    public StatusType getStatus() {
+        return null;
+    }
 }
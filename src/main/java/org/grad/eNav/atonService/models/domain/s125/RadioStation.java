@@ -20,6 +20,8 @@ import _int.iho.s125.gml.cs0._1.CategoryOfRadioStationType;
 import _int.iho.s125.gml.cs0._1.StatusType;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
 
 import java.util.List;
 
@@ -41,6 +43,7 @@ public class RadioStation extends Equipment {
     private CategoryOfRadioStationType categoryOfRadioStation;
 
     @Enumerated(EnumType.STRING)
+    @KeywordField(name = "status", aggregable = Aggregable.YES)
     private StatusType status;
 
     @JsonManagedReference
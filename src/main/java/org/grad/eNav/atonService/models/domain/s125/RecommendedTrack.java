@@ -20,6 +20,9 @@ import _int.iho.s125.gml.cs0._1.CategoryOfRecommendedTrackType;
 import _int.iho.s125.gml.cs0._1.StatusType;
 import _int.iho.s125.gml.cs0._1.TrafficFlowType;
 import jakarta.persistence.*;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
+
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -47,6 +50,7 @@ public class RecommendedTrack extends AidsToNavigation {
      */
     @Enumerated(EnumType.STRING)
     @ElementCollection(targetClass = StatusType.class)
+    @KeywordField(name = "status", aggregable = Aggregable.YES)
     protected List<StatusType> statuses;
 
     /**
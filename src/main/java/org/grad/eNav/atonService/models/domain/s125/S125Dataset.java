@@ -22,22 +22,23 @@ import org.grad.eNav.atonService.models.domain.DatasetContent;
 import org.grad.eNav.atonService.utils.GeometryBinder;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.search.engine.backend.types.Projectable;
 import org.hibernate.search.engine.backend.types.Sortable;
 import org.hibernate.search.mapper.pojo.bridge.mapping.annotation.ValueBinderRef;
-import org.hibernate.search.mapper.pojo.mapping.definition.annotation.GenericField;
-import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
-import org.hibernate.search.mapper.pojo.mapping.definition.annotation.IndexedEmbedded;
-import org.hibernate.search.mapper.pojo.mapping.definition.annotation.NonStandardField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.*;
 import org.locationtech.jts.geom.Geometry;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigInteger;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * The S-125 Dataset Entity Class
@@ -85,7 +86,7 @@ public class S125Dataset {
     @CreatedDate
     private LocalDateTime createdAt;
 
-    @GenericField(sortable = Sortable.YES)
+    @GenericField(sortable = Sortable.YES, projectable = Projectable.YES)
     @LastModifiedDate
     private LocalDateTime lastUpdatedAt;
 
@@ -264,6 +265,51 @@ public class S125Dataset {
         this.cancelled = cancelled;
     }
 
+    /**
+     * Gets the start of the dataset validity interval. This is derived from
+     * the dataset reference date of the identification information and the
+     * generation time of the current dataset content, whichever is earlier.
+     * If neither is available, the creation time of the dataset is used.
+     *
+     * @return the start of the dataset validity interval
+     */
+    @JsonIgnore
+    @GenericField(indexNullAs = "1970-01-01T00:00:00")
+    @IndexingDependency(derivedFrom = {
+            @ObjectPath({@PropertyValue(propertyName = "datasetIdentificationInformation"), @PropertyValue(propertyName = "datasetReferenceDate")}),
+            @ObjectPath({@PropertyValue(propertyName = "datasetContent"), @PropertyValue(propertyName = "generatedAt")}),
+            @ObjectPath(@PropertyValue(propertyName = "createdAt"))
+    })
+    public LocalDateTime getValidFrom() {
+        return Stream.of(
+                        Optional.ofNullable(this.datasetIdentificationInformation)
+                                .map(S125DatasetIdentification::getDatasetReferenceDate)
+                                .map(LocalDate::atStartOfDay),
+                        Optional.ofNullable(this.datasetContent)
+                                .map(DatasetContent::getGeneratedAt))
+                .flatMap(Optional::stream)
+                .min(LocalDateTime::compareTo)
+                .orElse(this.createdAt);
+    }
+
+    /**
+     * Gets the end of the dataset validity interval. Active datasets are
+     * valid indefinitely, so this will only be populated for cancelled
+     * datasets, in which case the last update time (i.e. the cancellation
+     * time) is used.
+     *
+     * @return the end of the dataset validity interval
+     */
+    @JsonIgnore
+    @GenericField(indexNullAs = "9999-01-01T00:00:00")
+    @IndexingDependency(derivedFrom = {
+            @ObjectPath(@PropertyValue(propertyName = "cancelled")),
+            @ObjectPath(@PropertyValue(propertyName = "lastUpdatedAt"))
+    })
+    public LocalDateTime getValidTo() {
+        return Boolean.TRUE.equals(this.cancelled) ? this.lastUpdatedAt : null;
+    }
+
     /**
      * This helper function can assist in identifying if a dataset object
      * seems to be new. This can be indicated by two things:
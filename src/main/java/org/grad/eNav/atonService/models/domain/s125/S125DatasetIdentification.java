@@ -19,6 +19,7 @@ package org.grad.eNav.atonService.models.domain.s125;
 import _int.iho.s125.s100.gml.base._5_0.MDTopicCategoryCode;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.search.engine.backend.types.Projectable;
 import org.hibernate.search.engine.backend.types.Sortable;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.*;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -65,16 +66,16 @@ public class S125DatasetIdentification {
     @KeywordField(sortable = Sortable.YES)
     private String productIdentifier;
 
-    @KeywordField(sortable = Sortable.YES)
+    @KeywordField(sortable = Sortable.YES, projectable = Projectable.YES)
     private String productEdition;
 
     @KeywordField(sortable = Sortable.YES)
     private String applicationProfile;
 
-    @KeywordField(sortable = Sortable.YES)
+    @KeywordField(sortable = Sortable.YES, projectable = Projectable.YES)
     private String datasetFileIdentifier;
 
-    @KeywordField(sortable = Sortable.YES)
+    @KeywordField(sortable = Sortable.YES, projectable = Projectable.YES)
     private String datasetTitle;
 
     @GenericField()
@@ -84,7 +85,7 @@ public class S125DatasetIdentification {
     @KeywordField(sortable = Sortable.YES)
     private String datasetLanguage;
 
-    @FullTextField()
+    @FullTextField(projectable = Projectable.YES)
     private String datasetAbstract;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.models.dtos;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The Aids to Navigation Counts DTO.
+ * <p>
+ * This DTO holds the number of Aids to Navigation matching a search, broken
+ * down per S-125 AtoN type, per status and per geohash cell of the requested
+ * precision.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class AidsToNavigationCountsDto {
+
+    // Class Variables
+    private long total;
+    private int geohashPrecision;
+    private Map<String, Long> types = new LinkedHashMap<>();
+    private Map<String, Long> statuses = new LinkedHashMap<>();
+    private Map<String, Long> geohashes = new LinkedHashMap<>();
+
+    /**
+     * Gets total.
+     *
+     * @return the total
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Sets total.
+     *
+     * @param total the total
+     */
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    /**
+     * Gets geohash precision.
+     *
+     * @return the geohash precision
+     */
+    public int getGeohashPrecision() {
+        return geohashPrecision;
+    }
+
+    /**
+     * Sets geohash precision.
+     *
+     * @param geohashPrecision the geohash precision
+     */
+    public void setGeohashPrecision(int geohashPrecision) {
+        this.geohashPrecision = geohashPrecision;
+    }
+
+    /**
+     * Gets types.
+     *
+     * @return the types
+     */
+    public Map<String, Long> getTypes() {
+        return types;
+    }
+
+    /**
+     * Sets types.
+     *
+     * @param types the types
+     */
+    public void setTypes(Map<String, Long> types) {
+        this.types = types;
+    }
+
+    /**
+     * Gets statuses.
+     *
+     * @return the statuses
+     */
+    public Map<String, Long> getStatuses() {
+        return statuses;
+    }
+
+    /**
+     * Sets statuses.
+     *
+     * @param statuses the statuses
+     */
+    public void setStatuses(Map<String, Long> statuses) {
+        this.statuses = statuses;
+    }
+
+    /**
+     * Gets geohashes.
+     *
+     * @return the geohashes
+     */
+    public Map<String, Long> getGeohashes() {
+        return geohashes;
+    }
+
+    /**
+     * Sets geohashes.
+     *
+     * @param geohashes the geohashes
+     */
+    public void setGeohashes(Map<String, Long> geohashes) {
+        this.geohashes = geohashes;
+    }
+
+}
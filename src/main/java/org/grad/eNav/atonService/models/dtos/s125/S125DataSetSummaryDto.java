@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.models.dtos.s125;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The S-125 Dataset Summary DTO Class
+ * <p>
+ * This class holds the summary information of an S-125 dataset, as required
+ * by the SECOM summary responses. It is populated directly through the search
+ * index projections, so that no dataset entities or contents need to be
+ * loaded from the database.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ * @see org.grad.eNav.atonService.models.domain.s125.S125Dataset
+ */
+public class S125DataSetSummaryDto {
+
+    // Class Variables
+    private UUID uuid;
+    private String productEdition;
+    private String datasetFileIdentifier;
+    private String datasetTitle;
+    private String datasetAbstract;
+    private LocalDateTime lastUpdatedAt;
+    private BigInteger contentLength;
+
+    /**
+     * Instantiates a new S-125 dataset summary.
+     */
+    public S125DataSetSummaryDto() {
+
+    }
+
+    /**
+     * Instantiates a new S-125 dataset summary.
+     *
+     * @param uuid the uuid
+     * @param productEdition the product edition
+     * @param datasetFileIdentifier the dataset file identifier
+     * @param datasetTitle the dataset title
+     * @param datasetAbstract the dataset abstract
+     * @param lastUpdatedAt the last updated at
+     * @param contentLength the content length
+     */
+    public S125DataSetSummaryDto(UUID uuid,
+                                 String productEdition,
+                                 String datasetFileIdentifier,
+                                 String datasetTitle,
+                                 String datasetAbstract,
+                                 LocalDateTime lastUpdatedAt,
+                                 BigInteger contentLength) {
+        this.uuid = uuid;
+        this.productEdition = productEdition;
+        this.datasetFileIdentifier = datasetFileIdentifier;
+        this.datasetTitle = datasetTitle;
+        this.datasetAbstract = datasetAbstract;
+        this.lastUpdatedAt = lastUpdatedAt;
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * Gets uuid.
+     *
+     * @return the uuid
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Sets uuid.
+     *
+     * @param uuid the uuid
+     */
+    public void setUuid(UUID uuid) {
+        this.uuid = uuid;
+    }
+
+    /**
+     * Gets product edition.
+     *
+     * @return the product edition
+     */
+    public String getProductEdition() {
+        return productEdition;
+    }
+
+    /**
+     * Sets product edition.
+     *
+     * @param productEdition the product edition
+     */
+    public void setProductEdition(String productEdition) {
+        this.productEdition = productEdition;
+    }
+
+    /**
+     * Gets dataset file identifier.
+     *
+     * @return the dataset file identifier
+     */
+    public String getDatasetFileIdentifier() {
+        return datasetFileIdentifier;
+    }
+
+    /**
+     * Sets dataset file identifier.
+     *
+     * @param datasetFileIdentifier the dataset file identifier
+     */
+    public void setDatasetFileIdentifier(String datasetFileIdentifier) {
+        this.datasetFileIdentifier = datasetFileIdentifier;
+    }
+
+    /**
+     * Gets dataset title.
+     *
+     * @return the dataset title
+     */
+    public String getDatasetTitle() {
+        return datasetTitle;
+    }
+
+    /**
+     * Sets dataset title.
+     *
+     * @param datasetTitle the dataset title
+     */
+    public void setDatasetTitle(String datasetTitle) {
+        this.datasetTitle = datasetTitle;
+    }
+
+    /**
+     * Gets dataset abstract.
+     *
+     * @return the dataset abstract
+     */
+    public String getDatasetAbstract() {
+        return datasetAbstract;
+    }
+
+    /**
+     * Sets dataset abstract.
+     *
+     * @param datasetAbstract the dataset abstract
+     */
+    public void setDatasetAbstract(String datasetAbstract) {
+        this.datasetAbstract = datasetAbstract;
+    }
+
+    /**
+     * Gets last updated at.
+     *
+     * @return the last updated at
+     */
+    public LocalDateTime getLastUpdatedAt() {
+        return lastUpdatedAt;
+    }
+
+    /**
+     * Sets last updated at.
+     *
+     * @param lastUpdatedAt the last updated at
+     */
+    public void setLastUpdatedAt(LocalDateTime lastUpdatedAt) {
+        this.lastUpdatedAt = lastUpdatedAt;
+    }
+
+    /**
+     * Gets content length.
+     *
+     * @return the content length
+     */
+    public BigInteger getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Sets content length.
+     *
+     * @param contentLength the content length
+     */
+    public void setContentLength(BigInteger contentLength) {
+        this.contentLength = contentLength;
+    }
+
+}
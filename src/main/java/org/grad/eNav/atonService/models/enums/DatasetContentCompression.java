@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.models.enums;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The Dataset Content Compression Enum.
+ * <p/>
+ * This enumeration encodes the storage formats of the generated dataset
+ * contents and deltas. Since the stored format of each entry can be
+ * detected from its contents, entries stored in different formats (e.g.
+ * before and after a configuration change) can always be read back.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public enum DatasetContentCompression {
+    NONE("none"),
+    GZIP("gzip");
+
+    // Enum Variables
+    private String description;
+
+    /**
+     * The Enum Constructor
+     *
+     * @param description   The description of the storage format
+     */
+    DatasetContentCompression(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Gets description.
+     *
+     * @return the description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Creates a writer that stores the written content into the provided
+     * output stream in this storage format. The writer must be closed for
+     * the stored content to be complete.
+     *
+     * @param outputStream the output stream to store the content into
+     * @return the writer of the content
+     * @throws IOException for any errors while initialising the writer
+     */
+    public Writer newWriter(OutputStream outputStream) throws IOException {
+        return switch (this) {
+            case NONE -> new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            case GZIP -> new OutputStreamWriter(new GZIPOutputStream(outputStream), StandardCharsets.UTF_8);
+        };
+    }
+
+    /**
+     * Stores the provided content in this storage format.
+     *
+     * @param content the content to be stored
+     * @return the stored content bytes
+     */
+    public byte[] compress(String content) {
+        if(Objects.isNull(content)) {
+            return null;
+        }
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try(Writer writer = this.newWriter(outputStream)) {
+            writer.write(content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Detects the storage format of the provided stored content bytes.
+     * Since the XML contents cannot start with the GZIP magic number, any
+     * other content is considered as uncompressed.
+     *
+     * @param data the stored content bytes
+     * @return the storage format of the content
+     */
+    public static DatasetContentCompression detect(byte[] data) {
+        return Objects.nonNull(data)
+                && data.length >= 2
+                && data[0] == (byte) (GZIPInputStream.GZIP_MAGIC)
+                && data[1] == (byte) (GZIPInputStream.GZIP_MAGIC >> 8) ? GZIP : NONE;
+    }
+
+    /**
+     * Restores the original content from the provided stored content bytes,
+     * in whichever storage format these were stored.
+     *
+     * @param data the stored content bytes
+     * @return the original content
+     */
+    public static String decompress(byte[] data) {
+        if(Objects.isNull(data)) {
+            return null;
+        }
+        try(InputStream inputStream = newInputStream(data)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Opens an input stream over the original content of the provided stored
+     * content bytes, in whichever storage format these were stored. The
+     * content is decompressed while being read, so that it does not need to
+     * be held in memory as a whole.
+     *
+     * @param data the stored content bytes
+     * @return the input stream of the original content bytes
+     */
+    public static InputStream newInputStream(byte[] data) {
+        return Objects.isNull(data) ? null : newInputStream(new ByteArrayInputStream(data));
+    }
+
+    /**
+     * Opens an input stream over the original content of the provided stored
+     * content input stream, in whichever storage format this was stored. The
+     * storage format is detected by peeking at the first bytes of the stream,
+     * and the content is decompressed while being read.
+     *
+     * @param inputStream the stored content input stream
+     * @return the input stream of the original content bytes
+     */
+    public static InputStream newInputStream(InputStream inputStream) {
+        if(Objects.isNull(inputStream)) {
+            return null;
+        }
+        try {
+            final InputStream bufferedInputStream = new BufferedInputStream(inputStream);
+            bufferedInputStream.mark(2);
+            final byte[] magic = bufferedInputStream.readNBytes(2);
+            bufferedInputStream.reset();
+            return switch (detect(magic)) {
+                case NONE -> bufferedInputStream;
+                case GZIP -> new GZIPInputStream(bufferedInputStream);
+            };
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Opens a reader over the original content of the provided stored
+     * content bytes, in whichever storage format these were stored.
+     *
+     * @param data the stored content bytes
+     * @return the reader of the original content
+     */
+    public static Reader newReader(byte[] data) {
+        return Objects.isNull(data) ? null : new InputStreamReader(newInputStream(data), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens a reader over the original content of the provided stored
+     * content input stream, in whichever storage format this was stored.
+     *
+     * @param inputStream the stored content input stream
+     * @return the reader of the original content
+     */
+    public static Reader newReader(InputStream inputStream) {
+        return Objects.isNull(inputStream) ? null : new InputStreamReader(newInputStream(inputStream), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.models.enums;
+
+/**
+ * The Dataset Generation Priority Enum.
+ * <p/>
+ * This enumeration encodes the priority classes of the dataset content
+ * generations, ordered from the most urgent to the least urgent one.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public enum DatasetGenerationPriority {
+    SUBSCRIBED("subscribed"),
+    REPLACEMENT("replacement"),
+    BACKGROUND("background");
+
+    // Enum Variables
+    private String tag;
+
+    /**
+     * The Enum Constructor
+     *
+     * @param tag   The metrics tag of the priority class
+     */
+    DatasetGenerationPriority(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * Gets tag.
+     *
+     * @return the tag
+     */
+    public String getTag() {
+        return tag;
+    }
+
+}
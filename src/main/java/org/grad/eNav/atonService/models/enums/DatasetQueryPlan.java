@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.models.enums;
+
+/**
+ * The Dataset Query Plan Enum.
+ * <p/>
+ * This enumeration encodes the access paths that can be used to answer a
+ * dataset search, ordered from the cheapest to the most expensive one.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public enum DatasetQueryPlan {
+    PRIMARY_KEY("primary key lookup"),
+    GEOMETRY("geometry-only spatial lookup"),
+    TEXT("full search index query");
+
+    // Enum Variables
+    private String description;
+
+    /**
+     * The Enum Constructor
+     *
+     * @param description   The description of the access path
+     */
+    DatasetQueryPlan(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Gets description.
+     *
+     * @return the description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.repos;
+
+import org.grad.eNav.atonService.models.domain.DatasetContentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+/**
+ * Spring Data JPA repository for the Dataset Content Blob entities.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public interface DatasetContentBlobRepo extends JpaRepository<DatasetContentBlob, String> {
+
+    /**
+     * Deletes all the dataset content blobs that are not referenced by any
+     * dataset content or dataset content log entry anymore. Only blobs created before the
+     * provided date-time are considered, so that blobs that are just being
+     * stored along with their log entries are not affected.
+     *
+     * @param createdBefore     The date-time the deleted blobs should be created before
+     * @return the number of deleted blobs
+     */
+    @Modifying
+    @Query("delete from DatasetContentBlob b where b.createdAt < :createdBefore " +
+            "and not exists (select 1 from DatasetContentLog d where d.contentBlob = b or d.deltaBlob = b) " +
+            "and not exists (select 1 from DatasetContent c where c.contentBlob = b or c.deltaBlob = b)")
+    int deleteUnreferenced(LocalDateTime createdBefore);
+
+}
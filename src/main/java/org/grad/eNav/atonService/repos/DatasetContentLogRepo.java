@@ -17,6 +17,7 @@
 package org.grad.eNav.atonService.repos;
 
 import org.grad.eNav.atonService.models.domain.DatasetContentLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -58,10 +59,11 @@ public interface DatasetContentLogRepo extends JpaRepository<DatasetContentLog,
      *
      * @param uuid              The UUID of the dataset
      * @param generatedAt       The generation date of the content
+     * @param pageable          The pagination information
      * @return the latest dataset content log entry if it exists
      */
     @Query("select d from DatasetContentLog d where d.uuid = :uuid AND d.generatedAt <= :generatedAt ORDER BY d.generatedAt DESC")
-    List<DatasetContentLog> findLatestForUuid(UUID uuid, LocalDateTime generatedAt);
+    List<DatasetContentLog> findLatestForUuid(UUID uuid, LocalDateTime generatedAt, Pageable pageable);
 
     /**
      * Retrieves the latest dataset content entries for a specific UUID. It
@@ -76,4 +78,40 @@ public interface DatasetContentLogRepo extends JpaRepository<DatasetContentLog,
     @Query("select d from DatasetContentLog d where d.uuid = :uuid AND d.generatedAt >= :generatedFrom AND d.generatedAt <= :generatedTo ORDER BY d.generatedAt ASC")
     List<DatasetContentLog> findDuringForUuid(UUID uuid, LocalDateTime generatedFrom, LocalDateTime generatedTo);
 
+    /**
+     * Retrieves the latest dataset content snapshot entries, i.e. the ones
+     * still holding the full dataset content, for a specific UUID that were
+     * generated before the provided date-time. It also accepts a pageable
+     * argument to provide only a subset of the matching entries (e.g. just
+     * the last one), so that the older partitions do not need to be scanned.
+     *
+     * @param uuid              The UUID of the dataset
+     * @param generatedAt       The generation date of the content
+     * @param pageable          The pagination information
+     * @return the latest dataset content log snapshot entry if it exists
+     */
+    @Query("select d from DatasetContentLog d where d.uuid = :uuid AND d.snapshot = true AND d.generatedAt <= :generatedAt ORDER BY d.generatedAt DESC")
+    List<DatasetContentLog> findLatestSnapshotForUuid(UUID uuid, LocalDateTime generatedAt, Pageable pageable);
+
+    /**
+     * Retrieves the UUIDs of all the datasets with dataset content log
+     * entries generated before the provided date-time.
+     *
+     * @param generatedBefore   The date-time the entries should be generated before
+     * @return the UUIDs of the matching datasets
+     */
+    @Query("select distinct d.uuid from DatasetContentLog d where d.generatedAt < :generatedBefore")
+    List<UUID> findUuidsGeneratedBefore(LocalDateTime generatedBefore);
+
+    /**
+     * Retrieves the IDs of the dataset content log entries that still hold
+     * their content or delta inline, i.e. the ones stored before the
+     * introduction of the content blobs.
+     *
+     * @param pageable          The pagination information
+     * @return the IDs of the entries to be backfilled
+     */
+    @Query("select d.id from DatasetContentLog d where d.content is not null or d.delta is not null order by d.id")
+    List<BigInteger> findAllWithInlinePayload(Pageable pageable);
+
 }
@@ -17,9 +17,14 @@
 package org.grad.eNav.atonService.repos;
 
 import org.grad.eNav.atonService.models.domain.DatasetContent;
+import org.grad.eNav.atonService.models.domain.DatasetContentBlob;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.math.BigInteger;
+import java.util.List;
 
 /**
  * Spring Data JPA repository for the S-125 Dataset Content Log entities.
@@ -28,4 +33,32 @@ import java.math.BigInteger;
  */
 public interface DatasetContentRepo extends JpaRepository<DatasetContent, BigInteger> {
 
+    /**
+     * Retrieves the IDs of the dataset content entries that still hold their
+     * content or delta inline, i.e. the ones stored before the introduction
+     * of the content blobs.
+     *
+     * @param pageable          The pagination information
+     * @return the IDs of the entries to be backfilled
+     */
+    @Query("select d.id from DatasetContent d where d.content is not null or d.delta is not null order by d.id")
+    List<BigInteger> findAllWithInlinePayload(Pageable pageable);
+
+    /**
+     * Updates the content and delta blobs of the specified entry in place,
+     * dropping its inline payloads, without going through the entity
+     * lifecycle, so that the sequence number and generation date of the
+     * entry are not affected.
+     *
+     * @param id                    The ID of the entry
+     * @param contentBlob           The content blob
+     * @param contentStoredLength   The stored content length
+     * @param deltaBlob             The delta blob
+     * @param deltaStoredLength     The stored delta length
+     * @return the number of updated entries
+     */
+    @Modifying
+    @Query("update DatasetContent d set d.contentBlob = :contentBlob, d.contentStoredLength = :contentStoredLength, d.deltaBlob = :deltaBlob, d.deltaStoredLength = :deltaStoredLength, d.content = null, d.delta = null where d.id = :id")
+    int updateStoredBlobs(BigInteger id, DatasetContentBlob contentBlob, BigInteger contentStoredLength, DatasetContentBlob deltaBlob, BigInteger deltaStoredLength);
+
 }
@@ -27,17 +27,25 @@ import org.apache.lucene.spatial.prefix.tree.GeohashPrefixTree;
 import org.apache.lucene.spatial.prefix.tree.SpatialPrefixTree;
 import org.apache.lucene.spatial.query.SpatialArgs;
 import org.apache.lucene.spatial.query.SpatialOperation;
+import org.grad.eNav.atonService.components.SpatialQueryCache;
 import org.grad.eNav.atonService.exceptions.DataNotFoundException;
 import org.grad.eNav.atonService.models.domain.s125.Aggregation;
 import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
 import org.grad.eNav.atonService.models.domain.s125.Association;
 import org.grad.eNav.atonService.models.domain.s125.FeatureName;
+import org.grad.eNav.atonService.models.dtos.AidsToNavigationCountsDto;
 import org.grad.eNav.atonService.models.dtos.datatables.DtPagingRequest;
 import org.grad.eNav.atonService.repos.AidsToNavigationRepo;
+import org.grad.eNav.atonService.utils.AidsToNavigationFacetBinder;
 import org.hibernate.search.backend.lucene.LuceneExtension;
 import org.hibernate.search.backend.lucene.search.sort.dsl.LuceneSearchSortFactory;
+import org.hibernate.search.engine.search.aggregation.AggregationKey;
+import org.hibernate.search.engine.search.common.ValueConvert;
+import org.hibernate.search.engine.search.predicate.dsl.PredicateFinalStep;
+import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
 import org.hibernate.search.engine.search.query.SearchFetchable;
 import org.hibernate.search.engine.search.query.SearchQuery;
+import org.hibernate.search.engine.search.query.SearchResult;
 import org.hibernate.search.mapper.orm.Search;
 import org.hibernate.search.mapper.orm.scope.SearchScope;
 import org.hibernate.search.mapper.orm.session.SearchSession;
@@ -53,11 +61,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigInteger;
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * The Aids to Navigation Service.
@@ -94,6 +101,12 @@ public class AidsToNavigationService {
     @Autowired
     AidsToNavigationRepo aidsToNavigationRepo;
 
+    /**
+     * The Spatial Query Cache.
+     */
+    @Autowired
+    SpatialQueryCache spatialQueryCache;
+
     // Service Variables
     private final String[] searchFields = new String[] {
             "id_code"
@@ -102,6 +115,11 @@ public class AidsToNavigationService {
             "id"
     };
 
+    // Aggregation Keys
+    static final AggregationKey<Map<String, Long>> TYPES_AGGREGATION = AggregationKey.of("types");
+    static final AggregationKey<Map<String, Long>> STATUSES_AGGREGATION = AggregationKey.of("statuses");
+    static final AggregationKey<Map<String, Long>> GEOHASHES_AGGREGATION = AggregationKey.of("geohashes");
+
     /**
      * Get all the Aids to Navigation in a pageable search.
      *
@@ -119,6 +137,18 @@ public class AidsToNavigationService {
                                           LocalDateTime toTime,
                                           Pageable pageable) {
         log.debug("Request to get Aids to Navigation in a pageable search");
+        // Unpaged geometry queries can be answered by the spatial query cache
+        final SpatialQueryCache.Key cacheKey = Objects.isNull(idCode) && Objects.nonNull(geometry) && pageable.isUnpaged() ?
+                this.spatialQueryCache.createKey(AidsToNavigation.class, geometry, fromTime, toTime) :
+                null;
+        final long cacheGeneration = this.spatialQueryCache.getGeneration();
+        final Optional<List<AidsToNavigation>> cachedAtons = Optional.ofNullable(cacheKey)
+                .flatMap(this.spatialQueryCache::get)
+                .map(this::findAllByIds);
+        if(cachedAtons.isPresent()) {
+            return new PageImpl<>(cachedAtons.get(), pageable, cachedAtons.get().size());
+        }
+
         // Create the search query - always sort by name
         SearchQuery searchQuery = this.getAidsToNavigationSearchQuery(
                 idCode,
@@ -129,10 +159,40 @@ public class AidsToNavigationService {
         );
 
         // Map the results to a paged response
-        return Optional.of(searchQuery)
+        final Page<AidsToNavigation> result = Optional.of(searchQuery)
                 .map(query -> pageable.isPaged() ? query.fetch(pageable.getPageNumber() * pageable.getPageSize(), pageable.getPageSize()) : query.fetchAll())
                 .map(searchResult -> new PageImpl<AidsToNavigation>(searchResult.hits(), pageable, searchResult.total().hitCount()))
                 .orElseGet(() -> new PageImpl<>(Collections.emptyList(), pageable, 0));
+
+        // Cache the matching IDs for the next time
+        if(Objects.nonNull(cacheKey)) {
+            this.spatialQueryCache.put(cacheKey, cacheGeneration, result.stream()
+                    .map(AidsToNavigation::getId)
+                    .toList());
+        }
+
+        // And return the result
+        return result;
+    }
+
+    /**
+     * Loads the Aids to Navigation with the provided IDs, keeping the order of
+     * the provided list. Any Aids to Navigation that no longer exist will be
+     * ignored.
+     *
+     * @param ids the IDs of the Aids to Navigation to be loaded
+     * @return the loaded Aids to Navigation
+     */
+    protected List<AidsToNavigation> findAllByIds(List<Object> ids) {
+        final Map<BigInteger, AidsToNavigation> aidsToNavigation = this.aidsToNavigationRepo.findAllById(ids.stream()
+                        .map(BigInteger.class::cast)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(AidsToNavigation::getId, Function.identity()));
+        return ids.stream()
+                .map(aidsToNavigation::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
@@ -150,13 +210,13 @@ public class AidsToNavigationService {
                                  LocalDateTime fromTime,
                                  LocalDateTime toTime) {
         log.debug("Request to get the total count of Aids to Navigation matching the pageable search");
-        // Create the search query - always sort by name
+        // Create the search query - no sorting is required for counting
         SearchQuery searchQuery = this.getAidsToNavigationSearchQuery(
                 idCode,
                 geometry,
                 fromTime,
                 toTime,
-                new Sort(new SortedNumericSortField("id_sort", SortField.Type.LONG, true))
+                null
         );
 
         // Map the results to a paged response
@@ -165,6 +225,46 @@ public class AidsToNavigationService {
                 .orElse(0L);
     }
 
+    /**
+     * Get the number of all the Aids to Navigation matching the provided
+     * geometry and time window, broken down per S-125 AtoN type, per status
+     * and per geohash cell of the requested precision. The counts are
+     * calculated through the search index aggregations, so no entities are
+     * loaded during this operation.
+     *
+     * @param geometry the geometry to match the Aids to Navigation for
+     * @param fromTime the time to match the Aids to Navigation from
+     * @param toTime the time to match the Aids to Navigation to
+     * @param geohashPrecision the precision of the geohash cells to count the Aids to Navigation in
+     * @return the counts of all matching Aids to Navigation
+     */
+    @Transactional(readOnly = true)
+    public AidsToNavigationCountsDto findAllCounts(Geometry geometry,
+                                                   LocalDateTime fromTime,
+                                                   LocalDateTime toTime,
+                                                   int geohashPrecision) {
+        log.debug("Request to get the counts of Aids to Navigation matching the search");
+        // Make sure the geohash precision is supported
+        final int precision = Math.max(1, Math.min(geohashPrecision, AidsToNavigationFacetBinder.GEOHASH_MAX_PRECISION));
+
+        // Create the aggregation query and perform a single index pass
+        final SearchResult<AidsToNavigation> searchResult = this.getAidsToNavigationCountsQuery(
+                geometry,
+                fromTime,
+                toTime,
+                precision
+        ).fetch(0);
+
+        // Map the results to the counts response
+        final AidsToNavigationCountsDto countsDto = new AidsToNavigationCountsDto();
+        countsDto.setTotal(searchResult.total().hitCount());
+        countsDto.setGeohashPrecision(precision);
+        countsDto.setTypes(searchResult.aggregation(TYPES_AGGREGATION));
+        countsDto.setStatuses(searchResult.aggregation(STATUSES_AGGREGATION));
+        countsDto.setGeohashes(searchResult.aggregation(GEOHASHES_AGGREGATION));
+        return countsDto;
+    }
+
     /**
      * Handles a datatables pagination request and returns the results list in
      * an appropriate format to be viewed by a datatables jQuery table.
@@ -336,9 +436,9 @@ public class AidsToNavigationService {
      *
      * @param idCode the AtoN ID Code to be searched
      * @param geometry the geometry that the results should intersect with
-     * @param geometry the geometry that the results should intersect with
      * @param fromTime the date-time the results should match from
-     * @param sort the sorting selection for the search query
+     * @param toTime the date-time the results should match to
+     * @param sort the sorting selection for the search query, if any
      * @return the full text query
      */
     protected SearchQuery<AidsToNavigation> getAidsToNavigationSearchQuery(String idCode,
@@ -350,25 +450,81 @@ public class AidsToNavigationService {
         SearchSession searchSession = Search.session( this.entityManager );
         SearchScope<AidsToNavigation> scope = searchSession.scope( AidsToNavigation.class );
         return searchSession.search( scope )
-                .where( f -> f.bool(b -> {
-                            b.must(f.matchAll());
-                            Optional.ofNullable(idCode).ifPresent(v -> b.must(f.match()
-                                    .field("id_code")
-                                    .matching(v)));
-                            Optional.ofNullable(geometry).ifPresent(g-> b.must(f.extension(LuceneExtension.get())
-                                    .fromLuceneQuery(createGeoSpatialQuery(g))));
-                            Optional.ofNullable(fromTime).ifPresent(v -> b.must(f.range()
-                                    .field("dateEnd")
-                                    .atLeast(fromTime.toLocalDate())));
-                            Optional.ofNullable(toTime).map(LocalDateTime::toLocalDate).ifPresent(v -> b.must(f.range()
-                                    .field("dateStart")
-                                    .atMost(toTime.toLocalDate())));
-                        })
-                )
-                .sort(f -> ((LuceneSearchSortFactory)f).fromLuceneSort(sort))
+                .where( f -> this.getAidsToNavigationSearchPredicate(f, idCode, geometry, fromTime, toTime) )
+                .sort(f -> Objects.isNull(sort) ? f.indexOrder() : ((LuceneSearchSortFactory)f).fromLuceneSort(sort))
+                .toQuery();
+    }
+
+    /**
+     * Constructs a hibernate search query using Lucene that aggregates the
+     * Aids to Navigation matching the provided geometry and time window per
+     * S-125 AtoN type, per status and per geohash cell of the provided
+     * precision. The aggregable fields are generated during indexing by the
+     * {@link AidsToNavigationFacetBinder} and the status fields of each
+     * Aids to Navigation type, which all types are required to declare.
+     * Types without a status (e.g. the piles) index a null-valued one, so
+     * that they are only missing from the status counts.
+     *
+     * @param geometry the geometry that the results should intersect with
+     * @param fromTime the date-time the results should match from
+     * @param toTime the date-time the results should match to
+     * @param geohashPrecision the precision of the geohash cells to aggregate on
+     * @return the aggregation query
+     */
+    protected SearchQuery<AidsToNavigation> getAidsToNavigationCountsQuery(Geometry geometry,
+                                                                           LocalDateTime fromTime,
+                                                                           LocalDateTime toTime,
+                                                                           int geohashPrecision) {
+        // Then build and return the hibernate-search query
+        SearchSession searchSession = Search.session( this.entityManager );
+        SearchScope<AidsToNavigation> scope = searchSession.scope( AidsToNavigation.class );
+        return searchSession.search( scope )
+                .where( f -> this.getAidsToNavigationSearchPredicate(f, null, geometry, fromTime, toTime) )
+                .aggregation(TYPES_AGGREGATION, f -> f.terms()
+                        .field(AidsToNavigationFacetBinder.ATON_TYPE_FIELD, String.class)
+                        .maxTermCount(Integer.MAX_VALUE))
+                .aggregation(STATUSES_AGGREGATION, f -> f.terms()
+                        .field("status", String.class, ValueConvert.NO)
+                        .maxTermCount(Integer.MAX_VALUE))
+                .aggregation(GEOHASHES_AGGREGATION, f -> f.terms()
+                        .field(AidsToNavigationFacetBinder.getGeohashField(geohashPrecision), String.class)
+                        .maxTermCount(Integer.MAX_VALUE))
                 .toQuery();
     }
 
+    /**
+     * Constructs the hibernate search predicate that matches the Aids to
+     * Navigation based on the provided ID Code, geometry and time window.
+     * Any of the criteria that are not provided will be ignored.
+     *
+     * @param f the search predicate factory
+     * @param idCode the AtoN ID Code to be searched
+     * @param geometry the geometry that the results should intersect with
+     * @param fromTime the date-time the results should match from
+     * @param toTime the date-time the results should match to
+     * @return the search predicate
+     */
+    protected PredicateFinalStep getAidsToNavigationSearchPredicate(SearchPredicateFactory f,
+                                                                    String idCode,
+                                                                    Geometry geometry,
+                                                                    LocalDateTime fromTime,
+                                                                    LocalDateTime toTime) {
+        return f.bool(b -> {
+            b.must(f.matchAll());
+            Optional.ofNullable(idCode).ifPresent(v -> b.must(f.match()
+                    .field("id_code")
+                    .matching(v)));
+            Optional.ofNullable(geometry).ifPresent(g-> b.must(f.extension(LuceneExtension.get())
+                    .fromLuceneQuery(createGeoSpatialQuery(g))));
+            Optional.ofNullable(fromTime).ifPresent(v -> b.must(f.range()
+                    .field("dateEnd")
+                    .atLeast(fromTime.toLocalDate())));
+            Optional.ofNullable(toTime).map(LocalDateTime::toLocalDate).ifPresent(v -> b.must(f.range()
+                    .field("dateStart")
+                    .atMost(toTime.toLocalDate())));
+        });
+    }
+
 
     /**
      * Creates a Lucene geo-spatial query based on the provided geometry. The
@@ -16,35 +16,56 @@
 
 package org.grad.eNav.atonService.services;
 
+import _int.iho.s125.gml.cs0._1.AidsToNavigationType;
+import _int.iho.s125.gml.cs0._1.Dataset;
+import _int.iho.s125.gml.cs0._1.impl.DatasetImpl;
+import _int.iho.s125.s100.gml.profiles._5_0.AbstractGMLType;
 import jakarta.persistence.EntityManager;
 import jakarta.validation.constraints.NotNull;
+import jakarta.xml.bind.JAXBException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.search.Sort;
+import org.grad.eNav.atonService.components.DatasetContentStore;
+import org.grad.eNav.atonService.components.DatasetVersionCache;
 import org.grad.eNav.atonService.exceptions.DataNotFoundException;
 import org.grad.eNav.atonService.models.domain.DatasetContent;
+import org.grad.eNav.atonService.models.domain.DatasetContentBlob;
 import org.grad.eNav.atonService.models.domain.DatasetContentLog;
+import org.grad.eNav.atonService.models.domain.DatasetContentMember;
 import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
 import org.grad.eNav.atonService.models.dtos.datatables.DtPagingRequest;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
 import org.grad.eNav.atonService.models.enums.DatasetOperation;
 import org.grad.eNav.atonService.models.enums.DatasetType;
+import org.grad.eNav.atonService.repos.DatasetContentBlobRepo;
 import org.grad.eNav.atonService.repos.DatasetContentLogRepo;
+import org.grad.eNav.atonService.utils.ChecksumWriter;
+import org.grad.eNav.s125.utils.S125Utils;
+import org.hibernate.Hibernate;
 import org.hibernate.search.backend.lucene.LuceneExtension;
 import org.hibernate.search.engine.search.query.SearchQuery;
 import org.hibernate.search.mapper.orm.Search;
 import org.hibernate.search.mapper.orm.scope.SearchScope;
 import org.hibernate.search.mapper.orm.session.SearchSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static java.util.function.Predicate.not;
 
@@ -53,8 +74,11 @@ import static java.util.function.Predicate.not;
  * <p/>
  * Service Implementation for managing the Dataset Content Log objects.
  * <p/>
- * Note that there is no deletion functionality in this service, since we want
- * to be able to store all the entries for auditing purposes.
+ * Note that there is no direct deletion functionality in this service, since
+ * we want to be able to store all the entries for auditing purposes. Only the
+ * entries outside the configured retention period are pruned, and the full
+ * content is only kept in periodic snapshots, by the dataset content log
+ * compactor.
  *
  * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
  */
@@ -80,6 +104,30 @@ public class DatasetContentLogService {
     @Autowired
     DatasetContentLogRepo datasetContentLogRepo;
 
+    /**
+     * The Dataset Content Blob Repo.
+     */
+    @Autowired
+    DatasetContentBlobRepo datasetContentBlobRepo;
+
+    /**
+     * The maximum number of deltas to be served after a snapshot.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.max-delta-chain:20}")
+    int maxDeltaChain;
+
+    /**
+     * The Dataset Version Cache.
+     */
+    @Autowired
+    DatasetVersionCache datasetVersionCache;
+
+    /**
+     * The Dataset Content Store.
+     */
+    @Autowired
+    DatasetContentStore datasetContentStore;
+
     // Service Variables
     private final String[] searchFields = new String[] {
             "uuid",
@@ -114,6 +162,46 @@ public class DatasetContentLogService {
                 .orElseThrow(() -> new DataNotFoundException(String.format("The requested dataset content log with ID %d was not found", id)));
     }
 
+    /**
+     * Transfers the content of the dataset content log entry with the
+     * provided ID into the provided output stream, decompressing it while
+     * being read. The content is streamed within a read-only transaction,
+     * since the Postgres large objects backing the payload blobs cannot be
+     * read in auto-commit mode. Note that the H2 database used for testing
+     * does not enforce this restriction.
+     *
+     * @param id the ID of the dataset content log entry
+     * @param outputStream the output stream to transfer the content into
+     * @throws IOException if the content could not be transferred
+     */
+    @Transactional(readOnly = true)
+    public void transferContent(@NotNull BigInteger id, @NotNull OutputStream outputStream) throws IOException {
+        try(InputStream inputStream = this.findOne(id).getContentInputStream()) {
+            if(Objects.nonNull(inputStream)) {
+                inputStream.transferTo(outputStream);
+            }
+        }
+    }
+
+    /**
+     * Transfers the delta of the dataset content log entry with the provided
+     * ID into the provided output stream, decompressing it while being read.
+     * As with the content, the delta is streamed within a read-only
+     * transaction.
+     *
+     * @param id the ID of the dataset content log entry
+     * @param outputStream the output stream to transfer the delta into
+     * @throws IOException if the delta could not be transferred
+     */
+    @Transactional(readOnly = true)
+    public void transferDelta(@NotNull BigInteger id, @NotNull OutputStream outputStream) throws IOException {
+        try(InputStream inputStream = this.findOne(id).getDeltaInputStream()) {
+            if(Objects.nonNull(inputStream)) {
+                inputStream.transferTo(outputStream);
+            }
+        }
+    }
+
     /**
      * Find the latest dataset content log by UUID.
      *
@@ -139,6 +227,10 @@ public class DatasetContentLogService {
 
     /**
      * Find the latest by UUID before the provided reference local date-time.
+     * <p/>
+     * Note that the content of compacted entries is not available, so use
+     * {@link #reconstructForUuid(UUID, LocalDateTime)} to retrieve the
+     * dataset content at that time.
      *
      * @param uuid              the UUID of the dataset
      * @param localDateTime     the reference local date-time
@@ -148,7 +240,8 @@ public class DatasetContentLogService {
     public DatasetContentLog findLatestForUuid(@NotNull UUID uuid, LocalDateTime localDateTime) {
         return this.datasetContentLogRepo.findLatestForUuid(
                         uuid,
-                        Optional.ofNullable(localDateTime).orElseGet(LocalDateTime::now)
+                        Optional.ofNullable(localDateTime).orElseGet(LocalDateTime::now),
+                        PageRequest.of(0, 1)
                 )
                 .stream()
                 .findFirst()
@@ -159,6 +252,71 @@ public class DatasetContentLogService {
                 );
     }
 
+    /**
+     * Reconstructs the content of the dataset with the provided UUID, as it
+     * was at the provided reference local date-time. If the matching dataset
+     * content log entry has been compacted, the content is reconstructed by
+     * applying the deltas following the nearest snapshot. The reconstructed
+     * versions are cached, so that repeated historic queries are cheap.
+     *
+     * @param uuid              the UUID of the dataset
+     * @param localDateTime     the reference local date-time
+     * @return the dataset content at the reference local date-time, or null if not available
+     */
+    @Transactional(readOnly = true)
+    public String reconstructForUuid(@NotNull UUID uuid, LocalDateTime localDateTime) {
+        log.debug("Request to reconstruct the content of Dataset with UUID {} at {}", uuid, localDateTime);
+
+        // Find the dataset content log entry of the requested version
+        final DatasetContentLog target = this.datasetContentLogRepo.findLatestForUuid(
+                        uuid,
+                        Optional.ofNullable(localDateTime).orElseGet(LocalDateTime::now),
+                        PageRequest.of(0, 1)
+                )
+                .stream()
+                .findFirst()
+                .orElse(null);
+        if(Objects.isNull(target)) {
+            return null;
+        } else if(target.isSnapshot()) {
+            return target.getContent();
+        }
+
+        // Check whether this version was recently reconstructed
+        final Optional<String> cached = this.datasetVersionCache.get(target.getId());
+        if(cached.isPresent()) {
+            return cached.get();
+        }
+
+        // Locate the nearest snapshot and the deltas up to the requested version
+        final DatasetContentLog snapshot = this.datasetContentLogRepo.findLatestSnapshotForUuid(uuid, target.getGeneratedAt(), PageRequest.of(0, 1))
+                .stream()
+                .findFirst()
+                .orElse(null);
+        final List<DatasetContentLog> chain = Objects.isNull(snapshot) ?
+                Collections.emptyList() :
+                this.findForUuidDuring(uuid, snapshot.getGeneratedAt(), target.getGeneratedAt());
+        final int from = chain.indexOf(snapshot);
+        final int to = chain.indexOf(target);
+        if(from < 0 || to < from) {
+            log.warn("No snapshot available to reconstruct the content of Dataset with UUID {} at {}", uuid, localDateTime);
+            return null;
+        }
+
+        // Apply the deltas to the snapshot content
+        final String content;
+        try {
+            content = this.applyDeltas(snapshot.getContent(), chain.subList(from + 1, to + 1));
+        } catch (JAXBException ex) {
+            log.error("Error while reconstructing the content of Dataset with UUID {}: {}", uuid, ex.getMessage());
+            return null;
+        }
+
+        // Cache and return the reconstructed version
+        this.datasetVersionCache.put(target.getId(), content);
+        return content;
+    }
+
     /**
      * Returns the sorted list of dataset content log entries for a specific
      * UUID that contain all the updates in the dataset.
@@ -196,6 +354,57 @@ public class DatasetContentLogService {
         );
     }
 
+    /**
+     * Returns the sorted chain of dataset content log entries for a specific
+     * UUID that can be used to reconstruct all the updates in the dataset
+     * during a specific date-time duration. The chain starts with the nearest
+     * snapshot, i.e. an entry holding the full dataset content, generated
+     * before the "from" date-time, followed by all the subsequent deltas up
+     * to the "to" date-time.
+     * <p/>
+     * The chain is bounded to the maximum delta chain length. If there are
+     * more deltas in the requested duration, the chain starts from a later
+     * snapshot instead, since that already incorporates all the earlier ones.
+     * <p/>
+     * Null values can also be provided in both the "from" and "to" date-time
+     * values to disable the filtering, similarly to the
+     * {@link #findForUuidDuring(UUID, LocalDateTime, LocalDateTime)} function.
+     *
+     * @param uuid the UUID of the dataset
+     * @param generatedFrom the "from" generation local date-time
+     * @param generatedTo the "to" generation local date-time
+     * @return the snapshot and delta chain of dataset content log entries
+     */
+    @Transactional(readOnly = true)
+    public List<DatasetContentLog> findChainForUuidDuring(@NotNull UUID uuid, LocalDateTime generatedFrom, LocalDateTime generatedTo) {
+        final LocalDateTime from = Optional.ofNullable(generatedFrom)
+                .orElse(LocalDateTime.of(LocalDate.EPOCH, LocalTime.MIN));
+
+        // Start from the nearest snapshot before the requested duration
+        final LocalDateTime chainFrom = this.datasetContentLogRepo.findLatestSnapshotForUuid(uuid, from, PageRequest.of(0, 1))
+                .stream()
+                .findFirst()
+                .map(DatasetContentLog::getGeneratedAt)
+                .orElse(from);
+        final List<DatasetContentLog> entries = this.findForUuidDuring(uuid, chainFrom, generatedTo);
+
+        // Pick the earliest snapshot that keeps the delta chain bounded
+        int start = -1;
+        for(int i = 0; i < entries.size(); i++) {
+            if(entries.get(i).isSnapshot()) {
+                start = i;
+                if(entries.size() - 1 - i <= this.maxDeltaChain) {
+                    break;
+                }
+            }
+        }
+
+        // And return the chain starting from that snapshot
+        return start < 0 ?
+                Collections.emptyList() :
+                new ArrayList<>(entries.subList(start, entries.size()));
+    }
+
     /**
      * Handles a datatables pagination request and returns the dataset content
      * log results list in an appropriate format to be viewed by a datatables
@@ -223,14 +432,22 @@ public class DatasetContentLogService {
     /**
      * A simple saving operation that persists the models in the database using
      * the correct repository based on the instance type.
+     * <p/>
+     * The entries are generated once the dataset operations have been
+     * committed, so the entry is always persisted in its own transaction,
+     * rather than joining the already committed one, where it would never
+     * be flushed.
      *
      * @param datasetContentLog the Dataset entity to be saved
      * @return the saved Dataset entity
      */
-    @Transactional
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public DatasetContentLog save(@NotNull DatasetContentLog datasetContentLog) {
         log.debug("Request to save Dataset Content Log: {}", datasetContentLog);
 
+        // Make sure the referenced payload blobs are stored, only once
+        this.saveBlobs(datasetContentLog);
+
         // Save the dataset content log entry
         final DatasetContentLog savedDatasetContentLog = this.datasetContentLogRepo.saveAndFlush(datasetContentLog);
 
@@ -238,6 +455,179 @@ public class DatasetContentLogService {
         return savedDatasetContentLog;
     }
 
+    /**
+     * A batched saving operation that persists multiple dataset content log
+     * entries in a single transaction, flushing them to the database only
+     * once, so that their inserts can be batched.
+     *
+     * @param datasetContentLogs the Dataset entities to be saved
+     * @return the saved Dataset entities
+     */
+    @Transactional
+    public List<DatasetContentLog> saveAll(@NotNull List<DatasetContentLog> datasetContentLogs) {
+        log.debug("Request to save {} Dataset Content Logs", datasetContentLogs.size());
+
+        // Make sure the referenced payload blobs are stored, only once
+        datasetContentLogs.forEach(this::saveBlobs);
+
+        // Save the dataset content log entries and flush them together
+        final List<DatasetContentLog> savedDatasetContentLogs = this.datasetContentLogRepo.saveAll(datasetContentLogs);
+        this.datasetContentLogRepo.flush();
+
+        // Return the saved dataset content logs
+        return savedDatasetContentLogs;
+    }
+
+    /**
+     * Stores the payload blobs referenced by the provided dataset content log
+     * entry, and re-attaches the stored ones to it. This is performed in its
+     * own transaction, so that the blobs are committed before the entry is
+     * handed over to the write-behind log writer, even when submitted after
+     * the transaction that generated it has been committed.
+     *
+     * @param datasetContentLog the dataset content log entry
+     * @return the dataset content log entry referencing the stored blobs
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public DatasetContentLog saveBlobs(@NotNull DatasetContentLog datasetContentLog) {
+        if(Objects.nonNull(datasetContentLog.getContentBlob())) {
+            datasetContentLog.setContentBlob(this.saveBlob(datasetContentLog.getContentBlob()));
+        }
+        if(Objects.nonNull(datasetContentLog.getDeltaBlob())) {
+            datasetContentLog.setDeltaBlob(this.saveBlob(datasetContentLog.getDeltaBlob()));
+        }
+        return datasetContentLog;
+    }
+
+    /**
+     * Stores the provided dataset content blob, unless a blob with the same
+     * hash, and hence the same content, has already been stored. In that
+     * case the existing blob is returned instead, and the payload of the
+     * provided one, if new, is released.
+     *
+     * @param datasetContentBlob the dataset content blob to be stored
+     * @return the stored dataset content blob
+     */
+    @Transactional
+    public DatasetContentBlob saveBlob(@NotNull DatasetContentBlob datasetContentBlob) {
+        return this.datasetContentBlobRepo.findById(datasetContentBlob.getHash())
+                .map(existingBlob -> {
+                    if(existingBlob != datasetContentBlob && datasetContentBlob.isNew()) {
+                        datasetContentBlob.release();
+                    }
+                    return existingBlob;
+                })
+                .orElseGet(() -> this.datasetContentBlobRepo.save(datasetContentBlob));
+    }
+
+    /**
+     * Retrieves the stored dataset content blob with the provided hash, e.g.
+     * to re-attach a payload reference of a journaled log entry.
+     *
+     * @param hash the hash of the dataset content blob
+     * @return the stored dataset content blob
+     */
+    @Transactional(readOnly = true)
+    public DatasetContentBlob findBlob(@NotNull String hash) {
+        return this.datasetContentBlobRepo.findById(hash)
+                .orElseThrow(() -> new DataNotFoundException(String.format("The requested dataset content blob with hash %s was not found", hash)));
+    }
+
+    /**
+     * Deletes all the dataset content blobs that are not referenced by any
+     * dataset content or log entry anymore, and were created before the
+     * provided date-time.
+     *
+     * @param createdBefore the date-time the deleted blobs should be created before
+     * @return the number of deleted blobs
+     */
+    @Transactional
+    public int deleteUnreferencedBlobs(@NotNull LocalDateTime createdBefore) {
+        log.debug("Request to delete the unreferenced Dataset Content Blobs created before {}", createdBefore);
+        return this.datasetContentBlobRepo.deleteUnreferenced(createdBefore);
+    }
+
+    /**
+     * Prunes the dataset content log entries of a specific UUID that were
+     * generated before the provided date-time. To be able to reconstruct the
+     * dataset content for any date-time after that, the pruning only goes up
+     * to the latest snapshot generated before it, which is always retained
+     * along with all the subsequent entries.
+     *
+     * @param uuid the UUID of the dataset
+     * @param generatedBefore the date-time the pruned entries should be generated before
+     * @return the number of pruned entries
+     */
+    @Transactional
+    public int pruneForUuid(@NotNull UUID uuid, @NotNull LocalDateTime generatedBefore) {
+        log.debug("Request to prune the Dataset Content Logs for UUID {} generated before {}", uuid, generatedBefore);
+        final List<DatasetContentLog> entries = this.findForUuid(uuid);
+
+        // Find the latest snapshot generated before the pruning date-time
+        int retained = 0;
+        for(int i = 0; i < entries.size(); i++) {
+            final DatasetContentLog entry = entries.get(i);
+            if(!entry.getGeneratedAt().isBefore(generatedBefore)) {
+                break;
+            }
+            if(entry.isSnapshot()) {
+                retained = i;
+            }
+        }
+
+        // And delete everything before it
+        final List<DatasetContentLog> pruned = entries.subList(0, retained);
+        this.datasetContentLogRepo.deleteAll(pruned);
+        return pruned.size();
+    }
+
+    /**
+     * Compacts the dataset content log entries of a specific UUID that were
+     * generated before the provided date-time. Only one full snapshot is
+     * kept for every snapshot interval number of entries, while the rest of
+     * the entries only keep their delta. The first and the latest entries
+     * are always kept as snapshots.
+     * <p/>
+     * The compaction is deterministic, so running it again over the already
+     * compacted entries will keep the same snapshots.
+     *
+     * @param uuid the UUID of the dataset
+     * @param generatedBefore the date-time the compacted entries should be generated before
+     * @param snapshotInterval the number of entries between the snapshots
+     * @return the number of compacted entries
+     */
+    @Transactional
+    public int compactForUuid(@NotNull UUID uuid, @NotNull LocalDateTime generatedBefore, int snapshotInterval) {
+        log.debug("Request to compact the Dataset Content Logs for UUID {} generated before {}", uuid, generatedBefore);
+        final List<DatasetContentLog> entries = this.findForUuid(uuid);
+        final List<DatasetContentLog> compacted = new ArrayList<>();
+
+        // Walk through the entries, counting the deltas since the last snapshot
+        int chain = 0;
+        for(int i = 0; i < entries.size(); i++) {
+            final DatasetContentLog entry = entries.get(i);
+            if(!entry.getGeneratedAt().isBefore(generatedBefore)) {
+                break;
+            }
+            final boolean keep = i == 0
+                    || i == entries.size() - 1
+                    || chain >= Math.max(1, snapshotInterval) - 1;
+            if(entry.isSnapshot() && keep) {
+                chain = 0;
+            } else {
+                if(entry.isSnapshot()) {
+                    entry.setContentBlob(null);
+                    compacted.add(entry);
+                }
+                chain++;
+            }
+        }
+
+        // And save the compacted entries
+        this.datasetContentLogRepo.saveAll(compacted);
+        return compacted.size();
+    }
+
     /**
      * Provided with a valid UUID this function will use the original dataset
      * content log generation method to build a dataset content log entry.
@@ -295,30 +685,125 @@ public class DatasetContentLogService {
                 .map(DatasetContent::getGeneratedAt)
                 .orElse(LocalDateTime.now()));
 
-        // Copy the content
-        datasetContentLog.setContent(Optional.of(s125Dataset)
+        // Reference the content blob - so it gets shared rather than copied,
+        // unless it is still stored inline or has been offloaded to the
+        // file-backed content store
+        datasetContentLog.setContentBlob(Optional.of(s125Dataset)
                 .map(S125Dataset::getDatasetContent)
-                .map(DatasetContent::getContent)
+                .flatMap(datasetContent -> Optional.ofNullable(datasetContent.getContentBlob())
+                        .map(this::resolveBlob)
+                        .or(() -> Optional.ofNullable(datasetContent.getStoredContent())
+                                .or(() -> Optional.ofNullable(datasetContent.getContentLocation())
+                                        .flatMap(this.datasetContentStore::readStored))
+                                .map(storedContent -> new DatasetContentBlob(
+                                        Optional.ofNullable(datasetContent.getContentChecksum())
+                                                .orElseGet(() -> ChecksumWriter.checksum(DatasetContentCompression.decompress(storedContent))),
+                                        storedContent))))
                 .orElse(null));
         datasetContentLog.setContentLength(Optional.of(s125Dataset)
                 .map(S125Dataset::getDatasetContent)
                 .map(DatasetContent::getContentLength)
                 .orElse(null));
 
-        // Copy the delta
-        datasetContentLog.setDelta(Optional.of(s125Dataset)
+        // Reference the delta blob - or the inline delta as stored, so it
+        // doesn't get compressed again, along with the members removed since
+        // the previous version
+        datasetContentLog.setDeltaBlob(Optional.of(s125Dataset)
                 .map(S125Dataset::getDatasetContent)
-                .map(DatasetContent::getDelta)
+                .flatMap(datasetContent -> Optional.ofNullable(datasetContent.getDeltaBlob())
+                        .map(this::resolveBlob)
+                        .or(() -> Optional.ofNullable(datasetContent.getStoredDelta())
+                                .map(storedDelta -> new DatasetContentBlob(
+                                        Optional.ofNullable(datasetContent.getDeltaChecksum())
+                                                .orElseGet(() -> ChecksumWriter.checksum(datasetContent.getDelta())),
+                                        storedDelta))))
                 .orElse(null));
         datasetContentLog.setDeltaLength(Optional.of(s125Dataset)
                 .map(S125Dataset::getDatasetContent)
                 .map(DatasetContent::getDeltaLength)
                 .orElse(null));
+        datasetContentLog.setRemovals(Optional.of(s125Dataset)
+                .map(S125Dataset::getDatasetContent)
+                .map(DatasetContent::getRemovals)
+                .orElse(null));
 
         // And return the dataset content
         return datasetContentLog;
     }
 
+    /**
+     * Resolves the provided dataset content blob reference, so that it can
+     * be shared by a new log entry. Blob proxies that have not been loaded,
+     * e.g. the ones of detached dataset contents, are looked up again by
+     * their hash.
+     *
+     * @param datasetContentBlob the dataset content blob reference
+     * @return the resolved dataset content blob
+     */
+    protected DatasetContentBlob resolveBlob(DatasetContentBlob datasetContentBlob) {
+        if(Hibernate.isInitialized(datasetContentBlob)) {
+            return datasetContentBlob;
+        }
+        return this.datasetContentBlobRepo.findById(datasetContentBlob.getHash())
+                .orElse(null);
+    }
+
+    /**
+     * Applies the deltas of the provided sequence of dataset content log
+     * entries to a dataset content snapshot. Each entry first drops the
+     * members removed since the previous version, by matching their ID
+     * codes, while its delta contains the new and updated members, so the
+     * members of the snapshot are replaced or appended by matching their
+     * GML IDs. The dataset identification information is taken from the
+     * latest delta, while the bounding shape is retained from the snapshot,
+     * since the deltas only cover the changed members.
+     *
+     * @param content the dataset content snapshot
+     * @param deltas the dataset content log entries of the deltas to be applied in order
+     * @return the reconstructed dataset content
+     * @throws JAXBException if the snapshot or the deltas could not be processed
+     */
+    protected String applyDeltas(String content, List<DatasetContentLog> deltas) throws JAXBException {
+        if(Objects.isNull(content) || deltas.isEmpty()) {
+            return content;
+        }
+
+        // Collect the members of the snapshot, keyed by their GML IDs
+        final Dataset snapshot = S125Utils.unmarshallS125(content);
+        final Map<String, AbstractGMLType> members = new LinkedHashMap<>();
+        S125Utils.getDatasetMembers(snapshot)
+                .forEach(member -> members.put(Optional.ofNullable(member.getId()).orElseGet(() -> UUID.randomUUID().toString()), member));
+
+        // Apply the removed, new and updated members of each delta in order
+        Dataset latest = snapshot;
+        for(DatasetContentLog datasetContentLog : deltas) {
+            final Set<String> removedIdCodes = Optional.ofNullable(datasetContentLog.getRemovals())
+                    .orElseGet(Collections::emptyList)
+                    .stream()
+                    .map(DatasetContentMember::idCode)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            members.values().removeIf(member -> member instanceof AidsToNavigationType aton
+                    && removedIdCodes.contains(aton.getIdCode()));
+            final String delta = datasetContentLog.getDelta();
+            if(Objects.isNull(delta)) {
+                continue;
+            }
+            latest = S125Utils.unmarshallS125(delta);
+            S125Utils.getDatasetMembers(latest)
+                    .forEach(member -> members.put(Optional.ofNullable(member.getId()).orElseGet(() -> UUID.randomUUID().toString()), member));
+        }
+
+        // And assemble the reconstructed dataset
+        final Dataset dataset = new DatasetImpl();
+        dataset.setId(latest.getId());
+        dataset.setDatasetIdentificationInformation(latest.getDatasetIdentificationInformation());
+        dataset.setBoundedBy(snapshot.getBoundedBy());
+        dataset.getPointsAndMultiPointsAndCurves().addAll(latest.getPointsAndMultiPointsAndCurves());
+        S125Utils.addDatasetMembers(dataset, new ArrayList<>(members.values()));
+        return S125Utils.marshalS125(dataset, Boolean.TRUE);
+    }
+
     /**
      * Constructs a hibernate search query using Lucene based on the provided
      * search test. This query will be based solely on the dataset content log
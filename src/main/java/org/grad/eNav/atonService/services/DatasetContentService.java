@@ -17,38 +17,56 @@
 package org.grad.eNav.atonService.services;
 
 import _int.iho.s125.gml.cs0._1.AidsToNavigationType;
-import _int.iho.s125.gml.cs0._1.Dataset;
+import _int.iho.s125.gml.cs0._1.impl.AidsToNavigationTypeImpl;
 import jakarta.validation.constraints.NotNull;
 import jakarta.xml.bind.JAXBException;
 import lombok.extern.slf4j.Slf4j;
 import org.grad.eNav.atonService.aspects.LogDataset;
+import org.grad.eNav.atonService.components.DatasetContentStore;
+import org.grad.eNav.atonService.components.DatasetMemberCache;
+import org.grad.eNav.atonService.components.S125FragmentCache;
 import org.grad.eNav.atonService.exceptions.DeletedAtoNsInDatasetContentGenerationException;
 import org.grad.eNav.atonService.exceptions.SavingFailedException;
+import org.grad.eNav.atonService.models.AidsToNavigationSnapshot;
 import org.grad.eNav.atonService.models.domain.DatasetContent;
+import org.grad.eNav.atonService.models.domain.DatasetContentBlob;
+import org.grad.eNav.atonService.models.domain.DatasetContentDiff;
+import org.grad.eNav.atonService.models.domain.DatasetContentMember;
 import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
 import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
+import org.grad.eNav.atonService.models.domain.s125.S125DatasetIdentification;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
 import org.grad.eNav.atonService.repos.DatasetContentRepo;
+import org.grad.eNav.atonService.utils.ChecksumWriter;
+import org.grad.eNav.atonService.utils.GeometryUtils;
 import org.grad.eNav.atonService.utils.S125DatasetBuilder;
+import org.grad.eNav.atonService.utils.S125FragmentUtils;
 import org.grad.eNav.s125.utils.S125Utils;
+import org.hibernate.Hibernate;
+import org.locationtech.jts.geom.Geometry;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigInteger;
-import java.time.LocalDateTime;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import static org.geotools.filter.function.StaticGeometry.not;
 
 /**
  * The S-125 Dataset Content Service.
@@ -77,6 +95,31 @@ public class DatasetContentService {
     @Autowired
     DatasetService datasetService;
 
+    /**
+     * The Dataset Content Log Service.
+     */
+    @Lazy
+    @Autowired
+    DatasetContentLogService datasetContentLogService;
+
+    /**
+     * The Dataset Member Cache.
+     */
+    @Autowired
+    DatasetMemberCache datasetMemberCache;
+
+    /**
+     * The Dataset Content Store.
+     */
+    @Autowired
+    DatasetContentStore datasetContentStore;
+
+    /**
+     * The S-125 Fragment Cache.
+     */
+    @Autowired
+    S125FragmentCache s125FragmentCache;
+
     /**
      * The Dataset Content Repo.
      */
@@ -89,6 +132,20 @@ public class DatasetContentService {
     @Value("${gla.rad.aton-service.datasetMrnPrefix:urn:mrn:test:s125}")
     String datasetMrnPrefix;
 
+    /**
+     * The storage format of the generated dataset contents and deltas.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.compression:GZIP}")
+    DatasetContentCompression contentCompression = DatasetContentCompression.GZIP;
+
+    /**
+     * Whether the removed members should be handled by publishing the full
+     * content as a new base, instead of requiring the dataset to be
+     * cancelled and replaced.
+     */
+    @Value("${gla.rad.aton-service.dataset-content.removal-deltas:true}")
+    boolean removalDeltas = true;
+
     /**
      * The saving operation that persists the dataset content in the database
      * using the respective repository.
@@ -112,56 +169,219 @@ public class DatasetContentService {
             s125Dataset.setDatasetContent(datasetContent);
         }
 
+        // Make sure the referenced payload blobs are stored, only once
+        if(Objects.nonNull(datasetContent.getContentBlob())) {
+            datasetContent.setContentBlob(this.datasetContentLogService.saveBlob(datasetContent.getContentBlob()));
+        }
+        if(Objects.nonNull(datasetContent.getDeltaBlob())) {
+            datasetContent.setDeltaBlob(this.datasetContentLogService.saveBlob(datasetContent.getDeltaBlob()));
+        }
+
         // Return the new/updated dataset content
         return this.datasetContentRepo.saveAndFlush(datasetContent);
     }
 
+    /**
+     * Reads the content of the provided dataset content as bytes. If the
+     * content has been offloaded to the file-backed content store, it is
+     * read from the stored file, otherwise it is read from the database.
+     * <p/>
+     * The content blob is looked up again and read within a read-only
+     * transaction, since the Postgres large objects backing the blobs cannot
+     * be read in auto-commit mode, e.g. while a detached dataset content is
+     * being published. Note that the H2 database used for testing does not
+     * enforce this restriction.
+     *
+     * @param datasetContent the dataset content to read the content of
+     * @return the content bytes, or null if no content is available
+     */
+    @Transactional(readOnly = true)
+    public byte[] readContent(DatasetContent datasetContent) {
+        if(Objects.isNull(datasetContent)) {
+            return null;
+        }
+
+        // Contents offloaded to the store are read from their files
+        final Optional<byte[]> storedContent = this.datasetContentStore.readContent(datasetContent.getContentLocation());
+        if(storedContent.isPresent()) {
+            return storedContent.get();
+        }
+
+        // Otherwise read the persisted blob through the current transaction,
+        // unless it has not been persisted yet, or the legacy inline content
+        final DatasetContentBlob contentBlob = Optional.ofNullable(datasetContent.getContentBlob())
+                .map(blob -> Hibernate.isInitialized(blob) && blob.isNew() ?
+                        blob : this.datasetContentLogService.findBlob(blob.getHash()))
+                .orElse(null);
+        try(InputStream inputStream = Objects.nonNull(contentBlob) ?
+                contentBlob.getContentInputStream() :
+                datasetContent.getContentInputStream()) {
+            return Objects.nonNull(inputStream) ? inputStream.readAllBytes() : null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
     /**
      * Provided a valid dataset this function will build the respective
      * dataset content and populate it with all entries that match its
      * geographical boundaries. The resulting object will then be marshalled
      * into an XML string and returned.
+     * <p/>
+     * The S-125 members of the previously generated content are retrieved
+     * from the dataset member cache, so that only the new or changed
+     * entries need to be mapped again.
+     * <p/>
+     * The delta of the new content includes the added and updated members,
+     * as computed by the structural difference between the previous and the
+     * new member manifests. Since deltas cannot carry deletions, if any
+     * members have been removed the delta includes the full content instead,
+     * so that it can be published as a new base, while the removed members
+     * are also recorded alongside it.
+     * <p/>
+     * If the canonical hash of the new member manifest matches the one of
+     * the previous content, and so does the canonical hash of the dataset
+     * metadata, the content remains unchanged. In that case no new version is saved, so
+     * the sequence number is not increased, and an empty result is returned
+     * so that no log entry or publication is produced for it.
+     * <p/>
+     * The content and delta are streamed directly into staging files, in
+     * their storage format, from which they are streamed into their content
+     * blobs when saved, so that they are never held in memory as a whole.
+     * <p/>
+     * Note that the generation is performed synchronously. The dataset
+     * service submits it to the dedicated dataset generation executor, so
+     * that it is scheduled according to its priority class.
      *
      * @param uuid the dataset of the dataset to generate the content for
-     * @return the dataset with the newly generated dataset content object
+     * @return the dataset with the newly generated dataset content object, or an empty result if unchanged
      */
     @LogDataset
-    @Async
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public CompletableFuture<S125Dataset> generateDatasetContent(@NotNull UUID uuid) {
         log.debug("Request to generate the content for Dataset with UUID: {}", uuid);
+        return this.buildDatasetContent(uuid, null);
+    }
+
+    /**
+     * Provided a valid dataset and a shared Aids to Navigation snapshot,
+     * this function will build the respective dataset content, populating
+     * it with the snapshot entries that match its geographical boundaries.
+     * The snapshot should have been loaded for a geometry that covers the
+     * dataset, so that the results are identical to the ones of a dataset
+     * generating its own content.
+     *
+     * @param uuid the dataset of the dataset to generate the content for
+     * @param snapshot the shared Aids to Navigation snapshot
+     * @return the dataset with the newly generated dataset content object, or an empty result if unchanged
+     */
+    @LogDataset
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public CompletableFuture<S125Dataset> generateDatasetContent(@NotNull UUID uuid, @NotNull AidsToNavigationSnapshot snapshot) {
+        log.debug("Request to generate the content for Dataset with UUID: {} from a snapshot of {} AtoNs", uuid, snapshot.size());
+        return this.buildDatasetContent(uuid, snapshot);
+    }
+
+    /**
+     * Loads a shared snapshot of the Aids to Navigation for the batched
+     * content regeneration of the datasets with the provided UUIDs. The
+     * Aids to Navigation matching the union of the dataset geometries are
+     * retrieved in a single query and each one of them is mapped only once
+     * into its S-125 member representation, re-using any members cached
+     * for these datasets.
+     * <p/>
+     * Since the snapshot is shared across the generation threads, all the
+     * lazily loaded entries required by the dataset generation are
+     * initialised here.
+     *
+     * @param uuids the UUIDs of the datasets to load the snapshot for
+     * @return the shared Aids to Navigation snapshot
+     */
+    @Transactional(readOnly = true)
+    public AidsToNavigationSnapshot loadAidsToNavigationSnapshot(@NotNull Collection<UUID> uuids) {
+        log.debug("Request to load an AtoN snapshot for Datasets with UUIDs: {}", uuids);
+
+        // Join the geometries of all the requested datasets
+        final Geometry geometry = GeometryUtils.joinGeometries(uuids.stream()
+                .map(this.datasetService::findOne)
+                .map(S125Dataset::getGeometry)
+                .filter(Objects::nonNull)
+                .toArray(Geometry[]::new));
+
+        // Get all the matching Aids to Navigation - if we have a geometry
+        final List<AidsToNavigation> atonList = Optional.ofNullable(geometry)
+                .map(g -> this.aidsToNavigationService.findAll(null, g, null, null, Pageable.unpaged()))
+                .orElseGet(Page::empty)
+                .getContent();
+
+        // Map each one of them once, re-using the cached members
+        final S125DatasetBuilder s125DatasetBuilder = new S125DatasetBuilder(this.modelMapper, this.datasetMrnPrefix);
+        final List<AidsToNavigationTypeImpl> atonMembers = this.datasetMemberCache.mapMembers(uuids, atonList, s125DatasetBuilder::mapAidsToNavigation);
 
+        // Initialise the aggregations and associations used by the datasets
+        atonList.forEach(aton -> {
+            aton.getAggregations().forEach(aggregation -> Hibernate.initialize(aggregation.getPeers()));
+            aton.getAssociations().forEach(association -> Hibernate.initialize(association.getPeers()));
+        });
+
+        // And return the snapshot
+        return new AidsToNavigationSnapshot(atonList, atonMembers);
+    }
+
+    /**
+     * Builds the respective dataset content of the dataset with the provided
+     * UUID. If a shared Aids to Navigation snapshot is provided, the dataset
+     * entries and their S-125 members are retrieved from that, otherwise
+     * they are loaded and mapped for the specific dataset.
+     *
+     * @param uuid the dataset of the dataset to generate the content for
+     * @param snapshot the shared Aids to Navigation snapshot, if any
+     * @return the dataset with the newly generated dataset content object, or an empty result if unchanged
+     */
+    protected CompletableFuture<S125Dataset> buildDatasetContent(UUID uuid, AidsToNavigationSnapshot snapshot) {
         // Make sure we have a valid dataset content entry to populate
         final S125Dataset s125Dataset = this.datasetService.findOne(uuid);
         final DatasetContent datasetContent = Optional.of(s125Dataset)
                 .map(S125Dataset::getDatasetContent)
                 .orElseGet(DatasetContent::new);
 
-        // Get all the previously matching Aids to Navigation - if we have the old content
-        final List<AidsToNavigationType> origAtonList = Optional.of(s125Dataset)
-                .map(S125Dataset::getDatasetContent)
-                .map(DatasetContent::getContent)
-                .map(xml -> {
-                    try { return S125Utils.getDatasetMembers(xml); }
-                    catch (JAXBException ex) { return null; }
-                })
-                .orElseGet(Collections::emptyList)
-                .stream()
-                .filter(AidsToNavigationType.class::isInstance)
-                .map(AidsToNavigationType.class::cast)
-                .toList();
-        final Set<String> origIDCodes = origAtonList.stream()
-                .map(AidsToNavigationType::getIdCode)
-                .collect(Collectors.toSet());
+        // Get the member manifest of the previous content, if available
+        final Optional<Map<String, DatasetContentMember>> origManifest = Optional.of(datasetContent)
+                .map(DatasetContent::getManifest)
+                .map(manifest -> manifest.stream()
+                        .filter(member -> Objects.nonNull(member.idCode()))
+                        .collect(Collectors.toMap(DatasetContentMember::idCode, Function.identity(), (a, b) -> a)));
 
-        // Get all the new matching Aids to Navigation - if we have a geometry
-        final List<AidsToNavigation> atonList = Optional.of(s125Dataset)
-                .map(S125Dataset::getGeometry)
-                .map(geometry ->
-                        this.aidsToNavigationService.findAll(null, geometry, null, null, Pageable.unpaged())
-                )
-                .orElseGet(Page::empty)
-                .getContent();
+        // Get all the previously matching Aids to Navigation ID codes - if
+        // not cached or in the manifest, we need to read them from the old
+        // content
+        final Set<String> origIDCodes = this.datasetMemberCache.getIdCodes(s125Dataset.getUuid(), datasetContent.getSequenceNo())
+                .or(() -> origManifest.map(Map::keySet))
+                .orElseGet(() -> Optional.of(s125Dataset)
+                        .map(S125Dataset::getDatasetContent)
+                        .map(DatasetContent::getContent)
+                        .map(xml -> {
+                            try { return S125Utils.getDatasetMembers(xml); }
+                            catch (JAXBException ex) { return null; }
+                        })
+                        .orElseGet(Collections::emptyList)
+                        .stream()
+                        .filter(AidsToNavigationType.class::isInstance)
+                        .map(AidsToNavigationType.class::cast)
+                        .map(AidsToNavigationType::getIdCode)
+                        .collect(Collectors.toSet()));
+
+        // Get all the new matching Aids to Navigation - if we have a geometry.
+        // The index query is refined with the exact geometry intersection,
+        // so that the result matches the selection from a shared snapshot.
+        final List<AidsToNavigation> atonList = Objects.nonNull(snapshot) ?
+                snapshot.getAidsToNavigation(s125Dataset.getGeometry()) :
+                Optional.of(s125Dataset)
+                        .map(S125Dataset::getGeometry)
+                        .map(geometry -> AidsToNavigationSnapshot.intersecting(
+                                this.aidsToNavigationService.findAll(null, geometry, null, null, Pageable.unpaged()).getContent(),
+                                geometry))
+                        .orElseGet(Collections::emptyList);
         final Set<String> idCodes = atonList.stream()
                 .map(AidsToNavigation::getIdCode)
                 .collect(Collectors.toSet());
@@ -170,9 +390,10 @@ public class DatasetContentService {
         //                    IMPORTANT VALIDATION STEP                       //
         // ================================================================== //
         // In cases where any of the original AtoNs is not found in the current
-        // list, this means that a new content will be invalid since there has
-        // been a removal. Therefore, a ValidationException should be thrown.
-        if(!idCodes.containsAll(origIDCodes)) {
+        // list, this means that there has been a removal. Unless the removals
+        // are recorded alongside the delta, the new content will be invalid.
+        // Therefore, a ValidationException should be thrown.
+        if(!this.removalDeltas && !idCodes.containsAll(origIDCodes)) {
             // Create a response that something went wrong
             CompletableFuture<S125Dataset> exFuture = CompletableFuture.failedFuture(new DeletedAtoNsInDatasetContentGenerationException(
                     String.format("Deleted AtoNs detected during the generation " +
@@ -185,52 +406,96 @@ public class DatasetContentService {
         }
         // ================================================================== //
 
-        // Filter the new/updated Aids to Navigation entries - CAREFUL keel only
-        // the unique items cause some might be included in both cases.
-        final List<AidsToNavigation> newAtonList = atonList.stream()
-                .filter(aton -> Objects.nonNull(aton.getIdCode()))
-                .filter(aton -> not(origIDCodes.contains(aton.getIdCode())))
-                .toList();
-        final List<AidsToNavigation> updatedAtonList = atonList.stream()
-                .filter(aton -> Objects.nonNull(aton.getLastModifiedAt()))
-                .filter(aton -> aton.getLastModifiedAt().isAfter(Optional.of(s125Dataset)
-                        .map(S125Dataset::getDatasetContent)
-                        .map(DatasetContent::getGeneratedAt)
-                        .orElse(LocalDateTime.MIN)))
-                .toList();
-        final List<AidsToNavigation> deltaAtonList = Stream
-                .concat(newAtonList.stream(), updatedAtonList.stream())
-                .collect(Collectors.toSet()) // To keep only the unique items
-                .stream()
+        // Describe the previous members - using the manifest entries if available
+        final List<DatasetContentMember> origMembers = origIDCodes.stream()
+                .map(idCode -> origManifest
+                        .map(manifest -> manifest.get(idCode))
+                        .orElseGet(() -> new DatasetContentMember(idCode, null, null, null)))
                 .toList();
 
         // Now try to marshal the dataset into an XML string and update the content/delta
         final S125DatasetBuilder s125DatasetBuilder = new S125DatasetBuilder(this.modelMapper, this.datasetMrnPrefix);
         try {
-            // Build the dataset contents, if any
-            final Dataset dataset = s125DatasetBuilder.packageToDataset(s125Dataset, atonList);
-            final Dataset delta = s125DatasetBuilder.packageToDataset(s125Dataset, deltaAtonList);
+            // Map the dataset members, re-using the snapshot or the unchanged cached ones
+            final List<AidsToNavigationTypeImpl> atonMembers = Objects.nonNull(snapshot) ?
+                    snapshot.getMembers(atonList) :
+                    this.datasetMemberCache.mapMembers(s125Dataset.getUuid(), atonList, s125DatasetBuilder::mapAidsToNavigation);
+            final Map<AidsToNavigation, AidsToNavigationTypeImpl> atonMembersMap = new IdentityHashMap<>();
+            for(int i = 0; i < atonList.size(); i++) {
+                atonMembersMap.put(atonList.get(i), atonMembers.get(i));
+            }
+
+            // Build the member manifest of the new content from the member
+            // fragments, which are re-used when marshalling the content
+            final List<DatasetContentMember> manifest = new ArrayList<>(atonList.size());
+            for(int i = 0; i < atonList.size(); i++) {
+                final AidsToNavigation aton = atonList.get(i);
+                final String fragment = this.getMemberFragment(aton, atonMembers.get(i));
+                manifest.add(new DatasetContentMember(aton.getIdCode(), aton.getId(), aton.getLastModifiedAt(), ChecksumWriter.checksum(fragment)));
+            }
+
+            // If nothing has changed since the previous content, there is no
+            // need for a new version to be stored, logged and published
+            final String metadataHash = this.getMetadataHash(s125Dataset);
+            if(this.isContentUnchanged(datasetContent, metadataHash, manifest)) {
+                log.debug("The content of dataset with UUID {} is unchanged, skipping the new version", s125Dataset.getUuid());
+                return CompletableFuture.completedFuture(null);
+            }
+
+            // Stream the contents into XML, computing the length and checksum
+            // on the fly, directly into a staging file in their storage format
+            final Path contentFile = this.createStagingFile();
+            final ChecksumWriter contentChecksumWriter = new ChecksumWriter(this.contentCompression.newWriter(Files.newOutputStream(contentFile)));
+            try(contentChecksumWriter) {
+                this.marshalDataset(s125DatasetBuilder, s125Dataset, atonList, atonMembers, contentChecksumWriter);
+            }
+            final String contentChecksum = contentChecksumWriter.getChecksum();
+
+            // Compute the structural difference from the previous content -
+            // the delta includes the new/updated Aids to Navigation entries,
+            // or all of them if any have been removed, since the removals
+            // can only be published through a new base
+            final DatasetContentDiff diff = DatasetContentDiff.between(origMembers, manifest, datasetContent.getGeneratedAt());
+            final Set<DatasetContentMember> changedMembers = diff.getChangedMembers();
+            final List<AidsToNavigation> deltaAtonList = new ArrayList<>();
+            for(int i = 0; i < atonList.size(); i++) {
+                if(!diff.removed().isEmpty() || changedMembers.contains(manifest.get(i))) {
+                    deltaAtonList.add(atonList.get(i));
+                }
+            }
+            log.debug("Dataset with UUID {} has {} added, {} updated and {} removed members",
+                    s125Dataset.getUuid(), diff.added().size(), diff.updated().size(), diff.removed().size());
 
-            // Marshall the contents into XML
-            final String datasetXML = S125Utils.marshalS125(dataset, Boolean.TRUE);
-            // Marshall the delta into XML - but only if it's not cancelled/deleted
-            final String deltaXML = S125Utils.marshalS125(delta, Boolean.TRUE);
+            // Stream the delta into XML - but only if it's not cancelled/deleted
+            final Path deltaFile = this.createStagingFile();
+            final ChecksumWriter deltaChecksumWriter = new ChecksumWriter(this.contentCompression.newWriter(Files.newOutputStream(deltaFile)));
+            try(deltaChecksumWriter) {
+                this.marshalDataset(s125DatasetBuilder, s125Dataset, deltaAtonList, deltaAtonList.stream()
+                        .map(atonMembersMap::get)
+                        .toList(), deltaChecksumWriter);
+            }
+            final String deltaChecksum = deltaChecksumWriter.getChecksum();
 
             // Populate the dataset content/delta
             datasetContent.setDataset(this.datasetService.findOne(s125Dataset.getUuid()));
-            datasetContent.setContent(datasetXML);
-            datasetContent.setContentLength(Optional.ofNullable(datasetXML)
-                    .map(String::length)
-                    .map(BigInteger::valueOf)
-                    .orElse(BigInteger.ZERO));
-            datasetContent.setDelta(deltaXML);
-            datasetContent.setDeltaLength(Optional.ofNullable(deltaXML)
-                    .map(String::length)
-                    .map(BigInteger::valueOf)
-                    .orElse(BigInteger.ZERO));
+            datasetContent.setContentBlob(DatasetContentBlob.staged(contentChecksum, contentFile));
+            datasetContent.setContentLength(BigInteger.valueOf(contentChecksumWriter.getLength()));
+            datasetContent.setContentChecksum(contentChecksum);
+            datasetContent.setDeltaBlob(DatasetContentBlob.staged(deltaChecksum, deltaFile));
+            datasetContent.setDeltaLength(BigInteger.valueOf(deltaChecksumWriter.getLength()));
+            datasetContent.setDeltaChecksum(deltaChecksum);
+            datasetContent.setManifest(manifest);
+            datasetContent.setRemovals(diff.removed().isEmpty() ? null : diff.removed());
+            datasetContent.setMetadataHash(metadataHash);
+
+            // The new content supersedes any previously stored content file
+            datasetContent.setContentLocation(null);
 
             // And finally perform the saving operation
             s125Dataset.setDatasetContent(this.save(datasetContent));
+
+            // Keep the generated members for the next time
+            this.datasetMemberCache.put(s125Dataset.getUuid(), s125Dataset.getDatasetContent().getSequenceNo(), atonList, atonMembers);
         } catch (Exception ex) {
             log.error(ex.getMessage());
             return CompletableFuture.failedFuture(ex);
@@ -240,4 +505,162 @@ public class DatasetContentService {
         return CompletableFuture.completedFuture(s125Dataset);
     }
 
+    /**
+     * Creates a new staging file for a generated payload. The file is
+     * deleted once the current transaction is completed, since by then the
+     * payload has been streamed into its content blob, or when the
+     * application exits if no transaction is active.
+     *
+     * @return the new staging file
+     * @throws IOException if the staging file could not be created
+     */
+    protected Path createStagingFile() throws IOException {
+        final Path file = Files.createTempFile("dataset-content-", ".tmp");
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException ex) {
+                        log.warn("Failed to delete the dataset content staging file {}: {}", file, ex.getMessage());
+                    }
+                }
+            });
+        } else {
+            file.toFile().deleteOnExit();
+        }
+        return file;
+    }
+
+    /**
+     * Marshals the S-125 dataset that includes the provided Aids to
+     * Navigation into XML, streaming it to the provided writer. Instead of
+     * marshalling all the dataset members each time, only a skeleton of the
+     * dataset with its first member is marshalled. The skeleton is then
+     * written up to the end of the first member, followed by the XML
+     * fragments of the rest of the members, which are retrieved one by one
+     * from the S-125 fragment cache (or marshalled on a miss), and finally
+     * the remainder of the skeleton. This way the full dataset XML never has
+     * to be assembled in memory. If the splicing is not possible, the whole
+     * dataset is marshalled instead.
+     *
+     * @param s125DatasetBuilder the S-125 dataset builder
+     * @param s125Dataset the S-125 dataset to be marshalled
+     * @param atons the Aids to Navigation included in the dataset
+     * @param atonMembers the S-125 member representation of the Aids to Navigation
+     * @param writer the writer to stream the marshalled S-125 dataset XML to
+     * @throws JAXBException if the dataset could not be marshalled
+     * @throws IOException if the dataset could not be written
+     */
+    protected void marshalDataset(S125DatasetBuilder s125DatasetBuilder,
+                                  S125Dataset s125Dataset,
+                                  List<AidsToNavigation> atons,
+                                  List<AidsToNavigationTypeImpl> atonMembers,
+                                  Writer writer) throws JAXBException, IOException {
+        // Without any members, there is nothing to splice
+        if(atons.isEmpty()) {
+            writer.write(S125Utils.marshalS125(s125DatasetBuilder.packageToDataset(s125Dataset, atons, atonMembers), Boolean.TRUE));
+            return;
+        }
+
+        // Marshal the dataset skeleton and locate the end of the first member
+        final String firstFragment = this.getMemberFragment(atons.get(0), atonMembers.get(0));
+        final String skeletonXml = S125Utils.marshalS125(s125DatasetBuilder.packageToDataset(s125Dataset, atons, atonMembers.subList(0, 1)), Boolean.TRUE);
+        final OptionalInt insertionPoint = S125FragmentUtils.getMemberInsertionPoint(skeletonXml, firstFragment);
+        if(insertionPoint.isPresent()) {
+            // Stream the skeleton with the rest of the member fragments spliced in
+            writer.write(skeletonXml, 0, insertionPoint.getAsInt());
+            for(int i = 1; i < atons.size(); i++) {
+                writer.write(this.getMemberFragment(atons.get(i), atonMembers.get(i)));
+            }
+            writer.write(skeletonXml, insertionPoint.getAsInt(), skeletonXml.length() - insertionPoint.getAsInt());
+            return;
+        }
+
+        // Otherwise fall back to marshalling the whole dataset
+        log.warn("Failed to splice the member fragments of dataset {}, marshalling it in full", s125Dataset.getUuid());
+        writer.write(S125Utils.marshalS125(s125DatasetBuilder.packageToDataset(s125Dataset, atons, atonMembers), Boolean.TRUE));
+    }
+
+    /**
+     * Determines whether the content of a dataset would remain unchanged by
+     * a new version with the provided metadata hash and member manifest.
+     * This is the case when the dataset already has a generated content,
+     * its metadata has not been changed since, and the canonical hash of
+     * the new member manifest matches the one of the previous manifest,
+     * e.g. when the same Aids to Navigation are re-sent by an upstream
+     * source.
+     * <p/>
+     * Note that the last update time of the dataset cannot be used instead
+     * of the metadata hash, since it is also bumped when the generated
+     * content itself is saved.
+     *
+     * @param datasetContent the previously generated dataset content
+     * @param metadataHash the canonical hash of the current dataset metadata
+     * @param manifest the member manifest of the new content
+     * @return whether the dataset content remains unchanged
+     */
+    protected boolean isContentUnchanged(DatasetContent datasetContent, String metadataHash, List<DatasetContentMember> manifest) {
+        if(Objects.isNull(datasetContent.getId())
+                || Objects.isNull(datasetContent.getMetadataHash())
+                || Objects.isNull(datasetContent.getManifest())) {
+            return false;
+        }
+        return datasetContent.getMetadataHash().equals(metadataHash)
+                && DatasetContentMember.canonicalHash(manifest)
+                .equals(DatasetContentMember.canonicalHash(datasetContent.getManifest()));
+    }
+
+    /**
+     * Computes the canonical hash of the metadata of the provided dataset,
+     * i.e. of its identification information and its geometry, which are
+     * included in the generated content along with the members.
+     *
+     * @param s125Dataset the S-125 dataset
+     * @return the hex-encoded canonical hash of the dataset metadata
+     */
+    protected String getMetadataHash(S125Dataset s125Dataset) {
+        final Optional<S125DatasetIdentification> identification = Optional.ofNullable(s125Dataset.getDatasetIdentificationInformation());
+        try(ChecksumWriter writer = new ChecksumWriter(Writer.nullWriter())) {
+            for(Object value : Arrays.asList(
+                    identification.map(S125DatasetIdentification::getEncodingSpecification).orElse(null),
+                    identification.map(S125DatasetIdentification::getEncodingSpecificationEdition).orElse(null),
+                    identification.map(S125DatasetIdentification::getProductIdentifier).orElse(null),
+                    identification.map(S125DatasetIdentification::getProductEdition).orElse(null),
+                    identification.map(S125DatasetIdentification::getApplicationProfile).orElse(null),
+                    identification.map(S125DatasetIdentification::getDatasetFileIdentifier).orElse(null),
+                    identification.map(S125DatasetIdentification::getDatasetTitle).orElse(null),
+                    identification.map(S125DatasetIdentification::getDatasetReferenceDate).orElse(null),
+                    identification.map(S125DatasetIdentification::getDatasetLanguage).orElse(null),
+                    identification.map(S125DatasetIdentification::getDatasetAbstract).orElse(null),
+                    identification.map(S125DatasetIdentification::getDatasetTopicCategories).orElse(null),
+                    Optional.ofNullable(s125Dataset.getGeometry()).map(Geometry::toText).orElse(null))) {
+                writer.write(value + "\n");
+            }
+            return writer.getChecksum();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Returns the XML fragment of the provided S-125 member from the S-125
+     * fragment cache, or marshals and caches it on a miss.
+     *
+     * @param aton the Aids to Navigation of the member
+     * @param atonMember the S-125 member representation of the Aids to Navigation
+     * @return the marshalled XML fragment of the member
+     * @throws JAXBException if the member could not be marshalled
+     */
+    protected String getMemberFragment(AidsToNavigation aton, AidsToNavigationTypeImpl atonMember) throws JAXBException {
+        final Optional<String> cachedFragment = this.s125FragmentCache.get(aton);
+        if(cachedFragment.isPresent()) {
+            return cachedFragment.get();
+        }
+        final String fragment = S125FragmentUtils.marshalMemberFragment(atonMember);
+        this.s125FragmentCache.put(aton, fragment);
+        return fragment;
+    }
+
 }
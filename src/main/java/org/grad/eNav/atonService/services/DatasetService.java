@@ -18,6 +18,9 @@ package org.grad.eNav.atonService.services;
 
 
 import _int.iho.s125.s100.gml.base._5_0.MDTopicCategoryCode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
@@ -30,20 +33,31 @@ import org.apache.lucene.spatial.prefix.tree.SpatialPrefixTree;
 import org.apache.lucene.spatial.query.SpatialArgs;
 import org.apache.lucene.spatial.query.SpatialOperation;
 import org.grad.eNav.atonService.aspects.LogDataset;
+import org.grad.eNav.atonService.components.DatasetGenerationExecutor;
+import org.grad.eNav.atonService.components.DatasetRegenerationScheduler;
+import org.grad.eNav.atonService.components.SpatialQueryCache;
 import org.grad.eNav.atonService.exceptions.DataNotFoundException;
 import org.grad.eNav.atonService.exceptions.DeletedAtoNsInDatasetContentGenerationException;
 import org.grad.eNav.atonService.exceptions.SavingFailedException;
 import org.grad.eNav.atonService.exceptions.ValidationException;
+import org.grad.eNav.atonService.models.AidsToNavigationSnapshot;
 import org.grad.eNav.atonService.models.domain.DatasetContent;
 import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
 import org.grad.eNav.atonService.models.domain.s125.S125DatasetIdentification;
 import org.grad.eNav.atonService.models.dtos.datatables.DtPagingRequest;
+import org.grad.eNav.atonService.models.dtos.s125.S125DataSetSummaryDto;
+import org.grad.eNav.atonService.models.enums.DatasetGenerationPriority;
 import org.grad.eNav.atonService.models.enums.DatasetOperation;
+import org.grad.eNav.atonService.models.enums.DatasetQueryPlan;
 import org.grad.eNav.atonService.repos.DatasetRepo;
+import org.grad.eNav.atonService.services.secom.SecomSubscriptionService;
+import org.grad.secom.core.models.enums.ContainerTypeEnum;
 import org.grad.secom.core.models.enums.SECOM_DataProductType;
 import org.hibernate.search.backend.lucene.LuceneExtension;
 import org.hibernate.search.backend.lucene.search.sort.dsl.LuceneSearchSortFactory;
 import org.hibernate.search.engine.search.predicate.dsl.BooleanPredicateClausesStep;
+import org.hibernate.search.engine.search.predicate.dsl.PredicateFinalStep;
+import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
 import org.hibernate.search.engine.search.query.SearchQuery;
 import org.hibernate.search.mapper.orm.Search;
 import org.hibernate.search.mapper.orm.scope.SearchScope;
@@ -54,6 +68,7 @@ import org.locationtech.spatial4j.shape.jts.JtsGeometry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -62,11 +77,17 @@ import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigInteger;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.Executor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static java.util.function.Predicate.not;
 
@@ -94,10 +115,16 @@ public class DatasetService {
     EntityManager entityManager;
 
     /**
-     * The Task Executor.
+     * The Dataset Regeneration Scheduler.
      */
     @Autowired
-    Executor taskExecutor;
+    DatasetRegenerationScheduler datasetRegenerationScheduler;
+
+    /**
+     * The Dataset Generation Executor.
+     */
+    @Autowired
+    DatasetGenerationExecutor datasetGenerationExecutor;
 
     /**
      * The Dataset Content Service.
@@ -105,12 +132,25 @@ public class DatasetService {
     @Autowired
     DatasetContentService datasetContentService;
 
+    /**
+     * The SECOM Subscription Service.
+     */
+    @Lazy
+    @Autowired
+    SecomSubscriptionService secomSubscriptionService;
+
     /**
      * The Dataset Repo.
      */
     @Autowired
     DatasetRepo datasetRepo;
 
+    /**
+     * The Spatial Query Cache.
+     */
+    @Autowired
+    SpatialQueryCache spatialQueryCache;
+
     /**
      * The S-125 Dataset Channel to publish the published data to.
      */
@@ -125,7 +165,14 @@ public class DatasetService {
     @Qualifier("s125RemovalChannel")
     PublishSubscribeChannel s125RemovalChannel;
 
+    /**
+     * The Meter Registry.
+     */
+    @Autowired
+    MeterRegistry meterRegistry;
+
     // Service Variables
+    private final AtomicLong suppressedPublications = new AtomicLong();
     private final String[] searchFields = new String[] {
             "datasetIdentificationInformation.datasetTitle",
             "datasetIdentificationInformation.encodingSpecification",
@@ -140,6 +187,17 @@ public class DatasetService {
 
     };
 
+    /**
+     * The service post-construct operations where the dataset publication
+     * metrics are registered.
+     */
+    @PostConstruct
+    public void init() {
+        FunctionCounter.builder("aton.dataset.publication.suppressed", this.suppressedPublications, AtomicLong::doubleValue)
+                .description("The number of dataset publications suppressed due to unchanged contents")
+                .register(this.meterRegistry);
+    }
+
     /**
      * Find one dataset by UUID.
      *
@@ -155,6 +213,9 @@ public class DatasetService {
     /**
      * Get all the datasets in a pageable search.
      * <p/>
+     * The search is answered through the cheapest access path available for
+     * the provided parameters, as selected by the planDatasetQuery function.
+     * <p/>
      * Note that this operation by default does NOT show any cancelled datasets.
      *
      * @param uuid the dataset UUID
@@ -173,14 +234,209 @@ public class DatasetService {
                                      Boolean includeCancelled,
                                      Pageable pageable) {
         log.debug("Request to get S-125 Datasets in a pageable search");
-        // Create the search query - always sort by name
+        // Pick the cheapest access path for the provided parameters
+        final DatasetQueryPlan queryPlan = this.planDatasetQuery(uuid, geometry, pageable);
+        log.debug("S-125 Dataset search planned as a {}", queryPlan.getDescription());
+
+        // And perform the search accordingly
+        return switch (queryPlan) {
+            case PRIMARY_KEY -> this.findAllByPrimaryKey(uuid, geometry, fromTime, toTime, includeCancelled, pageable);
+            case GEOMETRY -> this.findAllByGeometry(geometry, fromTime, toTime, includeCancelled, pageable);
+            case TEXT -> this.findAllBySearchIndex(uuid, geometry, fromTime, toTime, includeCancelled, pageable);
+        };
+    }
+
+    /**
+     * Selects the cheapest access path for a dataset search with the provided
+     * parameters. These can be:
+     * <ul>
+     *     <li>A primary key lookup if a dataset UUID is provided.</li>
+     *     <li>A geometry-only lookup, answered through the spatial query
+     *     cache, when only a geometry is provided for an unpaged search.</li>
+     *     <li>A full search index query for all other cases.</li>
+     * </ul>
+     *
+     * @param uuid the dataset UUID
+     * @param geometry the dataset geometry
+     * @param pageable the pageable result output
+     * @return the selected dataset query plan
+     */
+    protected DatasetQueryPlan planDatasetQuery(UUID uuid, Geometry geometry, Pageable pageable) {
+        if(Objects.nonNull(uuid)) {
+            return DatasetQueryPlan.PRIMARY_KEY;
+        } else if(Objects.nonNull(geometry) && pageable.isUnpaged()) {
+            return DatasetQueryPlan.GEOMETRY;
+        }
+        return DatasetQueryPlan.TEXT;
+    }
+
+    /**
+     * Answers a dataset search through a primary key lookup, which can also
+     * be served by the second level cache. The rest of the search criteria
+     * are then applied directly on the retrieved dataset.
+     * <p/>
+     * The geometry criterion uses the same geo-spatial intersection as the
+     * search index queries, so that a dataset found on the other access
+     * paths is also found here. The only difference is that the relation is
+     * evaluated exactly, while the search index approximates the indexed
+     * shapes with its geohash grid cells, so a dataset that lies within a
+     * grid cell of the provided geometry, without actually touching it, can
+     * only be matched by the search index.
+     *
+     * @param uuid the dataset UUID
+     * @param geometry the dataset geometry
+     * @param fromTime the dataset validity starting time
+     * @param toTime the dataset validity ending time
+     * @param includeCancelled whether cancelled datasets should be included in the response
+     * @param pageable the pageable result output
+     * @return The matching datasets in a paged response
+     */
+    protected Page<S125Dataset> findAllByPrimaryKey(UUID uuid,
+                                                    Geometry geometry,
+                                                    LocalDateTime fromTime,
+                                                    LocalDateTime toTime,
+                                                    Boolean includeCancelled,
+                                                    Pageable pageable) {
+        final List<S125Dataset> datasets = this.datasetRepo.findById(uuid)
+                .filter(dataset -> Boolean.TRUE.equals(includeCancelled) || !Boolean.TRUE.equals(dataset.getCancelled()))
+                .filter(dataset -> Objects.isNull(geometry) || Optional.ofNullable(dataset.getGeometry())
+                        .map(datasetGeometry -> this.intersectsGeoSpatially(geometry, datasetGeometry))
+                        .orElse(Boolean.FALSE))
+                .filter(dataset -> Objects.isNull(fromTime) || Optional.ofNullable(dataset.getValidTo())
+                        .map(validTo -> !validTo.isBefore(fromTime))
+                        .orElse(Boolean.TRUE))
+                .filter(dataset -> Objects.isNull(toTime) || Optional.ofNullable(dataset.getValidFrom())
+                        .map(validFrom -> !validFrom.isAfter(toTime))
+                        .orElse(Boolean.TRUE))
+                .stream()
+                .toList();
+
+        // A single result can only be part of the first page
+        return new PageImpl<>(pageable.isPaged() && pageable.getOffset() > 0 ? Collections.emptyList() : datasets,
+                pageable,
+                datasets.size());
+    }
+
+    /**
+     * Determines whether the provided geometry intersects the geometry of a
+     * dataset, using the same geo-spatial shapes as the Lucene queries of
+     * the createGeoSpatialQuery function, i.e. including the geometries that
+     * only touch each other and handling the ones crossing the dateline.
+     *
+     * @param geometry the geometry of the search
+     * @param datasetGeometry the geometry of the dataset
+     * @return whether the two geometries intersect
+     */
+    protected boolean intersectsGeoSpatially(Geometry geometry, Geometry datasetGeometry) {
+        final JtsSpatialContext ctx = JtsSpatialContext.GEO;
+        return new JtsGeometry(geometry.copy(), ctx, false , true)
+                .relate(new JtsGeometry(datasetGeometry.copy(), ctx, false , true))
+                .intersects();
+    }
+
+    /**
+     * Answers an unpaged dataset search on a geometry. The results of these
+     * searches are kept in the spatial query cache, so that any repeated
+     * searches can be answered without querying the search index.
+     *
+     * @param geometry the dataset geometry
+     * @param fromTime the dataset validity starting time
+     * @param toTime the dataset validity ending time
+     * @param includeCancelled whether cancelled datasets should be included in the response
+     * @param pageable the pageable result output
+     * @return The matching datasets in a paged response
+     */
+    protected Page<S125Dataset> findAllByGeometry(Geometry geometry,
+                                                  LocalDateTime fromTime,
+                                                  LocalDateTime toTime,
+                                                  Boolean includeCancelled,
+                                                  Pageable pageable) {
+        final SpatialQueryCache.Key cacheKey = this.spatialQueryCache.createKey(S125Dataset.class, geometry, fromTime, toTime, includeCancelled);
+        final long cacheGeneration = this.spatialQueryCache.getGeneration();
+        final Optional<List<S125Dataset>> cachedDatasets = this.spatialQueryCache.get(cacheKey)
+                .map(this::findAllByUuids);
+        if(cachedDatasets.isPresent()) {
+            return new PageImpl<>(cachedDatasets.get(), pageable, cachedDatasets.get().size());
+        }
+
+        // Otherwise query the search index
+        final Page<S125Dataset> result = this.findAllBySearchIndex(null, geometry, fromTime, toTime, includeCancelled, pageable);
+
+        // Cache the matching UUIDs for the next time
+        this.spatialQueryCache.put(cacheKey, cacheGeneration, result.stream()
+                .map(S125Dataset::getUuid)
+                .toList());
+
+        // And return the result
+        return result;
+    }
+
+    /**
+     * Answers a dataset search through a full search index query.
+     *
+     * @param uuid the dataset UUID
+     * @param geometry the dataset geometry
+     * @param fromTime the dataset validity starting time
+     * @param toTime the dataset validity ending time
+     * @param includeCancelled whether cancelled datasets should be included in the response
+     * @param pageable the pageable result output
+     * @return The matching datasets in a paged response
+     */
+    protected Page<S125Dataset> findAllBySearchIndex(UUID uuid,
+                                                     Geometry geometry,
+                                                     LocalDateTime fromTime,
+                                                     LocalDateTime toTime,
+                                                     Boolean includeCancelled,
+                                                     Pageable pageable) {
+        // Create the search query - always sorted by UUID
         SearchQuery<S125Dataset> searchQuery = this.getDatasetSearchQuery(
                 uuid,
                 geometry,
                 fromTime,
                 toTime,
                 includeCancelled,
-                new Sort(new SortedSetSortField("uuid", false))
+                this.getDatasetSort()
+        );
+
+        // Map the results to a paged response
+        return Optional.of(searchQuery)
+                .map(query -> pageable.isPaged() ? query.fetch(pageable.getPageNumber() * pageable.getPageSize(), pageable.getPageSize()) : query.fetchAll())
+                .map(searchResult -> new PageImpl<>(searchResult.hits(), pageable, searchResult.total().hitCount()))
+                .orElseGet(() -> new PageImpl<>(Collections.emptyList(), pageable, 0));
+    }
+
+    /**
+     * Get the summary information of all the datasets in a pageable search.
+     * The summary information is projected directly from the search index so
+     * neither the dataset entities nor their contents are loaded from the
+     * database.
+     * <p/>
+     * Note that this operation by default does NOT show any cancelled datasets.
+     *
+     * @param uuid the dataset UUID
+     * @param geometry the dataset geometry
+     * @param fromTime the dataset validity starting time
+     * @param toTime the dataset validity ending time
+     * @param includeCancelled whether cancelled datasets should be included in the response
+     * @param pageable the pageable result output
+     * @return The matching dataset summaries in a paged response
+     */
+    @Transactional(readOnly = true)
+    public Page<S125DataSetSummaryDto> findAllSummaries(UUID uuid,
+                                                        Geometry geometry,
+                                                        LocalDateTime fromTime,
+                                                        LocalDateTime toTime,
+                                                        Boolean includeCancelled,
+                                                        Pageable pageable) {
+        log.debug("Request to get S-125 Dataset summaries in a pageable search");
+        // Create the projection query - in the same order as the full search
+        SearchQuery<S125DataSetSummaryDto> searchQuery = this.getDatasetSummarySearchQuery(
+                uuid,
+                geometry,
+                fromTime,
+                toTime,
+                includeCancelled,
+                this.getDatasetSort()
         );
 
         // Map the results to a paged response
@@ -190,6 +446,25 @@ public class DatasetService {
                 .orElseGet(() -> new PageImpl<>(Collections.emptyList(), pageable, 0));
     }
 
+    /**
+     * Loads the datasets with the provided UUIDs, keeping the order of the
+     * provided list. Any datasets that no longer exist will be ignored.
+     *
+     * @param uuids the UUIDs of the datasets to be loaded
+     * @return the loaded datasets
+     */
+    protected List<S125Dataset> findAllByUuids(List<Object> uuids) {
+        final Map<UUID, S125Dataset> datasets = this.datasetRepo.findAllById(uuids.stream()
+                        .map(UUID.class::cast)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(S125Dataset::getUuid, Function.identity()));
+        return uuids.stream()
+                .map(datasets::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     /**
      * Handles a datatables pagination request and returns the dataset results
      * list in an appropriate format to be viewed by a datatables jQuery table.
@@ -253,19 +528,9 @@ public class DatasetService {
         // Now save the dataset - Merge to pick up all the latest changes
         final S125Dataset savedDataset = this.datasetRepo.saveAndFlush(dataset);
 
-        // TODO: We need to improve this code not sure that a task executor and
-        //       sleep is the best course of action here...
-        // Request an update for the dataset content, but let someone else
-        // deal with this. We have issues with the dataset being passed to
-        // the database before the content update kicks in...
-        this.taskExecutor.execute(() -> {
-            try {
-                TimeUnit.MILLISECONDS.sleep(100);
-                this.requestDatasetContentUpdate(savedDataset.getUuid());
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-        });
+        // Request an update for the dataset content, which will only be
+        // scheduled once the dataset has been committed to the database
+        this.requestDatasetContentUpdate(savedDataset.getUuid());
 
         // And return the saved dataset
         return savedDataset;
@@ -347,9 +612,10 @@ public class DatasetService {
      * same specification, but with a whole new UUID. This operation
      * is a mixture of existing functionality and basically will cancel
      * the old dataset and create a brand new one with the same information.
-     * This operation can be used in cases where an AtoN is deleted. In these
-     * cases S-100 cannot be used to send delta information, hence a deletion
-     * of the old dataset is required.
+     * This operation is required in cases where an AtoN is deleted and the
+     * removal deltas are disabled, since S-100 deltas cannot carry deletions.
+     * When they are enabled, the deletions are instead published through a
+     * new base holding the full dataset content, so no replacement is needed.
      * <p/>
      * Note that since we are using AOP for the dataset content logging, the
      * saving and update functionality will not generate any logs since we
@@ -387,41 +653,198 @@ public class DatasetService {
     /**
      * Requests an update of the dataset content. This function is mainly for
      * internal use but can also be used externally to request a dataset
-     * content update on AtoN entry changes. The content generation is run
-     * asynchronously so the function will handle the result accordingly.
+     * content update on AtoN entry changes. The update is passed to the
+     * dataset regeneration scheduler, which merges the requests arriving in
+     * short bursts for the same dataset into a single content generation.
      * <p/>
-     * In the event where the dataset contents include deletions, the generation
-     * operation will end with an error, which will instruct the function to
-     * cancel the previous dataset and create a new once (replacement).
+     * If a transaction is active, the update will only be scheduled after it
+     * has been committed, so that the content generation picks up the latest
+     * dataset changes.
      *
      * @param uuid the UUID of the dataset to update the content for
      */
-    @Transactional
     public void requestDatasetContentUpdate(@NotNull UUID uuid) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    datasetRegenerationScheduler.schedule(uuid);
+                }
+            });
+        } else {
+            this.datasetRegenerationScheduler.schedule(uuid);
+        }
+    }
+
+    /**
+     * Performs an update of the dataset content. This function is used by
+     * the dataset regeneration scheduler, once a requested update is due.
+     * The content generation is run asynchronously so the function will
+     * handle the result accordingly.
+     * <p/>
+     * In the event where the dataset contents include deletions that are not
+     * recorded alongside the delta, the generation operation will end with
+     * an error, which will instruct the function to cancel the previous
+     * dataset and create a new once (replacement).
+     *
+     * @param uuid the UUID of the dataset to update the content for
+     * @return the completable future of the content generation
+     */
+    @Transactional
+    public CompletableFuture<S125Dataset> updateDatasetContent(@NotNull UUID uuid) {
         // And request the dataset content generation asynchronously
-        this.datasetContentService.generateDatasetContent(uuid)
-                .whenCompleteAsync((result, ex) -> {
-                    if(Objects.nonNull(ex)) {
-                        if(ex.getCause() instanceof DeletedAtoNsInDatasetContentGenerationException) {
-                            log.warn("Warning while generating the content of the dataset with UUID {}: {}",
-                                    uuid, ex.getMessage());
-                            // Now perform the replacement operation
-                            this.replace(uuid);
-                        } else {
-                            log.error("Error while generating the content of the dataset with UUID {}: {}",
-                                    uuid, ex.getMessage());
-                        }
-                    } else {
-                        log.info("Successfully generated the content of the dataset with UUID {}",
-                                result.getUuid());
-                        // Publish the updated dataset to the publication channel
-                        this.s125PublicationChannel.send(MessageBuilder.withPayload(result)
-                                .setHeader(MessageHeaders.CONTENT_TYPE, SECOM_DataProductType.S125)
-                                .setHeader("operation", result.isNew() ?
-                                        DatasetOperation.CREATED : DatasetOperation.UPDATED)
-                                .build());
-                    }
-                });
+        return this.submitDatasetContentGeneration(uuid, () -> this.datasetContentService.generateDatasetContent(uuid))
+                .whenCompleteAsync((result, ex) -> this.handleDatasetContentUpdate(uuid, result, ex));
+    }
+
+    /**
+     * Performs a batched update of the contents of multiple datasets. This
+     * function is used by the dataset regeneration scheduler, when the
+     * updates of several datasets are due at the same time, e.g. when a
+     * change affects overlapping datasets.
+     * <p/>
+     * Instead of each dataset querying and mapping its own Aids to
+     * Navigation, a shared snapshot is loaded once for the union of the
+     * dataset geometries. All the dataset contents are then generated
+     * asynchronously from this snapshot and the results are handled in the
+     * same way as in the single dataset updates.
+     *
+     * @param uuids the UUIDs of the datasets to update the contents for
+     * @return the completable futures of the content generations per dataset
+     */
+    @Transactional
+    public Map<UUID, CompletableFuture<S125Dataset>> updateDatasetContents(@NotNull Collection<UUID> uuids) {
+        final Map<UUID, CompletableFuture<S125Dataset>> result = new LinkedHashMap<>();
+
+        // A single dataset does not benefit from a shared snapshot
+        if(uuids.size() == 1) {
+            uuids.forEach(uuid -> result.put(uuid, this.updateDatasetContent(uuid)));
+            return result;
+        }
+
+        // Load the shared Aids to Navigation snapshot
+        final AidsToNavigationSnapshot snapshot;
+        try {
+            snapshot = this.datasetContentService.loadAidsToNavigationSnapshot(uuids);
+        } catch (Exception ex) {
+            log.error("Error while loading the AtoN snapshot for the datasets with UUIDs {}: {}",
+                    uuids, ex.getMessage());
+            uuids.forEach(uuid -> result.put(uuid, CompletableFuture.failedFuture(ex)));
+            return result;
+        }
+
+        // And request the dataset content generations asynchronously
+        for(UUID uuid : uuids) {
+            result.put(uuid, this.submitDatasetContentGeneration(uuid, () -> this.datasetContentService.generateDatasetContent(uuid, snapshot))
+                    .whenCompleteAsync((dataset, ex) -> this.handleDatasetContentUpdate(uuid, dataset, ex)));
+        }
+        return result;
+    }
+
+    /**
+     * Submits the content generation of the dataset with the provided UUID
+     * to the dataset generation executor. The priority class of the
+     * generation is determined by the dataset state, while its size is
+     * estimated by the number of members in the previously generated
+     * content.
+     *
+     * @param uuid the UUID of the dataset to generate the content for
+     * @param generation the content generation operation
+     * @return the completable future of the content generation
+     */
+    protected CompletableFuture<S125Dataset> submitDatasetContentGeneration(UUID uuid, Supplier<CompletableFuture<S125Dataset>> generation) {
+        final Optional<S125Dataset> s125Dataset = this.datasetRepo.findById(uuid);
+        final DatasetGenerationPriority priority = s125Dataset
+                .map(this::getDatasetGenerationPriority)
+                .orElse(DatasetGenerationPriority.BACKGROUND);
+        final long estimatedSize = s125Dataset
+                .map(S125Dataset::getDatasetContent)
+                .map(DatasetContent::getManifest)
+                .map(List::size)
+                .orElse(0);
+        return this.datasetGenerationExecutor.submit(uuid, priority, estimatedSize, generation);
+    }
+
+    /**
+     * Determines the priority class of the content generation of the
+     * provided dataset. Datasets with active SECOM subscriptions are the
+     * most urgent ones, since subscribed clients are waiting for their
+     * updates. These are followed by the replacements of cancelled datasets
+     * that have not been generated yet, while everything else is generated
+     * in the background.
+     *
+     * @param s125Dataset the dataset to generate the content for
+     * @return the priority class of the content generation
+     */
+    protected DatasetGenerationPriority getDatasetGenerationPriority(S125Dataset s125Dataset) {
+        // Check for any active subscriptions of the dataset
+        try {
+            final boolean subscribed = !this.secomSubscriptionService.findAll(ContainerTypeEnum.S100_DataSet,
+                            SECOM_DataProductType.S125,
+                            Optional.ofNullable(s125Dataset.getDatasetIdentificationInformation())
+                                    .map(S125DatasetIdentification::getProductEdition)
+                                    .orElse(null),
+                            s125Dataset.getUuid(),
+                            s125Dataset.getGeometry(),
+                            LocalDateTime.now())
+                    .isEmpty();
+            if(subscribed) {
+                return DatasetGenerationPriority.SUBSCRIBED;
+            }
+        } catch (Exception ex) {
+            log.warn("Could not determine the subscriptions of the dataset with UUID {}: {}",
+                    s125Dataset.getUuid(), ex.getMessage());
+        }
+
+        // Check for replacements that have not been generated yet
+        if(Objects.nonNull(s125Dataset.getReplaces()) && Objects.isNull(s125Dataset.getDatasetContent())) {
+            return DatasetGenerationPriority.REPLACEMENT;
+        }
+
+        // Otherwise, this is a background generation
+        return DatasetGenerationPriority.BACKGROUND;
+    }
+
+    /**
+     * Handles the result of an asynchronous dataset content generation.
+     * <p/>
+     * In the event where the dataset contents include deletions that are not
+     * recorded alongside the delta, the generation operation will end with
+     * an error, which will instruct the function to cancel the previous
+     * dataset and create a new once (replacement). If the generated content
+     * remained unchanged, the generation returns an empty result and the
+     * publication is suppressed. Otherwise, the updated dataset is published
+     * to the publication channel.
+     *
+     * @param uuid the UUID of the dataset the content was generated for
+     * @param result the dataset with the newly generated content
+     * @param ex the exception of the generation, if it failed
+     */
+    protected void handleDatasetContentUpdate(UUID uuid, S125Dataset result, Throwable ex) {
+        if(Objects.nonNull(ex)) {
+            if(ex.getCause() instanceof DeletedAtoNsInDatasetContentGenerationException) {
+                log.warn("Warning while generating the content of the dataset with UUID {}: {}",
+                        uuid, ex.getMessage());
+                // Now perform the replacement operation
+                this.replace(uuid);
+            } else {
+                log.error("Error while generating the content of the dataset with UUID {}: {}",
+                        uuid, ex.getMessage());
+            }
+        } else if(Objects.isNull(result)) {
+            log.info("The content of the dataset with UUID {} is unchanged, suppressing its publication",
+                    uuid);
+            this.suppressedPublications.incrementAndGet();
+        } else {
+            log.info("Successfully generated the content of the dataset with UUID {}",
+                    result.getUuid());
+            // Publish the updated dataset to the publication channel
+            this.s125PublicationChannel.send(MessageBuilder.withPayload(result)
+                    .setHeader(MessageHeaders.CONTENT_TYPE, SECOM_DataProductType.S125)
+                    .setHeader("operation", result.isNew() ?
+                            DatasetOperation.CREATED : DatasetOperation.UPDATED)
+                    .build());
+        }
     }
 
     /**
@@ -498,32 +921,125 @@ public class DatasetService {
         SearchSession searchSession = Search.session( this.entityManager );
         SearchScope<S125Dataset> scope = searchSession.scope( S125Dataset.class );
         return searchSession.search( scope )
-                .where( f -> {
-                    BooleanPredicateClausesStep<?> step = f.bool()
-                            .must(Optional.ofNullable(includeCancelled)
-                                    .filter(Boolean.TRUE::equals)
-                                    .map(c -> f.matchAll()
-                                            .toPredicate())
-                                    .orElseGet(() -> f.not(f.match()
-                                            .field("cancelled")
-                                            .matching(Boolean.TRUE))
-                                            .toPredicate()));
-                    if(Objects.nonNull(uuid)) {
-                        step = step.must(f.match()
-                                .field("uuid")
-                                .matching(uuid));
-                    }
-                    if(Objects.nonNull(geometry)) {
-                        step = step.must(f.bool()
-                                .must(f.extension(LuceneExtension.get())
-                                .fromLuceneQuery(createGeoSpatialQuery(geometry))));
-                    }
-                    return step;
-                })
+                .where( f -> this.getDatasetSearchPredicate(f, uuid, geometry, fromTime, toTime, includeCancelled) )
                 .sort(f -> ((LuceneSearchSortFactory)f).fromLuceneSort(sort))
                 .toQuery();
     }
 
+    /**
+     * Constructs a hibernate search projection query using Lucene based on
+     * the provided AtoN UID and geometry. The matching datasets are the same
+     * as the ones of the getDatasetSearchQuery function, but instead of the
+     * dataset entities, the query returns their summary information, as
+     * stored in the projectable fields of the index.
+     *
+     * @param uuid the dataset UUID to be searched
+     * @param geometry the geometry that the results should intersect with
+     * @param fromTime the date-time the results should match from
+     * @param toTime the date-time the results should match to
+     * @param includeCancelled  whether cancelled datasets should be included in the response
+     * @param sort the sorting selection for the search query
+     * @return the projection query
+     */
+    protected SearchQuery<S125DataSetSummaryDto> getDatasetSummarySearchQuery(UUID uuid,
+                                                                             Geometry geometry,
+                                                                             LocalDateTime fromTime,
+                                                                             LocalDateTime toTime,
+                                                                             Boolean includeCancelled,
+                                                                             Sort sort) {
+        // Then build and return the hibernate-search query
+        SearchSession searchSession = Search.session( this.entityManager );
+        SearchScope<S125Dataset> scope = searchSession.scope( S125Dataset.class );
+        return searchSession.search( scope )
+                .select( f -> f.composite()
+                        .from(f.id(UUID.class),
+                                f.field("datasetIdentificationInformation.productEdition", String.class),
+                                f.field("datasetIdentificationInformation.datasetFileIdentifier", String.class),
+                                f.field("datasetIdentificationInformation.datasetTitle", String.class),
+                                f.field("datasetIdentificationInformation.datasetAbstract", String.class),
+                                f.field("lastUpdatedAt", LocalDateTime.class),
+                                f.field("datasetContent.contentLength", BigInteger.class))
+                        .asList(values -> new S125DataSetSummaryDto(
+                                (UUID) values.get(0),
+                                (String) values.get(1),
+                                (String) values.get(2),
+                                (String) values.get(3),
+                                (String) values.get(4),
+                                (LocalDateTime) values.get(5),
+                                (BigInteger) values.get(6)
+                        )))
+                .where( f -> this.getDatasetSearchPredicate(f, uuid, geometry, fromTime, toTime, includeCancelled) )
+                .sort(f -> ((LuceneSearchSortFactory)f).fromLuceneSort(sort))
+                .toQuery();
+    }
+
+    /**
+     * Returns the sort order of the dataset searches. Both the full dataset
+     * searches and the summary projections are sorted by the dataset UUID,
+     * so that the SECOM clients paging through the summaries receive them in
+     * the same order as the datasets themselves.
+     *
+     * @return the sort order of the dataset searches
+     */
+    protected Sort getDatasetSort() {
+        return new Sort(new SortedSetSortField("uuid", false));
+    }
+
+    /**
+     * Constructs the hibernate search predicate that matches the datasets
+     * based on the provided UUID, geometry and time window. Any of the
+     * criteria that are not provided will be ignored.
+     * </p>
+     * The time constraints are matched against the indexed validity interval
+     * of the datasets, so only the datasets that are valid at some point
+     * within the requested time window are returned.
+     *
+     * @param f the search predicate factory
+     * @param uuid the dataset UUID to be searched
+     * @param geometry the geometry that the results should intersect with
+     * @param fromTime the date-time the results should match from
+     * @param toTime the date-time the results should match to
+     * @param includeCancelled  whether cancelled datasets should be included in the response
+     * @return the search predicate
+     */
+    protected PredicateFinalStep getDatasetSearchPredicate(SearchPredicateFactory f,
+                                                           UUID uuid,
+                                                           Geometry geometry,
+                                                           LocalDateTime fromTime,
+                                                           LocalDateTime toTime,
+                                                           Boolean includeCancelled) {
+        BooleanPredicateClausesStep<?> step = f.bool()
+                .must(Optional.ofNullable(includeCancelled)
+                        .filter(Boolean.TRUE::equals)
+                        .map(c -> f.matchAll()
+                                .toPredicate())
+                        .orElseGet(() -> f.not(f.match()
+                                .field("cancelled")
+                                .matching(Boolean.TRUE))
+                                .toPredicate()));
+        if(Objects.nonNull(uuid)) {
+            step = step.must(f.match()
+                    .field("uuid")
+                    .matching(uuid));
+        }
+        if(Objects.nonNull(geometry)) {
+            step = step.must(f.bool()
+                    .must(f.extension(LuceneExtension.get())
+                    .fromLuceneQuery(createGeoSpatialQuery(geometry))));
+        }
+        if(Objects.nonNull(fromTime)) {
+            step = step.must(f.range()
+                    .field("validTo")
+                    .atLeast(fromTime));
+        }
+        if(Objects.nonNull(toTime)) {
+            step = step.must(f.range()
+                    .field("validFrom")
+                    .atMost(toTime));
+        }
+        return step;
+    }
+
     /**
      * Creates a Lucene geo-spatial query based on the provided geometry. The
      * query isa recursive one based on the maxLevels defined (in this case 12,
@@ -178,27 +178,26 @@ public class S100ExchangeSetService {
 
         // Add the dataset files
         for(S125Dataset dataset : s125Datasets) {
-            // Get the deltas for each dataset and sort by time to be safe
-            final List<DatasetContentLog> deltas = this.datasetContentLogService.findForUuidDuring(dataset.getUuid(), validFrom, validTo);
+            // Get the nearest snapshot and the following deltas for each dataset
+            final List<DatasetContentLog> deltas = this.datasetContentLogService.findChainForUuidDuring(dataset.getUuid(), validFrom, validTo);
 
             // TODO: Don't trust the sequence numbers for now - use an index
             AtomicInteger index = new AtomicInteger(0);
 
             // Generate the exchange set file for thia dataset/delta pair
             for(DatasetContentLog delta : deltas) {
-                final String fileName = this.generateExchangeSetFileName(String.format("%s-%d", dataset.getUuid(), index.getAndIncrement()),"XML");
+                final String fileName = this.generateExchangeSetFileName(String.format("%s-%d", dataset.getUuid(), index.get()),"XML");
                 final File datasetFile = FileActionUtils.createFile(esS125FolderDatasetFiles, fileName);
-                Files.write(datasetFile.toPath(), Optional.of(delta).map(DatasetContentLog::getDelta).orElse("").getBytes());
+                final DatasetData datasetData = new DatasetData(datasetFile,
+                        certificateId,
+                        certificatePem,
+                        dataset,
+                        delta,
+                        index.getAndIncrement() == 0 || delta.hasRemovals());
+                Files.write(datasetFile.toPath(), datasetData.payload().getBytes());
 
                 // Add the dataset file to the map for later
-                datasetDataMap.put(
-                        datasetFile.getName(),
-                        new DatasetData(datasetFile,
-                                certificateId,
-                                certificatePem,
-                                dataset,
-                                delta)
-                );
+                datasetDataMap.put(datasetFile.getName(), datasetData);
             }
         }
 
@@ -291,6 +290,11 @@ public class S100ExchangeSetService {
             final S125Dataset dataset = data.dataset;
             final DatasetContentLog delta = data.delta;
 
+            // The bases of a delta chain are new datasets unless cancelled
+            final S100Purpose purpose = Optional.of(this.getDatasetPurpose(delta.getOperation()))
+                    .filter(p -> !data.base() || p != S100Purpose.DELTA)
+                    .orElse(S100Purpose.NEW_DATASET);
+
             // And add to the builder
             s100ExchangeCatalogueBuilder.addDatasetMetadata(builder -> builder
                     .setFileName("file:/" + data.datasetFile.getName())
@@ -301,7 +305,7 @@ public class S100ExchangeSetService {
                     .setProtectionScheme(S100ProtectionScheme.S_100_P_15)
                     .setCopyright(true)
                     .setClassification(SecurityClassification.UNCLASSIFIED)
-                    .setPurpose(this.getDatasetPurpose(delta.getOperation()))
+                    .setPurpose(purpose)
                     .setNotForNavigation(true)
                     .setSpecificUsage("testing")
                     .setEditionNumber(BigInteger.ONE)
@@ -322,7 +326,7 @@ public class S100ExchangeSetService {
                     .setNavigationPurposes(Collections.singletonList(S100NavigationPurpose.OVERVIEW))
                     .setMaintenanceFrequency(MaintenanceFrequency.CONTINUAL)
                     .setDigitalSignatureReference(S100SEDigitalSignatureReference.ECDSA_384_SHA_3)
-                    .build(delta.getContent().getBytes()));
+                    .build(data.payload().getBytes()));
         }
 
         // Generate the exchange set catalogue
@@ -422,12 +426,33 @@ public class S100ExchangeSetService {
      * @param certificatePem the PEM of the certificate to be used for signing
      * @param dataset the S-125 dataset to be packaged
      * @param delta the delta information to be packaged
+     * @param base whether this is a base of the dataset delta chain, i.e. its snapshot or an entry with removals
      * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
      */
     protected record DatasetData(File datasetFile,
                                BigInteger certificateId,
                                String certificatePem,
                                S125Dataset dataset,
-                               DatasetContentLog delta) {}
+                               DatasetContentLog delta,
+                               boolean base) {
+
+        /**
+         * Returns the payload of the dataset file, i.e. the full content for
+         * the bases of the chain, and the delta for the rest. Since the
+         * delta of an entry with removals already holds the full content,
+         * it is used for compacted bases that no longer hold it.
+         *
+         * @return the payload of the dataset file
+         */
+        String payload() {
+            return Optional.of(this.delta)
+                    .map(this.base ? DatasetContentLog::getContent : DatasetContentLog::getDelta)
+                    .or(() -> Optional.of(this.delta)
+                            .filter(DatasetContentLog::hasRemovals)
+                            .map(DatasetContentLog::getDelta))
+                    .orElse("");
+        }
+
+    }
 
 }
@@ -36,6 +36,7 @@ import org.grad.eNav.atonService.models.domain.secom.SubscriptionRequest;
 import org.grad.eNav.atonService.models.dtos.datatables.DtPagingRequest;
 import org.grad.eNav.atonService.models.enums.DatasetOperation;
 import org.grad.eNav.atonService.repos.SecomSubscriptionRepo;
+import org.grad.eNav.atonService.services.DatasetContentService;
 import org.grad.eNav.atonService.services.S100ExchangeSetService;
 import org.grad.eNav.atonService.services.UnLoCodeService;
 import org.grad.secom.core.exceptions.SecomNotFoundException;
@@ -121,6 +122,12 @@ public class SecomSubscriptionService implements MessageHandler {
     @Autowired
     S100ExchangeSetService s100ExchangeSetService;
 
+    /**
+     * The Dataset Content Service.
+     */
+    @Autowired
+    DatasetContentService datasetContentService;
+
     /**
      * The SECOM Subscription Repo.
      */
@@ -421,7 +428,7 @@ public class SecomSubscriptionService implements MessageHandler {
             }
         } else {
             envelopeUploadObject.setContainerType(ContainerTypeEnum.S100_DataSet);
-            envelopeUploadObject.setData(s125Dataset.getDatasetContent().getContent().getBytes());
+            envelopeUploadObject.setData(this.datasetContentService.readContent(s125Dataset.getDatasetContent()));
         }
 
         // Set the envelope to the upload object
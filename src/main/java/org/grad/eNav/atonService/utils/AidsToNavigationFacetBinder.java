@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.utils;
+
+import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
+import org.grad.eNav.atonService.models.domain.s125.S125AtonTypes;
+import org.hibernate.Hibernate;
+import org.hibernate.search.engine.backend.document.DocumentElement;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.mapper.pojo.bridge.TypeBridge;
+import org.hibernate.search.mapper.pojo.bridge.binding.TypeBindingContext;
+import org.hibernate.search.mapper.pojo.bridge.mapping.programmatic.TypeBinder;
+import org.hibernate.search.mapper.pojo.bridge.runtime.TypeBridgeWriteContext;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.spatial4j.io.GeohashUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * The Hibernate Search Aids to Navigation Facet Binder.
+ * <p>
+ * This type binder generates a set of aggregable keyword fields for each Aids
+ * to Navigation instance, so that the entries can be counted per S-125 type
+ * and per geohash cell directly from the index, without loading any of the
+ * entities. The geohash cells are calculated on the interior point of each
+ * AtoN geometry for all precisions up to {@link #GEOHASH_MAX_PRECISION}.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class AidsToNavigationFacetBinder implements TypeBinder {
+
+    /**
+     * The name of the indexed S-125 AtoN type field.
+     */
+    public static final String ATON_TYPE_FIELD = "aton_type";
+
+    /**
+     * The prefix of the indexed geohash cell fields.
+     */
+    public static final String GEOHASH_FIELD_PREFIX = "geohash_";
+
+    /**
+     * The maximum geohash precision that is indexed.
+     */
+    public static final int GEOHASH_MAX_PRECISION = 6;
+
+    /**
+     * Returns the name of the indexed geohash cell field for the provided
+     * precision.
+     *
+     * @param precision the geohash precision
+     * @return the name of the indexed geohash cell field
+     */
+    public static String getGeohashField(int precision) {
+        return GEOHASH_FIELD_PREFIX + precision;
+    }
+
+    /**
+     * The main binding operation where the aggregable type and geohash fields
+     * are declared, and the Aids to Navigation facet bridge is registered.
+     *
+     * @param context    The type binding context.
+     */
+    @Override
+    public void bind(TypeBindingContext context) {
+        // The type is derived from the class, so we only depend on the geometry
+        context.dependencies()
+                .use("geometry");
+
+        // Declare the aggregable fields
+        final IndexFieldReference<String> atonTypeField = context.indexSchemaElement()
+                .field(ATON_TYPE_FIELD, f -> f.asString().aggregable(Aggregable.YES))
+                .toReference();
+        final List<IndexFieldReference<String>> geohashFields = new ArrayList<>();
+        IntStream.rangeClosed(1, GEOHASH_MAX_PRECISION)
+                .mapToObj(precision -> context.indexSchemaElement()
+                        .field(getGeohashField(precision), f -> f.asString().aggregable(Aggregable.YES))
+                        .toReference())
+                .forEach(geohashFields::add);
+
+        // And register the bridge
+        context.bridge(AidsToNavigation.class, new AidsToNavigationFacetBridge(atonTypeField, geohashFields));
+    }
+
+    /**
+     * The private Aids to Navigation Facet Bridge that populates the type and
+     * geohash cell fields of each indexed entry.
+     */
+    private static class AidsToNavigationFacetBridge implements TypeBridge<AidsToNavigation> {
+
+        // Class Variables
+        private final IndexFieldReference<String> atonTypeField;
+        private final List<IndexFieldReference<String>> geohashFields;
+
+        /**
+         * The Aids to Navigation Facet Bridge Constructor.
+         *
+         * @param atonTypeField the S-125 AtoN type field reference
+         * @param geohashFields the geohash cell field references, ordered by precision
+         */
+        AidsToNavigationFacetBridge(IndexFieldReference<String> atonTypeField, List<IndexFieldReference<String>> geohashFields) {
+            this.atonTypeField = atonTypeField;
+            this.geohashFields = geohashFields;
+        }
+
+        @Override
+        public void write(DocumentElement target, AidsToNavigation bridgedElement, TypeBridgeWriteContext context) {
+            // Index the S-125 type of the entry
+            target.addValue(this.atonTypeField, S125AtonTypes.fromLocalClass(Hibernate.getClass(bridgedElement)).name());
+
+            // Index the geohash cells, if a geometry is available
+            Optional.ofNullable(bridgedElement.getGeometry())
+                    .filter(g -> !g.isEmpty())
+                    .map(Geometry::getInteriorPoint)
+                    .map(Point::getCoordinate)
+                    .map(c -> GeohashUtils.encodeLatLon(c.getY(), c.getX(), GEOHASH_MAX_PRECISION))
+                    .ifPresent(geohash -> {
+                        for(int i = 0; i < this.geohashFields.size(); i++) {
+                            target.addValue(this.geohashFields.get(i), geohash.substring(0, i + 1));
+                        }
+                    });
+        }
+    }
+
+}
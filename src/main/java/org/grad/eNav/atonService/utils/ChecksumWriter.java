@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.utils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * The Checksum Writer Class.
+ * <p>
+ * A writer wrapper that forwards all the written characters to the target
+ * writer, while computing their length and the SHA-256 checksum of their
+ * UTF-8 representation on the fly. This allows large dataset contents to be
+ * streamed to their destination without having to be traversed again to
+ * compute their length or checksum.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class ChecksumWriter extends Writer {
+
+    /**
+     * The checksum digest algorithm.
+     */
+    public static final String CHECKSUM_ALGORITHM = "SHA-256";
+
+    // Class Variables
+    private final Writer target;
+    private final MessageDigest digest;
+    private final Writer digestWriter;
+    private long length;
+
+    /**
+     * Class Constructor.
+     *
+     * @param target the target writer to forward the characters to
+     */
+    public ChecksumWriter(Writer target) {
+        this.target = target;
+        try {
+            this.digest = MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        // The encoder handles the surrogate pairs split across writes
+        this.digestWriter = new OutputStreamWriter(new DigestOutputStream(OutputStream.nullOutputStream(), this.digest), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a portion of an array of characters to the target writer,
+     * updating the length and the checksum.
+     *
+     * @param cbuf the array of characters
+     * @param off the offset from which to start writing characters
+     * @param len the number of characters to write
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        this.target.write(cbuf, off, len);
+        this.digestWriter.write(cbuf, off, len);
+        this.length += len;
+    }
+
+    /**
+     * Writes a portion of a string to the target writer, updating the
+     * length and the checksum.
+     *
+     * @param str the string to be written
+     * @param off the offset from which to start writing characters
+     * @param len the number of characters to write
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        this.target.write(str, off, len);
+        this.digestWriter.write(str, off, len);
+        this.length += len;
+    }
+
+    /**
+     * Flushes the target writer.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        this.target.flush();
+    }
+
+    /**
+     * Closes the target writer.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        this.target.close();
+    }
+
+    /**
+     * Returns the number of characters written so far.
+     *
+     * @return the number of characters written
+     */
+    public long getLength() {
+        return this.length;
+    }
+
+    /**
+     * Returns the hex-encoded SHA-256 checksum of the UTF-8 representation
+     * of all the characters written. This completes the checksum computation
+     * so no more characters should be written afterwards.
+     *
+     * @return the hex-encoded checksum of the written characters
+     * @throws IOException if an I/O error occurs
+     */
+    public String getChecksum() throws IOException {
+        this.digestWriter.flush();
+        return HexFormat.of().formatHex(this.digest.digest());
+    }
+
+    /**
+     * A helper function to compute the checksum of the provided string in
+     * the same way as the checksum writer.
+     *
+     * @param str the string to compute the checksum for
+     * @return the hex-encoded checksum of the string
+     */
+    public static String checksum(String str) {
+        try(ChecksumWriter writer = new ChecksumWriter(Writer.nullWriter())) {
+            writer.write(str);
+            return writer.getChecksum();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+}
@@ -33,9 +33,12 @@ import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
 import org.grad.eNav.atonService.models.domain.s125.S125AtonTypes;
 import org.grad.eNav.s125.utils.S125Utils;
 import org.locationtech.jts.geom.*;
+import org.locationtech.jts.operation.union.UnaryUnionOp;
 
 import java.util.*;
 
+import static java.util.function.Predicate.not;
+
 /**
  * The type Geometry S-125 Point/Curve/Surface Converter Class.
  *
@@ -43,6 +46,17 @@ import java.util.*;
  */
 public class GeometryS125Converter {
 
+    /**
+     * The shared geometry factory. JTS geometry factories are immutable and
+     * can safely be shared between threads.
+     */
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    /**
+     * The shared OpenGIS GML object factory, which is stateless.
+     */
+    private static final ObjectFactory OPENGIS_GML_FACTORY = new ObjectFactory();
+
     /**
      * Convert an S-125 Aids to Navigation entry to the JTS Geometry.
      *
@@ -79,60 +93,68 @@ public class GeometryS125Converter {
      * @return the respective geometry
      */
     protected Geometry s125PointCurveSurfaceToGeometry(List<S100SpatialAttributeType> s100SpatialAttributeTypes) {
-        final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
-        return s100SpatialAttributeTypes.stream()
-                .map(pty -> {
-                    // Map based on the type of the populated geometry
-                    if(pty instanceof PointProperty) {
-                        return Optional.of(pty)
-                                .map(PointProperty.class::cast)
-                                .map(PointProperty::getPoint)
-                                .map(PointType::getPos)
-                                .map(pos -> new Coordinate(pos.getValue()[0], pos.getValue()[1]))
-                                .map(geometryFactory::createPoint)
-                                .map(Geometry.class::cast)
-                                .orElse(geometryFactory.createEmpty(0));
-                    } else if(pty instanceof CurveProperty) {
-                        return geometryFactory.createGeometryCollection(Optional.of(pty)
-                                .map(CurveProperty.class::cast)
-                                .map(CurveProperty::getCurve)
-                                .map(CurveType::getSegments)
-                                .map(Segments::getAbstractCurveSegments)
-                                .orElse(Collections.emptyList())
-                                .stream()
-                                .map(JAXBElement::getValue)
-                                .filter(LineStringSegmentType.class::isInstance)
-                                .map(LineStringSegmentType.class::cast)
-                                .map(LineStringSegmentType::getPosList)
-                                .map(this::gmlPosListToCoordinates)
-                                .map(coords -> coords.length == 1? geometryFactory.createPoint(coords[0]) : geometryFactory.createLineString(coords))
-                                .toList()
-                                .toArray(Geometry[]::new));
-                    } else if(pty instanceof SurfaceProperty) {
-                        return geometryFactory.createGeometryCollection(Optional.of(pty)
-                                .map(SurfaceProperty.class::cast)
-                                .map(SurfaceProperty::getSurface)
-                                .map(SurfaceType::getPatches)
-                                .map(Patches::getAbstractSurfacePatches)
-                                .orElse(Collections.emptyList())
-                                .stream()
-                                .map(JAXBElement::getValue)
-                                .filter(PolygonPatchType.class::isInstance)
-                                .map(PolygonPatchType.class::cast)
-                                .map(PolygonPatchType::getExterior)
-                                .map(AbstractRingPropertyType::getAbstractRing)
-                                .map(JAXBElement::getValue)
-                                .filter(LinearRingType.class::isInstance)
-                                .map(LinearRingType.class::cast)
-                                .map(LinearRingType::getPosList)
-                                .map(this::gmlPosListToCoordinates)
-                                .map(coords -> coords.length == 1? geometryFactory.createPoint(coords[0]) : geometryFactory.createPolygon(coords))
-                                .toList()
-                                .toArray(Geometry[]::new));
-                    }
-                    return null;
-                })
-                .reduce(geometryFactory.createEmpty(-1), (un, el) -> un == null || un.isEmpty() ? el : un.union(el));
+        final GeometryFactory geometryFactory = GEOMETRY_FACTORY;
+        final List<Geometry> geometries = new ArrayList<>(s100SpatialAttributeTypes.size());
+        for(S100SpatialAttributeType pty : s100SpatialAttributeTypes) {
+            // Map based on the type of the populated geometry
+            if(pty instanceof PointProperty) {
+                geometries.add(Optional.of(pty)
+                        .map(PointProperty.class::cast)
+                        .map(PointProperty::getPoint)
+                        .map(PointType::getPos)
+                        .map(pos -> new Coordinate(pos.getValue()[0], pos.getValue()[1]))
+                        .map(geometryFactory::createPoint)
+                        .map(Geometry.class::cast)
+                        .orElse(geometryFactory.createEmpty(0)));
+            } else if(pty instanceof CurveProperty) {
+                geometries.add(geometryFactory.createGeometryCollection(Optional.of(pty)
+                        .map(CurveProperty.class::cast)
+                        .map(CurveProperty::getCurve)
+                        .map(CurveType::getSegments)
+                        .map(Segments::getAbstractCurveSegments)
+                        .orElse(Collections.emptyList())
+                        .stream()
+                        .map(JAXBElement::getValue)
+                        .filter(LineStringSegmentType.class::isInstance)
+                        .map(LineStringSegmentType.class::cast)
+                        .map(LineStringSegmentType::getPosList)
+                        .map(this::gmlPosListToCoordinates)
+                        .map(coords -> coords.length == 1? geometryFactory.createPoint(coords[0]) : geometryFactory.createLineString(coords))
+                        .toArray(Geometry[]::new)));
+            } else if(pty instanceof SurfaceProperty) {
+                geometries.add(geometryFactory.createGeometryCollection(Optional.of(pty)
+                        .map(SurfaceProperty.class::cast)
+                        .map(SurfaceProperty::getSurface)
+                        .map(SurfaceType::getPatches)
+                        .map(Patches::getAbstractSurfacePatches)
+                        .orElse(Collections.emptyList())
+                        .stream()
+                        .map(JAXBElement::getValue)
+                        .filter(PolygonPatchType.class::isInstance)
+                        .map(PolygonPatchType.class::cast)
+                        .map(PolygonPatchType::getExterior)
+                        .map(AbstractRingPropertyType::getAbstractRing)
+                        .map(JAXBElement::getValue)
+                        .filter(LinearRingType.class::isInstance)
+                        .map(LinearRingType.class::cast)
+                        .map(LinearRingType::getPosList)
+                        .map(this::gmlPosListToCoordinates)
+                        .map(coords -> coords.length == 1? geometryFactory.createPoint(coords[0]) : geometryFactory.createPolygon(coords))
+                        .toArray(Geometry[]::new)));
+            }
+        }
+
+        // Combine the geometries with a single cascaded union, rather than
+        // unioning them one by one
+        final List<Geometry> nonEmptyGeometries = geometries.stream()
+                .filter(not(Geometry::isEmpty))
+                .toList();
+        if(nonEmptyGeometries.isEmpty()) {
+            return geometries.isEmpty() ? geometryFactory.createEmpty(-1) : geometries.get(geometries.size() - 1);
+        } else if(nonEmptyGeometries.size() == 1) {
+            return nonEmptyGeometries.get(0);
+        }
+        return UnaryUnionOp.union(nonEmptyGeometries, geometryFactory);
     }
 
     /**
@@ -157,8 +179,7 @@ public class GeometryS125Converter {
      * @param s100SpatialAttributeTypes     The S-125 geometry object to be populated
      */
     protected List<S100SpatialAttributeType> populatePointCurveSurfaceToGeometry(Geometry geometry, List<S100SpatialAttributeType> s100SpatialAttributeTypes) {
-        // Create an OpenGIS GML factory
-        ObjectFactory opengisGMLFactory = new ObjectFactory();
+        final ObjectFactory opengisGMLFactory = OPENGIS_GML_FACTORY;
         s100SpatialAttributeTypes = s100SpatialAttributeTypes == null ? new ArrayList() : s100SpatialAttributeTypes;
 
         if(geometry instanceof Puntal) {
@@ -206,8 +227,7 @@ public class GeometryS125Converter {
      * @return The populated point property
      */
     protected PolygonPatchType generateSurfacePropertyPatch(Double[] coords) {
-        // Create an OpenGIS GML factory
-        ObjectFactory opengisGMLFactory = new ObjectFactory();
+        final ObjectFactory opengisGMLFactory = OPENGIS_GML_FACTORY;
 
         // Generate the elements
         PolygonPatchType polygonPatchType = new PolygonPatchTypeImpl();
@@ -271,9 +291,6 @@ public class GeometryS125Converter {
      * @return the initialised S-125 Surface Property object
      */
     protected SurfaceProperty initialiseSurfaceProperty() {
-        // Create an OpenGIS GML factory
-        ObjectFactory opengisGMLFactory = new ObjectFactory();
-
         // Generate the elements
         SurfaceProperty surfaceProperty = new SurfacePropertyImpl();
         SurfaceType surfaceType = new SurfaceTypeImpl();
@@ -331,11 +348,12 @@ public class GeometryS125Converter {
      * @return the respective coordinates
      */
     protected Coordinate[] gmlPosListToCoordinates(PosList posList) {
-        final List<Coordinate> result = new ArrayList<>();
-        for(int i=0; i<posList.getValue().length; i=i+2) {
-            result.add(new Coordinate(posList.getValue()[i], posList.getValue()[i+1]));
+        final Double[] values = posList.getValue();
+        final Coordinate[] result = new Coordinate[values.length / 2];
+        for(int i=0; i<result.length; i++) {
+            result[i] = new Coordinate(values[2*i], values[2*i+1]);
         }
-        return result.toArray(new Coordinate[]{});
+        return result;
     }
 
     /**
@@ -346,17 +364,17 @@ public class GeometryS125Converter {
      * @return the respective position list
      */
     protected PosList coordinatesToGmlPosList(Coordinate[] coordinates) {
-        // Translate the coordinates to a simple list of doubles (Y, X)
-        List<Double> coords = Optional.ofNullable(coordinates)
-                .map(Arrays::asList)
-                .orElse(Collections.emptyList())
-                .stream()
-                .map(c -> Arrays.asList(c.getX(), c.getY()))
-                .flatMap(List::stream).toList();
+        // Translate the coordinates to a simple array of doubles (X, Y)
+        final int numOfCoordinates = Objects.isNull(coordinates) ? 0 : coordinates.length;
+        final Double[] coords = new Double[2 * numOfCoordinates];
+        for(int i=0; i<numOfCoordinates; i++) {
+            coords[2*i] = coordinates[i].getX();
+            coords[2*i+1] = coordinates[i].getY();
+        }
 
         // Then create the list and return
         PosList posList = new PosListImpl();
-        posList.setValue(coords.toArray(Double[]::new));
+        posList.setValue(coords);
         return posList;
     }
 
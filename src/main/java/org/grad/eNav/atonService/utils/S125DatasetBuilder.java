@@ -28,6 +28,7 @@ import _int.iho.s125.s100.gml.profiles._5_0.impl.EnvelopeTypeImpl;
 import _int.iho.s125.s100.gml.profiles._5_0.impl.PosImpl;
 import _int.iho.s125.gml.cs0._1.Dataset;
 import _int.iho.s125.gml.cs0._1.impl.AggregationImpl;
+import _int.iho.s125.gml.cs0._1.impl.AidsToNavigationTypeImpl;
 import _int.iho.s125.gml.cs0._1.impl.AssociationImpl;
 import _int.iho.s125.gml.cs0._1.impl.DatasetImpl;
 import _int.iho.s125.gml.cs0._1.impl.ObjectFactory;
@@ -80,6 +81,24 @@ public class S125DatasetBuilder {
      * @param atons         The list of S-125 local AtoN object list
      */
     public Dataset packageToDataset(@NotNull S125Dataset s125Dataset, List<AidsToNavigation> atons) {
+        return this.packageToDataset(s125Dataset, atons, Optional.ofNullable(atons)
+                .orElse(Collections.emptyList())
+                .stream()
+                .map(this::mapAidsToNavigation)
+                .toList());
+    }
+
+    /**
+     * Packages the provided list of AtoN nodes into an S125 dataset, using
+     * the already mapped S-125 members provided for them. The members should
+     * follow the order of the AtoN list, so that the result is identical to
+     * a dataset where all AtoN nodes were mapped from scratch.
+     *
+     * @param s125Dataset   The S-125 local dataset object
+     * @param atons         The list of S-125 local AtoN object list
+     * @param atonMembers   The already mapped S-125 AtoN members
+     */
+    public Dataset packageToDataset(@NotNull S125Dataset s125Dataset, List<AidsToNavigation> atons, List<? extends AidsToNavigationTypeImpl> atonMembers) {
         // Initialise the dataset
         Dataset dataset = this.modelMapper.map(s125Dataset, DatasetImpl.class);
 
@@ -123,11 +142,8 @@ public class S125DatasetBuilder {
         //                      DATASET MEMBERS SECTION                       //
         //====================================================================//
         // Add the AtoN members
-        S125Utils.addDatasetMembers(dataset, Optional.ofNullable(atons)
-                .orElse(Collections.emptyList())
-                .stream()
-                .map(aton -> this.modelMapper.map(aton, S125AtonTypes.fromLocalClass(aton.getClass()).getS125Class()))
-                .toList());
+        S125Utils.addDatasetMembers(dataset, Optional.ofNullable(atonMembers)
+                .orElse(Collections.emptyList()));
 
         // Append the aggregations
         S125Utils.addDatasetMembers(dataset, Optional.ofNullable(atons)
@@ -153,6 +169,16 @@ public class S125DatasetBuilder {
         return dataset;
     }
 
+    /**
+     * Maps the provided local AtoN object to its respective S-125 member type.
+     *
+     * @param aton          The S-125 local AtoN object
+     * @return the mapped S-125 AtoN member
+     */
+    public AidsToNavigationTypeImpl mapAidsToNavigation(@NotNull AidsToNavigation aton) {
+        return this.modelMapper.map(aton, S125AtonTypes.fromLocalClass(aton.getClass()).getS125Class());
+    }
+
     /**
      * For easy generation of the bounding shapes for the dataset or individual
      * features, we are using this function.
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.utils;
+
+import _int.iho.s125.gml.cs0._1.Dataset;
+import _int.iho.s125.gml.cs0._1.impl.AidsToNavigationTypeImpl;
+import _int.iho.s125.gml.cs0._1.impl.DatasetImpl;
+import jakarta.xml.bind.JAXBException;
+import org.grad.eNav.s125.utils.S125Utils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The S-125 Fragment Utility Class.
+ * <p>
+ * A collection of utility functions that allow S-125 datasets to be
+ * assembled from pre-marshalled member fragments. Since the JAXB marshaller
+ * declares all the known namespaces on the root dataset element, a member
+ * marshalled inside a single-member dataset has exactly the same XML
+ * representation as when marshalled inside any other dataset. The member
+ * fragments can therefore be marshalled once and spliced into the marshalled
+ * dataset skeleton, producing the same output as a full marshalling.
+ * <p>
+ * Note that all functions assume formatted XML output, as produced by the
+ * dataset content generation.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S125FragmentUtils {
+
+    /**
+     * The pattern to locate the opening tag of the dataset members.
+     */
+    private static final Pattern MEMBERS_OPENING_TAG = Pattern.compile("<([\\w.-]+:)?members>");
+
+    /**
+     * Marshals the provided S-125 member into an XML fragment, as it would
+     * appear inside the members section of a formatted S-125 dataset.
+     *
+     * @param member the S-125 member to be marshalled
+     * @return the marshalled XML fragment of the member
+     * @throws JAXBException if the member could not be marshalled
+     */
+    public static String marshalMemberFragment(AidsToNavigationTypeImpl member) throws JAXBException {
+        // Marshal the member inside an empty dataset
+        final Dataset dataset = new DatasetImpl();
+        S125Utils.addDatasetMembers(dataset, Collections.singletonList(member));
+        final String datasetXml = S125Utils.marshalS125(dataset, Boolean.TRUE);
+
+        // And extract the content of the members section
+        return S125FragmentUtils.getMembersContent(datasetXml)
+                .map(content -> content.substring(0, content.lastIndexOf('>') + 1))
+                .orElseThrow(() -> new JAXBException("Could not locate the member in the marshalled S-125 dataset"));
+    }
+
+    /**
+     * Splices the provided member fragments into a marshalled dataset
+     * skeleton. The skeleton should include the first of the member
+     * fragments at the start of its members section, and the rest will be
+     * inserted right after it.
+     * <p>
+     * If the first member fragment cannot be located in the skeleton, an
+     * empty optional is returned, in which case the dataset should be
+     * marshalled in full.
+     *
+     * @param skeletonXml the marshalled dataset skeleton
+     * @param fragments the member fragments in order
+     * @return the assembled dataset XML, if the fragments could be spliced
+     */
+    public static Optional<String> spliceMemberFragments(String skeletonXml, List<String> fragments) {
+        if(Objects.isNull(skeletonXml) || Objects.isNull(fragments) || fragments.isEmpty()) {
+            return Optional.ofNullable(skeletonXml);
+        }
+
+        // Locate the first member fragment at the start of the members section
+        final OptionalInt insertionPoint = S125FragmentUtils.getMemberInsertionPoint(skeletonXml, fragments.get(0));
+        if(insertionPoint.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // And insert the rest of the fragments after it
+        final StringBuilder builder = new StringBuilder(skeletonXml.length() + fragments.stream().mapToInt(String::length).sum());
+        builder.append(skeletonXml, 0, insertionPoint.getAsInt());
+        fragments.stream().skip(1).forEach(builder::append);
+        builder.append(skeletonXml, insertionPoint.getAsInt(), skeletonXml.length());
+        return Optional.of(builder.toString());
+    }
+
+    /**
+     * Locates the point in a marshalled dataset skeleton where the rest of
+     * the member fragments should be inserted, i.e. right after the provided
+     * first member fragment at the start of the members section. This allows
+     * the dataset to be streamed to its destination, writing the skeleton
+     * up to the insertion point, the rest of the member fragments one by
+     * one, and finally the remainder of the skeleton.
+     * <p>
+     * If the first member fragment cannot be located in the skeleton, an
+     * empty optional is returned, in which case the dataset should be
+     * marshalled in full.
+     *
+     * @param skeletonXml the marshalled dataset skeleton
+     * @param firstFragment the first member fragment
+     * @return the insertion point of the rest of the fragments, if located
+     */
+    public static OptionalInt getMemberInsertionPoint(String skeletonXml, String firstFragment) {
+        if(Objects.isNull(skeletonXml) || Objects.isNull(firstFragment)) {
+            return OptionalInt.empty();
+        }
+        final Matcher matcher = MEMBERS_OPENING_TAG.matcher(skeletonXml);
+        if(!matcher.find() || !skeletonXml.startsWith(firstFragment, matcher.end())) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(matcher.end() + firstFragment.length());
+    }
+
+    /**
+     * Returns the content of the members section of the provided marshalled
+     * dataset, if available.
+     *
+     * @param datasetXml the marshalled dataset
+     * @return the content of the members section
+     */
+    protected static Optional<String> getMembersContent(String datasetXml) {
+        final Matcher matcher = MEMBERS_OPENING_TAG.matcher(datasetXml);
+        if(!matcher.find()) {
+            return Optional.empty();
+        }
+        final String closingTag = "</" + Optional.ofNullable(matcher.group(1)).orElse("") + "members>";
+        final int closingIndex = datasetXml.lastIndexOf(closingTag);
+        if(closingIndex < matcher.end()) {
+            return Optional.empty();
+        }
+        return Optional.of(datasetXml.substring(matcher.end(), closingIndex));
+    }
+
+}
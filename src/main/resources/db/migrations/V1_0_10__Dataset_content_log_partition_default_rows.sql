@@ -0,0 +1,54 @@
+--
+-- Recreate the monthly partition creation of the dataset content log, so that
+-- it can also handle the entries that were already written into the default
+-- partition for the same month (e.g. when the partition maintenance did not
+-- run in time). PostgreSQL refuses to create a partition whose range is
+-- already held by rows in the default partition, so the default partition
+-- is detached, the new partition is created, the matching rows are moved
+-- into it, and the default partition is attached back.
+--
+
+CREATE OR REPLACE FUNCTION public.dataset_content_log_create_partition(month_date date) RETURNS boolean
+    LANGUAGE plpgsql
+    AS $$
+DECLARE
+    partition_start date := date_trunc('month', month_date)::date;
+    partition_end date := (date_trunc('month', month_date) + interval '1 month')::date;
+    partition_name text := format('dataset_content_log_p%s', to_char(partition_start, 'YYYYMM'));
+    default_rows boolean := false;
+BEGIN
+    IF to_regclass(format('public.%I', partition_name)) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    -- Check whether the default partition already holds entries of this month
+    IF to_regclass('public.dataset_content_log_default') IS NOT NULL THEN
+        SELECT EXISTS (SELECT 1 FROM public.dataset_content_log_default
+                       WHERE generated_at >= partition_start AND generated_at < partition_end)
+        INTO default_rows;
+    END IF;
+
+    IF NOT default_rows THEN
+        EXECUTE format('CREATE TABLE public.%I PARTITION OF public.dataset_content_log FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, partition_start, partition_end);
+        RETURN true;
+    END IF;
+
+    RAISE NOTICE 'Moving the dataset content log entries of % from the default partition into %',
+                 to_char(partition_start, 'YYYY-MM'), partition_name;
+
+    ALTER TABLE public.dataset_content_log DETACH PARTITION public.dataset_content_log_default;
+    EXECUTE format('CREATE TABLE public.%I PARTITION OF public.dataset_content_log FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, partition_start, partition_end);
+    WITH moved AS (
+        DELETE FROM public.dataset_content_log_default
+        WHERE generated_at >= partition_start AND generated_at < partition_end
+        RETURNING *
+    )
+    INSERT INTO public.dataset_content_log SELECT * FROM moved;
+    ALTER TABLE public.dataset_content_log ATTACH PARTITION public.dataset_content_log_default DEFAULT;
+    RETURN true;
+END;
+$$;
+
+ALTER FUNCTION public.dataset_content_log_create_partition(date) OWNER TO atonservice;
@@ -0,0 +1,7 @@
+--
+-- Add the canonical hash of the dataset metadata each dataset content was
+-- generated with. The existing contents are left without one, so their next
+-- generation always produces a new version.
+--
+
+ALTER TABLE public.dataset_content ADD COLUMN metadata_hash character varying(64);
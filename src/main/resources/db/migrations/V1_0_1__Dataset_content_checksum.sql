@@ -0,0 +1,6 @@
+--
+-- Add the checksums of the generated dataset contents and deltas
+--
+
+ALTER TABLE public.dataset_content ADD COLUMN content_checksum character varying(64);
+ALTER TABLE public.dataset_content ADD COLUMN delta_checksum character varying(64);
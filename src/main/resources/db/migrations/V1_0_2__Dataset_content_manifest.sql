@@ -0,0 +1,5 @@
+--
+-- Add the compressed member manifest of the generated dataset contents
+--
+
+ALTER TABLE public.dataset_content ADD COLUMN manifest oid;
@@ -0,0 +1,10 @@
+--
+-- Add the stored lengths of the (possibly compressed) dataset contents and
+-- deltas. Existing entries are left without a stored length, so that they
+-- can be identified and converted by the storage backfill.
+--
+
+ALTER TABLE public.dataset_content ADD COLUMN content_stored_length numeric(38,0);
+ALTER TABLE public.dataset_content ADD COLUMN delta_stored_length numeric(38,0);
+ALTER TABLE public.dataset_content_log ADD COLUMN content_stored_length numeric(38,0);
+ALTER TABLE public.dataset_content_log ADD COLUMN delta_stored_length numeric(38,0);
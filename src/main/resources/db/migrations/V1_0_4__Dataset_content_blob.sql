@@ -0,0 +1,29 @@
+--
+-- Add the content-addressed blobs of the dataset content log payloads. The
+-- existing inline payloads are moved into the blobs by the dataset content
+-- storage backfill, since their original content hash is required as the
+-- blob key.
+--
+
+CREATE TABLE public.dataset_content_blob (
+    hash character varying(64) NOT NULL,
+    data oid,
+    stored_length numeric(38,0),
+    created_at timestamp(6) without time zone
+);
+
+ALTER TABLE public.dataset_content_blob OWNER TO atonservice;
+
+ALTER TABLE ONLY public.dataset_content_blob
+    ADD CONSTRAINT dataset_content_blob_pkey PRIMARY KEY (hash);
+
+ALTER TABLE public.dataset_content_log ADD COLUMN content_hash character varying(64);
+ALTER TABLE public.dataset_content_log ADD COLUMN delta_hash character varying(64);
+
+ALTER TABLE ONLY public.dataset_content_log
+    ADD CONSTRAINT fk_dataset_content_log_content_hash FOREIGN KEY (content_hash) REFERENCES public.dataset_content_blob(hash);
+ALTER TABLE ONLY public.dataset_content_log
+    ADD CONSTRAINT fk_dataset_content_log_delta_hash FOREIGN KEY (delta_hash) REFERENCES public.dataset_content_blob(hash);
+
+CREATE INDEX idx_dataset_content_log_content_hash ON public.dataset_content_log USING btree (content_hash);
+CREATE INDEX idx_dataset_content_log_delta_hash ON public.dataset_content_log USING btree (delta_hash);
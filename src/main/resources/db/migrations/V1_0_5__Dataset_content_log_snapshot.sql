@@ -0,0 +1,11 @@
+--
+-- Mark the dataset content log entries that hold the full dataset content,
+-- i.e. the snapshots. The dataset content log compaction drops the content
+-- of the entries between the periodic snapshots, only keeping their deltas.
+--
+
+ALTER TABLE public.dataset_content_log ADD COLUMN snapshot boolean DEFAULT true NOT NULL;
+
+UPDATE public.dataset_content_log SET snapshot = false WHERE content IS NULL AND content_hash IS NULL;
+
+CREATE INDEX idx_dataset_content_log_uuid_snapshot ON public.dataset_content_log USING btree (uuid, snapshot, generated_at);
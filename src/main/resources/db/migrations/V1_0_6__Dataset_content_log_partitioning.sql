@@ -0,0 +1,171 @@
+--
+-- Partition the dataset content log by the month of its generation date, so
+-- that the retention of the old entries can be applied by detaching whole
+-- partitions, rather than deleting individual rows. The entries that have to
+-- be retained from the detached partitions (i.e. the latest snapshot of each
+-- dataset before the retention cutoff and the entries following it) are
+-- moved into the default partition, which also receives any entries not
+-- matching a monthly partition.
+--
+
+ALTER TABLE public.dataset_content_log RENAME TO dataset_content_log_unpartitioned;
+
+UPDATE public.dataset_content_log_unpartitioned SET generated_at = '1970-01-01 00:00:00' WHERE generated_at IS NULL;
+
+CREATE TABLE public.dataset_content_log (
+    content_length numeric(38,0),
+    delta_length numeric(38,0),
+    id numeric(24,0) NOT NULL,
+    sequence_no numeric(38,0),
+    generated_at timestamp(6) without time zone NOT NULL,
+    uuid uuid NOT NULL,
+    dataset_type character varying(255),
+    operation character varying(255),
+    content oid,
+    delta oid,
+    geometry public.geometry,
+    content_stored_length numeric(38,0),
+    delta_stored_length numeric(38,0),
+    content_hash character varying(64),
+    delta_hash character varying(64),
+    snapshot boolean DEFAULT true NOT NULL,
+    CONSTRAINT dataset_content_log_dataset_type_check CHECK (((dataset_type)::text = 'S125'::text)),
+    CONSTRAINT dataset_content_log_operation_check CHECK (((operation)::text = ANY (ARRAY[('CREATED'::character varying)::text, ('UPDATED'::character varying)::text, ('CANCELLED'::character varying)::text, ('DELETED'::character varying)::text, ('OTHER'::character varying)::text, ('AUTO'::character varying)::text])))
+) PARTITION BY RANGE (generated_at);
+
+ALTER TABLE public.dataset_content_log OWNER TO atonservice;
+
+--
+-- Creates the monthly partition of the dataset content log containing the
+-- provided date, unless it already exists.
+--
+
+CREATE FUNCTION public.dataset_content_log_create_partition(month_date date) RETURNS boolean
+    LANGUAGE plpgsql
+    AS $$
+DECLARE
+    partition_start date := date_trunc('month', month_date)::date;
+    partition_name text := format('dataset_content_log_p%s', to_char(partition_start, 'YYYYMM'));
+BEGIN
+    IF to_regclass(format('public.%I', partition_name)) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('CREATE TABLE public.%I PARTITION OF public.dataset_content_log FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, partition_start, (partition_start + interval '1 month')::date);
+    RETURN true;
+END;
+$$;
+
+ALTER FUNCTION public.dataset_content_log_create_partition(date) OWNER TO atonservice;
+
+--
+-- Creates the monthly partitions of the dataset content log for the current
+-- and the provided number of upcoming months, returning the number of the
+-- newly created ones.
+--
+
+CREATE FUNCTION public.dataset_content_log_create_partitions(months_ahead integer) RETURNS integer
+    LANGUAGE plpgsql
+    AS $$
+DECLARE
+    created integer := 0;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        IF public.dataset_content_log_create_partition((date_trunc('month', now()) + make_interval(months => i))::date) THEN
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+ALTER FUNCTION public.dataset_content_log_create_partitions(integer) OWNER TO atonservice;
+
+--
+-- Detaches and drops all the monthly partitions of the dataset content log
+-- that end before the provided cutoff. For each dataset, the latest snapshot
+-- generated before the cutoff and all the entries following it are retained
+-- by moving them into the default partition, so that the dataset content can
+-- still be reconstructed for any date-time after the cutoff. The IDs of the
+-- dropped entries are returned, and any legacy inline payloads they still
+-- hold are unlinked.
+--
+
+CREATE FUNCTION public.dataset_content_log_drop_partitions(cutoff timestamp without time zone) RETURNS SETOF numeric
+    LANGUAGE plpgsql
+    AS $$
+DECLARE
+    partition_name text;
+    retained text;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'public.dataset_content_log'::regclass
+          AND c.relname ~ '^dataset_content_log_p[0-9]{6}$'
+          AND to_date(substring(c.relname FROM '[0-9]{6}$'), 'YYYYMM') + interval '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE public.dataset_content_log DETACH PARTITION public.%I', partition_name);
+
+        -- The entries from the latest snapshot before the cutoff onwards are retained
+        retained := format('d.generated_at >= COALESCE((SELECT max(s.generated_at) FROM ('
+                           'SELECT uuid, snapshot, generated_at FROM public.%1$I '
+                           'UNION ALL '
+                           'SELECT uuid, snapshot, generated_at FROM public.dataset_content_log'
+                           ') s WHERE s.uuid = d.uuid AND s.snapshot AND s.generated_at < %2$L), %3$L::timestamp)',
+                           partition_name, cutoff, '-infinity');
+
+        -- Return the dropped entries and unlink their legacy payloads
+        RETURN QUERY EXECUTE format('SELECT d.id FROM public.%I d WHERE NOT (%s)', partition_name, retained);
+        EXECUTE format('SELECT count(lo_unlink(p.payload)) FROM ('
+                       'SELECT d.content AS payload FROM public.%1$I d WHERE d.content IS NOT NULL AND NOT (%2$s) '
+                       'UNION '
+                       'SELECT d.delta AS payload FROM public.%1$I d WHERE d.delta IS NOT NULL AND NOT (%2$s)'
+                       ') p', partition_name, retained);
+
+        -- Move the retained entries into the default partition and drop the rest
+        EXECUTE format('INSERT INTO public.dataset_content_log SELECT d.* FROM public.%I d WHERE %s', partition_name, retained);
+        EXECUTE format('DROP TABLE public.%I', partition_name);
+    END LOOP;
+END;
+$$;
+
+ALTER FUNCTION public.dataset_content_log_drop_partitions(timestamp without time zone) OWNER TO atonservice;
+
+--
+-- Create the partitions for the existing entries and the upcoming months,
+-- and move the existing entries into them.
+--
+
+SELECT public.dataset_content_log_create_partition(months.month_date)
+FROM (SELECT DISTINCT date_trunc('month', generated_at)::date AS month_date FROM public.dataset_content_log_unpartitioned) months;
+
+SELECT public.dataset_content_log_create_partitions(2);
+
+CREATE TABLE public.dataset_content_log_default PARTITION OF public.dataset_content_log DEFAULT;
+
+INSERT INTO public.dataset_content_log (content_length, delta_length, id, sequence_no, generated_at, uuid, dataset_type, operation, content, delta, geometry, content_stored_length, delta_stored_length, content_hash, delta_hash, snapshot)
+SELECT content_length, delta_length, id, sequence_no, generated_at, uuid, dataset_type, operation, content, delta, geometry, content_stored_length, delta_stored_length, content_hash, delta_hash, snapshot
+FROM public.dataset_content_log_unpartitioned;
+
+DROP TABLE public.dataset_content_log_unpartitioned;
+
+--
+-- And recreate the constraints and indexes on the partitioned table.
+--
+
+ALTER TABLE public.dataset_content_log
+    ADD CONSTRAINT dataset_content_log_pkey PRIMARY KEY (id, generated_at);
+
+ALTER TABLE public.dataset_content_log
+    ADD CONSTRAINT fk_dataset_content_log_content_hash FOREIGN KEY (content_hash) REFERENCES public.dataset_content_blob(hash);
+ALTER TABLE public.dataset_content_log
+    ADD CONSTRAINT fk_dataset_content_log_delta_hash FOREIGN KEY (delta_hash) REFERENCES public.dataset_content_blob(hash);
+
+CREATE INDEX idx_dataset_content_log_type_uuid_operation ON public.dataset_content_log USING btree (dataset_type, uuid, operation, sequence_no, generated_at);
+CREATE INDEX idx_dataset_content_log_uuid_generated_at ON public.dataset_content_log USING btree (uuid, generated_at);
+CREATE INDEX idx_dataset_content_log_uuid_snapshot ON public.dataset_content_log USING btree (uuid, snapshot, generated_at);
+CREATE INDEX idx_dataset_content_log_content_hash ON public.dataset_content_log USING btree (content_hash);
+CREATE INDEX idx_dataset_content_log_delta_hash ON public.dataset_content_log USING btree (delta_hash);
@@ -0,0 +1,7 @@
+--
+-- Add the location of the dataset contents in the file-backed content store,
+-- if enabled. When the contents are offloaded to the store, the content
+-- column remains empty and only this pointer is kept in the database.
+--
+
+ALTER TABLE public.dataset_content ADD COLUMN content_location character varying(255);
@@ -0,0 +1,8 @@
+--
+-- Add the compressed manifest entries of the members removed since the
+-- previous dataset content, which are recorded alongside the deltas since
+-- the removals cannot be expressed in the S-125 deltas themselves.
+--
+
+ALTER TABLE public.dataset_content ADD COLUMN removals bytea;
+ALTER TABLE public.dataset_content_log ADD COLUMN removals bytea;
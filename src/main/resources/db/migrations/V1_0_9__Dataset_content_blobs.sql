@@ -0,0 +1,18 @@
+--
+-- Move the dataset content payloads into the content-addressed blobs as
+-- well, so that the generated contents are streamed into the blobs and
+-- shared with their dataset content log entries. The existing inline
+-- payloads are moved into the blobs by the dataset content storage
+-- backfill, since their original content hash is required as the blob key.
+--
+
+ALTER TABLE public.dataset_content ADD COLUMN content_hash character varying(64);
+ALTER TABLE public.dataset_content ADD COLUMN delta_hash character varying(64);
+
+ALTER TABLE ONLY public.dataset_content
+    ADD CONSTRAINT fk_dataset_content_content_hash FOREIGN KEY (content_hash) REFERENCES public.dataset_content_blob(hash);
+ALTER TABLE ONLY public.dataset_content
+    ADD CONSTRAINT fk_dataset_content_delta_hash FOREIGN KEY (delta_hash) REFERENCES public.dataset_content_blob(hash);
+
+CREATE INDEX idx_dataset_content_content_hash ON public.dataset_content USING btree (content_hash);
+CREATE INDEX idx_dataset_content_delta_hash ON public.dataset_content USING btree (delta_hash);
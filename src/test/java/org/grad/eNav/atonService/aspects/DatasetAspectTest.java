@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.aspects;
+
+import org.grad.eNav.atonService.TestingConfiguration;
+import org.grad.eNav.atonService.models.domain.DatasetContent;
+import org.grad.eNav.atonService.models.domain.DatasetContentLog;
+import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
+import org.grad.eNav.atonService.models.enums.DatasetOperation;
+import org.grad.eNav.atonService.repos.DatasetRepo;
+import org.grad.eNav.atonService.services.DatasetContentLogService;
+import org.grad.eNav.atonService.services.DatasetContentService;
+import org.grad.eNav.atonService.services.DatasetService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application.properties", properties = {
+        "gla.rad.aton-service.dataset-content.log-writer.enabled=false",
+        "gla.rad.aton-service.dataset-content.log-writer.journal-dir="
+})
+@Import(TestingConfiguration.class)
+class DatasetAspectTest {
+
+    /**
+     * The Dataset Repository.
+     */
+    @Autowired
+    DatasetRepo datasetRepo;
+
+    /**
+     * The Dataset Service.
+     */
+    @Autowired
+    DatasetService datasetService;
+
+    /**
+     * The Dataset Content Service.
+     */
+    @Autowired
+    DatasetContentService datasetContentService;
+
+    /**
+     * The Dataset Content Log Service.
+     */
+    @Autowired
+    DatasetContentLogService datasetContentLogService;
+
+    /**
+     * The Platform Transaction Manager.
+     */
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    /**
+     * Test that when a logged dataset operation is committed, the generated
+     * dataset content log entry and its payload blob are both persisted,
+     * even though the entry is handled after the commit.
+     */
+    @Test
+    void testLogDatasetAfterCommit() {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+
+        // Save a dataset with its content and cancel it in the same transaction
+        final UUID uuid = transactionTemplate.execute(status -> {
+            final S125Dataset dataset = this.datasetRepo.saveAndFlush(new S125Dataset("aspect-test-dataset"));
+            final DatasetContent datasetContent = new DatasetContent();
+            datasetContent.setDataset(dataset);
+            datasetContent.setSequenceNo(BigInteger.ONE);
+            datasetContent.setContent("<Dataset>aspect-test-content</Dataset>", DatasetContentCompression.GZIP);
+            this.datasetContentService.save(datasetContent);
+            return this.datasetService.cancel(dataset.getUuid()).getUuid();
+        });
+
+        // Make sure both the log entry and its payload blob were persisted
+        final List<DatasetContentLog> datasetContentLogs = this.datasetContentLogService.findForUuid(uuid);
+        assertEquals(1, datasetContentLogs.size());
+        assertEquals(DatasetOperation.CANCELLED, datasetContentLogs.get(0).getOperation());
+        assertNotNull(datasetContentLogs.get(0).getContentBlob());
+        assertNotNull(this.datasetContentLogService.findBlob(datasetContentLogs.get(0).getContentBlob().getHash()));
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import org.grad.eNav.atonService.services.DatasetContentLogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetContentBlobCollectorTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    DatasetContentBlobCollector datasetContentBlobCollector;
+
+    /**
+     * The Dataset Content Log Service mock.
+     */
+    @Mock
+    DatasetContentLogService datasetContentLogService;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        this.datasetContentBlobCollector.gracePeriod = 60;
+    }
+
+    /**
+     * Test that the unreferenced blobs are collected, respecting the
+     * configured grace period.
+     */
+    @Test
+    void testCollect() {
+        doReturn(2).when(this.datasetContentLogService).deleteUnreferencedBlobs(any());
+
+        // Perform the component call
+        final LocalDateTime before = LocalDateTime.now();
+        this.datasetContentBlobCollector.collect();
+
+        // Verify the grace period was applied
+        final ArgumentCaptor<LocalDateTime> createdBeforeCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(this.datasetContentLogService, times(1)).deleteUnreferencedBlobs(createdBeforeCaptor.capture());
+        assertFalse(createdBeforeCaptor.getValue().isAfter(LocalDateTime.now().minusSeconds(60)));
+        assertFalse(createdBeforeCaptor.getValue().isBefore(before.minusSeconds(60)));
+    }
+
+    /**
+     * Test that any failures during the collection are handled, so that the
+     * collection can be retried in the next run.
+     */
+    @Test
+    void testCollectFailure() {
+        doThrow(new RuntimeException("something went wrong")).when(this.datasetContentLogService).deleteUnreferencedBlobs(any());
+
+        // Perform the component call
+        assertDoesNotThrow(() -> this.datasetContentBlobCollector.collect());
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import org.grad.eNav.atonService.repos.DatasetContentLogRepo;
+import org.grad.eNav.atonService.services.DatasetContentLogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetContentLogCompactorTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    DatasetContentLogCompactor datasetContentLogCompactor;
+
+    /**
+     * The Dataset Content Log Repo mock.
+     */
+    @Mock
+    DatasetContentLogRepo datasetContentLogRepo;
+
+    /**
+     * The Dataset Content Log Service mock.
+     */
+    @Mock
+    DatasetContentLogService datasetContentLogService;
+
+    /**
+     * The Dataset Content Log Partition Manager mock.
+     */
+    @Mock
+    DatasetContentLogPartitionManager datasetContentLogPartitionManager;
+
+    // Test Variables
+    private UUID uuid1;
+    private UUID uuid2;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        this.datasetContentLogCompactor.enabled = true;
+        this.datasetContentLogCompactor.snapshotInterval = 5;
+        this.datasetContentLogCompactor.minAge = 60;
+        this.datasetContentLogCompactor.retentionPeriod = 3600;
+        this.uuid1 = UUID.randomUUID();
+        this.uuid2 = UUID.randomUUID();
+    }
+
+    /**
+     * Test that all the datasets with old enough entries are pruned and
+     * compacted according to the configured retention policy.
+     */
+    @Test
+    void testCompact() {
+        doReturn(Arrays.asList(this.uuid1, this.uuid2)).when(this.datasetContentLogRepo).findUuidsGeneratedBefore(any());
+        doReturn(1).when(this.datasetContentLogService).pruneForUuid(any(), any());
+        doReturn(2).when(this.datasetContentLogService).compactForUuid(any(), any(), eq(5));
+
+        // Perform the component call
+        this.datasetContentLogCompactor.compact();
+
+        // Verify that the expired partitions were dropped first
+        verify(this.datasetContentLogPartitionManager, times(1)).dropPartitionsBefore(any());
+
+        // Verify that all datasets were pruned and compacted
+        verify(this.datasetContentLogService, times(1)).pruneForUuid(eq(this.uuid1), any());
+        verify(this.datasetContentLogService, times(1)).pruneForUuid(eq(this.uuid2), any());
+        verify(this.datasetContentLogService, times(1)).compactForUuid(eq(this.uuid1), any(), eq(5));
+        verify(this.datasetContentLogService, times(1)).compactForUuid(eq(this.uuid2), any(), eq(5));
+    }
+
+    /**
+     * Test that no entries are pruned when the retention period is disabled,
+     * but they are still compacted.
+     */
+    @Test
+    void testCompactWithoutRetention() {
+        this.datasetContentLogCompactor.retentionPeriod = 0;
+        doReturn(Arrays.asList(this.uuid1)).when(this.datasetContentLogRepo).findUuidsGeneratedBefore(any());
+
+        // Perform the component call
+        this.datasetContentLogCompactor.compact();
+
+        // Verify that the dataset was only compacted
+        verify(this.datasetContentLogPartitionManager, never()).dropPartitionsBefore(any());
+        verify(this.datasetContentLogService, never()).pruneForUuid(any(), any());
+        verify(this.datasetContentLogService, times(1)).compactForUuid(eq(this.uuid1), any(), eq(5));
+    }
+
+    /**
+     * Test that a failure while compacting a dataset does not stop the
+     * compaction of the rest.
+     */
+    @Test
+    void testCompactFailure() {
+        doReturn(Arrays.asList(this.uuid1, this.uuid2)).when(this.datasetContentLogRepo).findUuidsGeneratedBefore(any());
+        doThrow(new RuntimeException("something went wrong")).when(this.datasetContentLogService).pruneForUuid(eq(this.uuid1), any());
+
+        // Perform the component call
+        assertDoesNotThrow(() -> this.datasetContentLogCompactor.compact());
+
+        // Verify that the second dataset was still compacted
+        verify(this.datasetContentLogService, never()).compactForUuid(eq(this.uuid1), any(), anyInt());
+        verify(this.datasetContentLogService, times(1)).compactForUuid(eq(this.uuid2), any(), eq(5));
+    }
+
+    /**
+     * Test that nothing happens when the compaction is disabled.
+     */
+    @Test
+    void testCompactDisabled() {
+        this.datasetContentLogCompactor.enabled = false;
+
+        // Perform the component call
+        this.datasetContentLogCompactor.compact();
+
+        // Verify that nothing was touched
+        verify(this.datasetContentLogRepo, never()).findUuidsGeneratedBefore(any());
+        verifyNoInteractions(this.datasetContentLogService);
+        verifyNoInteractions(this.datasetContentLogPartitionManager);
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.grad.eNav.atonService.models.domain.DatasetContentLog;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.session.SearchSession;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetContentLogPartitionManagerTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    DatasetContentLogPartitionManager datasetContentLogPartitionManager;
+
+    /**
+     * The Entity Manager mock.
+     */
+    @Mock
+    EntityManager entityManager;
+
+    // Test Variables
+    private Query query;
+    private SearchSession searchSession;
+    private SearchIndexingPlan searchIndexingPlan;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        this.datasetContentLogPartitionManager.monthsAhead = 2;
+        this.query = mock(Query.class);
+        this.searchSession = mock(SearchSession.class);
+        this.searchIndexingPlan = mock(SearchIndexingPlan.class);
+    }
+
+    /**
+     * Test that the partitions for the upcoming months are created when the
+     * dataset content log table is partitioned.
+     */
+    @Test
+    void testCreatePartitions() {
+        doReturn(true).when(this.datasetContentLogPartitionManager).isPartitioned();
+        doReturn(this.query).when(this.entityManager).createNativeQuery(anyString());
+        doReturn(this.query).when(this.query).setParameter("monthsAhead", 2);
+        doReturn(1).when(this.query).getSingleResult();
+
+        // Perform the component call
+        this.datasetContentLogPartitionManager.createPartitions();
+
+        // Verify that the partitions were created
+        verify(this.query, times(1)).getSingleResult();
+    }
+
+    /**
+     * Test that no partitions are created when the dataset content log table
+     * is not partitioned.
+     */
+    @Test
+    void testCreatePartitionsNotPartitioned() {
+        doReturn(false).when(this.datasetContentLogPartitionManager).isPartitioned();
+
+        // Perform the component call
+        this.datasetContentLogPartitionManager.createPartitions();
+
+        // Verify that the database was not touched
+        verify(this.entityManager, never()).createNativeQuery(anyString());
+    }
+
+    /**
+     * Test that the expired partitions are dropped and their entries are
+     * purged from the search index.
+     */
+    @Test
+    void testDropPartitionsBefore() {
+        final LocalDateTime cutoff = LocalDateTime.now().minusYears(1);
+        doReturn(true).when(this.datasetContentLogPartitionManager).isPartitioned();
+        doReturn(this.query).when(this.entityManager).createNativeQuery(anyString());
+        doReturn(this.query).when(this.query).setParameter("generatedBefore", cutoff);
+        doReturn(Arrays.asList(BigDecimal.ONE, BigDecimal.TEN)).when(this.query).getResultList();
+        doReturn(this.searchIndexingPlan).when(this.searchSession).indexingPlan();
+
+        // Perform the component call
+        final int result;
+        try (MockedStatic<Search> mockedSearch = Mockito.mockStatic(Search.class)) {
+            mockedSearch.when(() -> Search.session(this.entityManager)).thenReturn(this.searchSession);
+            result = this.datasetContentLogPartitionManager.dropPartitionsBefore(cutoff);
+        }
+
+        // Verify that the dropped entries were purged
+        assertEquals(2, result);
+        verify(this.searchIndexingPlan, times(1)).purge(DatasetContentLog.class, BigInteger.ONE, null);
+        verify(this.searchIndexingPlan, times(1)).purge(DatasetContentLog.class, BigInteger.TEN, null);
+    }
+
+    /**
+     * Test that no partitions are dropped when the dataset content log table
+     * is not partitioned.
+     */
+    @Test
+    void testDropPartitionsBeforeNotPartitioned() {
+        doReturn(false).when(this.datasetContentLogPartitionManager).isPartitioned();
+
+        // Perform the component call
+        final int result = this.datasetContentLogPartitionManager.dropPartitionsBefore(LocalDateTime.now());
+
+        // Verify that the database was not touched
+        assertEquals(0, result);
+        verify(this.entityManager, never()).createNativeQuery(anyString());
+    }
+
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grad.eNav.atonService.models.domain.DatasetContentLog;
+import org.grad.eNav.atonService.models.domain.DatasetContentMember;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
+import org.grad.eNav.atonService.models.enums.DatasetOperation;
+import org.grad.eNav.atonService.models.enums.DatasetType;
+import org.grad.eNav.atonService.services.DatasetContentLogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetContentLogWriterTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    DatasetContentLogWriter datasetContentLogWriter;
+
+    /**
+     * The Dataset Content Log Service mock.
+     */
+    @Mock
+    DatasetContentLogService datasetContentLogService;
+
+    /**
+     * The Meter Registry.
+     */
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * The temporary journal directory.
+     */
+    @TempDir
+    Path journalDir;
+
+    // Test Variables
+    private DatasetContentLog datasetContentLog;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        this.datasetContentLogWriter.enabled = true;
+        this.datasetContentLogWriter.queueCapacity = 10;
+        this.datasetContentLogWriter.batchSize = 5;
+        this.datasetContentLogWriter.journalDir = this.journalDir.toString();
+        this.datasetContentLogWriter.init();
+
+        this.datasetContentLog = new DatasetContentLog();
+        this.datasetContentLog.setDatasetType(DatasetType.S125);
+        this.datasetContentLog.setUuid(UUID.randomUUID());
+        this.datasetContentLog.setOperation(DatasetOperation.UPDATED);
+        this.datasetContentLog.setSequenceNo(BigInteger.ONE);
+        this.datasetContentLog.setGeneratedAt(LocalDateTime.now());
+        this.datasetContentLog.setContent("Dataset Content", DatasetContentCompression.GZIP);
+
+        // Mock the payload blob storage
+        lenient().doAnswer(returnsFirstArg()).when(this.datasetContentLogService).saveBlobs(any());
+    }
+
+    /**
+     * Test that the payloads of the submitted entries are stored, while the
+     * entries are journaled and queued, and only removed from the journal
+     * once persisted in a single batch.
+     */
+    @Test
+    void testSubmit() throws IOException {
+        // Perform the component call
+        this.datasetContentLogWriter.submit(this.datasetContentLog);
+        this.datasetContentLogWriter.submit(this.datasetContentLog);
+
+        // Make sure the entries were queued and journaled, but not persisted
+        assertEquals(2, this.datasetContentLogWriter.getQueueDepth());
+        assertEquals(2, this.countJournal(DatasetContentLogWriter.ENTRY_SUFFIX));
+        verify(this.datasetContentLogService, times(2)).saveBlobs(this.datasetContentLog);
+        verify(this.datasetContentLogService, never()).saveAll(any());
+        verify(this.datasetContentLogService, never()).save(any());
+
+        // Now persist the queued entries
+        this.datasetContentLogWriter.flush();
+
+        // Verify that they were persisted in a single batch
+        final ArgumentCaptor<List<DatasetContentLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(this.datasetContentLogService, times(1)).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(0, this.datasetContentLogWriter.getQueueDepth());
+        assertEquals(0, this.countJournal(DatasetContentLogWriter.ENTRY_SUFFIX));
+        assertEquals(2.0, this.meterRegistry.get("aton.dataset.content.log.written").functionCounter().count());
+    }
+
+    /**
+     * Test that when the queue is full and the writer thread is not running,
+     * the queued entries are persisted first, so that the entries are
+     * persisted in their submission order.
+     */
+    @Test
+    void testSubmitQueueFull() throws IOException {
+        this.datasetContentLogWriter.queueCapacity = 1;
+        this.datasetContentLogWriter.init();
+        final DatasetContentLog nextDatasetContentLog = new DatasetContentLog();
+        nextDatasetContentLog.setDatasetType(DatasetType.S125);
+        nextDatasetContentLog.setUuid(UUID.randomUUID());
+        nextDatasetContentLog.setOperation(DatasetOperation.UPDATED);
+        nextDatasetContentLog.setGeneratedAt(LocalDateTime.now());
+
+        // Perform the component call
+        this.datasetContentLogWriter.submit(this.datasetContentLog);
+        this.datasetContentLogWriter.submit(nextDatasetContentLog);
+
+        // Verify that the first entry was persisted before queueing the second
+        final ArgumentCaptor<List<DatasetContentLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(this.datasetContentLogService, times(1)).saveAll(captor.capture());
+        assertEquals(List.of(this.datasetContentLog), captor.getValue());
+        assertEquals(1, this.datasetContentLogWriter.getQueueDepth());
+        assertEquals(1, this.countJournal(DatasetContentLogWriter.ENTRY_SUFFIX));
+    }
+
+    /**
+     * Test that when the write-behind is disabled, the submitted entries are
+     * persisted directly without being journaled.
+     */
+    @Test
+    void testSubmitDisabled() throws IOException {
+        this.datasetContentLogWriter.enabled = false;
+
+        // Perform the component call
+        this.datasetContentLogWriter.submit(this.datasetContentLog);
+
+        // Verify that the entry was persisted directly
+        verify(this.datasetContentLogService, times(1)).save(this.datasetContentLog);
+        assertEquals(0, this.datasetContentLogWriter.getQueueDepth());
+        assertEquals(0, this.countJournal(DatasetContentLogWriter.ENTRY_SUFFIX));
+    }
+
+    /**
+     * Test that when a batch fails, the entries are persisted one by one, and
+     * the ones that still fail are kept in the journal.
+     */
+    @Test
+    void testFlushFailure() throws IOException {
+        doThrow(new RuntimeException("batch failed")).when(this.datasetContentLogService).saveAll(any());
+        doThrow(new RuntimeException("entry failed")).when(this.datasetContentLogService).save(any());
+
+        // Perform the component call
+        this.datasetContentLogWriter.submit(this.datasetContentLog);
+        this.datasetContentLogWriter.flush();
+
+        // Verify that the entry was kept in the journal as failed
+        verify(this.datasetContentLogService, times(1)).save(any());
+        assertEquals(0, this.countJournal(DatasetContentLogWriter.ENTRY_SUFFIX));
+        assertEquals(1, this.countJournal(DatasetContentLogWriter.FAILED_SUFFIX));
+        assertEquals(1.0, this.meterRegistry.get("aton.dataset.content.log.failed").functionCounter().count());
+    }
+
+    /**
+     * Test that the entries left in the journal by a previous run are
+     * replayed when the component boots up, re-attaching their payloads
+     * by the journaled blob hashes.
+     */
+    @Test
+    void testReplayJournal() throws IOException {
+        this.datasetContentLog.setGeometry(new GeometryFactory(new PrecisionModel(), 4326).createPoint(new Coordinate(1.0, 52.0)));
+        this.datasetContentLog.setRemovals(List.of(new DatasetContentMember("ID001", BigInteger.ONE, this.datasetContentLog.getGeneratedAt(), "checksum")));
+        doReturn(this.datasetContentLog.getContentBlob()).when(this.datasetContentLogService).findBlob(this.datasetContentLog.getContentBlob().getHash());
+        this.datasetContentLogWriter.submit(this.datasetContentLog);
+
+        // Perform the component call, as if the service restarted
+        this.datasetContentLogWriter.init();
+
+        // Make sure the journaled entry was queued again
+        assertEquals(1, this.datasetContentLogWriter.getQueueDepth());
+        this.datasetContentLogWriter.flush();
+
+        // Verify that the replayed entry matches the original one
+        final ArgumentCaptor<List<DatasetContentLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(this.datasetContentLogService, times(1)).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(this.datasetContentLog.getUuid(), captor.getValue().get(0).getUuid());
+        assertEquals(this.datasetContentLog.getOperation(), captor.getValue().get(0).getOperation());
+        assertEquals(this.datasetContentLog.getGeneratedAt(), captor.getValue().get(0).getGeneratedAt());
+        assertTrue(this.datasetContentLog.getGeometry().equalsExact(captor.getValue().get(0).getGeometry()));
+        assertEquals(4326, captor.getValue().get(0).getGeometry().getSRID());
+        assertEquals(this.datasetContentLog.getRemovals(), captor.getValue().get(0).getRemovals());
+        assertEquals("Dataset Content", captor.getValue().get(0).getContent());
+        assertEquals(0, this.countJournal(DatasetContentLogWriter.ENTRY_SUFFIX));
+    }
+
+    /**
+     * Test that journal entries not written in the journal format, e.g.
+     * Java serialised objects, are never deserialised when replayed, but
+     * are kept in the journal as failed instead.
+     */
+    @Test
+    void testReplayJournalInvalidFormat() throws IOException {
+        try(ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(this.journalDir.resolve("00000000000000000001" + DatasetContentLogWriter.ENTRY_SUFFIX)))) {
+            out.writeObject(new ArrayList<>(List.of(this.datasetContentLog.getUuid())));
+        }
+
+        // Perform the component call, as if the service restarted
+        this.datasetContentLogWriter.init();
+
+        // Make sure the entry was not replayed
+        assertEquals(0, this.datasetContentLogWriter.getQueueDepth());
+        assertEquals(0, this.countJournal(DatasetContentLogWriter.ENTRY_SUFFIX));
+        assertEquals(1, this.countJournal(DatasetContentLogWriter.FAILED_SUFFIX));
+        verify(this.datasetContentLogService, never()).findBlob(any());
+    }
+
+    /**
+     * Counts the journal files with the provided suffix.
+     *
+     * @param suffix the journal file suffix
+     * @return the number of matching journal files
+     */
+    private long countJournal(String suffix) throws IOException {
+        try(Stream<Path> files = Files.list(this.journalDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).count();
+        }
+    }
+
+}
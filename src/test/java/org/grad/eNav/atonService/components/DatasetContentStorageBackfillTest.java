@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import org.grad.eNav.atonService.models.domain.DatasetContent;
+import org.grad.eNav.atonService.models.domain.DatasetContentBlob;
+import org.grad.eNav.atonService.models.domain.DatasetContentLog;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
+import org.grad.eNav.atonService.repos.DatasetContentLogRepo;
+import org.grad.eNav.atonService.repos.DatasetContentRepo;
+import org.grad.eNav.atonService.services.DatasetContentLogService;
+import org.grad.eNav.atonService.utils.ChecksumWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetContentStorageBackfillTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    DatasetContentStorageBackfill datasetContentStorageBackfill;
+
+    /**
+     * The Dataset Content Repo mock.
+     */
+    @Mock
+    DatasetContentRepo datasetContentRepo;
+
+    /**
+     * The Dataset Content Log Repo mock.
+     */
+    @Mock
+    DatasetContentLogRepo datasetContentLogRepo;
+
+    /**
+     * The Dataset Content Log Service mock.
+     */
+    @Mock
+    DatasetContentLogService datasetContentLogService;
+
+    // Test Variables
+    private DatasetContent datasetContent;
+    private DatasetContentLog datasetContentLog;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        this.datasetContentStorageBackfill.enabled = true;
+        this.datasetContentStorageBackfill.batchSize = 10;
+
+        // Create the entries stored before the compression was introduced
+        this.datasetContent = spy(new DatasetContent());
+        this.datasetContent.setId(BigInteger.ONE);
+        lenient().doReturn("Existing Dataset Content").when(this.datasetContent).getContent();
+        this.datasetContentLog = spy(new DatasetContentLog());
+        this.datasetContentLog.setId(BigInteger.TWO);
+        lenient().doReturn("Existing Dataset Content Log").when(this.datasetContentLog).getContent();
+        lenient().doReturn("Existing Dataset Content").when(this.datasetContentLog).getDelta();
+    }
+
+    /**
+     * Test that the entries with inline payloads are moved into content
+     * blobs of the configured storage format in place.
+     */
+    @Test
+    void testBackfill() {
+        doReturn(List.of(BigInteger.ONE)).when(this.datasetContentRepo).findAllWithInlinePayload(any());
+        doReturn(Optional.of(this.datasetContent)).when(this.datasetContentRepo).findById(BigInteger.ONE);
+        doReturn(List.of(BigInteger.TWO)).when(this.datasetContentLogRepo).findAllWithInlinePayload(any());
+        doReturn(Optional.of(this.datasetContentLog)).when(this.datasetContentLogRepo).findById(BigInteger.TWO);
+        doAnswer(returnsFirstArg()).when(this.datasetContentLogService).saveBlob(any());
+
+        // Perform the component call
+        this.datasetContentStorageBackfill.backfill();
+
+        // Verify the dataset content payloads were moved into blobs
+        final ArgumentCaptor<DatasetContentBlob> contentCaptor = ArgumentCaptor.forClass(DatasetContentBlob.class);
+        final ArgumentCaptor<BigInteger> contentLengthCaptor = ArgumentCaptor.forClass(BigInteger.class);
+        verify(this.datasetContentRepo, times(1)).updateStoredBlobs(eq(BigInteger.ONE), contentCaptor.capture(), contentLengthCaptor.capture(), isNull(), isNull());
+        assertEquals(DatasetContentCompression.GZIP, DatasetContentCompression.detect(contentCaptor.getValue().getStoredData()));
+        assertEquals("Existing Dataset Content", contentCaptor.getValue().getContent());
+        assertEquals(ChecksumWriter.checksum("Existing Dataset Content"), contentCaptor.getValue().getHash());
+        assertEquals(contentCaptor.getValue().getStoredLength(), contentLengthCaptor.getValue());
+
+        // Verify the dataset content log payloads were moved into blobs
+        verify(this.datasetContentLogService, times(3)).saveBlob(any());
+        verify(this.datasetContentLogRepo, times(1)).save(this.datasetContentLog);
+        assertNotNull(this.datasetContentLog.getContentBlob());
+        assertEquals("Existing Dataset Content Log", this.datasetContentLog.getContentBlob().getContent());
+        assertEquals(this.datasetContentLog.getContentBlob().getStoredLength(), this.datasetContentLog.getContentStoredLength());
+        assertNotNull(this.datasetContentLog.getDeltaBlob());
+        assertEquals("Existing Dataset Content", this.datasetContentLog.getDeltaBlob().getContent());
+        assertEquals(ChecksumWriter.checksum("Existing Dataset Content"), this.datasetContentLog.getDeltaBlob().getHash());
+    }
+
+    /**
+     * Test that nothing is updated when all the entries have already been
+     * backfilled.
+     */
+    @Test
+    void testBackfillNothingToDo() {
+        doReturn(Collections.emptyList()).when(this.datasetContentRepo).findAllWithInlinePayload(any());
+        doReturn(Collections.emptyList()).when(this.datasetContentLogRepo).findAllWithInlinePayload(any());
+
+        // Perform the component call
+        this.datasetContentStorageBackfill.backfill();
+
+        // Verify that nothing was updated
+        verify(this.datasetContentRepo, never()).updateStoredBlobs(any(), any(), any(), any(), any());
+        verify(this.datasetContentLogRepo, never()).save(any());
+    }
+
+    /**
+     * Test that the backfill does not run when it is disabled.
+     */
+    @Test
+    void testBackfillDisabled() {
+        this.datasetContentStorageBackfill.enabled = false;
+
+        // Perform the component call
+        this.datasetContentStorageBackfill.backfill();
+
+        // Verify that nothing was queried
+        verify(this.datasetContentRepo, never()).findAllWithInlinePayload(any());
+        verify(this.datasetContentLogRepo, never()).findAllWithInlinePayload(any());
+    }
+
+}
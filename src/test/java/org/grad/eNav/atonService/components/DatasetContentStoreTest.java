@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
+import org.grad.eNav.atonService.utils.ChecksumWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetContentStoreTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    DatasetContentStore datasetContentStore;
+
+    /**
+     * The temporary store directory.
+     */
+    @TempDir
+    Path storeDir;
+
+    // Test Variables
+    private Path root;
+    private String content;
+    private String location;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        this.datasetContentStore.enabled = true;
+        this.root = Files.createDirectories(this.storeDir.resolve("store"));
+        this.datasetContentStore.dir = this.root.toString();
+        this.datasetContentStore.contentCompression = DatasetContentCompression.GZIP;
+        this.datasetContentStore.init();
+
+        // Create a previously stored content file
+        this.content = "<Dataset><member>Ελληνικά</member></Dataset>";
+        this.location = String.format("%s_2_%s.xml", UUID.randomUUID(), ChecksumWriter.checksum(this.content));
+        Files.writeString(this.root.resolve(this.location), this.content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Test that the previously stored dataset contents can be read back from
+     * their files.
+     */
+    @Test
+    void testReadContent() {
+        assertArrayEquals(this.content.getBytes(StandardCharsets.UTF_8), this.datasetContentStore.readContent(this.location).orElse(null));
+    }
+
+    /**
+     * Test that no stored content is read when the dataset contents have not
+     * been stored, or the store is disabled, so that they are read from the
+     * database instead.
+     */
+    @Test
+    void testReadContentMissing() {
+        assertTrue(this.datasetContentStore.readContent(null).isEmpty());
+        assertTrue(this.datasetContentStore.readContent("missing.xml").isEmpty());
+
+        // Disable the store and point to an existing file
+        this.datasetContentStore.enabled = false;
+        assertFalse(this.datasetContentStore.isEnabled());
+        assertTrue(this.datasetContentStore.readContent(this.location).isEmpty());
+    }
+
+    /**
+     * Test that the stored contents can be recovered in the database storage
+     * format.
+     */
+    @Test
+    void testReadStored() {
+        final byte[] stored = this.datasetContentStore.readStored(this.location).orElse(null);
+
+        // Test the stored content recovery
+        assertNotNull(stored);
+        assertEquals(DatasetContentCompression.GZIP, DatasetContentCompression.detect(stored));
+        assertEquals(this.content, DatasetContentCompression.decompress(stored));
+        assertTrue(this.datasetContentStore.readStored("missing.xml").isEmpty());
+    }
+
+    /**
+     * Test that no files outside the store directory can be accessed.
+     */
+    @Test
+    void testResolveOutsideStore() throws IOException {
+        Files.writeString(this.storeDir.resolve("outside.xml"), this.content);
+
+        // Test the result
+        assertTrue(this.datasetContentStore.resolve("../outside.xml").isEmpty());
+        assertTrue(this.datasetContentStore.readStored("../outside.xml").isEmpty());
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.components;
+
+import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
+import org.grad.eNav.atonService.models.enums.DatasetOperation;
+import org.grad.eNav.atonService.repos.DatasetRepo;
+import org.grad.secom.core.models.enums.SECOM_DataProductType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.MessageHeaders;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetCoverageIndexTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    DatasetCoverageIndex datasetCoverageIndex;
+
+    /**
+     * The Dataset Repo mock.
+     */
+    @Mock
+    DatasetRepo datasetRepo;
+
+    // Test Variables
+    private GeometryFactory factory;
+    private S125Dataset nationalDataset;
+    private S125Dataset portDataset;
+    private S125Dataset cancelledDataset;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        // Create a temp geometry factory to get a test geometries
+        this.factory = new GeometryFactory(new PrecisionModel(), 4326);
+
+        // Create a large and a small overlapping dataset
+        this.nationalDataset = new S125Dataset("NationalDataset");
+        this.nationalDataset.setUuid(UUID.randomUUID());
+        this.nationalDataset.setGeometry(this.factory.createPolygon(new Coordinate[]{
+                new Coordinate(0, 0), new Coordinate(0, 10), new Coordinate(10, 10),
+                new Coordinate(10, 0), new Coordinate(0, 0)
+        }));
+        this.portDataset = new S125Dataset("PortDataset");
+        this.portDataset.setUuid(UUID.randomUUID());
+        this.portDataset.setGeometry(this.factory.createPolygon(new Coordinate[]{
+                new Coordinate(1, 1), new Coordinate(1, 2), new Coordinate(2, 2),
+                new Coordinate(2, 1), new Coordinate(1, 1)
+        }));
+        this.cancelledDataset = new S125Dataset("CancelledDataset");
+        this.cancelledDataset.setUuid(UUID.randomUUID());
+        this.cancelledDataset.setGeometry(this.nationalDataset.getGeometry());
+        this.cancelledDataset.setCancelled(true);
+
+        // Mock the initial loading
+        doReturn(List.of(this.nationalDataset, this.portDataset, this.cancelledDataset)).when(this.datasetRepo).findAll();
+    }
+
+    /**
+     * Test that the affected datasets are resolved per changed geometry,
+     * excluding any cancelled datasets.
+     */
+    @Test
+    void testFindAffectedDatasets() {
+        // Test the results
+        assertEquals(Set.of(this.nationalDataset.getUuid(), this.portDataset.getUuid()),
+                this.datasetCoverageIndex.findAffectedDatasets(List.of(this.factory.createPoint(new Coordinate(1.5, 1.5)))));
+        assertEquals(Set.of(this.nationalDataset.getUuid()),
+                this.datasetCoverageIndex.findAffectedDatasets(List.of(this.factory.createPoint(new Coordinate(5, 5)))));
+        assertEquals(Set.of(this.nationalDataset.getUuid(), this.portDataset.getUuid()),
+                this.datasetCoverageIndex.findAffectedDatasets(List.of(
+                        this.factory.createPoint(new Coordinate(5, 5)),
+                        this.factory.createPoint(new Coordinate(1.5, 1.5)))));
+        assertTrue(this.datasetCoverageIndex.findAffectedDatasets(List.of(this.factory.createPoint(new Coordinate(20, 20)))).isEmpty());
+        assertTrue(this.datasetCoverageIndex.findAffectedDatasets(Collections.emptyList()).isEmpty());
+        assertEquals(2, this.datasetCoverageIndex.size());
+
+        // Make sure the database was only accessed once
+        verify(this.datasetRepo, times(1)).findAll();
+    }
+
+    /**
+     * Test that the dataset publications and removals keep the index up to
+     * date.
+     */
+    @Test
+    void testHandleMessage() {
+        // Move the port dataset through a publication
+        this.portDataset.setGeometry(this.factory.createPoint(new Coordinate(20, 20)));
+        this.datasetCoverageIndex.handleMessage(MessageBuilder.withPayload(this.portDataset)
+                .setHeader(MessageHeaders.CONTENT_TYPE, SECOM_DataProductType.S125)
+                .setHeader("operation", DatasetOperation.UPDATED)
+                .build());
+        assertEquals(Set.of(this.portDataset.getUuid()),
+                this.datasetCoverageIndex.findAffectedDatasets(List.of(this.factory.createPoint(new Coordinate(20, 20)))));
+
+        // And delete the national one
+        this.datasetCoverageIndex.handleMessage(MessageBuilder.withPayload(this.nationalDataset)
+                .setHeader(MessageHeaders.CONTENT_TYPE, SECOM_DataProductType.S125)
+                .setHeader("operation", DatasetOperation.DELETED)
+                .build());
+        assertTrue(this.datasetCoverageIndex.findAffectedDatasets(List.of(this.factory.createPoint(new Coordinate(5, 5)))).isEmpty());
+        assertEquals(1, this.datasetCoverageIndex.size());
+    }
+
+}
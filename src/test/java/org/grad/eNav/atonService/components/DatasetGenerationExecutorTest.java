@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grad.eNav.atonService.models.enums.DatasetGenerationPriority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetGenerationExecutorTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    DatasetGenerationExecutor datasetGenerationExecutor;
+
+    /**
+     * The Meter Registry.
+     */
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        this.datasetGenerationExecutor.poolSize = 1;
+        this.datasetGenerationExecutor.maxHeavy = 1;
+        this.datasetGenerationExecutor.heavyThreshold = 100;
+        this.datasetGenerationExecutor.init();
+    }
+
+    /**
+     * Stop the executor after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        this.datasetGenerationExecutor.destroy();
+    }
+
+    /**
+     * Test that the submitted generations are completed with the result of
+     * the generation operation, or its failure.
+     */
+    @Test
+    void testSubmit() throws Exception {
+        final CompletableFuture<String> result = this.datasetGenerationExecutor.submit(UUID.randomUUID(),
+                DatasetGenerationPriority.BACKGROUND, 0, () -> CompletableFuture.completedFuture("generated"));
+        final CompletableFuture<String> failed = this.datasetGenerationExecutor.submit(UUID.randomUUID(),
+                DatasetGenerationPriority.BACKGROUND, 0, () -> { throw new RuntimeException("something went wrong"); });
+
+        // Test the result
+        assertEquals("generated", result.get(1, TimeUnit.SECONDS));
+        assertThrows(Exception.class, () -> failed.get(1, TimeUnit.SECONDS));
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(0, this.datasetGenerationExecutor.getRunning());
+    }
+
+    /**
+     * Test that the queued generations are started in priority order, and
+     * in submission order within the same priority class.
+     */
+    @Test
+    void testSubmitPriorityOrder() throws Exception {
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Void> blocker = new CompletableFuture<>();
+
+        // Block the only executor slot
+        this.datasetGenerationExecutor.submit(UUID.randomUUID(), DatasetGenerationPriority.BACKGROUND, 0, () -> blocker);
+
+        // Queue the generations of the different priority classes
+        final CompletableFuture<?> background = this.datasetGenerationExecutor.submit(UUID.randomUUID(), DatasetGenerationPriority.BACKGROUND, 0,
+                () -> { order.add("background"); return CompletableFuture.completedFuture(null); });
+        final CompletableFuture<?> replacement = this.datasetGenerationExecutor.submit(UUID.randomUUID(), DatasetGenerationPriority.REPLACEMENT, 0,
+                () -> { order.add("replacement"); return CompletableFuture.completedFuture(null); });
+        final CompletableFuture<?> subscribed1 = this.datasetGenerationExecutor.submit(UUID.randomUUID(), DatasetGenerationPriority.SUBSCRIBED, 0,
+                () -> { order.add("subscribed1"); return CompletableFuture.completedFuture(null); });
+        final CompletableFuture<?> subscribed2 = this.datasetGenerationExecutor.submit(UUID.randomUUID(), DatasetGenerationPriority.SUBSCRIBED, 0,
+                () -> { order.add("subscribed2"); return CompletableFuture.completedFuture(null); });
+        assertEquals(1, this.datasetGenerationExecutor.getQueueDepth(DatasetGenerationPriority.BACKGROUND));
+        assertEquals(2, this.datasetGenerationExecutor.getQueueDepth(DatasetGenerationPriority.SUBSCRIBED));
+
+        // Release the slot and wait for everything to complete
+        blocker.complete(null);
+        CompletableFuture.allOf(background, replacement, subscribed1, subscribed2).get(1, TimeUnit.SECONDS);
+
+        // Test the result
+        assertEquals(List.of("subscribed1", "subscribed2", "replacement", "background"), order);
+        final Timer waitTimer = this.meterRegistry.get("aton.dataset.generation.wait")
+                .tag("priority", DatasetGenerationPriority.SUBSCRIBED.getTag())
+                .timer();
+        assertEquals(2, waitTimer.count());
+    }
+
+    /**
+     * Test that only the configured number of heavy generations can run
+     * concurrently, while the lighter ones can overtake the queued heavy
+     * generations.
+     */
+    @Test
+    void testSubmitHeavyCap() throws Exception {
+        this.datasetGenerationExecutor.destroy();
+        this.datasetGenerationExecutor.poolSize = 2;
+        this.datasetGenerationExecutor.init();
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Void> heavyBlocker = new CompletableFuture<>();
+
+        // Start a heavy generation to take the heavy slot
+        this.datasetGenerationExecutor.submit(UUID.randomUUID(), DatasetGenerationPriority.BACKGROUND, 1000, () -> heavyBlocker);
+
+        // A second heavy one should wait, but a lighter one should not
+        final CompletableFuture<?> heavy = this.datasetGenerationExecutor.submit(UUID.randomUUID(), DatasetGenerationPriority.SUBSCRIBED, 1000,
+                () -> { order.add("heavy"); return CompletableFuture.completedFuture(null); });
+        final CompletableFuture<?> light = this.datasetGenerationExecutor.submit(UUID.randomUUID(), DatasetGenerationPriority.BACKGROUND, 10,
+                () -> { order.add("light"); return CompletableFuture.completedFuture(null); });
+
+        // Test the result
+        light.get(1, TimeUnit.SECONDS);
+        assertFalse(heavy.isDone());
+        assertEquals(1, this.datasetGenerationExecutor.getRunningHeavy());
+        assertEquals(Collections.singletonList("light"), order);
+
+        // Release the heavy slot
+        heavyBlocker.complete(null);
+        heavy.get(1, TimeUnit.SECONDS);
+        assertEquals(List.of("light", "heavy"), order);
+    }
+
+    /**
+     * Test that any queued generations are cancelled when the executor is
+     * shut down.
+     */
+    @Test
+    void testDestroy() {
+        this.datasetGenerationExecutor.submit(UUID.randomUUID(), DatasetGenerationPriority.BACKGROUND, 0, CompletableFuture::new);
+        final CompletableFuture<?> queued = this.datasetGenerationExecutor.submit(UUID.randomUUID(), DatasetGenerationPriority.BACKGROUND, 0,
+                () -> CompletableFuture.completedFuture(null));
+
+        // Perform the component call
+        this.datasetGenerationExecutor.destroy();
+
+        // Test the result
+        assertTrue(queued.isCancelled());
+    }
+
+}
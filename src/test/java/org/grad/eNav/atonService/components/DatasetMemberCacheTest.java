@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.components;
+
+import _int.iho.s125.gml.cs0._1.impl.AidsToNavigationTypeImpl;
+import jakarta.xml.bind.JAXBException;
+import org.grad.eNav.atonService.config.GlobalConfig;
+import org.grad.eNav.atonService.models.domain.s125.*;
+import org.grad.eNav.atonService.utils.S125DatasetBuilder;
+import org.grad.eNav.s125.utils.S125Utils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetMemberCacheTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    DatasetMemberCache datasetMemberCache;
+
+    // Test Variables
+    private GeometryFactory factory;
+    private S125DatasetBuilder s125DatasetBuilder;
+    private S125Dataset s125Dataset;
+    private BigInteger nextId;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        // Create a temp geometry factory to get a test geometries
+        this.factory = new GeometryFactory(new PrecisionModel(), 4326);
+
+        // Get the model mapper configuration from the GlobalConfig
+        this.s125DatasetBuilder = new S125DatasetBuilder(new GlobalConfig().modelMapper(), "urn:mrn:test:s125");
+
+        // Create a dataset to generate the content for
+        this.s125Dataset = new S125Dataset("TestDataset");
+        this.s125Dataset.setUuid(UUID.randomUUID());
+        this.s125Dataset.setGeometry(this.factory.createPoint(new Coordinate(52.98, 2.28)));
+        this.s125Dataset.setCreatedAt(LocalDateTime.now());
+        this.s125Dataset.setLastUpdatedAt(LocalDateTime.now());
+        this.nextId = BigInteger.ZERO;
+
+        // Set the cache size
+        this.datasetMemberCache.maxSize = 2;
+    }
+
+    /**
+     * Test that the unchanged members are reused from the cache, while the
+     * new and changed ones are mapped again.
+     */
+    @Test
+    void testMapMembers() {
+        final Random random = new Random(0);
+        final List<AidsToNavigation> atons = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            atons.add(this.createAidsToNavigation(random));
+        }
+
+        // Map and cache the initial members
+        final List<AidsToNavigationTypeImpl> members = this.datasetMemberCache.mapMembers(this.s125Dataset.getUuid(), atons, this.s125DatasetBuilder::mapAidsToNavigation);
+        this.datasetMemberCache.put(this.s125Dataset.getUuid(), BigInteger.ONE, atons, members);
+
+        // Change one of the AtoNs and map again
+        atons.get(0).getFeatureNames().iterator().next().setName("Changed Name");
+        final List<AidsToNavigationTypeImpl> result = this.datasetMemberCache.mapMembers(this.s125Dataset.getUuid(), atons, this.s125DatasetBuilder::mapAidsToNavigation);
+
+        // Test the result
+        assertEquals(atons.size(), result.size());
+        assertNotSame(members.get(0), result.get(0));
+        for(int i = 1; i < atons.size(); i++) {
+            assertSame(members.get(i), result.get(i));
+        }
+    }
+
+    /**
+     * Test that the cached ID codes are only returned for the dataset
+     * content sequence number they were generated for.
+     */
+    @Test
+    void testGetIdCodes() {
+        final Random random = new Random(0);
+        final List<AidsToNavigation> atons = List.of(this.createAidsToNavigation(random), this.createAidsToNavigation(random));
+        final List<AidsToNavigationTypeImpl> members = this.datasetMemberCache.mapMembers(this.s125Dataset.getUuid(), atons, this.s125DatasetBuilder::mapAidsToNavigation);
+        this.datasetMemberCache.put(this.s125Dataset.getUuid(), BigInteger.ONE, atons, members);
+
+        // Test the result
+        assertEquals(Set.of(atons.get(0).getIdCode(), atons.get(1).getIdCode()), this.datasetMemberCache.getIdCodes(this.s125Dataset.getUuid(), BigInteger.ONE).orElse(null));
+        assertTrue(this.datasetMemberCache.getIdCodes(this.s125Dataset.getUuid(), BigInteger.TWO).isEmpty());
+        assertTrue(this.datasetMemberCache.getIdCodes(UUID.randomUUID(), BigInteger.ONE).isEmpty());
+
+        // Evict the dataset and make sure the ID codes are gone
+        this.datasetMemberCache.evict(this.s125Dataset.getUuid());
+        assertTrue(this.datasetMemberCache.getIdCodes(this.s125Dataset.getUuid(), BigInteger.ONE).isEmpty());
+    }
+
+    /**
+     * Test that the cache remains bounded by evicting the least recently
+     * used datasets.
+     */
+    @Test
+    void testPutBounded() {
+        for(int i = 0; i < 3; i++) {
+            this.datasetMemberCache.put(UUID.randomUUID(), BigInteger.ONE, Collections.emptyList(), Collections.emptyList());
+        }
+
+        // Test the result
+        assertEquals(2, this.datasetMemberCache.size());
+    }
+
+    /**
+     * Test that through a series of random additions, modifications,
+     * relinks and removals of AtoNs, the incrementally generated dataset
+     * content is always byte-identical to the one of a full rebuild.
+     */
+    @Test
+    void testIncrementalGenerationMatchesFullRebuild() throws JAXBException {
+        final Random random = new Random(20240501L);
+        final List<AidsToNavigation> atons = new ArrayList<>();
+        for(int i = 0; i < 20; i++) {
+            atons.add(this.createAidsToNavigation(random));
+        }
+
+        for(int round = 0; round < 25; round++) {
+            // Randomly change the AtoNs
+            this.mutateAidsToNavigation(random, atons);
+
+            // Perform a full rebuild
+            final String fullXml = S125Utils.marshalS125(this.s125DatasetBuilder.packageToDataset(this.s125Dataset, atons), Boolean.TRUE);
+
+            // And an incremental one
+            final List<AidsToNavigationTypeImpl> members = this.datasetMemberCache.mapMembers(this.s125Dataset.getUuid(), atons, this.s125DatasetBuilder::mapAidsToNavigation);
+            final String incrementalXml = S125Utils.marshalS125(this.s125DatasetBuilder.packageToDataset(this.s125Dataset, atons, members), Boolean.TRUE);
+            this.datasetMemberCache.put(this.s125Dataset.getUuid(), BigInteger.valueOf(round), atons, members);
+
+            // Test the result
+            assertEquals(fullXml, incrementalXml, String.format("Incremental generation differs from full rebuild in round %d", round));
+        }
+    }
+
+    /**
+     * Creates a random AtoN, which can be either a structure or an equipment
+     * entry.
+     *
+     * @param random the random generator
+     * @return the random AtoN
+     */
+    private AidsToNavigation createAidsToNavigation(Random random) {
+        final AidsToNavigation aidsToNavigation = random.nextBoolean() ? new BeaconCardinal() : new Light();
+        this.nextId = this.nextId.add(BigInteger.ONE);
+        aidsToNavigation.setId(this.nextId);
+        aidsToNavigation.setIdCode("ID" + this.nextId);
+        aidsToNavigation.setGeometry(this.factory.createPoint(new Coordinate(random.nextDouble() * 10, random.nextDouble() * 10)));
+        aidsToNavigation.setLastModifiedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        // Add the feature name entries
+        final FeatureName featureName = new FeatureName();
+        featureName.setName("Aton No" + this.nextId);
+        aidsToNavigation.setFeatureNames(new HashSet<>(Collections.singleton(featureName)));
+        // Add the information entries
+        final Information information = new Information();
+        information.setText("Description of AtoN No" + this.nextId);
+        aidsToNavigation.setInformations(new HashSet<>(Collections.singleton(information)));
+        return aidsToNavigation;
+    }
+
+    /**
+     * Randomly adds, modifies, relinks and removes the provided AtoNs.
+     *
+     * @param random the random generator
+     * @param atons the AtoNs to be mutated
+     */
+    private void mutateAidsToNavigation(Random random, List<AidsToNavigation> atons) {
+        // Remove some AtoNs
+        for(int i = random.nextInt(3); i > 0 && !atons.isEmpty(); i--) {
+            final AidsToNavigation removed = atons.remove(random.nextInt(atons.size()));
+            if(removed instanceof Equipment equipment && Objects.nonNull(equipment.getParent())) {
+                equipment.getParent().getChildren().remove(equipment);
+                equipment.setParent(null);
+            }
+        }
+
+        // Modify some AtoNs
+        for(AidsToNavigation aton : atons) {
+            switch(random.nextInt(10)) {
+                case 0 -> {
+                    aton.setGeometry(this.factory.createPoint(new Coordinate(random.nextDouble() * 10, random.nextDouble() * 10)));
+                    aton.setLastModifiedAt(aton.getLastModifiedAt().plusSeconds(1));
+                }
+                case 1 -> aton.getFeatureNames().iterator().next().setName("Aton Name " + random.nextInt());
+                case 2 -> aton.getInformations().iterator().next().setText("Description " + random.nextInt());
+                case 3 -> {
+                    if(aton instanceof Equipment equipment) {
+                        atons.stream()
+                                .filter(StructureObject.class::isInstance)
+                                .map(StructureObject.class::cast)
+                                .skip(random.nextInt(atons.size()))
+                                .findFirst()
+                                .ifPresent(structure -> {
+                                    Optional.ofNullable(equipment.getParent())
+                                            .ifPresent(parent -> parent.getChildren().remove(equipment));
+                                    equipment.setParent(structure);
+                                    structure.getChildren().add(equipment);
+                                });
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        // Add some AtoNs at random positions
+        for(int i = random.nextInt(3); i > 0; i--) {
+            atons.add(random.nextInt(atons.size() + 1), this.createAidsToNavigation(random));
+        }
+    }
+
+}
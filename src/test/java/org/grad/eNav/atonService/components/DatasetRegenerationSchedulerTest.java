@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
+import org.grad.eNav.atonService.services.DatasetService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetRegenerationSchedulerTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    DatasetRegenerationScheduler datasetRegenerationScheduler;
+
+    /**
+     * The Dataset Service mock.
+     */
+    @Mock
+    DatasetService datasetService;
+
+    /**
+     * The Meter Registry.
+     */
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Test Variables
+    private UUID uuid;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        this.uuid = UUID.randomUUID();
+
+        // Set the scheduling periods
+        this.datasetRegenerationScheduler.quietPeriod = 100;
+        this.datasetRegenerationScheduler.maxStaleness = 400;
+        this.datasetRegenerationScheduler.init();
+    }
+
+    /**
+     * Stop the scheduler after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        this.datasetRegenerationScheduler.destroy();
+    }
+
+    /**
+     * Test that a burst of requests for the same dataset is merged into a
+     * single content generation.
+     */
+    @Test
+    void testScheduleCoalescing() {
+        doReturn(CompletableFuture.completedFuture(new S125Dataset())).when(this.datasetService).updateDatasetContent(any());
+
+        // Perform the component calls
+        for(int i = 0; i < 5; i++) {
+            this.datasetRegenerationScheduler.schedule(this.uuid);
+        }
+
+        // Test the result
+        assertEquals(1, this.datasetRegenerationScheduler.getQueueDepth());
+        verify(this.datasetService, timeout(1000).times(1)).updateDatasetContent(this.uuid);
+        verify(this.datasetService, after(300).times(1)).updateDatasetContent(any());
+        assertEquals(0, this.datasetRegenerationScheduler.getQueueDepth());
+        assertEquals(0.8, this.datasetRegenerationScheduler.getCoalescingRatio(), 0.0001);
+    }
+
+    /**
+     * Test that requests for different datasets are not merged, but their
+     * content generations are started together as a single batch.
+     */
+    @Test
+    void testScheduleMultipleDatasets() {
+        final UUID otherUuid = UUID.randomUUID();
+        doReturn(Map.of(this.uuid, CompletableFuture.completedFuture(new S125Dataset()),
+                otherUuid, CompletableFuture.completedFuture(new S125Dataset())))
+                .when(this.datasetService).updateDatasetContents(any());
+
+        // Perform the component calls
+        this.datasetRegenerationScheduler.schedule(this.uuid);
+        this.datasetRegenerationScheduler.schedule(otherUuid);
+
+        // Test the result
+        assertEquals(2, this.datasetRegenerationScheduler.getQueueDepth());
+        verify(this.datasetService, timeout(1000).times(1)).updateDatasetContents(Set.of(this.uuid, otherUuid));
+        verify(this.datasetService, never()).updateDatasetContent(any());
+        verify(this.datasetService, after(300).times(1)).updateDatasetContents(any());
+        assertEquals(0, this.datasetRegenerationScheduler.getQueueDepth());
+        assertEquals(0, this.datasetRegenerationScheduler.getRunning());
+    }
+
+    /**
+     * Test that requests for different datasets that are not due within the
+     * same quiet period are not batched together.
+     */
+    @Test
+    void testScheduleMultipleDatasetsNotDue() {
+        final UUID otherUuid = UUID.randomUUID();
+        doReturn(CompletableFuture.completedFuture(new S125Dataset())).when(this.datasetService).updateDatasetContent(any());
+
+        // Perform the component calls
+        this.datasetRegenerationScheduler.schedule(this.uuid);
+        verify(this.datasetService, timeout(1000).times(1)).updateDatasetContent(this.uuid);
+        this.datasetRegenerationScheduler.schedule(otherUuid);
+
+        // Test the result
+        verify(this.datasetService, timeout(1000).times(1)).updateDatasetContent(otherUuid);
+        verify(this.datasetService, never()).updateDatasetContents(any());
+    }
+
+    /**
+     * Test that a dataset receiving constant requests will still get its
+     * content generated once the maximum staleness period is reached.
+     */
+    @Test
+    void testScheduleMaxStaleness() throws InterruptedException {
+        doReturn(CompletableFuture.completedFuture(new S125Dataset())).when(this.datasetService).updateDatasetContent(any());
+
+        // Keep requesting within the quiet period for longer than the staleness
+        for(int i = 0; i < 16; i++) {
+            this.datasetRegenerationScheduler.schedule(this.uuid);
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+
+        // Test the result
+        verify(this.datasetService, atLeastOnce()).updateDatasetContent(this.uuid);
+    }
+
+    /**
+     * Test that while a generation is running for a dataset, at most one
+     * further generation will be pending, and it will only start after the
+     * running one completes.
+     */
+    @Test
+    void testScheduleWhileRunning() {
+        final CompletableFuture<S125Dataset> runningGeneration = new CompletableFuture<>();
+        doReturn(runningGeneration)
+                .doReturn(CompletableFuture.completedFuture(new S125Dataset()))
+                .when(this.datasetService).updateDatasetContent(any());
+
+        // Start the first generation
+        this.datasetRegenerationScheduler.schedule(this.uuid);
+        verify(this.datasetService, timeout(1000).times(1)).updateDatasetContent(this.uuid);
+        assertEquals(1, this.datasetRegenerationScheduler.getRunning());
+
+        // Request more while it is still running
+        this.datasetRegenerationScheduler.schedule(this.uuid);
+        this.datasetRegenerationScheduler.schedule(this.uuid);
+        verify(this.datasetService, after(300).times(1)).updateDatasetContent(this.uuid);
+        assertEquals(1, this.datasetRegenerationScheduler.getQueueDepth());
+
+        // Complete the running generation and the pending one should start
+        runningGeneration.complete(new S125Dataset());
+        verify(this.datasetService, after(300).times(2)).updateDatasetContent(this.uuid);
+        assertEquals(0, this.datasetRegenerationScheduler.getQueueDepth());
+        assertEquals(0, this.datasetRegenerationScheduler.getRunning());
+    }
+
+    /**
+     * Test that the content generations are started without holding the
+     * scheduler lock, so that further requests can be scheduled meanwhile.
+     */
+    @Test
+    void testStartWithoutLock() {
+        final AtomicBoolean lockHeld = new AtomicBoolean(true);
+        doAnswer(inv -> {
+            lockHeld.set(Thread.holdsLock(this.datasetRegenerationScheduler));
+            return CompletableFuture.failedFuture(new RuntimeException("generation failed"));
+        }).when(this.datasetService).updateDatasetContent(any());
+
+        // Perform the component call
+        this.datasetRegenerationScheduler.schedule(this.uuid);
+
+        // Verify that the lock was released, even for an immediate completion
+        verify(this.datasetService, timeout(1000).times(1)).updateDatasetContent(this.uuid);
+        assertFalse(lockHeld.get());
+        verify(this.datasetService, after(300).times(1)).updateDatasetContent(any());
+        assertEquals(0, this.datasetRegenerationScheduler.getRunning());
+    }
+
+}
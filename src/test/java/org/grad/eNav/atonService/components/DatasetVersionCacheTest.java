@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetVersionCacheTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    DatasetVersionCache datasetVersionCache;
+
+    /**
+     * The Meter Registry.
+     */
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        // Set the cache size in characters
+        this.datasetVersionCache.maxSize = 10;
+        this.datasetVersionCache.init();
+    }
+
+    /**
+     * Test that the cached versions are returned for their dataset content
+     * log entry IDs, and the cache metrics are updated.
+     */
+    @Test
+    void testGetAndPut() {
+        this.datasetVersionCache.put(BigInteger.ONE, "<V1/>");
+
+        // Test the result
+        assertEquals("<V1/>", this.datasetVersionCache.get(BigInteger.ONE).orElse(null));
+        assertTrue(this.datasetVersionCache.get(BigInteger.TWO).isEmpty());
+        assertTrue(this.datasetVersionCache.get(null).isEmpty());
+
+        // Replace the version and make sure the weight is updated
+        this.datasetVersionCache.put(BigInteger.ONE, "<V1v2/>");
+        assertEquals("<V1v2/>", this.datasetVersionCache.get(BigInteger.ONE).orElse(null));
+        assertEquals(1, this.datasetVersionCache.size());
+        assertEquals(7, this.datasetVersionCache.getWeight());
+
+        // And check the metrics
+        assertEquals(2.0, this.meterRegistry.get("aton.dataset.version.cache.hits").functionCounter().count());
+        assertEquals(2.0, this.meterRegistry.get("aton.dataset.version.cache.misses").functionCounter().count());
+    }
+
+    /**
+     * Test that the cache remains bounded by the number of cached
+     * characters, evicting the least recently used versions.
+     */
+    @Test
+    void testPutBounded() {
+        this.datasetVersionCache.put(BigInteger.ONE, "<V1111/>");
+        this.datasetVersionCache.put(BigInteger.TWO, "<V2222/>");
+
+        // Test the result
+        assertTrue(this.datasetVersionCache.get(BigInteger.ONE).isEmpty());
+        assertEquals("<V2222/>", this.datasetVersionCache.get(BigInteger.TWO).orElse(null));
+        assertEquals(8, this.datasetVersionCache.getWeight());
+        assertEquals(1, this.datasetVersionCache.size());
+
+        // Versions larger than the whole cache are not cached at all
+        this.datasetVersionCache.put(BigInteger.ONE, "<V1111111111/>");
+        assertTrue(this.datasetVersionCache.get(BigInteger.ONE).isEmpty());
+        assertEquals(1, this.datasetVersionCache.size());
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.components;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
+import org.grad.eNav.atonService.models.domain.s125.BeaconCardinal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class S125FragmentCacheTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    S125FragmentCache s125FragmentCache;
+
+    /**
+     * The Meter Registry.
+     */
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Test Variables
+    private AidsToNavigation aidsToNavigation1;
+    private AidsToNavigation aidsToNavigation2;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        this.aidsToNavigation1 = new BeaconCardinal();
+        this.aidsToNavigation1.setId(BigInteger.ONE);
+        this.aidsToNavigation1.setIdCode("ID1");
+        this.aidsToNavigation1.setLastModifiedAt(LocalDateTime.now());
+        this.aidsToNavigation2 = new BeaconCardinal();
+        this.aidsToNavigation2.setId(BigInteger.TWO);
+        this.aidsToNavigation2.setIdCode("ID2");
+        this.aidsToNavigation2.setLastModifiedAt(LocalDateTime.now());
+
+        // Set the cache size in characters
+        this.s125FragmentCache.maxSize = 10;
+    }
+
+    /**
+     * Clean up the spilled fragments after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        this.s125FragmentCache.destroy();
+    }
+
+    /**
+     * Test that the cached fragments are only returned for the current
+     * fingerprint of each AtoN.
+     */
+    @Test
+    void testGetAndPut() {
+        this.s125FragmentCache.put(this.aidsToNavigation1, "<A1/>");
+
+        // Test the result
+        assertEquals("<A1/>", this.s125FragmentCache.get(this.aidsToNavigation1).orElse(null));
+        assertTrue(this.s125FragmentCache.get(this.aidsToNavigation2).isEmpty());
+
+        // Modify the AtoN and make sure the fragment is no longer valid
+        this.aidsToNavigation1.setLastModifiedAt(this.aidsToNavigation1.getLastModifiedAt().plusSeconds(1));
+        assertTrue(this.s125FragmentCache.get(this.aidsToNavigation1).isEmpty());
+
+        // And replace it with the new one
+        this.s125FragmentCache.put(this.aidsToNavigation1, "<A1v2/>");
+        assertEquals("<A1v2/>", this.s125FragmentCache.get(this.aidsToNavigation1).orElse(null));
+        assertEquals(1, this.s125FragmentCache.size());
+        assertEquals(7, this.s125FragmentCache.getWeight());
+    }
+
+    /**
+     * Test that the cache remains bounded by the number of cached
+     * characters, evicting the least recently used fragments.
+     */
+    @Test
+    void testPutBounded() {
+        this.s125FragmentCache.put(this.aidsToNavigation1, "<A1111/>");
+        this.s125FragmentCache.put(this.aidsToNavigation2, "<A2222/>");
+
+        // Test the result
+        assertTrue(this.s125FragmentCache.get(this.aidsToNavigation1).isEmpty());
+        assertEquals("<A2222/>", this.s125FragmentCache.get(this.aidsToNavigation2).orElse(null));
+        assertEquals(8, this.s125FragmentCache.getWeight());
+        assertEquals(1, this.s125FragmentCache.size());
+    }
+
+    /**
+     * Test that when a spill directory is configured, the evicted fragments
+     * are written to disk and read back when requested.
+     */
+    @Test
+    void testSpillToDisk(@TempDir Path tempDir) throws IOException {
+        this.s125FragmentCache.spillDirectory = tempDir.toString();
+        this.s125FragmentCache.init();
+
+        this.s125FragmentCache.put(this.aidsToNavigation1, "<A1111/>");
+        this.s125FragmentCache.put(this.aidsToNavigation2, "<A2222/>");
+
+        // Make sure the first fragment was spilled to disk
+        try(Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+        assertEquals(2, this.s125FragmentCache.size());
+
+        // And that it can be read back
+        assertEquals("<A1111/>", this.s125FragmentCache.get(this.aidsToNavigation1).orElse(null));
+        try(Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+}
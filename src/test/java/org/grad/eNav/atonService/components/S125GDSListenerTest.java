@@ -46,8 +46,6 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
 import org.springframework.integration.channel.PublishSubscribeChannel;
 import org.springframework.messaging.Message;
 
@@ -87,6 +85,12 @@ class S125GDSListenerTest {
     @Mock
     DatasetService datasetService;
 
+    /**
+     * The Dataset Coverage Index mock.
+     */
+    @Mock
+    DatasetCoverageIndex datasetCoverageIndex;
+
     /**
      * The AtoN Information Channel to publish the published data to.
      */
@@ -211,8 +215,8 @@ class S125GDSListenerTest {
         doReturn(simpleFeatureList.stream().findFirst().orElse(null)).when(featureEvent).feature();
 
         // Add a matching dataset
-        doReturn(new PageImpl<>(Collections.singletonList(this.s125DataSet), Pageable.ofSize(1), 1))
-                .when(this.datasetService).findAll(isNull(), any(), isNull(), isNull(), any(), any());
+        doReturn(Collections.singleton(this.s125DataSet.getUuid()))
+                .when(this.datasetCoverageIndex).findAffectedDatasets(any());
 
         // We need to use the actual Spring model mapper to pick up the type-maps
         this.s125GDSListener.modelMapper = new GlobalConfig().modelMapper();
@@ -223,7 +227,7 @@ class S125GDSListenerTest {
 
         // Verify that our message was saved and sent
         verify(this.atonPublicationChannel, times(1)).send(any(Message.class));
-        verify(this.datasetService, times(1)).findAll(isNull(), any(), isNull(), isNull(), any(), any());
+        verify(this.datasetCoverageIndex, times(1)).findAffectedDatasets(argThat(geometries -> geometries.size() == 1));
         verify(this.datasetService, times(1)).requestDatasetContentUpdate(eq(this.s125DataSet.getUuid()));
     }
 
@@ -259,7 +263,7 @@ class S125GDSListenerTest {
 
         // Verify that our message was not saved or sent
         verify(this.atonPublicationChannel, never()).send(any(Message.class));
-        verify(this.datasetService, never()).findAll(any(), any(), any(), any(), any(), any());
+        verify(this.datasetCoverageIndex, times(1)).findAffectedDatasets(argThat(Collection::isEmpty));
         verify(this.datasetService, never()).requestDatasetContentUpdate(any());
 
     }
@@ -287,8 +291,8 @@ class S125GDSListenerTest {
         doReturn(filter).when(featureEvent).getFilter();
 
         // Add a matching dataset
-        doReturn(new PageImpl<>(Collections.singletonList(this.s125DataSet), Pageable.ofSize(1), 1))
-                .when(this.datasetService).findAll(isNull(), any(), isNull(), isNull(), any(), any());
+        doReturn(Collections.singleton(this.s125DataSet.getUuid()))
+                .when(this.datasetCoverageIndex).findAffectedDatasets(any());
 
         // Init and perform the component call
         this.s125GDSListener.init(this.consumer, this.geomesaData, this.geometry);
@@ -296,7 +300,7 @@ class S125GDSListenerTest {
 
         // Make sure the evaluation works
         verify(this.atonDeletionChannel, times(1)).send(any(Message.class));
-        verify(this.datasetService, times(1)).findAll(isNull(), any(), isNull(), isNull(), any(), any());
+        verify(this.datasetCoverageIndex, times(1)).findAffectedDatasets(argThat(geometries -> geometries.size() == 1));
         verify(this.datasetService, times(1)).requestDatasetContentUpdate(eq(this.s125DataSet.getUuid()));
     }
 
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.components;
+
+import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
+import org.grad.eNav.atonService.models.domain.s125.BeaconCardinal;
+import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
+import org.grad.secom.core.models.enums.SECOM_DataProductType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.MessageHeaders;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpatialQueryCacheTest {
+
+    /**
+     * The Tested Component.
+     */
+    @InjectMocks
+    @Spy
+    SpatialQueryCache spatialQueryCache;
+
+    // Test Variables
+    private GeometryFactory factory;
+    private Polygon polygon;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        // Create a temp geometry factory to get a test geometries
+        this.factory = new GeometryFactory(new PrecisionModel(), 4326);
+        this.polygon = this.factory.createPolygon(new Coordinate[]{
+                new Coordinate(0, 0), new Coordinate(0, 10), new Coordinate(10, 10),
+                new Coordinate(10, 0), new Coordinate(0, 0)
+        });
+
+        // Set the cache size
+        this.spatialQueryCache.maxSize = 2;
+    }
+
+    /**
+     * Test that equivalent geometries and filters result in the same cache
+     * entry, and that the hit ratio is calculated correctly.
+     */
+    @Test
+    void testGetAndPut() {
+        final SpatialQueryCache.Key key = this.spatialQueryCache.createKey(AidsToNavigation.class, this.polygon, null, null);
+        final SpatialQueryCache.Key reversedKey = this.spatialQueryCache.createKey(AidsToNavigation.class, this.polygon.reverse(), null, null);
+
+        // Nothing should be cached at first
+        assertTrue(this.spatialQueryCache.get(key).isEmpty());
+
+        // Cache a result and look it up with an equivalent geometry
+        this.spatialQueryCache.put(key, this.spatialQueryCache.getGeneration(), List.of(BigInteger.ONE, BigInteger.TWO));
+        assertEquals(List.of(BigInteger.ONE, BigInteger.TWO), this.spatialQueryCache.get(reversedKey).orElse(null));
+
+        // Different filters should not match
+        assertTrue(this.spatialQueryCache.get(this.spatialQueryCache.createKey(AidsToNavigation.class, this.polygon, null, Boolean.TRUE)).isEmpty());
+
+        // Check the hit ratio
+        assertEquals(1.0 / 3.0, this.spatialQueryCache.getHitRatio(), 0.0001);
+
+        // Queries without a key cannot be cached and should not be counted
+        assertTrue(this.spatialQueryCache.get(null).isEmpty());
+        assertEquals(1.0 / 3.0, this.spatialQueryCache.getHitRatio(), 0.0001);
+    }
+
+    /**
+     * Test that the cache is bounded and the least recently used entries are
+     * removed first.
+     */
+    @Test
+    void testPutBounded() {
+        final SpatialQueryCache.Key key1 = this.spatialQueryCache.createKey(AidsToNavigation.class, this.polygon, 1);
+        final SpatialQueryCache.Key key2 = this.spatialQueryCache.createKey(AidsToNavigation.class, this.polygon, 2);
+        final SpatialQueryCache.Key key3 = this.spatialQueryCache.createKey(AidsToNavigation.class, this.polygon, 3);
+
+        // Fill in the cache and access the first entry
+        this.spatialQueryCache.put(key1, this.spatialQueryCache.getGeneration(), List.of(BigInteger.ONE));
+        this.spatialQueryCache.put(key2, this.spatialQueryCache.getGeneration(), List.of(BigInteger.TWO));
+        this.spatialQueryCache.get(key1);
+        this.spatialQueryCache.put(key3, this.spatialQueryCache.getGeneration(), List.of(BigInteger.TEN));
+
+        // The second entry should have been removed
+        assertEquals(2, this.spatialQueryCache.size());
+        assertTrue(this.spatialQueryCache.get(key1).isPresent());
+        assertTrue(this.spatialQueryCache.get(key2).isEmpty());
+        assertTrue(this.spatialQueryCache.get(key3).isPresent());
+    }
+
+    /**
+     * Test that results computed before an invalidation are not stored.
+     */
+    @Test
+    void testPutOutdated() {
+        final SpatialQueryCache.Key key = this.spatialQueryCache.createKey(AidsToNavigation.class, this.polygon);
+        final long generation = this.spatialQueryCache.getGeneration();
+
+        // Invalidate the cache while the query is running
+        this.spatialQueryCache.evict(AidsToNavigation.class, BigInteger.TEN, null);
+        this.spatialQueryCache.put(key, generation, List.of(BigInteger.ONE));
+
+        // Nothing should be stored
+        assertEquals(0, this.spatialQueryCache.size());
+    }
+
+    /**
+     * Test that the AtoN publication messages only evict the cached AtoN
+     * results that intersect with or include the published AtoN.
+     */
+    @Test
+    void testHandleAtonMessage() {
+        this.spatialQueryCache.maxSize = 3;
+        final SpatialQueryCache.Key atonKey = this.spatialQueryCache.createKey(AidsToNavigation.class, this.polygon);
+        final SpatialQueryCache.Key otherAtonKey = this.spatialQueryCache.createKey(AidsToNavigation.class, this.factory.createPoint(new Coordinate(50, 50)).buffer(1));
+        final SpatialQueryCache.Key datasetKey = this.spatialQueryCache.createKey(S125Dataset.class, this.polygon);
+        this.spatialQueryCache.put(atonKey, this.spatialQueryCache.getGeneration(), List.of(BigInteger.ONE));
+        this.spatialQueryCache.put(otherAtonKey, this.spatialQueryCache.getGeneration(), List.of(BigInteger.TWO));
+        this.spatialQueryCache.put(datasetKey, this.spatialQueryCache.getGeneration(), List.of(UUID.randomUUID()));
+
+        // Publish a new AtoN inside the polygon
+        final AidsToNavigation aidsToNavigation = new BeaconCardinal();
+        aidsToNavigation.setId(BigInteger.TEN);
+        aidsToNavigation.setGeometry(this.factory.createPoint(new Coordinate(5, 5)));
+        this.spatialQueryCache.handleMessage(MessageBuilder.withPayload(aidsToNavigation)
+                .setHeader(MessageHeaders.CONTENT_TYPE, SECOM_DataProductType.S125)
+                .build());
+
+        // Only the intersecting AtoN entry should be evicted
+        assertTrue(this.spatialQueryCache.get(atonKey).isEmpty());
+        assertTrue(this.spatialQueryCache.get(otherAtonKey).isPresent());
+        assertTrue(this.spatialQueryCache.get(datasetKey).isPresent());
+
+        // Now move the AtoN with ID 2 out of the other area
+        aidsToNavigation.setId(BigInteger.TWO);
+        this.spatialQueryCache.handleMessage(MessageBuilder.withPayload(aidsToNavigation)
+                .setHeader(MessageHeaders.CONTENT_TYPE, SECOM_DataProductType.S125)
+                .build());
+
+        // The entry that included it should be evicted
+        assertTrue(this.spatialQueryCache.get(otherAtonKey).isEmpty());
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.config;
+
+import _int.iho.s125.gml.cs0._1.impl.AidsToNavigationTypeImpl;
+import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
+import org.grad.eNav.atonService.models.domain.s125.S125AtonTypes;
+import org.grad.eNav.atonService.utils.GeometryS125Converter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalConfigTest {
+
+    // Test Variables
+    private ModelMapper modelMapper;
+    private Point point;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        this.modelMapper = new GlobalConfig().modelMapper();
+        this.point = new GeometryFactory(new PrecisionModel(), 4326).createPoint(new Coordinate(1.594, 53.61));
+    }
+
+    /**
+     * Test that the geometries setter can be resolved for all the S-125
+     * Aids to Navigation types.
+     */
+    @Test
+    void testGetGeometriesSetter() {
+        for(S125AtonTypes atonType : S125AtonTypes.values()) {
+            if(atonType == S125AtonTypes.UNKNOWN) {
+                continue;
+            }
+            assertNotNull(GlobalConfig.getGeometriesSetter(atonType.getS125Class()), atonType.getDescription());
+        }
+    }
+
+    /**
+     * Test that no geometries setter is resolved for classes without a
+     * geometries property or with a read-only one.
+     */
+    @Test
+    void testGetGeometriesSetterNotFound() {
+        assertNull(GlobalConfig.getGeometriesSetter(Object.class));
+        assertNull(GlobalConfig.getGeometriesSetter(ReadOnlyGeometries.class));
+    }
+
+    /**
+     * Test that all the S-125 Aids to Navigation types can be mapped to the
+     * S-125 members and back, including their geometries.
+     */
+    @Test
+    void testMapAidsToNavigationTypes() throws ReflectiveOperationException {
+        for(S125AtonTypes atonType : S125AtonTypes.values()) {
+            if(atonType == S125AtonTypes.UNKNOWN) {
+                continue;
+            }
+
+            // Create the local AtoN
+            final AidsToNavigation aton = atonType.getLocalClass().getDeclaredConstructor().newInstance();
+            aton.setId(BigInteger.ONE);
+            aton.setIdCode("test_aton_" + atonType.name());
+            aton.setGeometry(this.point);
+
+            // Map it to the S-125 member
+            final AidsToNavigationTypeImpl member = this.modelMapper.map(aton, atonType.getS125Class());
+            assertEquals("ID-ATON-1", member.getId(), atonType.getDescription());
+            assertEquals(aton.getIdCode(), member.getIdCode(), atonType.getDescription());
+            assertTrue(this.point.equalsExact(new GeometryS125Converter().convertToGeometry(member)), atonType.getDescription());
+
+            // And back to the local AtoN
+            final AidsToNavigation result = this.modelMapper.map(member, atonType.getLocalClass());
+            assertEquals(aton.getIdCode(), result.getIdCode(), atonType.getDescription());
+            assertTrue(this.point.equalsExact(result.getGeometry()), atonType.getDescription());
+        }
+    }
+
+    /**
+     * A class with a read-only geometries property.
+     */
+    public static class ReadOnlyGeometries {
+        public List<Object> getGeometries() {
+            return Collections.emptyList();
+        }
+    }
+
+}
@@ -25,6 +25,7 @@ import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
 import org.grad.eNav.atonService.models.domain.s125.BeaconCardinal;
 import org.grad.eNav.atonService.models.domain.s125.FeatureName;
 import org.grad.eNav.atonService.models.domain.s125.Information;
+import org.grad.eNav.atonService.models.dtos.AidsToNavigationCountsDto;
 import org.grad.eNav.atonService.models.dtos.datatables.*;
 import org.grad.eNav.atonService.models.dtos.s125.AidsToNavigationDto;
 import org.grad.eNav.atonService.models.dtos.s125.FeatureNameDto;
@@ -55,9 +56,11 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -193,6 +196,37 @@ class AidsToNavigationControllerTest {
         }
     }
 
+    /**
+     * Test that we can retrieve the counts of the Aids to Navigation currently
+     * in the database per type, status and geohash cell.
+     */
+    @Test
+    void testGetAidsToNavigationCounts() throws Exception {
+        // Create a counts result to be returned by the mocked service
+        AidsToNavigationCountsDto countsDto = new AidsToNavigationCountsDto();
+        countsDto.setTotal(10L);
+        countsDto.setGeohashPrecision(3);
+        countsDto.setTypes(Map.of("CARDINAL_BEACON", 10L));
+        countsDto.setStatuses(Map.of("PERMANENT", 10L));
+        countsDto.setGeohashes(Map.of("s00", 5L, "s01", 5L));
+        doReturn(countsDto).when(this.aidsToNavigationService).findAllCounts(any(), any(), any(), eq(3));
+
+        // Perform the MVC request
+        MvcResult mvcResult = this.mockMvc.perform(get("/api/atons/counts")
+                        .param("geohashPrecision", "3"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andReturn();
+
+        // Parse and validate the response
+        AidsToNavigationCountsDto result = this.objectMapper.readValue(mvcResult.getResponse().getContentAsString(), AidsToNavigationCountsDto.class);
+        assertEquals(countsDto.getTotal(), result.getTotal());
+        assertEquals(countsDto.getGeohashPrecision(), result.getGeohashPrecision());
+        assertEquals(countsDto.getTypes(), result.getTypes());
+        assertEquals(countsDto.getStatuses(), result.getStatuses());
+        assertEquals(countsDto.getGeohashes(), result.getGeohashes());
+    }
+
     /**
      * Test that the API supports the jQuery Datatables server-side paging
      * and search requests.
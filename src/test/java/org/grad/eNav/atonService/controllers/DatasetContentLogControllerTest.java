@@ -23,6 +23,7 @@ import org.grad.eNav.atonService.TestingConfiguration;
 import org.grad.eNav.atonService.models.domain.DatasetContentLog;
 import org.grad.eNav.atonService.models.dtos.DatasetContentLogDto;
 import org.grad.eNav.atonService.models.dtos.datatables.*;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
 import org.grad.eNav.atonService.models.enums.DatasetOperation;
 import org.grad.eNav.atonService.models.enums.DatasetType;
 import org.grad.eNav.atonService.services.DatasetContentLogService;
@@ -46,6 +47,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -55,10 +57,13 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = DatasetContentLogController.class, excludeAutoConfiguration = {SecurityAutoConfiguration.class})
@@ -112,9 +117,9 @@ class DatasetContentLogControllerTest {
         this.datasetContentLog.setGeneratedAt(LocalDateTime.now());
         this.datasetContentLog.setGeometry(factory.createPoint(new Coordinate(1, 1)));
         this.datasetContentLog.setOperation(DatasetOperation.UPDATED);
-        this.datasetContentLog.setContent("Dataset Content Log");
+        this.datasetContentLog.setContent("Dataset Content Log", DatasetContentCompression.GZIP);
         this.datasetContentLog.setContentLength(BigInteger.valueOf(this.datasetContentLog.getContent().length()));
-        this.datasetContentLog.setDelta("Dataset Content Log Delta");
+        this.datasetContentLog.setDelta("Dataset Content Log Delta", DatasetContentCompression.GZIP);
         this.datasetContentLog.setDeltaLength(BigInteger.valueOf(this.datasetContentLog.getDelta().length()));
 
         // Initialise the dataset content log list
@@ -127,9 +132,9 @@ class DatasetContentLogControllerTest {
             datasetContentLog.setGeneratedAt(LocalDateTime.now());
             datasetContentLog.setGeometry(factory.createPoint(new Coordinate(i%180, i%90)));
             datasetContentLog.setOperation(DatasetOperation.UPDATED);
-            datasetContentLog.setContent("Existing Dataset Content " + i);
+            datasetContentLog.setContent("Existing Dataset Content " + i, DatasetContentCompression.GZIP);
             datasetContentLog.setContentLength(BigInteger.valueOf(datasetContentLog.getContent().length()));
-            datasetContentLog.setDelta("Dataset Content Log Delta " + i);
+            datasetContentLog.setDelta("Dataset Content Log Delta " + i, DatasetContentCompression.GZIP);
             datasetContentLog.setDeltaLength(BigInteger.valueOf(datasetContentLog.getDelta().length()));
             this.datasetContentLogList.add(datasetContentLog);
         }
@@ -143,9 +148,14 @@ class DatasetContentLogControllerTest {
     void getDatasetContentLogData() throws Exception {
         // Created a result page to be returned by the mocked service
         doReturn(datasetContentLog).when(this.datasetContentLogService).findOne(any());
+        doAnswer(inv -> this.datasetContentLog.getContentInputStream().transferTo(inv.getArgument(1, OutputStream.class)))
+                .when(this.datasetContentLogService).transferContent(any(), any());
 
         // Perform the MVC request
-        MvcResult mvcResult = this.mockMvc.perform(get("/api/datasetcontentlog/" + this.datasetContentLog.getId() + "/data"))
+        MvcResult asyncResult = this.mockMvc.perform(get("/api/datasetcontentlog/" + this.datasetContentLog.getId() + "/data"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult mvcResult = this.mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
                 .andReturn();
@@ -164,9 +174,14 @@ class DatasetContentLogControllerTest {
     void getDatasetContentLogDelta() throws Exception {
         // Created a result page to be returned by the mocked service
         doReturn(datasetContentLog).when(this.datasetContentLogService).findOne(any());
+        doAnswer(inv -> this.datasetContentLog.getDeltaInputStream().transferTo(inv.getArgument(1, OutputStream.class)))
+                .when(this.datasetContentLogService).transferDelta(any(), any());
 
         // Perform the MVC request
-        MvcResult mvcResult = this.mockMvc.perform(get("/api/datasetcontentlog/" + this.datasetContentLog.getId() + "/delta"))
+        MvcResult asyncResult = this.mockMvc.perform(get("/api/datasetcontentlog/" + this.datasetContentLog.getId() + "/delta"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult mvcResult = this.mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
                 .andReturn();
@@ -26,6 +26,9 @@ import org.grad.eNav.atonService.components.SecomSignatureProviderImpl;
 import org.grad.eNav.atonService.models.domain.DatasetContent;
 import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
 import org.grad.eNav.atonService.models.domain.secom.SubscriptionRequest;
+import org.grad.eNav.atonService.models.dtos.s125.S125DataSetSummaryDto;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
+import org.grad.eNav.atonService.services.DatasetContentLogService;
 import org.grad.eNav.atonService.services.DatasetService;
 import org.grad.eNav.atonService.services.S100ExchangeSetService;
 import org.grad.eNav.atonService.services.UnLoCodeService;
@@ -64,6 +67,7 @@ import reactor.core.publisher.Mono;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.security.PublicKey;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
@@ -109,6 +113,12 @@ class SecomControllerTest {
     @MockBean
     DatasetService datasetService;
 
+    /**
+     * The Dataset Content Log Service mock.
+     */
+    @MockBean
+    DatasetContentLogService datasetContentLogService;
+
     /**
      * The SECOM Exchange Set Service.
      */
@@ -211,7 +221,7 @@ class SecomControllerTest {
         this.datasetContent = new DatasetContent();
         this.datasetContent.setId(BigInteger.ONE);
         this.datasetContent.setGeneratedAt(LocalDateTime.now());
-        this.datasetContent.setContent(this.s125DataSetAsXml);
+        this.datasetContent.setContent(this.s125DataSetAsXml, DatasetContentCompression.GZIP);
         this.datasetContent.setContentLength(BigInteger.valueOf(this.s125DataSetAsXml.length()));
         this.s125DataSet.setDatasetContent(this.datasetContent);
 
@@ -291,8 +301,16 @@ class SecomControllerTest {
      */
     @Test
     void testGetSummary() {
-        doReturn(new PageImpl<>(Collections.singletonList(this.s125DataSet), Pageable.ofSize(this.queryPageSize), 1))
-                .when(this.datasetService).findAll(any(), any(), any(), any(), any(), any());
+        final S125DataSetSummaryDto s125DataSetSummary = new S125DataSetSummaryDto(
+                this.s125DataSet.getUuid(),
+                this.s125DataSet.getDatasetIdentificationInformation().getProductEdition(),
+                this.s125DataSet.getDatasetIdentificationInformation().getDatasetFileIdentifier(),
+                this.s125DataSet.getDatasetIdentificationInformation().getDatasetTitle(),
+                this.s125DataSet.getDatasetIdentificationInformation().getDatasetAbstract(),
+                this.s125DataSet.getLastUpdatedAt(),
+                this.s125DataSet.getDatasetContent().getContentLength());
+        doReturn(new PageImpl<>(Collections.singletonList(s125DataSetSummary), Pageable.ofSize(this.queryPageSize), 1))
+                .when(this.datasetService).findAllSummaries(any(), any(), any(), any(), any(), any());
 
          webTestClient.get()
                 .uri(uriBuilder -> uriBuilder
@@ -463,6 +481,56 @@ class SecomControllerTest {
                 });
     }
 
+    /**
+     * Test that the SECOM Get interface returns the S-125 datasets as they
+     * were at the requested valid to time, if that is in the past.
+     */
+    @Test
+    void testGetHistoric() throws CertificateEncodingException, IOException {
+        // Mock the SECOM library certificate and signature providers
+        X509Certificate mockCertificate = mock(X509Certificate.class);
+        doReturn("certificate".getBytes()).when(mockCertificate).getEncoded();
+        PublicKey mockPublicKey = mock(PublicKey.class);
+        doReturn(mockPublicKey).when(mockCertificate).getPublicKey();
+        X509Certificate mockRootCertificate = mock(X509Certificate.class);
+        doReturn("rootCertificate".getBytes()).when(mockRootCertificate).getEncoded();
+        DigitalSignatureCertificate digitalSignatureCertificate = new DigitalSignatureCertificate();
+        digitalSignatureCertificate.setCertificateAlias("secom");
+        digitalSignatureCertificate.setCertificate(mockCertificate);
+        digitalSignatureCertificate.setPublicKey(mockPublicKey);
+        digitalSignatureCertificate.setRootCertificate(mockRootCertificate);
+        doReturn(digitalSignatureCertificate).when(this.secomCertificateProvider).getDigitalSignatureCertificate();
+        doReturn(DigitalSignatureAlgorithmEnum.SHA3_384_WITH_ECDSA).when(this.secomSignatureProvider).getSignatureAlgorithm();
+        doReturn("signature".getBytes()).when(this.secomSignatureProvider).generateSignature(any(), any(), any());
+
+        // Mock the rest
+        final LocalDateTime historicValidTo = LocalDateTime.of(2020, 1, 1, 0, 0, 0);
+        doReturn(new PageImpl<>(Collections.singletonList(this.s125DataSet), Pageable.ofSize(this.queryPageSize), 1))
+                .when(this.datasetService).findAll(any(), any(), any(), any(), any(), any());
+        doReturn("historicContent Ελληνικά").when(this.datasetContentLogService).reconstructForUuid(this.s125DataSet.getUuid(), historicValidTo);
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/secom" + GET_INTERFACE_PATH)
+                        .queryParam("dataReference", this.queryDataReference)
+                        .queryParam("containerType", this.queryContainerType.getValue())
+                        .queryParam("dataProductType", this.queryDataProductType)
+                        .queryParam("validFrom", DateTimeFormatter.ofPattern(SECOM_DATE_TIME_FORMAT).format(this.queryValidFrom))
+                        .queryParam("validTo", DateTimeFormatter.ofPattern(SECOM_DATE_TIME_FORMAT).format(historicValidTo))
+                        .build())
+                .header(SecomRequestHeaders.MRN_HEADER, "mrn")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(GetResponseObject.class)
+                .consumeWith(response -> {
+                    GetResponseObject getResponseObject = response.getResponseBody();
+                    assertNotNull(getResponseObject);
+                    assertNotNull(getResponseObject.getDataResponseObject());
+                    assertEquals(1, getResponseObject.getDataResponseObject().size());
+                    assertEquals("historicContent Ελληνικά", new String(Base64.getDecoder().decode(getResponseObject.getDataResponseObject().getFirst().getData()), StandardCharsets.UTF_8));
+                });
+    }
+
     /**
      * Test that the SECOM Get interface is configured properly and also
      * supports S-100 Exchange Sets if requested.
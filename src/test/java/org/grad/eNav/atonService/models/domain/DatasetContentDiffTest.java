@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.models.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetContentDiffTest {
+
+    // Test Variables
+    private LocalDateTime generatedAt;
+    private List<DatasetContentMember> manifest;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setup() {
+        this.generatedAt = LocalDateTime.now();
+
+        // Initialise the manifest
+        this.manifest = new ArrayList<>();
+        for(long i=0; i<5; i++) {
+            this.manifest.add(new DatasetContentMember("ID" + i, BigInteger.valueOf(i), this.generatedAt.minusHours(1), "checksum" + i));
+        }
+    }
+
+    /**
+     * Test that the difference between two identical manifests is empty.
+     */
+    @Test
+    void testBetweenIdentical() {
+        final DatasetContentDiff diff = DatasetContentDiff.between(this.manifest, new ArrayList<>(this.manifest), this.generatedAt);
+
+        // Test the result
+        assertTrue(diff.isEmpty());
+        assertTrue(diff.getChangedMembers().isEmpty());
+    }
+
+    /**
+     * Test that the added, updated and removed members are detected by
+     * matching the ID codes and comparing the content hashes of the
+     * members.
+     */
+    @Test
+    void testBetween() {
+        final List<DatasetContentMember> current = new ArrayList<>(this.manifest);
+        current.remove(0);
+        current.set(1, new DatasetContentMember("ID2", BigInteger.TWO, this.generatedAt.minusHours(1), "changed"));
+        current.add(new DatasetContentMember("ID5", BigInteger.valueOf(5), this.generatedAt.plusHours(1), "checksum5"));
+
+        // Perform the diff
+        final DatasetContentDiff diff = DatasetContentDiff.between(this.manifest, current, this.generatedAt);
+
+        // Test the result
+        assertFalse(diff.isEmpty());
+        assertEquals(1, diff.added().size());
+        assertEquals("ID5", diff.added().get(0).idCode());
+        assertEquals(1, diff.updated().size());
+        assertEquals("ID2", diff.updated().get(0).idCode());
+        assertEquals(1, diff.removed().size());
+        assertEquals(this.manifest.get(0), diff.removed().get(0));
+        assertEquals(Set.of(current.get(1), current.get(4)), diff.getChangedMembers());
+    }
+
+    /**
+     * Test that when the previous members do not include a content hash,
+     * the updated members are the ones modified after the previous content
+     * was generated.
+     */
+    @Test
+    void testBetweenWithoutContentHash() {
+        final List<DatasetContentMember> previous = this.manifest.stream()
+                .map(member -> new DatasetContentMember(member.idCode(), null, null, null))
+                .toList();
+        final List<DatasetContentMember> current = new ArrayList<>(this.manifest);
+        current.set(3, new DatasetContentMember("ID3", BigInteger.valueOf(3), this.generatedAt.plusMinutes(1), "checksum3"));
+
+        // Perform the diff
+        final DatasetContentDiff diff = DatasetContentDiff.between(previous, current, this.generatedAt);
+
+        // Test the result
+        assertTrue(diff.added().isEmpty());
+        assertEquals(1, diff.updated().size());
+        assertEquals("ID3", diff.updated().get(0).idCode());
+        assertTrue(diff.removed().isEmpty());
+    }
+
+    /**
+     * Test that without any previous members, all the current members are
+     * considered added, and without any current members, all the previous
+     * ones are considered removed.
+     */
+    @Test
+    void testBetweenEmpty() {
+        final DatasetContentDiff addedDiff = DatasetContentDiff.between(Collections.emptyList(), this.manifest, null);
+        assertEquals(this.manifest, addedDiff.added());
+        assertTrue(addedDiff.updated().isEmpty());
+        assertTrue(addedDiff.removed().isEmpty());
+
+        final DatasetContentDiff removedDiff = DatasetContentDiff.between(this.manifest, Collections.emptyList(), this.generatedAt);
+        assertTrue(removedDiff.added().isEmpty());
+        assertTrue(removedDiff.updated().isEmpty());
+        assertEquals(this.manifest, removedDiff.removed());
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.models.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetContentManifestConverterTest {
+
+    // Test Variables
+    private DatasetContentManifestConverter converter;
+    private List<DatasetContentMember> manifest;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setup() {
+        this.converter = new DatasetContentManifestConverter();
+
+        // Initialise the manifest
+        this.manifest = new ArrayList<>();
+        for(long i=0; i<100; i++) {
+            this.manifest.add(new DatasetContentMember("ID" + i, BigInteger.valueOf(i), LocalDateTime.now(), "checksum" + i));
+        }
+        // Add an entry with null values
+        this.manifest.add(new DatasetContentMember(null, null, null, null));
+    }
+
+    /**
+     * Test that the dataset content manifest can be converted into its
+     * compressed binary representation and back without any loss.
+     */
+    @Test
+    void testConvertRoundTrip() {
+        final byte[] data = this.converter.convertToDatabaseColumn(this.manifest);
+
+        // Test the result
+        assertNotNull(data);
+        assertEquals(this.manifest, this.converter.convertToEntityAttribute(data));
+    }
+
+    /**
+     * Test that empty and null manifests are converted correctly.
+     */
+    @Test
+    void testConvertEmptyAndNull() {
+        assertEquals(Collections.emptyList(), this.converter.convertToEntityAttribute(this.converter.convertToDatabaseColumn(Collections.emptyList())));
+        assertNull(this.converter.convertToDatabaseColumn(null));
+        assertNull(this.converter.convertToEntityAttribute(null));
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.models.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetContentMemberTest {
+
+    // Test Variables
+    private List<DatasetContentMember> manifest;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setup() {
+        // Initialise the manifest
+        this.manifest = new ArrayList<>();
+        for(long i=0; i<10; i++) {
+            this.manifest.add(new DatasetContentMember("ID" + i, BigInteger.valueOf(i), LocalDateTime.now(), "checksum" + i));
+        }
+    }
+
+    /**
+     * Test that the canonical hash of a manifest does not depend on the
+     * order of its members, or on the member fields other than their ID
+     * codes and content hashes.
+     */
+    @Test
+    void testCanonicalHash() {
+        final List<DatasetContentMember> other = new ArrayList<>(this.manifest.stream()
+                .map(member -> new DatasetContentMember(member.idCode(), null, LocalDateTime.now().plusDays(1), member.contentHash()))
+                .toList());
+        Collections.reverse(other);
+
+        // Test the result
+        assertNotNull(DatasetContentMember.canonicalHash(this.manifest));
+        assertEquals(DatasetContentMember.canonicalHash(this.manifest), DatasetContentMember.canonicalHash(other));
+    }
+
+    /**
+     * Test that the canonical hash of a manifest changes when any of its
+     * members is added, removed or changed.
+     */
+    @Test
+    void testCanonicalHashChanged() {
+        final String canonicalHash = DatasetContentMember.canonicalHash(this.manifest);
+
+        // Change a member
+        final List<DatasetContentMember> changed = new ArrayList<>(this.manifest);
+        changed.set(3, new DatasetContentMember("ID3", BigInteger.valueOf(3), LocalDateTime.now(), "changed"));
+        assertNotEquals(canonicalHash, DatasetContentMember.canonicalHash(changed));
+
+        // Remove a member
+        assertNotEquals(canonicalHash, DatasetContentMember.canonicalHash(this.manifest.subList(1, this.manifest.size())));
+
+        // Add a member
+        final List<DatasetContentMember> added = new ArrayList<>(this.manifest);
+        added.add(new DatasetContentMember("ID10", BigInteger.TEN, LocalDateTime.now(), "checksum10"));
+        assertNotEquals(canonicalHash, DatasetContentMember.canonicalHash(added));
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.models.domain.s125;
+
+import org.grad.eNav.atonService.models.domain.DatasetContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class S125DatasetTest {
+
+    // Test Variables
+    private S125Dataset s125Dataset;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setup() {
+        this.s125Dataset = new S125Dataset("TestDataset");
+        this.s125Dataset.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        this.s125Dataset.setLastUpdatedAt(LocalDateTime.of(2024, 2, 1, 12, 0));
+        this.s125Dataset.setCancelled(Boolean.FALSE);
+    }
+
+    /**
+     * Test that the validity interval of a dataset starts at the earliest of
+     * its reference date and its content generation time.
+     */
+    @Test
+    void testValidFrom() {
+        this.s125Dataset.getDatasetIdentificationInformation().setDatasetReferenceDate(LocalDate.of(2024, 1, 10));
+        assertEquals(LocalDateTime.of(2024, 1, 10, 0, 0), this.s125Dataset.getValidFrom());
+
+        // Add a content generated before the reference date
+        final DatasetContent datasetContent = new DatasetContent();
+        datasetContent.setGeneratedAt(LocalDateTime.of(2024, 1, 5, 8, 30));
+        this.s125Dataset.setDatasetContent(datasetContent);
+        assertEquals(LocalDateTime.of(2024, 1, 5, 8, 30), this.s125Dataset.getValidFrom());
+    }
+
+    /**
+     * Test that the validity interval of a dataset falls back to the creation
+     * time when no reference date or content is available.
+     */
+    @Test
+    void testValidFromWithoutReferences() {
+        this.s125Dataset.getDatasetIdentificationInformation().setDatasetReferenceDate(null);
+        assertEquals(this.s125Dataset.getCreatedAt(), this.s125Dataset.getValidFrom());
+    }
+
+    /**
+     * Test that the validity interval of a dataset is open-ended unless the
+     * dataset has been cancelled.
+     */
+    @Test
+    void testValidTo() {
+        assertNull(this.s125Dataset.getValidTo());
+
+        // Cancel the dataset
+        this.s125Dataset.setCancelled(Boolean.TRUE);
+        assertEquals(this.s125Dataset.getLastUpdatedAt(), this.s125Dataset.getValidTo());
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.models.enums;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetContentCompressionTest {
+
+    // Test Variables
+    private String content;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        this.content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><Dataset>" +
+                "<member>Ελληνικά</member>".repeat(100) +
+                "</Dataset>";
+    }
+
+    /**
+     * Test that the contents stored in the GZIP format are compressed and
+     * can be restored to their original form.
+     */
+    @Test
+    void testGzip() {
+        final byte[] stored = DatasetContentCompression.GZIP.compress(this.content);
+
+        // Test the result
+        assertNotNull(stored);
+        assertTrue(stored.length < this.content.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(DatasetContentCompression.GZIP, DatasetContentCompression.detect(stored));
+        assertEquals(this.content, DatasetContentCompression.decompress(stored));
+    }
+
+    /**
+     * Test that the contents stored without compression are stored as UTF-8
+     * text and can be restored to their original form.
+     */
+    @Test
+    void testNone() {
+        final byte[] stored = DatasetContentCompression.NONE.compress(this.content);
+
+        // Test the result
+        assertArrayEquals(this.content.getBytes(StandardCharsets.UTF_8), stored);
+        assertEquals(DatasetContentCompression.NONE, DatasetContentCompression.detect(stored));
+        assertEquals(this.content, DatasetContentCompression.decompress(stored));
+    }
+
+    /**
+     * Test that the stored contents can be streamed back in their original
+     * form, in all storage formats.
+     */
+    @Test
+    void testStreams() throws IOException {
+        for(DatasetContentCompression compression : DatasetContentCompression.values()) {
+            final byte[] stored = compression.compress(this.content);
+
+            // Test the input stream
+            try(InputStream inputStream = DatasetContentCompression.newInputStream(stored)) {
+                assertEquals(this.content, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            // Test the reader
+            try(Reader reader = DatasetContentCompression.newReader(stored)) {
+                final StringWriter writer = new StringWriter();
+                reader.transferTo(writer);
+                assertEquals(this.content, writer.toString());
+            }
+
+            // Test the input stream over a stored input stream
+            try(InputStream inputStream = DatasetContentCompression.newInputStream(new ByteArrayInputStream(stored))) {
+                assertEquals(this.content, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertNull(DatasetContentCompression.newInputStream((byte[]) null));
+        assertNull(DatasetContentCompression.newInputStream((InputStream) null));
+        assertNull(DatasetContentCompression.newReader((byte[]) null));
+        assertNull(DatasetContentCompression.newReader((InputStream) null));
+    }
+
+    /**
+     * Test that null and empty contents are handled in all storage formats.
+     */
+    @Test
+    void testNullAndEmpty() {
+        for(DatasetContentCompression compression : DatasetContentCompression.values()) {
+            assertNull(compression.compress(null));
+            assertEquals("", DatasetContentCompression.decompress(compression.compress("")));
+        }
+        assertNull(DatasetContentCompression.decompress(null));
+        assertEquals(DatasetContentCompression.NONE, DatasetContentCompression.detect(new byte[0]));
+    }
+
+}
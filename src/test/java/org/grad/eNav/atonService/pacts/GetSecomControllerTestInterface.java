@@ -22,6 +22,7 @@ import org.grad.eNav.atonService.feign.CKeeperClient;
 import org.grad.eNav.atonService.models.domain.DatasetContent;
 import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
 import org.grad.eNav.atonService.models.dtos.SignatureCertificateDto;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
 import org.grad.eNav.atonService.services.DatasetService;
 import org.grad.eNav.atonService.services.UnLoCodeService;
 import org.grad.secom.core.utils.SecomPemUtils;
@@ -102,7 +103,7 @@ public interface GetSecomControllerTestInterface {
 
         // Put some content in the dataset
         final DatasetContent datasetContent = new DatasetContent();
-        datasetContent.setContent(s125Data);
+        datasetContent.setContent(s125Data, DatasetContentCompression.GZIP);
         s125Dataset.setDatasetContent(datasetContent);
 
         // Mock the service responses
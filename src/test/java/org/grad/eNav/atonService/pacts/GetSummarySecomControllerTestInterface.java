@@ -17,14 +17,14 @@
 package org.grad.eNav.atonService.pacts;
 
 import au.com.dius.pact.provider.junitsupport.State;
-import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
+import org.grad.eNav.atonService.models.dtos.s125.S125DataSetSummaryDto;
 import org.grad.eNav.atonService.services.DatasetService;
 import org.grad.eNav.atonService.services.UnLoCodeService;
-import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigInteger;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Map;
@@ -70,17 +70,18 @@ public interface GetSummarySecomControllerTestInterface {
      */
     @State("Test SECOM Get Summary Interface") // Method will be run before testing interactions that require "with-data" state
     default void testSecomGetSummarySuccess(Map<?,?> data) {
-        // Create a new dataset for testing
-        S125Dataset s125Dataset = new S125Dataset("TestDataset");
-        s125Dataset.setUuid(UUID.randomUUID());
-        s125Dataset.setGeometry(this.getGeometryFactory().createPoint(new Coordinate(52.98, 2.28)));
-        s125Dataset.setLastUpdatedAt(LocalDateTime.now());
-        s125Dataset.setCancelled(false);
+        // Create a new dataset summary for testing
+        S125DataSetSummaryDto s125DatasetSummary = new S125DataSetSummaryDto();
+        s125DatasetSummary.setUuid(UUID.randomUUID());
+        s125DatasetSummary.setDatasetTitle("TestDataset");
+        s125DatasetSummary.setDatasetFileIdentifier("TestDataset");
+        s125DatasetSummary.setLastUpdatedAt(LocalDateTime.now());
+        s125DatasetSummary.setContentLength(BigInteger.ZERO);
 
         // Mock the service responses
-        doReturn(new PageImpl<>(Collections.singletonList(s125Dataset), Pageable.ofSize(1), 1))
+        doReturn(new PageImpl<>(Collections.singletonList(s125DatasetSummary), Pageable.ofSize(1), 1))
                 .when(this.getDatasetService())
-                .findAll(any(), any(), any(), any(), any(), any());
+                .findAllSummaries(any(), any(), any(), any(), any(), any());
 
         // And proceed with the testing
         System.out.println("Service now checking the get summary interface with " + data);
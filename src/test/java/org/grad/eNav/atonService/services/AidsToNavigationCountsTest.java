@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.grad.eNav.atonService.services;
+
+import _int.iho.s125.gml.cs0._1.StatusType;
+import org.grad.eNav.atonService.TestingConfiguration;
+import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
+import org.grad.eNav.atonService.models.domain.s125.BuoyEmergencyWreckMarking;
+import org.grad.eNav.atonService.models.domain.s125.Pile;
+import org.grad.eNav.atonService.models.domain.s125.RadioStation;
+import org.grad.eNav.atonService.models.dtos.AidsToNavigationCountsDto;
+import org.grad.eNav.atonService.repos.AidsToNavigationRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource("classpath:application.properties")
+@Import(TestingConfiguration.class)
+class AidsToNavigationCountsTest {
+
+    /**
+     * The Aids to Navigation Repository.
+     */
+    @Autowired
+    AidsToNavigationRepo aidsToNavigationRepo;
+
+    /**
+     * The Aids to Navigation Service.
+     */
+    @Autowired
+    AidsToNavigationService aidsToNavigationService;
+
+    // Test Variables
+    private GeometryFactory factory;
+    private List<AidsToNavigation> aidsToNavigationList;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        this.factory = new GeometryFactory(new PrecisionModel(), 4326);
+
+        // Create a pile, which does not carry a status
+        final Pile pile = new Pile();
+        pile.setIdCode("counts-test-pile");
+        pile.setGeometry(this.factory.createPoint(new Coordinate(-40.1, -40.1)));
+
+        // Create a radio station, which carries a single status
+        final RadioStation radioStation = new RadioStation();
+        radioStation.setIdCode("counts-test-radio-station");
+        radioStation.setGeometry(this.factory.createPoint(new Coordinate(-40.2, -40.2)));
+        radioStation.setStatus(StatusType.PERMANENT);
+
+        // Create an emergency wreck marking buoy, which carries multiple statuses
+        final BuoyEmergencyWreckMarking buoy = new BuoyEmergencyWreckMarking();
+        buoy.setIdCode("counts-test-emergency-wreck-marking");
+        buoy.setGeometry(this.factory.createPoint(new Coordinate(-40.3, -40.3)));
+        buoy.setStatuses(List.of(StatusType.TEMPORARY, StatusType.PERMANENT));
+
+        this.aidsToNavigationList = this.aidsToNavigationRepo.saveAllAndFlush(List.of(pile, radioStation, buoy));
+    }
+
+    /**
+     * Clean up after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        this.aidsToNavigationRepo.deleteAll(this.aidsToNavigationList);
+    }
+
+    /**
+     * Test that the counts of the Aids to Navigation are aggregated from the
+     * index for the types that carry a single status (i.e. the radio
+     * stations) or no status at all (i.e. the piles), alongside the types
+     * carrying multiple statuses.
+     */
+    @Test
+    void testFindAllCounts() {
+        // Perform the service call in the area of the test entries only
+        final AidsToNavigationCountsDto result = this.aidsToNavigationService.findAllCounts(
+                this.factory.toGeometry(new Envelope(-41, -40, -41, -40)),
+                null,
+                null,
+                1);
+
+        // Test the result
+        assertNotNull(result);
+        assertEquals(3L, result.getTotal());
+        assertEquals(1L, result.getTypes().get("PILE"));
+        assertEquals(1L, result.getTypes().get("RADIO_STATION"));
+        assertEquals(2L, result.getStatuses().get("PERMANENT"));
+        assertEquals(1L, result.getStatuses().get("TEMPORARY"));
+        assertEquals(3L, result.getGeohashes().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+}
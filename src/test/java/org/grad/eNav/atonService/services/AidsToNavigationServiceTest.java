@@ -17,11 +17,13 @@
 package org.grad.eNav.atonService.services;
 
 import jakarta.persistence.EntityManager;
+import org.grad.eNav.atonService.components.SpatialQueryCache;
 import org.grad.eNav.atonService.exceptions.DataNotFoundException;
 import org.grad.eNav.atonService.models.domain.s125.AidsToNavigation;
 import org.grad.eNav.atonService.models.domain.s125.BeaconCardinal;
 import org.grad.eNav.atonService.models.domain.s125.FeatureName;
 import org.grad.eNav.atonService.models.domain.s125.Information;
+import org.grad.eNav.atonService.models.dtos.AidsToNavigationCountsDto;
 import org.grad.eNav.atonService.models.dtos.datatables.*;
 import org.grad.eNav.atonService.repos.AidsToNavigationRepo;
 import org.hibernate.search.engine.search.query.SearchQuery;
@@ -45,6 +47,7 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -86,6 +89,12 @@ class AidsToNavigationServiceTest {
     @Mock
     AidsToNavigationRepo aidsToNavigationRepo;
 
+    /**
+     * The Spatial Query Cache mock.
+     */
+    @Mock
+    SpatialQueryCache spatialQueryCache;
+
     // Test Variables
     private List<AidsToNavigation> aidsToNavigationList;
     private Pageable pageable;
@@ -176,6 +185,10 @@ class AidsToNavigationServiceTest {
         assertNotNull(result);
         assertEquals(5, result.getSize());
 
+        // Paged queries cannot be cached, so the cache should not be used
+        verify(this.spatialQueryCache, never()).get(any());
+        verify(this.spatialQueryCache, never()).put(any(), anyLong(), any());
+
         // Test each of the result entries
         for(int i=0; i < result.getSize(); i++){
             assertEquals(this.aidsToNavigationList.get(i).getId(), result.getContent().get(i).getId());
@@ -220,6 +233,41 @@ class AidsToNavigationServiceTest {
         assertEquals(10, result);
     }
 
+    /**
+     * Test that we can retrieve the counts of the Aids to Navigation matching
+     * the provided criteria, per type, status and geohash cell, directly from
+     * the search aggregations.
+     */
+    @Test
+    void testFindAllCounts() {
+        // Mock the aggregation query
+        SearchQuery<AidsToNavigation> mockedQuery = mock(SearchQuery.class);
+        SearchResult<AidsToNavigation> searchResult = mock(SearchResult.class);
+        SearchResultTotal searchResultTotal = mock(SearchResultTotal.class);
+        doReturn(searchResult).when(mockedQuery).fetch(0);
+        doReturn(searchResultTotal).when(searchResult).total();
+        doReturn(10L).when(searchResultTotal).hitCount();
+        doReturn(Map.of("CARDINAL_BEACON", 10L)).when(searchResult).aggregation(AidsToNavigationService.TYPES_AGGREGATION);
+        doReturn(Map.of("PERMANENT", 6L, "TEMPORARY", 4L)).when(searchResult).aggregation(AidsToNavigationService.STATUSES_AGGREGATION);
+        doReturn(Map.of("s0", 4L, "s1", 6L)).when(searchResult).aggregation(AidsToNavigationService.GEOHASHES_AGGREGATION);
+        doReturn(mockedQuery).when(this.aidsToNavigationService).getAidsToNavigationCountsQuery(any(), any(), any(), anyInt());
+
+        // Perform the service call with an unsupported precision
+        AidsToNavigationCountsDto result = this.aidsToNavigationService.findAllCounts(null, null, null, 20);
+
+        // Test the result
+        assertNotNull(result);
+        assertEquals(10L, result.getTotal());
+        assertEquals(6, result.getGeohashPrecision());
+        assertEquals(10L, result.getTypes().get("CARDINAL_BEACON"));
+        assertEquals(6L, result.getStatuses().get("PERMANENT"));
+        assertEquals(4L, result.getStatuses().get("TEMPORARY"));
+        assertEquals(2, result.getGeohashes().size());
+
+        // Make sure the precision was limited to the supported range
+        verify(this.aidsToNavigationService, times(1)).getAidsToNavigationCountsQuery(any(), any(), any(), eq(6));
+    }
+
     /**
      * Test that we can retrieve the paged list of station nodes for a
      * Datatables pagination request (which by the way also includes search and
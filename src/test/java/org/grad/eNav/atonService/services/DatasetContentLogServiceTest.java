@@ -16,15 +16,26 @@
 
 package org.grad.eNav.atonService.services;
 
+import _int.iho.s125.gml.cs0._1.Dataset;
 import jakarta.persistence.EntityManager;
+import jakarta.xml.bind.JAXBException;
+import org.apache.commons.io.IOUtils;
+import org.grad.eNav.atonService.components.DatasetContentStore;
+import org.grad.eNav.atonService.components.DatasetVersionCache;
 import org.grad.eNav.atonService.exceptions.DataNotFoundException;
 import org.grad.eNav.atonService.models.domain.DatasetContent;
+import org.grad.eNav.atonService.models.domain.DatasetContentBlob;
 import org.grad.eNav.atonService.models.domain.DatasetContentLog;
+import org.grad.eNav.atonService.models.domain.DatasetContentMember;
 import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
 import org.grad.eNav.atonService.models.dtos.datatables.*;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
 import org.grad.eNav.atonService.models.enums.DatasetOperation;
 import org.grad.eNav.atonService.models.enums.DatasetType;
+import org.grad.eNav.atonService.repos.DatasetContentBlobRepo;
 import org.grad.eNav.atonService.repos.DatasetContentLogRepo;
+import org.grad.eNav.atonService.utils.ChecksumWriter;
+import org.grad.eNav.s125.utils.S125Utils;
 import org.hibernate.search.engine.search.query.SearchQuery;
 import org.hibernate.search.engine.search.query.SearchResult;
 import org.hibernate.search.engine.search.query.SearchResultTotal;
@@ -38,12 +49,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -51,6 +66,7 @@ import java.util.*;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -83,6 +99,24 @@ class DatasetContentLogServiceTest {
     @Mock
     DatasetContentLogRepo datasetContentLogRepo;
 
+    /**
+     * The Dataset Content Blob Repo mock.
+     */
+    @Mock
+    DatasetContentBlobRepo datasetContentBlobRepo;
+
+    /**
+     * The Dataset Version Cache mock.
+     */
+    @Mock
+    DatasetVersionCache datasetVersionCache;
+
+    /**
+     * The Dataset Content Store mock.
+     */
+    @Mock
+    DatasetContentStore datasetContentStore;
+
     // Test Variables
     private Pageable pageable;
     private List<DatasetContentLog> datasetContentLogList;
@@ -113,7 +147,7 @@ class DatasetContentLogServiceTest {
             datasetContentLog.setGeneratedAt(LocalDateTime.now());
             datasetContentLog.setGeometry(factory.createPoint(new Coordinate(i%180, i%90)));
             datasetContentLog.setOperation(i==0?DatasetOperation.CREATED:DatasetOperation.UPDATED);
-            datasetContentLog.setContent("Existing Dataset Content " + i);
+            datasetContentLog.setContent("Existing Dataset Content " + i, DatasetContentCompression.GZIP);
             datasetContentLog.setContentLength(BigInteger.valueOf(datasetContentLog.getContent().length()));
             this.datasetContentLogList.add(datasetContentLog);
         }
@@ -126,7 +160,7 @@ class DatasetContentLogServiceTest {
         this.s125Dataset.setGeometry(factory.createPoint(new Coordinate(52.98, 2.28)));
         this.s125Dataset.setDatasetContent(new DatasetContent());
         this.s125Dataset.getDatasetContent().setSequenceNo(BigInteger.ONE);
-        this.s125Dataset.getDatasetContent().setContent("Existing Dataset Content");
+        this.s125Dataset.getDatasetContent().setContent("Existing Dataset Content", DatasetContentCompression.GZIP);
 
         // Create a new Dataset Content Log entry
         this.newDatasetContentLog = new DatasetContentLog();
@@ -135,7 +169,7 @@ class DatasetContentLogServiceTest {
         this.newDatasetContentLog.setGeneratedAt(LocalDateTime.now());
         this.newDatasetContentLog.setGeometry(this.s125Dataset.getGeometry());
         this.newDatasetContentLog.setOperation(DatasetOperation.CREATED);
-        this.newDatasetContentLog.setContent("New Dataset Content");
+        this.newDatasetContentLog.setContent("New Dataset Content", DatasetContentCompression.GZIP);
         this.newDatasetContentLog.setContentLength(BigInteger.valueOf(this.newDatasetContentLog.getContent().length()));
 
         // Create an existing Dataset Content Log entry
@@ -146,9 +180,9 @@ class DatasetContentLogServiceTest {
         this.existingDatasetContentLog.setGeneratedAt(LocalDateTime.now());
         this.existingDatasetContentLog.setGeometry(this.s125Dataset.getGeometry());
         this.existingDatasetContentLog.setOperation(DatasetOperation.UPDATED);
-        this.existingDatasetContentLog.setContent("Existing Dataset Content");
+        this.existingDatasetContentLog.setContent("Existing Dataset Content", DatasetContentCompression.GZIP);
         this.existingDatasetContentLog.setContentLength(BigInteger.valueOf(this.existingDatasetContentLog.getContent().length()));
-        this.existingDatasetContentLog.setDelta("Existing Dataset Content Delta");
+        this.existingDatasetContentLog.setDelta("Existing Dataset Content Delta", DatasetContentCompression.GZIP);
         this.existingDatasetContentLog.setDeltaLength(BigInteger.valueOf(this.existingDatasetContentLog.getDelta().length()));
 
         // Create another existing Dataset Content Log containing a delta
@@ -159,9 +193,9 @@ class DatasetContentLogServiceTest {
         this.deltaDatasetContentLog.setGeneratedAt(LocalDateTime.now());
         this.deltaDatasetContentLog.setGeometry(this.s125Dataset.getGeometry());
         this.deltaDatasetContentLog.setOperation(DatasetOperation.UPDATED);
-        this.deltaDatasetContentLog.setContent("Another Dataset Content");
+        this.deltaDatasetContentLog.setContent("Another Dataset Content", DatasetContentCompression.GZIP);
         this.deltaDatasetContentLog.setContentLength(BigInteger.valueOf(this.deltaDatasetContentLog.getContent().length()));
-        this.deltaDatasetContentLog.setDelta("Another Dataset Content Delta");
+        this.deltaDatasetContentLog.setDelta("Another Dataset Content Delta", DatasetContentCompression.GZIP);
         this.deltaDatasetContentLog.setDeltaLength(BigInteger.valueOf(this.deltaDatasetContentLog.getDelta().length()));
     }
 
@@ -237,6 +271,25 @@ class DatasetContentLogServiceTest {
         );
     }
 
+    /**
+     * Test that we can transfer the content and the delta of an existing
+     * dataset content log entry into an output stream, decompressed.
+     */
+    @Test
+    void testTransferContentAndDelta() throws IOException {
+        doReturn(Optional.of(this.existingDatasetContentLog)).when(this.datasetContentLogRepo).findById(any());
+
+        // Perform the service calls
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        this.datasetContentLogService.transferContent(this.existingDatasetContentLog.getId(), content);
+        final ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        this.datasetContentLogService.transferDelta(this.existingDatasetContentLog.getId(), delta);
+
+        // Test the result
+        assertEquals(this.existingDatasetContentLog.getContent(), content.toString(StandardCharsets.UTF_8));
+        assertEquals(this.existingDatasetContentLog.getDelta(), delta.toString(StandardCharsets.UTF_8));
+    }
+
     /**
      * Test that we can successfully retrieve the initial dataset content log
      * (i.e. the one with sequence number equal to ZERO (0)), by providing an
@@ -283,7 +336,7 @@ class DatasetContentLogServiceTest {
      */
     @Test
     void testFindLatestForUuid() {
-        doReturn(Collections.singletonList(this.existingDatasetContentLog)).when(this.datasetContentLogRepo).findLatestForUuid(any(), any());
+        doReturn(Collections.singletonList(this.existingDatasetContentLog)).when(this.datasetContentLogRepo).findLatestForUuid(any(), any(), any());
 
         // Perform the service call
         DatasetContentLog result = this.datasetContentLogService.findLatestForUuid(this.s125Dataset.getUuid());
@@ -307,7 +360,7 @@ class DatasetContentLogServiceTest {
      */
     @Test
     void testFindLatestForUuidWithReferenceDateTime() {
-        doReturn(Collections.singletonList(this.existingDatasetContentLog)).when(this.datasetContentLogRepo).findLatestForUuid(any(), any());
+        doReturn(Collections.singletonList(this.existingDatasetContentLog)).when(this.datasetContentLogRepo).findLatestForUuid(any(), any(), any());
 
         // Perform the service call
         DatasetContentLog result = this.datasetContentLogService.findLatestForUuid(this.s125Dataset.getUuid(), LocalDateTime.now());
@@ -331,7 +384,7 @@ class DatasetContentLogServiceTest {
      */
     @Test
     void testFindLatestForUuidWithReferenceDateTimeIfNotExists() {
-        doReturn(Collections.emptyList()).when(this.datasetContentLogRepo).findLatestForUuid(any(), any());
+        doReturn(Collections.emptyList()).when(this.datasetContentLogRepo).findLatestForUuid(any(), any(), any());
         doReturn(this.s125Dataset).when(this.datasetService).findOne(eq(this.s125Dataset.getUuid()));
         doReturn(this.existingDatasetContentLog).when(this.datasetContentLogRepo).saveAndFlush(any());
 
@@ -351,6 +404,130 @@ class DatasetContentLogServiceTest {
         assertEquals(this.existingDatasetContentLog.getContentLength(), result.getContentLength());
     }
 
+    /**
+     * Test that when the requested version of a dataset content is still a
+     * snapshot, its content is returned directly.
+     */
+    @Test
+    void testReconstructForUuidSnapshot() {
+        doReturn(Collections.singletonList(this.existingDatasetContentLog)).when(this.datasetContentLogRepo).findLatestForUuid(any(), any(), any());
+
+        // Perform the service call
+        final String result = this.datasetContentLogService.reconstructForUuid(this.s125Dataset.getUuid(), LocalDateTime.now());
+
+        // Test the result
+        assertEquals(this.existingDatasetContentLog.getContent(), result);
+        verify(this.datasetVersionCache, never()).get(any());
+    }
+
+    /**
+     * Test that when the requested version of a dataset content has been
+     * compacted, it is reconstructed from the nearest snapshot and the
+     * following deltas, and then cached.
+     */
+    @Test
+    void testReconstructForUuid() throws JAXBException {
+        final LocalDateTime from = this.initCompactedDatasetContentLogs();
+        final DatasetContentLog snapshot = this.datasetContentLogList.get(5);
+        final DatasetContentLog target = this.datasetContentLogList.get(7);
+        doReturn(Collections.singletonList(target)).when(this.datasetContentLogRepo).findLatestForUuid(any(), any(), any());
+        doReturn(Optional.empty()).when(this.datasetVersionCache).get(target.getId());
+        doReturn(Collections.singletonList(snapshot)).when(this.datasetContentLogRepo).findLatestSnapshotForUuid(this.s125Dataset.getUuid(), target.getGeneratedAt(), PageRequest.of(0, 1));
+        doReturn(this.datasetContentLogList.subList(5, 8)).when(this.datasetContentLogRepo).findDuringForUuid(this.s125Dataset.getUuid(), snapshot.getGeneratedAt(), target.getGeneratedAt());
+        doReturn("Reconstructed Dataset Content").when(this.datasetContentLogService).applyDeltas(any(), any());
+
+        // Perform the service call
+        final String result = this.datasetContentLogService.reconstructForUuid(this.s125Dataset.getUuid(), from.plusHours(7));
+
+        // Test the result
+        assertEquals("Reconstructed Dataset Content", result);
+        verify(this.datasetContentLogService, times(1)).applyDeltas(snapshot.getContent(), Arrays.asList(
+                this.datasetContentLogList.get(6),
+                this.datasetContentLogList.get(7)));
+        verify(this.datasetVersionCache, times(1)).put(target.getId(), "Reconstructed Dataset Content");
+    }
+
+    /**
+     * Test that when the requested version of a dataset content has been
+     * recently reconstructed, the cached version is returned.
+     */
+    @Test
+    void testReconstructForUuidCached() throws JAXBException {
+        this.initCompactedDatasetContentLogs();
+        final DatasetContentLog target = this.datasetContentLogList.get(7);
+        doReturn(Collections.singletonList(target)).when(this.datasetContentLogRepo).findLatestForUuid(any(), any(), any());
+        doReturn(Optional.of("Cached Dataset Content")).when(this.datasetVersionCache).get(target.getId());
+
+        // Perform the service call
+        final String result = this.datasetContentLogService.reconstructForUuid(this.s125Dataset.getUuid(), LocalDateTime.now());
+
+        // Test the result
+        assertEquals("Cached Dataset Content", result);
+        verify(this.datasetContentLogService, never()).applyDeltas(any(), any());
+    }
+
+    /**
+     * Test that when no dataset content log entry exists before the
+     * requested date-time, no content is reconstructed.
+     */
+    @Test
+    void testReconstructForUuidNotFound() {
+        doReturn(Collections.emptyList()).when(this.datasetContentLogRepo).findLatestForUuid(any(), any(), any());
+
+        // Perform the service call
+        assertNull(this.datasetContentLogService.reconstructForUuid(this.s125Dataset.getUuid(), LocalDateTime.now()));
+    }
+
+    /**
+     * Test that the deltas are applied to a dataset content snapshot by
+     * replacing its members with the updated ones, while the dataset
+     * identification information is taken from the latest delta.
+     */
+    @Test
+    void testApplyDeltas() throws IOException, JAXBException {
+        final String content = IOUtils.toString(new ClassPathResource("s125-msg.xml").getInputStream(), StandardCharsets.UTF_8);
+        final DatasetContentLog delta = new DatasetContentLog();
+        delta.setDelta(content
+                .replace("Test AtoN for Cork Hole", "Updated AtoN for Cork Hole")
+                .replace("<ns2:updateNumber>0</ns2:updateNumber>", "<ns2:updateNumber>1</ns2:updateNumber>"), DatasetContentCompression.GZIP);
+
+        // Perform the service call
+        final String result = this.datasetContentLogService.applyDeltas(content, Collections.singletonList(delta));
+
+        // Test the result
+        assertNotNull(result);
+        final Dataset dataset = S125Utils.unmarshallS125(result);
+        assertEquals(4, S125Utils.getDatasetMembers(dataset).size());
+        assertEquals(BigInteger.ONE, dataset.getDatasetIdentificationInformation().getUpdateNumber());
+        assertTrue(result.contains("Updated AtoN for Cork Hole"));
+        assertFalse(result.contains("Test AtoN for Cork Hole"));
+
+        // And without any deltas the content remains the same
+        assertSame(content, this.datasetContentLogService.applyDeltas(content, Collections.emptyList()));
+    }
+
+    /**
+     * Test that the members removed since the previous version are dropped
+     * from the dataset content snapshot when the deltas are applied, even
+     * if the respective entries do not include a delta.
+     */
+    @Test
+    void testApplyDeltasWithRemovals() throws IOException, JAXBException {
+        final String content = IOUtils.toString(new ClassPathResource("s125-msg.xml").getInputStream(), StandardCharsets.UTF_8);
+        final DatasetContentLog removal = new DatasetContentLog();
+        removal.setRemovals(Collections.singletonList(new DatasetContentMember("urn:mrn:grad:aton:test:corkhole", BigInteger.ONE, null, null)));
+
+        // Perform the service call
+        final String result = this.datasetContentLogService.applyDeltas(content, Collections.singletonList(removal));
+
+        // Test the result
+        assertNotNull(result);
+        final Dataset dataset = S125Utils.unmarshallS125(result);
+        assertEquals(3, S125Utils.getDatasetMembers(dataset).size());
+        assertFalse(result.contains("urn:mrn:grad:aton:test:corkhole</"));
+        assertFalse(result.contains("Test AtoN for Cork Hole"));
+    }
+
     /**
      * Test that we can correctly retrieve all the dataset content log entries
      * for a specific and valid UUID.
@@ -418,6 +595,120 @@ class DatasetContentLogServiceTest {
         assertEquals(BigInteger.TWO, result.get(1).getSequenceNo());
     }
 
+    /**
+     * Test that we can correctly retrieve the chain of dataset content log
+     * entries for a specific UUID and date-time duration, starting from the
+     * nearest snapshot before the requested duration.
+     */
+    @Test
+    void testFindChainForUuidDuring() {
+        this.datasetContentLogService.maxDeltaChain = 20;
+        final LocalDateTime from = this.initCompactedDatasetContentLogs();
+        final DatasetContentLog snapshot = this.datasetContentLogList.get(0);
+        doReturn(Collections.singletonList(snapshot)).when(this.datasetContentLogRepo).findLatestSnapshotForUuid(this.s125Dataset.getUuid(), from, PageRequest.of(0, 1));
+        doReturn(this.datasetContentLogList).when(this.datasetContentLogRepo).findDuringForUuid(eq(this.s125Dataset.getUuid()), eq(snapshot.getGeneratedAt()), notNull());
+
+        // Perform the service call
+        List<DatasetContentLog> result = this.datasetContentLogService.findChainForUuidDuring(this.s125Dataset.getUuid(), from, null);
+
+        // Test the result starts from the nearest snapshot
+        assertNotNull(result);
+        assertEquals(10, result.size());
+        assertEquals(snapshot, result.get(0));
+        assertTrue(result.get(0).isSnapshot());
+        assertNotNull(result.get(0).getContent());
+    }
+
+    /**
+     * Test that when retrieving the chain of dataset content log entries for
+     * a specific UUID, the number of deltas is bounded by starting from a
+     * later snapshot.
+     */
+    @Test
+    void testFindChainForUuidDuringBounded() {
+        this.datasetContentLogService.maxDeltaChain = 4;
+        final LocalDateTime from = this.initCompactedDatasetContentLogs();
+        final DatasetContentLog snapshot = this.datasetContentLogList.get(0);
+        doReturn(Collections.singletonList(snapshot)).when(this.datasetContentLogRepo).findLatestSnapshotForUuid(this.s125Dataset.getUuid(), from, PageRequest.of(0, 1));
+        doReturn(this.datasetContentLogList).when(this.datasetContentLogRepo).findDuringForUuid(eq(this.s125Dataset.getUuid()), eq(snapshot.getGeneratedAt()), notNull());
+
+        // Perform the service call
+        List<DatasetContentLog> result = this.datasetContentLogService.findChainForUuidDuring(this.s125Dataset.getUuid(), from, null);
+
+        // Test the result starts from the later snapshot
+        assertNotNull(result);
+        assertEquals(5, result.size());
+        assertEquals(this.datasetContentLogList.get(5), result.get(0));
+        assertTrue(result.get(0).isSnapshot());
+        assertTrue(result.subList(1, result.size()).stream().noneMatch(DatasetContentLog::isSnapshot));
+    }
+
+    /**
+     * Test that the dataset content log entries of a specific UUID are only
+     * pruned up to the latest snapshot before the pruning date-time.
+     */
+    @Test
+    void testPruneForUuid() {
+        this.initCompactedDatasetContentLogs();
+        doReturn(this.datasetContentLogList).when(this.datasetContentLogService).findForUuid(this.s125Dataset.getUuid());
+
+        // Perform the service call
+        final int result = this.datasetContentLogService.pruneForUuid(this.s125Dataset.getUuid(), this.datasetContentLogList.get(7).getGeneratedAt());
+
+        // Verify that everything before the retained snapshot was deleted
+        assertEquals(5, result);
+        verify(this.datasetContentLogRepo, times(1)).deleteAll(this.datasetContentLogList.subList(0, 5));
+    }
+
+    /**
+     * Test that the dataset content log entries of a specific UUID are
+     * compacted, only keeping a snapshot every snapshot interval number of
+     * entries, along with the first and latest ones.
+     */
+    @Test
+    void testCompactForUuid() {
+        final LocalDateTime now = LocalDateTime.now();
+        for(int i=0; i<this.datasetContentLogList.size(); i++) {
+            this.datasetContentLogList.get(i).setGeneratedAt(now.minusHours(10 - i));
+        }
+        doReturn(this.datasetContentLogList).when(this.datasetContentLogService).findForUuid(this.s125Dataset.getUuid());
+
+        // Perform the service call
+        final int result = this.datasetContentLogService.compactForUuid(this.s125Dataset.getUuid(), now.minusMinutes(90), 3);
+
+        // Verify that only the expected snapshots were kept
+        assertEquals(6, result);
+        for(int i=0; i<this.datasetContentLogList.size(); i++) {
+            final DatasetContentLog datasetContentLog = this.datasetContentLogList.get(i);
+            assertEquals(i % 3 == 0, datasetContentLog.isSnapshot());
+            assertEquals(i % 3 == 0, Objects.nonNull(datasetContentLog.getContent()));
+        }
+
+        // And that compacting again does not change anything
+        assertEquals(0, this.datasetContentLogService.compactForUuid(this.s125Dataset.getUuid(), now.minusMinutes(90), 3));
+    }
+
+    /**
+     * A helper function that spaces the test dataset content log entries by
+     * an hour and compacts them, so that only the first and sixth entries are
+     * snapshots.
+     *
+     * @return the generation date-time of the first entry
+     */
+    private LocalDateTime initCompactedDatasetContentLogs() {
+        final LocalDateTime now = LocalDateTime.now();
+        for(int i=0; i<this.datasetContentLogList.size(); i++) {
+            final DatasetContentLog datasetContentLog = this.datasetContentLogList.get(i);
+            datasetContentLog.setUuid(this.s125Dataset.getUuid());
+            datasetContentLog.setGeneratedAt(now.minusHours(10 - i));
+            datasetContentLog.setDelta("Existing Dataset Delta " + i, DatasetContentCompression.GZIP);
+            if(i % 5 != 0) {
+                datasetContentLog.setContentBlob(null);
+            }
+        }
+        return this.datasetContentLogList.get(0).getGeneratedAt();
+    }
+
     /**
      * Test that we can retrieve the paged list of datatable entries for a
      * Datatables pagination request (which by the way also includes search and
@@ -485,6 +776,8 @@ class DatasetContentLogServiceTest {
      */
     @Test
     void testSave() {
+        doReturn(Optional.empty()).when(this.datasetContentBlobRepo).findById(any());
+        doAnswer(returnsFirstArg()).when(this.datasetContentBlobRepo).save(any());
         doReturn(this.newDatasetContentLog).when(this.datasetContentLogRepo).saveAndFlush(any());
 
         // Perform the service call
@@ -501,6 +794,76 @@ class DatasetContentLogServiceTest {
         assertEquals(this.newDatasetContentLog.getSequenceNo(), result.getSequenceNo());
         assertEquals(this.newDatasetContentLog.getContent(), result.getContent());
         assertEquals(this.newDatasetContentLog.getContentLength(), result.getContentLength());
+        assertNotNull(result.getContentBlob());
+        assertEquals("New Dataset Content", result.getContentBlob().getContent());
+
+        // Verify the content blob was stored
+        verify(this.datasetContentBlobRepo, times(1)).save(any());
+    }
+
+    /**
+     * Test that when saving a dataset content log with a payload that has
+     * already been stored, the existing blob is referenced instead of
+     * storing the same payload again.
+     */
+    @Test
+    void testSaveExistingBlob() {
+        final DatasetContentBlob existingBlob = DatasetContentBlob.of("New Dataset Content", DatasetContentCompression.GZIP);
+        doReturn(Optional.of(existingBlob)).when(this.datasetContentBlobRepo).findById(existingBlob.getHash());
+        doAnswer(returnsFirstArg()).when(this.datasetContentLogRepo).saveAndFlush(any());
+
+        // Perform the service call
+        DatasetContentLog result = this.datasetContentLogService.save(this.newDatasetContentLog);
+
+        // Test the result
+        assertNotNull(result);
+        assertSame(existingBlob, result.getContentBlob());
+        assertEquals(this.newDatasetContentLog.getContent(), result.getContent());
+
+        // Verify that the payload was not stored again
+        verify(this.datasetContentBlobRepo, never()).save(any());
+    }
+
+    /**
+     * Test that we can save multiple dataset content log entries in a single
+     * batch, flushing them to the database only once.
+     */
+    @Test
+    void testSaveAll() {
+        doReturn(Optional.empty()).when(this.datasetContentBlobRepo).findById(any());
+        doAnswer(returnsFirstArg()).when(this.datasetContentBlobRepo).save(any());
+        doAnswer(returnsFirstArg()).when(this.datasetContentLogRepo).saveAll(any());
+
+        // Perform the service call
+        List<DatasetContentLog> result = this.datasetContentLogService.saveAll(Collections.singletonList(this.newDatasetContentLog));
+
+        // Test the result
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals(this.newDatasetContentLog.getUuid(), result.get(0).getUuid());
+        assertNotNull(result.get(0).getContentBlob());
+        assertEquals("New Dataset Content", result.get(0).getContentBlob().getContent());
+
+        // Verify the entries were flushed only once
+        verify(this.datasetContentBlobRepo, times(1)).save(any());
+        verify(this.datasetContentLogRepo, times(1)).flush();
+        verify(this.datasetContentLogRepo, never()).saveAndFlush(any());
+    }
+
+    /**
+     * Test that we can delete the dataset content blobs that are not
+     * referenced by any dataset content log entry anymore.
+     */
+    @Test
+    void testDeleteUnreferencedBlobs() {
+        final LocalDateTime createdBefore = LocalDateTime.now();
+        doReturn(3).when(this.datasetContentBlobRepo).deleteUnreferenced(createdBefore);
+
+        // Perform the service call
+        int result = this.datasetContentLogService.deleteUnreferencedBlobs(createdBefore);
+
+        // Test the result
+        assertEquals(3, result);
     }
 
     /**
@@ -568,6 +931,12 @@ class DatasetContentLogServiceTest {
         assertEquals(DatasetOperation.OTHER, result.getOperation());
         assertEquals(this.s125Dataset.getDatasetContent().getSequenceNo(), result.getSequenceNo());
         assertEquals(this.s125Dataset.getDatasetContent().getContent(), result.getContent());
+        assertArrayEquals(this.s125Dataset.getDatasetContent().getStoredContent(), result.getStoredContent());
+        assertEquals(this.s125Dataset.getDatasetContent().getContentStoredLength(), result.getContentStoredLength());
+        assertEquals(ChecksumWriter.checksum(this.s125Dataset.getDatasetContent().getContent()), result.getContentBlob().getHash());
+
+        // Make sure the content blob is shared rather than copied
+        assertSame(this.s125Dataset.getDatasetContent().getContentBlob(), result.getContentBlob());
     }
 
 }
\ No newline at end of file
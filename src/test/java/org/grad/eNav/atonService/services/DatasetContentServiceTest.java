@@ -18,16 +18,25 @@ package org.grad.eNav.atonService.services;
 
 import jakarta.persistence.EntityManager;
 import org.apache.commons.io.IOUtils;
+import org.grad.eNav.atonService.components.DatasetContentStore;
+import org.grad.eNav.atonService.components.DatasetMemberCache;
+import org.grad.eNav.atonService.components.S125FragmentCache;
 import org.grad.eNav.atonService.config.GlobalConfig;
 import org.grad.eNav.atonService.exceptions.DeletedAtoNsInDatasetContentGenerationException;
 import org.grad.eNav.atonService.exceptions.SavingFailedException;
+import org.grad.eNav.atonService.models.AidsToNavigationSnapshot;
 import org.grad.eNav.atonService.models.domain.DatasetContent;
+import org.grad.eNav.atonService.models.domain.DatasetContentBlob;
+import org.grad.eNav.atonService.models.domain.DatasetContentMember;
 import org.grad.eNav.atonService.models.domain.s125.*;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
 import org.grad.eNav.atonService.repos.DatasetContentRepo;
+import org.grad.eNav.atonService.utils.ChecksumWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.mockito.InjectMocks;
@@ -49,6 +58,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -56,7 +67,9 @@ import java.util.regex.Pattern;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -96,12 +109,36 @@ class DatasetContentServiceTest {
     @Mock
     DatasetService datasetService;
 
+    /**
+     * The Dataset Member Cache.
+     */
+    @Spy
+    DatasetMemberCache datasetMemberCache;
+
+    /**
+     * The S-125 Fragment Cache.
+     */
+    @Spy
+    S125FragmentCache s125FragmentCache;
+
     /**
      * The Dataset Content Repo mock.
      */
     @Mock
     DatasetContentRepo datasetContentRepo;
 
+    /**
+     * The Dataset Content Store mock.
+     */
+    @Mock
+    DatasetContentStore datasetContentStore;
+
+    /**
+     * The Dataset Content Log Service mock.
+     */
+    @Mock
+    DatasetContentLogService datasetContentLogService;
+
     // Test Variables
     private GeometryFactory factory;
     private List<AidsToNavigation> aidsToNavigationList;
@@ -139,14 +176,14 @@ class DatasetContentServiceTest {
         // Create a new Dataset with a UUID (required for saving)
         this.newDataset = new S125Dataset("NewDataset");
         this.newDataset.setUuid(UUID.randomUUID());
-        this.newDataset.setGeometry(this.factory.createPoint(new Coordinate(52.98, 2.28)));
+        this.newDataset.setGeometry(this.factory.toGeometry(new Envelope(-1, 10, -1, 10)));
         this.newDataset.setCreatedAt(LocalDateTime.now());
         this.newDataset.setLastUpdatedAt(LocalDateTime.now());
 
         // Create a Dataset with a UUID
         this.existingDataset = new S125Dataset("ExistingDataset");
         this.existingDataset.setUuid(UUID.randomUUID());
-        this.existingDataset.setGeometry(this.factory.createPoint(new Coordinate(52.98, 2.28)));
+        this.existingDataset.setGeometry(this.factory.toGeometry(new Envelope(-1, 10, -1, 10)));
         this.existingDataset.setCreatedAt(LocalDateTime.now());
         this.existingDataset.setLastUpdatedAt(LocalDateTime.now());
 
@@ -154,9 +191,9 @@ class DatasetContentServiceTest {
         this.newDatasetContent = new DatasetContent();
         this.newDatasetContent.setDataset(this.newDataset);
         this.newDatasetContent.setGeneratedAt(LocalDateTime.now());
-        this.newDatasetContent.setContent("New dataset content");
+        this.newDatasetContent.setContent("New dataset content", DatasetContentCompression.GZIP);
         this.newDatasetContent.setContentLength(BigInteger.valueOf(this.newDatasetContent.getContent().length()));
-        this.newDatasetContent.setDelta("");
+        this.newDatasetContent.setDelta("", DatasetContentCompression.GZIP);
         this.newDatasetContent.setDeltaLength(BigInteger.ZERO);
         this.newDataset.setDatasetContent(newDatasetContent);
 
@@ -165,9 +202,9 @@ class DatasetContentServiceTest {
         this.existingDatasetContent.setId(BigInteger.TWO);
         this.existingDatasetContent.setDataset(this.existingDataset);
         this.existingDatasetContent.setGeneratedAt(LocalDateTime.now());
-        this.existingDatasetContent.setContent("Existing dataset content");
+        this.existingDatasetContent.setContent("Existing dataset content", DatasetContentCompression.GZIP);
         this.existingDatasetContent.setContentLength(BigInteger.valueOf(this.existingDatasetContent.getContent().length()));
-        this.existingDatasetContent.setDelta("Existing dataset delta");
+        this.existingDatasetContent.setDelta("Existing dataset delta", DatasetContentCompression.GZIP);
         this.existingDatasetContent.setDeltaLength(BigInteger.valueOf(this.existingDatasetContent.getDelta().length()));
         this.existingDataset.setDatasetContent(this.existingDatasetContent);
     }
@@ -178,6 +215,7 @@ class DatasetContentServiceTest {
      */
     @Test
     void testSave() {
+        doAnswer(returnsFirstArg()).when(this.datasetContentLogService).saveBlob(any());
         doReturn(this.newDatasetContent).when(this.datasetContentRepo).saveAndFlush(any());
 
         // Perform the service call
@@ -192,6 +230,10 @@ class DatasetContentServiceTest {
         assertEquals(this.newDatasetContent.getContentLength(), result.getContentLength());
         assertEquals(this.newDatasetContent.getDelta(), result.getDelta());
         assertEquals(this.newDatasetContent.getDeltaLength(), result.getDeltaLength());
+
+        // Make sure the payload blobs were stored
+        verify(this.datasetContentLogService, times(1)).saveBlob(this.newDatasetContent.getContentBlob());
+        verify(this.datasetContentLogService, times(1)).saveBlob(this.newDatasetContent.getDeltaBlob());
     }
 
     /**
@@ -209,6 +251,47 @@ class DatasetContentServiceTest {
         );
     }
 
+    /**
+     * Test that the content of a persisted dataset content is read through a
+     * freshly looked up blob, so that it is read within the current
+     * transaction rather than through a possibly detached one.
+     */
+    @Test
+    void testReadContent() {
+        final DatasetContentBlob persistedBlob = DatasetContentBlob.of(this.existingDatasetContent.getContent(), DatasetContentCompression.GZIP);
+        this.existingDatasetContent.getContentBlob().setCreatedAt(LocalDateTime.now());
+        doReturn(Optional.empty()).when(this.datasetContentStore).readContent(any());
+        doReturn(persistedBlob).when(this.datasetContentLogService).findBlob(persistedBlob.getHash());
+
+        // Perform the service call
+        final byte[] result = this.datasetContentService.readContent(this.existingDatasetContent);
+
+        // Test the result
+        assertNotNull(result);
+        assertEquals(this.existingDatasetContent.getContent(), new String(result, StandardCharsets.UTF_8));
+        verify(this.datasetContentLogService, times(1)).findBlob(persistedBlob.getHash());
+    }
+
+    /**
+     * Test that the content of a dataset content is read directly from its
+     * blob if that has not been persisted yet, or from the file-backed
+     * content store if it has been offloaded there.
+     */
+    @Test
+    void testReadContentUnsavedOrStored() {
+        doReturn(Optional.empty()).when(this.datasetContentStore).readContent(null);
+        doReturn(Optional.of("Stored dataset content".getBytes(StandardCharsets.UTF_8))).when(this.datasetContentStore).readContent("stored.xml");
+
+        // Read the unsaved content
+        assertEquals(this.newDatasetContent.getContent(), new String(this.datasetContentService.readContent(this.newDatasetContent), StandardCharsets.UTF_8));
+        assertNull(this.datasetContentService.readContent(null));
+
+        // Read the stored content
+        this.newDatasetContent.setContentLocation("stored.xml");
+        assertEquals("Stored dataset content", new String(this.datasetContentService.readContent(this.newDatasetContent), StandardCharsets.UTF_8));
+        verify(this.datasetContentLogService, never()).findBlob(any());
+    }
+
     /**
      * Test that we can successfully generate the content of a dataset provided
      * that we can access its respective member entries. In the current case
@@ -228,6 +311,9 @@ class DatasetContentServiceTest {
         doReturn(aidsToNavigationPage).when(this.aidsToNavigationService).findAll(any(), any(), any(), any(), any());
         doAnswer((inv) -> inv.getArgument(0)).when(this.datasetContentService).save(any());
 
+        // Point the existing content to a previously stored content file
+        this.existingDatasetContent.setContentLocation("stored.xml");
+
         // Perform the service call
         CompletableFuture<S125Dataset> result = this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid());
 
@@ -242,6 +328,20 @@ class DatasetContentServiceTest {
         assertNotNull(resultDataset.getDatasetContent().getContent());
         assertEquals(2*numOfAtons, DATASET_MEMBER_PATTERN.matcher(resultDataset.getDatasetContent().getContent()).results().count());
         assertEquals(BigInteger.valueOf(result.get().getDatasetContent().getContent().length()), result.get().getDatasetContent().getContentLength());
+        assertEquals(ChecksumWriter.checksum(result.get().getDatasetContent().getContent()), result.get().getDatasetContent().getContentChecksum());
+        assertEquals(BigInteger.valueOf(result.get().getDatasetContent().getDelta().length()), result.get().getDatasetContent().getDeltaLength());
+        assertEquals(ChecksumWriter.checksum(result.get().getDatasetContent().getDelta()), result.get().getDatasetContent().getDeltaChecksum());
+        assertEquals(DatasetContentCompression.GZIP, DatasetContentCompression.detect(result.get().getDatasetContent().getStoredContent()));
+        assertEquals(BigInteger.valueOf(result.get().getDatasetContent().getStoredContent().length), result.get().getDatasetContent().getContentStoredLength());
+        assertEquals(BigInteger.valueOf(result.get().getDatasetContent().getStoredDelta().length), result.get().getDatasetContent().getDeltaStoredLength());
+        assertNull(result.get().getDatasetContent().getContentLocation());
+        assertNotNull(result.get().getDatasetContent().getManifest());
+        assertEquals(numOfAtons, result.get().getDatasetContent().getManifest().size());
+        for(int i = 0; i < numOfAtons; i++) {
+            assertEquals(this.aidsToNavigationList.get(i).getIdCode(), result.get().getDatasetContent().getManifest().get(i).idCode());
+            assertEquals(this.aidsToNavigationList.get(i).getId(), result.get().getDatasetContent().getManifest().get(i).atonId());
+            assertNotNull(result.get().getDatasetContent().getManifest().get(i).contentHash());
+        }
 
         // Make also sure that we save and published the generated content
         verify(this.datasetContentService, times(1)).save(any(DatasetContent.class));
@@ -277,14 +377,17 @@ class DatasetContentServiceTest {
 
     /**
      * Test that if we ty to generate the content of a dataset provided and it
-     * is detected that AtoNs have been removed from it, the CompletableFuture
-     * response will include a DeletedAtoNsInDatasetContentGenerationException.
+     * is detected that AtoNs have been removed from it, while the removal
+     * deltas are disabled, the CompletableFuture response will include a
+     * DeletedAtoNsInDatasetContentGenerationException.
      */
     @Test
     void testGenerateDatasetContentWithDeletedAtons() throws IOException {
+        this.datasetContentService.removalDeltas = false;
+
         // Read a valid S125 content to set it as the dataset content
         final InputStream in = new ClassPathResource("s125-msg.xml").getInputStream();
-        this.existingDataset.getDatasetContent().setContent(IOUtils.toString(in, StandardCharsets.UTF_8));
+        this.existingDataset.getDatasetContent().setContent(IOUtils.toString(in, StandardCharsets.UTF_8), DatasetContentCompression.GZIP);
 
         // Mock the service calls
         doReturn(this.existingDataset).when(this.datasetService).findOne(eq(this.existingDataset.getUuid()));
@@ -310,4 +413,290 @@ class DatasetContentServiceTest {
         verify(this.datasetContentRepo, never()).save(any(DatasetContent.class));
     }
 
-}
\ No newline at end of file
+    /**
+     * Test that if the ID codes of the previous dataset content members are
+     * available in the dataset member cache, these will be used to detect
+     * that AtoNs have been removed from it, without reading the previous
+     * content.
+     */
+    @Test
+    void testGenerateDatasetContentWithCachedDeletedAtons() {
+        this.datasetContentService.removalDeltas = false;
+
+        // Cache the members of the existing dataset content
+        this.existingDatasetContent.setSequenceNo(BigInteger.ONE);
+        doReturn(Optional.of(Set.of("ID0", "ID1"))).when(this.datasetMemberCache).getIdCodes(this.existingDataset.getUuid(), BigInteger.ONE);
+
+        // Mock the service calls
+        doReturn(this.existingDataset).when(this.datasetService).findOne(eq(this.existingDataset.getUuid()));
+        doReturn(new PageImpl<>(this.aidsToNavigationList.subList(1, 2))).when(this.aidsToNavigationService).findAll(any(), any(), any(), any(), any());
+
+        // Perform the service call
+        CompletableFuture<S125Dataset> result = this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid());
+
+        // Test the result
+        assertNotNull(result);
+        assertTrue(result.isDone());
+        assertTrue(result.isCompletedExceptionally());
+
+        // Make sure the correct exception was thrown
+        try {
+            result.get();
+        } catch (InterruptedException | ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof DeletedAtoNsInDatasetContentGenerationException);
+        }
+
+        // Make also sure that did not try to save/publish
+        verify(this.datasetContentRepo, never()).save(any(DatasetContent.class));
+    }
+
+    /**
+     * Test that when the content of a dataset is generated, the AtoNs
+     * returned by the search index are refined using the exact geometry of
+     * the dataset.
+     */
+    @Test
+    void testGenerateDatasetContentRefinesGeometry() throws ExecutionException, InterruptedException {
+        final Page<AidsToNavigation> aidsToNavigationPage = new PageImpl<>(this.aidsToNavigationList);
+        this.existingDataset.setGeometry(this.factory.toGeometry(new Envelope(-1, 4.5, -1, 4.5)));
+
+        // Get the model mapper configuration from the GlobalConfig
+        this.datasetContentService.modelMapper = new GlobalConfig().modelMapper();
+
+        // Mock the service calls
+        doReturn(this.existingDataset).when(this.datasetService).findOne(eq(this.existingDataset.getUuid()));
+        doReturn(aidsToNavigationPage).when(this.aidsToNavigationService).findAll(any(), any(), any(), any(), any());
+        doAnswer((inv) -> inv.getArgument(0)).when(this.datasetContentService).save(any());
+
+        // Perform the service call
+        CompletableFuture<S125Dataset> result = this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid());
+
+        // Test the result - only the AtoNs 0 to 4 are inside the dataset
+        assertNotNull(result.get());
+        assertEquals(2*5, DATASET_MEMBER_PATTERN.matcher(result.get().getDatasetContent().getContent()).results().count());
+    }
+
+    /**
+     * Test that we can load a shared AtoN snapshot for multiple datasets,
+     * with a single query over the union of their geometries, and that each
+     * AtoN will only be mapped once.
+     */
+    @Test
+    void testLoadAidsToNavigationSnapshot() {
+        final List<UUID> uuids = List.of(this.newDataset.getUuid(), this.existingDataset.getUuid());
+        this.newDataset.setGeometry(this.factory.toGeometry(new Envelope(-1, 4.5, -1, 4.5)));
+        this.existingDataset.setGeometry(this.factory.toGeometry(new Envelope(2.5, 10, 2.5, 10)));
+
+        // Get the model mapper configuration from the GlobalConfig
+        this.datasetContentService.modelMapper = spy(new GlobalConfig().modelMapper());
+
+        // Mock the service calls
+        doReturn(this.newDataset).when(this.datasetService).findOne(eq(this.newDataset.getUuid()));
+        doReturn(this.existingDataset).when(this.datasetService).findOne(eq(this.existingDataset.getUuid()));
+        doReturn(new PageImpl<>(this.aidsToNavigationList)).when(this.aidsToNavigationService).findAll(any(), any(), any(), any(), any());
+
+        // Perform the service call
+        AidsToNavigationSnapshot result = this.datasetContentService.loadAidsToNavigationSnapshot(uuids);
+
+        // Test the result
+        assertNotNull(result);
+        assertEquals(this.aidsToNavigationList.size(), result.size());
+        assertEquals(5, result.getAidsToNavigation(this.newDataset.getGeometry()).size());
+        assertEquals(7, result.getAidsToNavigation(this.existingDataset.getGeometry()).size());
+
+        // Make sure we only queried and mapped the AtoNs once
+        verify(this.aidsToNavigationService, times(1)).findAll(any(), any(), any(), any(), any());
+        verify(this.datasetMemberCache, times(1)).mapMembers(eq(uuids), anyList(), any());
+        verify(this.datasetContentService.modelMapper, times(this.aidsToNavigationList.size())).map(any(AidsToNavigation.class), any());
+    }
+
+    /**
+     * Test that generating the content of a dataset from a shared AtoN
+     * snapshot does not query the AtoNs again, and produces the same content
+     * as a dataset generating its own content.
+     */
+    @Test
+    void testGenerateDatasetContentFromSnapshot() throws ExecutionException, InterruptedException {
+        this.existingDataset.setGeometry(this.factory.toGeometry(new Envelope(2.5, 10, 2.5, 10)));
+
+        // Get the model mapper configuration from the GlobalConfig
+        this.datasetContentService.modelMapper = new GlobalConfig().modelMapper();
+
+        // Mock the service calls - always generating a new version to compare
+        doReturn(this.existingDataset).when(this.datasetService).findOne(eq(this.existingDataset.getUuid()));
+        doReturn(new PageImpl<>(this.aidsToNavigationList)).when(this.aidsToNavigationService).findAll(any(), any(), any(), any(), any());
+        doAnswer((inv) -> inv.getArgument(0)).when(this.datasetContentService).save(any());
+        doReturn(false).when(this.datasetContentService).isContentUnchanged(any(), any(), any());
+
+        // Generate the content on its own first
+        final String content = this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid())
+                .get()
+                .getDatasetContent()
+                .getContent();
+
+        // Perform the service call using a snapshot
+        final AidsToNavigationSnapshot snapshot = this.datasetContentService.loadAidsToNavigationSnapshot(List.of(this.existingDataset.getUuid()));
+        clearInvocations(this.aidsToNavigationService);
+        CompletableFuture<S125Dataset> result = this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid(), snapshot);
+
+        // Test the result
+        assertNotNull(result);
+        assertTrue(result.isDone());
+        assertNotNull(result.get());
+        assertEquals(2*7, DATASET_MEMBER_PATTERN.matcher(result.get().getDatasetContent().getContent()).results().count());
+        assertEquals(content, result.get().getDatasetContent().getContent());
+
+        // Make sure we did not query the AtoNs again
+        verify(this.aidsToNavigationService, never()).findAll(any(), any(), any(), any(), any());
+    }
+
+    /**
+     * Test that if the member manifest of the previous dataset content is
+     * available, this will be used to detect that AtoNs have been removed
+     * from it, without reading the previous content.
+     */
+    @Test
+    void testGenerateDatasetContentWithManifestDeletedAtons() {
+        this.datasetContentService.removalDeltas = false;
+
+        // Set the manifest of the existing dataset content
+        this.existingDatasetContent.setManifest(List.of(
+                new DatasetContentMember("ID0", BigInteger.ZERO, null, "checksum0"),
+                new DatasetContentMember("ID1", BigInteger.ONE, null, "checksum1")));
+
+        // Mock the service calls
+        doReturn(this.existingDataset).when(this.datasetService).findOne(eq(this.existingDataset.getUuid()));
+        doReturn(new PageImpl<>(this.aidsToNavigationList.subList(1, 2))).when(this.aidsToNavigationService).findAll(any(), any(), any(), any(), any());
+
+        // Perform the service call
+        CompletableFuture<S125Dataset> result = this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid());
+
+        // Test the result
+        assertNotNull(result);
+        assertTrue(result.isDone());
+        assertTrue(result.isCompletedExceptionally());
+
+        // Make sure the correct exception was thrown
+        try {
+            result.get();
+        } catch (InterruptedException | ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof DeletedAtoNsInDatasetContentGenerationException);
+        }
+
+        // Make also sure that did not try to save/publish
+        verify(this.datasetContentRepo, never()).save(any(DatasetContent.class));
+    }
+
+    /**
+     * Test that if the members and the metadata of a dataset have not
+     * changed since its previous content was generated, no new version is
+     * saved and an empty result is returned, even though the last update
+     * time of the dataset is bumped when its content is saved. A new version
+     * is generated once the dataset metadata are updated.
+     */
+    @Test
+    void testGenerateDatasetContentUnchanged() throws ExecutionException, InterruptedException {
+        // Get the model mapper configuration from the GlobalConfig
+        this.datasetContentService.modelMapper = new GlobalConfig().modelMapper();
+
+        // Mock the service calls
+        doReturn(this.existingDataset).when(this.datasetService).findOne(eq(this.existingDataset.getUuid()));
+        doReturn(new PageImpl<>(this.aidsToNavigationList.subList(0, 5))).when(this.aidsToNavigationService).findAll(any(), any(), any(), any(), any());
+        doAnswer((inv) -> inv.getArgument(0)).when(this.datasetContentService).save(any());
+
+        // Generate the initial content with its manifest
+        final BigInteger sequenceNo = this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid()).get().getDatasetContent().getSequenceNo();
+
+        // Perform the service call again without any changes - apart from the
+        // last update time, as audited when the content was saved
+        this.existingDataset.setLastUpdatedAt(this.existingDatasetContent.getGeneratedAt().plusNanos(1000));
+        CompletableFuture<S125Dataset> result = this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid());
+
+        // Test the result
+        assertNotNull(result);
+        assertTrue(result.isDone());
+        assertNull(result.get());
+        assertEquals(sequenceNo, this.existingDatasetContent.getSequenceNo());
+        verify(this.datasetContentService, times(1)).save(any(DatasetContent.class));
+
+        // But if the dataset metadata have been updated, a new version is generated
+        this.existingDataset.getDatasetIdentificationInformation().setDatasetTitle("Updated Dataset Title");
+        assertNotNull(this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid()).get());
+        verify(this.datasetContentService, times(2)).save(any(DatasetContent.class));
+    }
+
+    /**
+     * Test that if AtoNs have been removed from a dataset, the new content is
+     * still generated, with the delta holding the full content so that it
+     * can be published as a new base, and the removed members recorded
+     * alongside it, instead of requiring the dataset to be cancelled and
+     * replaced.
+     */
+    @Test
+    void testGenerateDatasetContentWithManifestRemovals() throws ExecutionException, InterruptedException {
+        // Set the manifest of the existing dataset content
+        this.existingDatasetContent.setManifest(List.of(
+                new DatasetContentMember("ID0", BigInteger.ZERO, null, "checksum0"),
+                new DatasetContentMember("ID1", BigInteger.ONE, null, "checksum1")));
+
+        // Get the model mapper configuration from the GlobalConfig
+        this.datasetContentService.modelMapper = new GlobalConfig().modelMapper();
+
+        // Mock the service calls
+        doReturn(this.existingDataset).when(this.datasetService).findOne(eq(this.existingDataset.getUuid()));
+        doReturn(new PageImpl<>(this.aidsToNavigationList.subList(1, 2))).when(this.aidsToNavigationService).findAll(any(), any(), any(), any(), any());
+        doAnswer((inv) -> inv.getArgument(0)).when(this.datasetContentService).save(any());
+
+        // Perform the service call
+        CompletableFuture<S125Dataset> result = this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid());
+
+        // Test the result
+        assertNotNull(result);
+        assertTrue(result.isDone());
+        assertFalse(result.isCompletedExceptionally());
+        assertEquals(2, DATASET_MEMBER_PATTERN.matcher(result.get().getDatasetContent().getContent()).results().count());
+        assertEquals(2, DATASET_MEMBER_PATTERN.matcher(result.get().getDatasetContent().getDelta()).results().count());
+        assertEquals(result.get().getDatasetContent().getContent(), result.get().getDatasetContent().getDelta());
+        assertNotNull(result.get().getDatasetContent().getRemovals());
+        assertEquals(1, result.get().getDatasetContent().getRemovals().size());
+        assertEquals("ID0", result.get().getDatasetContent().getRemovals().get(0).idCode());
+
+        // Make also sure that we saved the generated content
+        verify(this.datasetContentService, times(1)).save(any(DatasetContent.class));
+    }
+
+    /**
+     * Test that if the member manifest of the previous dataset content is
+     * available, the delta of the new content will only include the members
+     * that were added or whose marshalled representation has changed.
+     */
+    @Test
+    void testGenerateDatasetContentWithManifestDelta() throws ExecutionException, InterruptedException {
+        // Get the model mapper configuration from the GlobalConfig
+        this.datasetContentService.modelMapper = new GlobalConfig().modelMapper();
+
+        // Mock the service calls
+        doReturn(this.existingDataset).when(this.datasetService).findOne(eq(this.existingDataset.getUuid()));
+        doReturn(new PageImpl<>(this.aidsToNavigationList.subList(0, 5))).when(this.aidsToNavigationService).findAll(any(), any(), any(), any(), any());
+        doAnswer((inv) -> inv.getArgument(0)).when(this.datasetContentService).save(any());
+
+        // Generate the initial content with its manifest
+        assertNotNull(this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid()).get().getDatasetContent().getManifest());
+
+        // Without any changes the delta should be empty
+        CompletableFuture<S125Dataset> result = this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid());
+        assertEquals(0, DATASET_MEMBER_PATTERN.matcher(result.get().getDatasetContent().getDelta()).results().count());
+
+        // Now change one of the AtoNs and add a new one
+        this.aidsToNavigationList.get(2).getFeatureNames().iterator().next().setName("Changed AtoN No2");
+        doReturn(new PageImpl<>(this.aidsToNavigationList.subList(0, 6))).when(this.aidsToNavigationService).findAll(any(), any(), any(), any(), any());
+        result = this.datasetContentService.generateDatasetContent(this.existingDataset.getUuid());
+
+        // Test the result
+        assertEquals(2*6, DATASET_MEMBER_PATTERN.matcher(result.get().getDatasetContent().getContent()).results().count());
+        assertEquals(2*2, DATASET_MEMBER_PATTERN.matcher(result.get().getDatasetContent().getDelta()).results().count());
+        assertTrue(result.get().getDatasetContent().getDelta().contains("Changed AtoN No2"));
+        assertTrue(result.get().getDatasetContent().getDelta().contains("ID5"));
+    }
+
+}
@@ -16,15 +16,29 @@
 
 package org.grad.eNav.atonService.services;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortedSetSortField;
+import org.grad.eNav.atonService.components.DatasetGenerationExecutor;
+import org.grad.eNav.atonService.components.DatasetRegenerationScheduler;
+import org.grad.eNav.atonService.components.SpatialQueryCache;
 import org.grad.eNav.atonService.exceptions.DataNotFoundException;
 import org.grad.eNav.atonService.exceptions.DeletedAtoNsInDatasetContentGenerationException;
 import org.grad.eNav.atonService.exceptions.SavingFailedException;
 import org.grad.eNav.atonService.exceptions.ValidationException;
+import org.grad.eNav.atonService.models.AidsToNavigationSnapshot;
 import org.grad.eNav.atonService.models.domain.DatasetContent;
+import org.grad.eNav.atonService.models.domain.DatasetContentMember;
 import org.grad.eNav.atonService.models.domain.s125.*;
+import org.grad.eNav.atonService.models.domain.secom.SubscriptionRequest;
 import org.grad.eNav.atonService.models.dtos.datatables.*;
+import org.grad.eNav.atonService.models.dtos.s125.S125DataSetSummaryDto;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
+import org.grad.eNav.atonService.models.enums.DatasetGenerationPriority;
 import org.grad.eNav.atonService.repos.DatasetRepo;
+import org.grad.eNav.atonService.services.secom.SecomSubscriptionService;
 import org.hibernate.search.engine.search.query.SearchQuery;
 import org.hibernate.search.engine.search.query.SearchResult;
 import org.hibernate.search.engine.search.query.SearchResultTotal;
@@ -32,6 +46,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.mockito.InjectMocks;
@@ -50,11 +65,13 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -80,10 +97,10 @@ class DatasetServiceTest {
     EntityManager entityManager;
 
     /**
-     * The Task Executor mock.
+     * The Dataset Regeneration Scheduler mock.
      */
     @Mock
-    Executor taskExecutor;
+    DatasetRegenerationScheduler datasetRegenerationScheduler;
 
     /**
      * The Dataset Content Service mock.
@@ -109,6 +126,29 @@ class DatasetServiceTest {
     @Mock
     PublishSubscribeChannel s125RemovalChannel;
 
+    /**
+     * The Spatial Query Cache mock.
+     */
+    @Mock
+    SpatialQueryCache spatialQueryCache;
+
+    /**
+     * The Dataset Generation Executor mock.
+     */
+    @Mock
+    DatasetGenerationExecutor datasetGenerationExecutor;
+
+    /**
+     * The SECOM Subscription Service mock.
+     */
+    @Mock
+    SecomSubscriptionService secomSubscriptionService;
+
+    /**
+     * The Meter Registry.
+     */
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     // Test Variables
     private List<AidsToNavigation> aidsToNavigationList;
@@ -128,6 +168,10 @@ class DatasetServiceTest {
         // Create a temp geometry factory to get a test geometries
         this.factory = new GeometryFactory(new PrecisionModel(), 4326);
 
+        // Run the submitted dataset content generations directly
+        lenient().doAnswer(inv -> inv.<Supplier<?>>getArgument(3).get())
+                .when(this.datasetGenerationExecutor).submit(any(), any(), anyLong(), any());
+
         // Initialise the AtoN messages list
         this.aidsToNavigationList = new ArrayList<>();
         for(long i=0; i<10; i++) {
@@ -165,7 +209,7 @@ class DatasetServiceTest {
         this.newDatasetContent.setId(BigInteger.ONE);
         this.newDatasetContent.setDataset(this.newDataset);
         this.newDatasetContent.setSequenceNo(BigInteger.ONE);
-        this.newDatasetContent.setContent("New dataset content");
+        this.newDatasetContent.setContent("New dataset content", DatasetContentCompression.GZIP);
         this.newDatasetContent.setContentLength(BigInteger.valueOf(this.newDatasetContent.getContent().length()));
         this.newDatasetContent.setGeneratedAt(LocalDateTime.now());
         this.newDataset.setDatasetContent(null);
@@ -179,7 +223,7 @@ class DatasetServiceTest {
         this.existingDatasetContent.setId(BigInteger.TWO);
         this.existingDatasetContent.setDataset(this.existingDataset);
         this.existingDatasetContent.setSequenceNo(BigInteger.ONE);
-        this.existingDatasetContent.setContent("Existing dataset content");
+        this.existingDatasetContent.setContent("Existing dataset content", DatasetContentCompression.GZIP);
         this.existingDatasetContent.setContentLength(BigInteger.valueOf(this.existingDatasetContent.getContent().length()));
         this.existingDatasetContent.setGeneratedAt(LocalDateTime.now());
         this.existingDataset.setDatasetContent(this.existingDatasetContent);
@@ -243,12 +287,15 @@ class DatasetServiceTest {
         doReturn(mockedQuery).when(this.datasetService).getDatasetSearchQuery(any(), any(), any(), any(), any(), any());
 
         // Perform the service call
-        Page<S125Dataset> result = this.datasetService.findAll(UUID.randomUUID(), null, null, null, Boolean.FALSE, pageable);
+        Page<S125Dataset> result = this.datasetService.findAll(null, null, null, null, Boolean.FALSE, pageable);
 
         // Test the result
         assertNotNull(result);
         assertEquals(5, result.getSize());
 
+        // Make sure the results are sorted by UUID
+        verify(this.datasetService, times(1)).getDatasetSearchQuery(any(), any(), any(), any(), any(), eq(new Sort(new SortedSetSortField("uuid", false))));
+
         // Test each of the result entries
         for(int i=0; i < result.getSize(); i++){
             assertNotNull(result.getContent().get(i));
@@ -267,6 +314,145 @@ class DatasetServiceTest {
         }
     }
 
+    /**
+     * Test that we can retrieve the summary information of all the datasets
+     * currently present in the database and matching the provided criteria,
+     * through a paged projection call.
+     */
+    @Test
+    void testFindAllSummariesPaged() {
+        // Create the summary results
+        final List<S125DataSetSummaryDto> summaryList = this.datasetList.stream()
+                .map(dataset -> new S125DataSetSummaryDto(
+                        dataset.getUuid(),
+                        dataset.getDatasetIdentificationInformation().getProductEdition(),
+                        dataset.getDatasetIdentificationInformation().getDatasetFileIdentifier(),
+                        dataset.getDatasetIdentificationInformation().getDatasetTitle(),
+                        dataset.getDatasetIdentificationInformation().getDatasetAbstract(),
+                        dataset.getLastUpdatedAt(),
+                        BigInteger.TEN))
+                .toList();
+
+        // Mock the projection query
+        SearchQuery<S125DataSetSummaryDto> mockedQuery = mock(SearchQuery.class);
+        SearchResult<S125DataSetSummaryDto> searchResult = mock(SearchResult.class);
+        SearchResultTotal searchResultTotal = mock(SearchResultTotal.class);
+        doReturn(searchResult).when(mockedQuery).fetch(any(), any());
+        doReturn(summaryList.subList(0, 5)).when(searchResult).hits();
+        doReturn(searchResultTotal).when(searchResult).total();
+        doReturn(10L).when(searchResultTotal).hitCount();
+        doReturn(mockedQuery).when(this.datasetService).getDatasetSummarySearchQuery(any(), any(), any(), any(), any(), any());
+
+        // Perform the service call
+        Page<S125DataSetSummaryDto> result = this.datasetService.findAllSummaries(null, null, null, null, Boolean.FALSE, pageable);
+
+        // Test the result
+        assertNotNull(result);
+        assertEquals(5, result.getSize());
+        assertEquals(10, result.getTotalElements());
+
+        // Test each of the result entries
+        for(int i=0; i < result.getSize(); i++){
+            assertEquals(summaryList.get(i).getUuid(), result.getContent().get(i).getUuid());
+            assertEquals(summaryList.get(i).getDatasetTitle(), result.getContent().get(i).getDatasetTitle());
+            assertEquals(summaryList.get(i).getDatasetFileIdentifier(), result.getContent().get(i).getDatasetFileIdentifier());
+            assertEquals(summaryList.get(i).getContentLength(), result.getContent().get(i).getContentLength());
+        }
+
+        // Make sure the summaries are sorted by UUID, like the full search
+        verify(this.datasetService, times(1)).getDatasetSummarySearchQuery(any(), any(), any(), any(), any(), eq(new Sort(new SortedSetSortField("uuid", false))));
+
+        // Make sure no entities were loaded
+        verify(this.datasetRepo, never()).findAllById(any());
+    }
+
+    /**
+     * Test that unpaged geometry searches for datasets are answered by the
+     * spatial query cache when a cached result is available, without
+     * querying the search index.
+     */
+    @Test
+    void testFindAllCached() {
+        final SpatialQueryCache.Key cacheKey = new SpatialQueryCache.Key(S125Dataset.class, this.existingDataset.getGeometry(), Collections.emptyList());
+        doReturn(cacheKey).when(this.spatialQueryCache).createKey(any(), any(), any(), any(), any());
+        doReturn(Optional.of(Collections.singletonList(this.existingDataset.getUuid()))).when(this.spatialQueryCache).get(cacheKey);
+        doReturn(Collections.singletonList(this.existingDataset)).when(this.datasetRepo).findAllById(any());
+
+        // Perform the service call
+        Page<S125Dataset> result = this.datasetService.findAll(null, this.existingDataset.getGeometry(), null, null, Boolean.FALSE, Pageable.unpaged());
+
+        // Test the result
+        assertNotNull(result);
+        assertEquals(1, result.getContent().size());
+        assertEquals(this.existingDataset.getUuid(), result.getContent().get(0).getUuid());
+
+        // Make sure the search index was not queried
+        verify(this.datasetService, never()).getDatasetSearchQuery(any(), any(), any(), any(), any(), any());
+    }
+
+    /**
+     * Test that dataset searches on a specific UUID are answered through a
+     * primary key lookup, without querying the search index.
+     */
+    @Test
+    void testFindAllByPrimaryKey() {
+        doReturn(Optional.of(this.existingDataset)).when(this.datasetRepo).findById(this.existingDataset.getUuid());
+
+        // Perform the service call
+        Page<S125Dataset> result = this.datasetService.findAll(this.existingDataset.getUuid(), this.existingDataset.getGeometry(), null, null, Boolean.FALSE, pageable);
+
+        // Test the result
+        assertNotNull(result);
+        assertEquals(1, result.getContent().size());
+        assertEquals(1, result.getTotalElements());
+        assertEquals(this.existingDataset.getUuid(), result.getContent().get(0).getUuid());
+
+        // Make sure the search index was not queried
+        verify(this.datasetService, never()).getDatasetSearchQuery(any(), any(), any(), any(), any(), any());
+    }
+
+    /**
+     * Test that dataset searches on a specific UUID through a primary key
+     * lookup still apply the rest of the provided search criteria.
+     */
+    @Test
+    void testFindAllByPrimaryKeyFiltered() {
+        this.existingDataset.setCancelled(true);
+        doReturn(Optional.of(this.existingDataset)).when(this.datasetRepo).findById(this.existingDataset.getUuid());
+
+        // Perform the service call
+        Page<S125Dataset> result = this.datasetService.findAll(this.existingDataset.getUuid(), null, null, null, Boolean.FALSE, pageable);
+
+        // Test the result
+        assertNotNull(result);
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(0, result.getTotalElements());
+
+        // Make sure the search index was not queried
+        verify(this.datasetService, never()).getDatasetSearchQuery(any(), any(), any(), any(), any(), any());
+    }
+
+    /**
+     * Test that dataset searches on a specific UUID through a primary key
+     * lookup match the geometries only touching the dataset geometry, like
+     * the search index queries do, but not the ones just outside it.
+     */
+    @Test
+    void testFindAllByPrimaryKeyGeometryBoundary() {
+        this.existingDataset.setGeometry(this.factory.toGeometry(new Envelope(0, 10, 0, 10)));
+        doReturn(Optional.of(this.existingDataset)).when(this.datasetRepo).findById(this.existingDataset.getUuid());
+
+        // A point on the boundary and an adjacent area should match
+        assertEquals(1, this.datasetService.findAll(this.existingDataset.getUuid(), this.factory.createPoint(new Coordinate(10, 5)), null, null, Boolean.FALSE, pageable).getTotalElements());
+        assertEquals(1, this.datasetService.findAll(this.existingDataset.getUuid(), this.factory.toGeometry(new Envelope(10, 20, 0, 10)), null, null, Boolean.FALSE, pageable).getTotalElements());
+
+        // But an area just outside it should not
+        assertEquals(0, this.datasetService.findAll(this.existingDataset.getUuid(), this.factory.toGeometry(new Envelope(10.001, 20, 0, 10)), null, null, Boolean.FALSE, pageable).getTotalElements());
+
+        // Make sure the search index was not queried
+        verify(this.datasetService, never()).getDatasetSearchQuery(any(), any(), any(), any(), any(), any());
+    }
+
     /**
      * Test that we can retrieve the paged list of datatable entries for a
      * Datatables pagination request (which by the way also includes search and
@@ -340,12 +526,6 @@ class DatasetServiceTest {
         doReturn(this.newDataset).when(this.datasetRepo).saveAndFlush(any());
         doNothing().when(this.datasetService).requestDatasetContentUpdate(any());
 
-        // Special call ---  Allow the executor task to run
-        doAnswer(args -> {
-            ((Runnable)args.getArguments()[0]).run();
-            return null;
-        }).when(this.taskExecutor).execute(any());
-
         // Perform the service call
         S125Dataset result = this.datasetService.save(new S125Dataset());
 
@@ -550,31 +730,67 @@ class DatasetServiceTest {
     }
 
     /**
-     * Test that we can correctly request a dataset content update from the
-     * dataset content service. This will take place asynchronously so that it
-     * does not hold back the responses of this service.
+     * Test that the requested dataset content updates are passed to the
+     * dataset regeneration scheduler.
      */
     @Test
     void testRequestDatasetContentUpdate() {
+        // Perform the service call
+        this.datasetService.requestDatasetContentUpdate(this.existingDataset.getUuid());
+
+        // Verify that the update was scheduled
+        verify(this.datasetRegenerationScheduler, times(1)).schedule(eq(this.existingDataset.getUuid()));
+        verify(this.datasetContentService, never()).generateDatasetContent(any());
+    }
+
+    /**
+     * Test that we can correctly perform a dataset content update through
+     * the dataset content service. This will take place asynchronously so
+     * that it does not hold back the responses of this service.
+     */
+    @Test
+    void testUpdateDatasetContent() {
         // Create a data content generation response to wait for
         CompletableFuture<S125Dataset> contentGenerationTask = CompletableFuture.completedFuture(this.newDataset);
         doReturn(contentGenerationTask).when(this.datasetContentService).generateDatasetContent(any());
 
         // Perform the service call
-        this.datasetService.requestDatasetContentUpdate(UUID.randomUUID());
+        this.datasetService.updateDatasetContent(UUID.randomUUID());
 
         // Wait until the end and verify that the message was published
         assertTrue(contentGenerationTask.isDone());
         verify(this.s125PublicationChannel, timeout(100).times(1)).send(any(Message.class));
     }
 
+    /**
+     * Test that if we request a dataset content update from the dataset content
+     * service and the content remained unchanged, the publication of the
+     * dataset is suppressed and reported in the respective metric.
+     */
+    @Test
+    void testUpdateDatasetContentUnchanged() {
+        this.datasetService.init();
+
+        // Create an empty data content generation response to wait for
+        CompletableFuture<S125Dataset> contentGenerationTask = CompletableFuture.completedFuture(null);
+        doReturn(contentGenerationTask).when(this.datasetContentService).generateDatasetContent(any());
+
+        // Perform the service call
+        this.datasetService.updateDatasetContent(this.existingDataset.getUuid());
+
+        // Wait until the end and verify that nothing was published
+        assertTrue(contentGenerationTask.isDone());
+        verify(this.s125PublicationChannel, after(100).never()).send(any(Message.class));
+        assertEquals(1.0, this.meterRegistry.get("aton.dataset.publication.suppressed").functionCounter().count());
+    }
+
     /**
      * Test that if we request a dataset content update from the dataset content
      * service and for this dataset deleted AtoNs were detected, then the
      * default response would be to replace that dataset with a brand-new one.
      */
     @Test
-    void testRequestDatasetContentUpdateDeletedAtons() {
+    void testUpdateDatasetContentDeletedAtons() {
         // Create a data content generation response to wait for
         CompletableFuture<S125Dataset> contentGenerationTask = CompletableFuture.failedFuture(
                 new CompletionException(new DeletedAtoNsInDatasetContentGenerationException("deleted AtoNs detected"))
@@ -583,7 +799,7 @@ class DatasetServiceTest {
         doReturn(this.newDataset).when(this.datasetService).replace(any());
 
         // Perform the service call
-        this.datasetService.requestDatasetContentUpdate(this.existingDataset.getUuid());
+        this.datasetService.updateDatasetContent(this.existingDataset.getUuid());
 
         // Wait until the end and verify that the message was published
         assertTrue(contentGenerationTask.isCompletedExceptionally());
@@ -597,7 +813,7 @@ class DatasetServiceTest {
      * failures.
      */
     @Test
-    void testRequestDatasetContentUpdateFailure() {
+    void testUpdateDatasetContentFailure() {
         // Create a data content generation response to wait for
         CompletableFuture<S125Dataset> contentGenerationTask = CompletableFuture.failedFuture(
                 new CompletionException(new RuntimeException("something went wrong"))
@@ -605,7 +821,7 @@ class DatasetServiceTest {
         doReturn(contentGenerationTask).when(this.datasetContentService).generateDatasetContent(any());
 
         // Perform the service call
-        this.datasetService.requestDatasetContentUpdate(this.existingDataset.getUuid());
+        this.datasetService.updateDatasetContent(this.existingDataset.getUuid());
 
         // Wait until the end and verify that the message was published
         assertTrue(contentGenerationTask.isCompletedExceptionally());
@@ -613,4 +829,100 @@ class DatasetServiceTest {
         verify(this.s125PublicationChannel, timeout(100).times(0)).send(any(Message.class));
     }
 
-}
\ No newline at end of file
+    /**
+     * Test that we can perform a batched dataset content update for multiple
+     * datasets, where a shared AtoN snapshot is loaded once and used for the
+     * content generation of all of them.
+     */
+    @Test
+    void testUpdateDatasetContents() {
+        final UUID otherUuid = UUID.randomUUID();
+        final List<UUID> uuids = List.of(otherUuid, this.existingDataset.getUuid());
+        final AidsToNavigationSnapshot snapshot = new AidsToNavigationSnapshot(Collections.emptyList(), Collections.emptyList());
+        doReturn(snapshot).when(this.datasetContentService).loadAidsToNavigationSnapshot(any());
+        doReturn(CompletableFuture.completedFuture(this.newDataset)).when(this.datasetContentService).generateDatasetContent(eq(otherUuid), any());
+        doReturn(CompletableFuture.completedFuture(this.existingDataset)).when(this.datasetContentService).generateDatasetContent(eq(this.existingDataset.getUuid()), any());
+
+        // Perform the service call
+        Map<UUID, CompletableFuture<S125Dataset>> result = this.datasetService.updateDatasetContents(uuids);
+
+        // Test the result
+        assertNotNull(result);
+        assertEquals(uuids.size(), result.size());
+        assertTrue(result.keySet().containsAll(uuids));
+
+        // Verify that the snapshot was loaded once and both datasets were published
+        verify(this.datasetContentService, times(1)).loadAidsToNavigationSnapshot(eq(uuids));
+        verify(this.datasetContentService, times(1)).generateDatasetContent(eq(otherUuid), eq(snapshot));
+        verify(this.datasetContentService, times(1)).generateDatasetContent(eq(this.existingDataset.getUuid()), eq(snapshot));
+        verify(this.datasetContentService, never()).generateDatasetContent(any());
+        verify(this.s125PublicationChannel, timeout(100).times(2)).send(any(Message.class));
+    }
+
+    /**
+     * Test that if the shared AtoN snapshot of a batched dataset content
+     * update cannot be loaded, all the dataset updates will fail without
+     * attempting to generate any content.
+     */
+    @Test
+    void testUpdateDatasetContentsSnapshotFailure() {
+        final UUID otherUuid = UUID.randomUUID();
+        final List<UUID> uuids = List.of(otherUuid, this.existingDataset.getUuid());
+        doThrow(new RuntimeException("something went wrong")).when(this.datasetContentService).loadAidsToNavigationSnapshot(any());
+
+        // Perform the service call
+        Map<UUID, CompletableFuture<S125Dataset>> result = this.datasetService.updateDatasetContents(uuids);
+
+        // Test the result
+        assertNotNull(result);
+        assertEquals(uuids.size(), result.size());
+        result.values().forEach(future -> assertTrue(future.isCompletedExceptionally()));
+        verify(this.datasetContentService, never()).generateDatasetContent(any(), any());
+        verify(this.s125PublicationChannel, never()).send(any(Message.class));
+    }
+
+    /**
+     * Test that the dataset content updates are submitted to the dataset
+     * generation executor with the priority class of the dataset and the
+     * size of its previously generated content.
+     */
+    @Test
+    void testUpdateDatasetContentSubmission() {
+        this.existingDatasetContent.setManifest(List.of(
+                new DatasetContentMember("test_aton_1", BigInteger.ONE, LocalDateTime.now(), "hash1"),
+                new DatasetContentMember("test_aton_2", BigInteger.TWO, LocalDateTime.now(), "hash2")
+        ));
+        doReturn(Optional.of(this.existingDataset)).when(this.datasetRepo).findById(this.existingDataset.getUuid());
+        doReturn(List.of(new SubscriptionRequest())).when(this.secomSubscriptionService).findAll(any(), any(), any(), any(), any(), any());
+        doReturn(CompletableFuture.completedFuture(this.existingDataset)).when(this.datasetContentService).generateDatasetContent(any());
+
+        // Perform the service call
+        this.datasetService.updateDatasetContent(this.existingDataset.getUuid());
+
+        // Verify the submitted generation
+        verify(this.datasetGenerationExecutor, times(1)).submit(eq(this.existingDataset.getUuid()), eq(DatasetGenerationPriority.SUBSCRIBED), eq(2L), any());
+        verify(this.datasetContentService, times(1)).generateDatasetContent(this.existingDataset.getUuid());
+    }
+
+    /**
+     * Test that the priority class of the dataset content generations is
+     * determined correctly, based on the dataset subscriptions and whether
+     * the dataset is a replacement that has not been generated yet.
+     */
+    @Test
+    void testGetDatasetGenerationPriority() {
+        doReturn(Collections.emptyList()).when(this.secomSubscriptionService).findAll(any(), any(), any(), any(), any(), any());
+
+        // A generated dataset with no subscriptions runs in the background
+        assertEquals(DatasetGenerationPriority.BACKGROUND, this.datasetService.getDatasetGenerationPriority(this.existingDataset));
+
+        // A replacement dataset that has not been generated yet
+        final S125Dataset replacement = this.existingDataset.replace();
+        assertEquals(DatasetGenerationPriority.REPLACEMENT, this.datasetService.getDatasetGenerationPriority(replacement));
+
+        // And a failing subscription lookup should not fail the generation
+        doThrow(new RuntimeException("something went wrong")).when(this.secomSubscriptionService).findAll(any(), any(), any(), any(), any(), any());
+        assertEquals(DatasetGenerationPriority.BACKGROUND, this.datasetService.getDatasetGenerationPriority(this.existingDataset));
+    }
+
+}
@@ -23,9 +23,11 @@ import jakarta.xml.bind.JAXBException;
 import org.grad.eNav.atonService.feign.CKeeperClient;
 import org.grad.eNav.atonService.models.domain.DatasetContent;
 import org.grad.eNav.atonService.models.domain.DatasetContentLog;
+import org.grad.eNav.atonService.models.domain.DatasetContentMember;
 import org.grad.eNav.atonService.models.domain.s100.ServiceInformationConfig;
 import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
 import org.grad.eNav.atonService.models.dtos.SignatureCertificateDto;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
 import org.grad.eNav.atonService.models.enums.DatasetOperation;
 import org.grad.eNav.atonService.models.enums.DatasetType;
 import org.grad.eNav.atonService.utils.ZipUtilsTest;
@@ -112,7 +114,7 @@ class S100ExchangeSetServiceTest {
         this.s125Dataset.setLastUpdatedAt(LocalDateTime.now());
         this.datasetContent = new DatasetContent();
         this.datasetContent.setId(BigInteger.ONE);
-        this.datasetContent.setContent("S-125 dataset content");
+        this.datasetContent.setContent("S-125 dataset content", DatasetContentCompression.GZIP);
         this.datasetContent.setContentLength(BigInteger.valueOf(this.datasetContent.getContent().length()));
         this.datasetContent.setGeneratedAt(LocalDateTime.now());
         this.s125Dataset.setDatasetContent(this.datasetContent);
@@ -128,9 +130,9 @@ class S100ExchangeSetServiceTest {
             datasetContentLog.setGeneratedAt(LocalDateTime.now());
             datasetContentLog.setGeometry(factory.createPoint(new Coordinate(i%180, i%90)));
             datasetContentLog.setOperation(i==0? DatasetOperation.CREATED:DatasetOperation.UPDATED);
-            datasetContentLog.setContent("Existing Dataset Content " + i);
+            datasetContentLog.setContent("Existing Dataset Content " + i, DatasetContentCompression.GZIP);
             datasetContentLog.setContentLength(BigInteger.valueOf(datasetContentLog.getContent().length()));
-            datasetContentLog.setDelta("Existing Dataset Delta " + i);
+            datasetContentLog.setDelta("Existing Dataset Delta " + i, DatasetContentCompression.GZIP);
             datasetContentLog.setDeltaLength(BigInteger.valueOf(datasetContentLog.getDelta().length()));
             this.datasetContentLogList.add(datasetContentLog);
         }
@@ -163,7 +165,7 @@ class S100ExchangeSetServiceTest {
         // Mock the further internal operations
         doReturn("XX00").when(this.serviceInformationConfig).ihoProducerCode();
         doReturn(signatureCertificate).when(cKeeperClient).getSignatureCertificate(any(), any(), any(), any());
-        doReturn(this.datasetContentLogList).when(this.datasetContentLogService).findForUuidDuring(any(), any(), any());
+        doReturn(this.datasetContentLogList).when(this.datasetContentLogService).findChainForUuidDuring(any(), any(), any());
         doReturn("catalogXMLContent").when(this.s100ExchangeSetService).generateExchangeSetContent(any(), any());
         doReturn("signature".getBytes()).when(this.s100ExchangeSetService).signContent(any(), any(), any());
 
@@ -204,7 +206,8 @@ class S100ExchangeSetServiceTest {
                         BigInteger.ONE,
                         this.testCertificatePem,
                         this.s125Dataset,
-                        log)
+                        log,
+                        false)
                 )
                 .collect(Collectors.toMap(d -> d.datasetFile().getName(), Function.identity()));
 
@@ -408,4 +411,27 @@ class S100ExchangeSetServiceTest {
         assertEquals(S100Purpose.DELTA, this.s100ExchangeSetService.getDatasetPurpose(DatasetOperation.OTHER));
     }
 
+    /**
+     * Test that the payload of the dataset files is the full content for the
+     * bases of the delta chain and the delta for the rest, while the delta
+     * of an entry with removals, which already holds the full content, is
+     * used for a base that no longer holds it.
+     */
+    @Test
+    void testDatasetDataPayload() {
+        final DatasetContentLog datasetContentLog = this.datasetContentLogList.get(0);
+        datasetContentLog.setContent("content", DatasetContentCompression.GZIP);
+        datasetContentLog.setDelta("delta", DatasetContentCompression.GZIP);
+
+        // Test the base and the delta payloads
+        assertEquals("content", new S100ExchangeSetService.DatasetData(null, BigInteger.ONE, this.testCertificatePem, this.s125Dataset, datasetContentLog, true).payload());
+        assertEquals("delta", new S100ExchangeSetService.DatasetData(null, BigInteger.ONE, this.testCertificatePem, this.s125Dataset, datasetContentLog, false).payload());
+
+        // Compact the entry and record some removals
+        datasetContentLog.setContentBlob(null);
+        datasetContentLog.setRemovals(Collections.singletonList(new DatasetContentMember("ID0", BigInteger.ZERO, null, null)));
+        assertTrue(datasetContentLog.hasRemovals());
+        assertEquals("delta", new S100ExchangeSetService.DatasetData(null, BigInteger.ONE, this.testCertificatePem, this.s125Dataset, datasetContentLog, true).payload());
+    }
+
 }
\ No newline at end of file
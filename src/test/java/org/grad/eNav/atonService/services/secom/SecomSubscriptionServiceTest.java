@@ -24,8 +24,10 @@ import org.grad.eNav.atonService.models.domain.DatasetContent;
 import org.grad.eNav.atonService.models.domain.s125.S125Dataset;
 import org.grad.eNav.atonService.models.domain.secom.SubscriptionRequest;
 import org.grad.eNav.atonService.models.dtos.datatables.*;
+import org.grad.eNav.atonService.models.enums.DatasetContentCompression;
 import org.grad.eNav.atonService.models.enums.DatasetOperation;
 import org.grad.eNav.atonService.repos.SecomSubscriptionRepo;
+import org.grad.eNav.atonService.services.DatasetContentService;
 import org.grad.eNav.atonService.services.S100ExchangeSetService;
 import org.grad.eNav.atonService.services.UnLoCodeService;
 import org.grad.secom.core.exceptions.SecomNotFoundException;
@@ -107,6 +109,12 @@ class SecomSubscriptionServiceTest {
     @Mock
     S100ExchangeSetService s100ExchangeSetService;
 
+    /**
+     * The Dataset Content Service mock.
+     */
+    @Mock
+    DatasetContentService datasetContentService;
+
     /**
      * The SECOM Subscription Repo mock.
      */
@@ -187,7 +195,7 @@ class SecomSubscriptionServiceTest {
         this.s125Dataset.setLastUpdatedAt(LocalDateTime.now());
         this.datasetContent = new DatasetContent();
         this.datasetContent.setId(BigInteger.ONE);
-        this.datasetContent.setContent("S-125 dataset content");
+        this.datasetContent.setContent("S-125 dataset content", DatasetContentCompression.GZIP);
         this.datasetContent.setContentLength(BigInteger.valueOf(this.datasetContent.getContent().length()));
         this.datasetContent.setGeneratedAt(LocalDateTime.now());
         this.s125Dataset.setDatasetContent(this.datasetContent);
@@ -568,6 +576,7 @@ class SecomSubscriptionServiceTest {
         // Mock a SECOM client
         final SecomClient secomClient = mock(SecomClient.class);
         doReturn(secomClient).when(this.secomService).getClient(this.existingSubscriptionRequest.getClientMrn());
+        doReturn("Dataset Content".getBytes()).when(this.datasetContentService).readContent(this.s125Dataset.getDatasetContent());
 
         // Perform the service call
         this.secomSubscriptionService.sendToSubscription(this.existingSubscriptionRequest, this.s125Dataset);
@@ -579,7 +588,7 @@ class SecomSubscriptionServiceTest {
         // Verify that the constructed object seems valid
         assertNotNull(uploadArgument.getValue());
         assertNotNull(uploadArgument.getValue().getEnvelope());
-        assertTrue(uploadArgument.getValue().getEnvelope().getData().length > 0);
+        assertArrayEquals("Dataset Content".getBytes(), uploadArgument.getValue().getEnvelope().getData());
         assertEquals(SECOM_DataProductType.S125, uploadArgument.getValue().getEnvelope().getDataProductType());
         assertEquals(Boolean.TRUE, uploadArgument.getValue().getEnvelope().getFromSubscription());
         assertEquals(AckRequestEnum.DELIVERED_ACK_REQUESTED, uploadArgument.getValue().getEnvelope().getAckRequest());
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChecksumWriterTest {
+
+    /**
+     * Test that the checksum writer forwards all the written characters to
+     * the target writer, while computing their length and checksum.
+     */
+    @Test
+    void testWrite() throws IOException, NoSuchAlgorithmException {
+        final String content = "<Dataset>\n    <members/>\n</Dataset>\n";
+        final StringWriter target = new StringWriter();
+
+        // Write the content in separate chunks
+        final ChecksumWriter checksumWriter = new ChecksumWriter(target);
+        checksumWriter.write(content, 0, 10);
+        checksumWriter.write(content.toCharArray(), 10, 5);
+        checksumWriter.write(content.substring(15));
+
+        // Test the result
+        assertEquals(content, target.toString());
+        assertEquals(content.length(), checksumWriter.getLength());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8))),
+                checksumWriter.getChecksum());
+    }
+
+    /**
+     * Test that the checksum is computed on the UTF-8 representation of the
+     * written characters, even if a surrogate pair is split across writes.
+     */
+    @Test
+    void testWriteSplitSurrogatePair() throws IOException {
+        final String content = "Name: 🚢 Vessel";
+        final int split = content.indexOf('\uD83D') + 1;
+
+        // Write the content splitting the surrogate pair
+        final ChecksumWriter checksumWriter = new ChecksumWriter(new StringWriter());
+        checksumWriter.write(content, 0, split);
+        checksumWriter.write(content, split, content.length() - split);
+
+        // Test the result
+        assertEquals(content.length(), checksumWriter.getLength());
+        assertEquals(ChecksumWriter.checksum(content), checksumWriter.getChecksum());
+    }
+
+}
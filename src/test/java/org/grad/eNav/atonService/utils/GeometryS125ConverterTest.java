@@ -413,4 +413,72 @@ class GeometryS125ConverterTest {
         assertEquals(coordinates[1].getX(), result.getValue()[2]);
         assertEquals(coordinates[1].getY(), result.getValue()[3]);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that the point, curve and surface geometries translated into the
+     * S-125 point/curve/surface description can be translated back into the
+     * same JTS geometries.
+     */
+    @Test
+    void testS125PointCurveSurfaceToGeometryRoundTrip() {
+        final Point point = this.factory.createPoint(new Coordinate(51.98, 1.28));
+        final LineString lineString = this.factory.createLineString(new Coordinate[]{new Coordinate(51.98, 1.28), new Coordinate(52.98, 2.28)});
+        final Polygon polygon = this.factory.createPolygon(new Coordinate[]{new Coordinate(51.98, 1.28), new Coordinate(51.98, 2.28), new Coordinate(52.98, 2.28), new Coordinate(52.98, 1.28), new Coordinate(51.98, 1.28)});
+
+        // Test each geometry type on its own
+        for(Geometry geometry : List.of(point, lineString, polygon)) {
+            final Geometry result = this.geometryS125Converter.s125PointCurveSurfaceToGeometry(
+                    this.geometryS125Converter.geometryToS125PointCurveSurfaceGeometry(geometry));
+            assertNotNull(result);
+            assertEquals(1, result.getNumGeometries());
+            assertTrue(geometry.equalsExact(result.getGeometryN(0)));
+        }
+
+        // And a combination of multiple geometries
+        final Geometry collection = this.factory.createGeometryCollection(new Geometry[]{
+                this.factory.createPoint(new Coordinate(50.0, 1.0)),
+                this.factory.createLineString(new Coordinate[]{new Coordinate(53.0, 3.0), new Coordinate(54.0, 4.0)}),
+                polygon});
+        final Geometry result = this.geometryS125Converter.s125PointCurveSurfaceToGeometry(
+                this.geometryS125Converter.geometryToS125PointCurveSurfaceGeometry(collection));
+        assertNotNull(result);
+        assertEquals(3, result.getNumGeometries());
+        assertEquals(collection.getArea(), result.getArea(), 1e-9);
+        assertEquals(collection.getLength(), result.getLength(), 1e-9);
+    }
+
+    /**
+     * Test that an empty S-125 point/curve/surface description is translated
+     * into an empty JTS geometry.
+     */
+    @Test
+    void testS125PointCurveSurfaceToGeometryEmpty() {
+        final Geometry result = this.geometryS125Converter.s125PointCurveSurfaceToGeometry(List.of());
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
+
+    /**
+     * Test that the JTS coordinates can be translated to a GML position list
+     * and back.
+     */
+    @Test
+    void testCoordinatesToGmlPosListRoundTrip() {
+        final Coordinate[] coordinates = new Coordinate[]{new Coordinate(51.98, 1.28), new Coordinate(52.98, 2.28), new Coordinate(53.98, 3.28)};
+
+        // Translate to the GML position list
+        final PosList posList = this.geometryS125Converter.coordinatesToGmlPosList(coordinates);
+        assertEquals(2 * coordinates.length, posList.getValue().length);
+        for(int i=0; i<coordinates.length; i++) {
+            assertEquals(coordinates[i].getX(), posList.getValue()[2*i]);
+            assertEquals(coordinates[i].getY(), posList.getValue()[2*i+1]);
+        }
+
+        // And back to the coordinates
+        assertArrayEquals(coordinates, this.geometryS125Converter.gmlPosListToCoordinates(posList));
+
+        // Null coordinates should produce an empty position list
+        assertEquals(0, this.geometryS125Converter.coordinatesToGmlPosList(null).getValue().length);
+    }
+
+}
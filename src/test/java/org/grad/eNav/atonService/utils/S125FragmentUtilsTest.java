@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.grad.eNav.atonService.utils;
+
+import _int.iho.s125.gml.cs0._1.impl.AidsToNavigationTypeImpl;
+import jakarta.xml.bind.JAXBException;
+import org.grad.eNav.atonService.config.GlobalConfig;
+import org.grad.eNav.atonService.models.domain.s125.*;
+import org.grad.eNav.s125.utils.S125Utils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S125FragmentUtilsTest {
+
+    // Test Variables
+    private GeometryFactory factory;
+    private S125DatasetBuilder s125DatasetBuilder;
+    private S125Dataset s125Dataset;
+
+    /**
+     * Common setup for all the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        // Create a temp geometry factory to get a test geometries
+        this.factory = new GeometryFactory(new PrecisionModel(), 4326);
+
+        // Get the model mapper configuration from the GlobalConfig
+        this.s125DatasetBuilder = new S125DatasetBuilder(new GlobalConfig().modelMapper(), "urn:mrn:test:s125");
+
+        // Create a dataset to marshal
+        this.s125Dataset = new S125Dataset("TestDataset");
+        this.s125Dataset.setUuid(UUID.randomUUID());
+        this.s125Dataset.setGeometry(this.factory.createPoint(new Coordinate(52.98, 2.28)));
+        this.s125Dataset.setCreatedAt(LocalDateTime.now());
+        this.s125Dataset.setLastUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Test that a marshalled member fragment contains only the member
+     * element itself.
+     */
+    @Test
+    void testMarshalMemberFragment() throws JAXBException {
+        final AidsToNavigation aidsToNavigation = this.createAidsToNavigation(new Random(0), BigInteger.ONE);
+
+        // Perform the utility call
+        final String fragment = S125FragmentUtils.marshalMemberFragment(this.s125DatasetBuilder.mapAidsToNavigation(aidsToNavigation));
+
+        // Test the result
+        assertNotNull(fragment);
+        assertTrue(fragment.contains(aidsToNavigation.getIdCode()));
+        assertTrue(fragment.trim().startsWith("<"));
+        assertTrue(fragment.endsWith(">"));
+        assertFalse(fragment.contains("members>"));
+        assertFalse(fragment.contains("Dataset"));
+    }
+
+    /**
+     * Test that for random sets of AtoNs, a dataset assembled from the
+     * member fragments is identical to the fully marshalled dataset.
+     */
+    @Test
+    void testSpliceMemberFragments() throws JAXBException {
+        final Random random = new Random(20240501L);
+        for(int round = 0; round < 10; round++) {
+            final List<AidsToNavigation> atons = new ArrayList<>();
+            for(int i = 0, size = 1 + random.nextInt(15); i < size; i++) {
+                atons.add(this.createAidsToNavigation(random, BigInteger.valueOf(i)));
+            }
+
+            // Marshal the full dataset
+            final String fullXml = S125Utils.marshalS125(this.s125DatasetBuilder.packageToDataset(this.s125Dataset, atons), Boolean.TRUE);
+
+            // And assemble it from the member fragments
+            final List<AidsToNavigationTypeImpl> members = atons.stream()
+                    .map(this.s125DatasetBuilder::mapAidsToNavigation)
+                    .toList();
+            final List<String> fragments = new ArrayList<>();
+            for(AidsToNavigationTypeImpl member : members) {
+                fragments.add(S125FragmentUtils.marshalMemberFragment(member));
+            }
+            final String skeletonXml = S125Utils.marshalS125(this.s125DatasetBuilder.packageToDataset(this.s125Dataset, atons, members.subList(0, 1)), Boolean.TRUE);
+            final Optional<String> splicedXml = S125FragmentUtils.spliceMemberFragments(skeletonXml, fragments);
+
+            // Test the result
+            assertTrue(splicedXml.isPresent());
+            assertEquals(fullXml, splicedXml.get(), String.format("Spliced dataset differs from full marshalling in round %d", round));
+        }
+    }
+
+    /**
+     * Test that if the first member fragment cannot be located in the
+     * dataset skeleton, the splicing will not be performed.
+     */
+    @Test
+    void testSpliceMemberFragmentsNotFound() throws JAXBException {
+        final AidsToNavigation aidsToNavigation = this.createAidsToNavigation(new Random(0), BigInteger.ONE);
+        final String skeletonXml = S125Utils.marshalS125(this.s125DatasetBuilder.packageToDataset(this.s125Dataset, Collections.singletonList(aidsToNavigation)), Boolean.TRUE);
+
+        // Perform the utility call
+        final Optional<String> result = S125FragmentUtils.spliceMemberFragments(skeletonXml, List.of("<unknown/>", "<other/>"));
+
+        // Test the result
+        assertTrue(result.isEmpty());
+    }
+
+    /**
+     * Creates a random AtoN, which can be either a structure or an equipment
+     * entry.
+     *
+     * @param random the random generator
+     * @param id the ID of the AtoN
+     * @return the random AtoN
+     */
+    private AidsToNavigation createAidsToNavigation(Random random, BigInteger id) {
+        final AidsToNavigation aidsToNavigation = random.nextBoolean() ? new BeaconCardinal() : new Light();
+        aidsToNavigation.setId(id);
+        aidsToNavigation.setIdCode("ID" + id);
+        aidsToNavigation.setGeometry(this.factory.createPoint(new Coordinate(random.nextDouble() * 10, random.nextDouble() * 10)));
+        aidsToNavigation.setLastModifiedAt(LocalDateTime.now());
+        // Add the feature name entries
+        final FeatureName featureName = new FeatureName();
+        featureName.setName("Aton No" + id);
+        aidsToNavigation.setFeatureNames(Collections.singleton(featureName));
+        // Add the information entries
+        final Information information = new Information();
+        information.setText("Description of AtoN No" + id);
+        aidsToNavigation.setInformations(Collections.singleton(information));
+        return aidsToNavigation;
+    }
+
+}